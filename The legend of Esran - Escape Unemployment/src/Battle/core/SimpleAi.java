@@ -2,7 +2,17 @@ package Battle.core;
 import Battle.domain.*;
 import Battle.util.Rng;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 public class SimpleAi {
+    /** Spread of the random variance {@link #choose} adds to every score. */
+    public static final double SCORE_VARIANCE = 12.0;
+
+    /** A technique {@link #choose} may pick this turn and its score before the random variance. */
+    public record ScoredMove(Technique technique, double score) { }
+
     public static Technique choose(Fighter me, Fighter opp, int momentum) {
         if (Rng.d01() < 0.12) {
             Technique[] opts = BaseMoves.MOVES;
@@ -19,91 +29,127 @@ public class SimpleAi {
 
         Technique best = BaseMoves.MOVES[0];
         double bestScore = Double.NEGATIVE_INFINITY;
-        Technique lastUsed = me.lastUsed;
-        double myHpRatio = me.hp / (double) Math.max(1, me.base.hp);
-        double oppHpRatio = opp.hp / (double) Math.max(1, opp.base.hp);
 
         for (Technique t : BaseMoves.MOVES) {
-            int cooldown = me.cd.getOrDefault(t, 0);
-            if (cooldown > 0) continue;
-            if (me.status == Status.ROOTED && t.tag == Tag.CHARGE) continue;
-
-            double aff = AffinityChart.mult(t.affinity, opp.aura);
-            // Heuristic: value power by affinity, prefer higher priority,
-            // like momentum-shifting moves a bit, guard has utility value,
-            // and interrupts are great if opponent is charging.
-            double score = (t.power * aff)
-                    + (t.priority * 4.5)
-                    + (t.momentumDelta * 7)
-                    + (t.tag == Tag.GUARD ? 9 : 0)
-                    + ((opp.charging != null && t.tag == Tag.INTERRUPT) ? 40 : 0);
-
-            double hpRatio = me.hp / (double) Math.max(1, me.base.hp);
-            if (t.tag == Tag.GUARD) {
-                if (hpRatio < 0.45) score += 18;
-                else if (hpRatio > 0.85) score -= 10;
-                if (momentum < -1) score += 7;
-            }
-            if (opp.status == Status.IGNITED && t == BaseMoves.FLAME_LASH) {
-                score -= 6;
+            if (!usable(me, t)) continue;
+            double score = score(me, opp, momentum, t);
+
+            // Inject a small amount of variance so the boss occasionally
+            // makes suboptimal choices and fights feel less deterministic.
+            score += (Rng.d01() - 0.5) * SCORE_VARIANCE;
+
+            if (score > bestScore) {
+                bestScore = score;
+                best = t;
             }
-            if (opp.status == Status.ROOTED && t == BaseMoves.THORN_BIND) {
-                score -= 5;
+        }
+        return best;
+    }
+
+    /**
+     * The techniques {@link #choose} is most likely to pick next turn, most likely first: those whose score is
+     * within {@link #SCORE_VARIANCE} of the best, so the variance can still put them on top. Consumes no
+     * randomness, so asking does not change what the boss will do.
+     */
+    public static List<Technique> likelyMoves(Fighter me, Fighter opp, int momentum, int limit) {
+        List<ScoredMove> ranked = scores(me, opp, momentum);
+        List<Technique> likely = new ArrayList<>();
+        for (ScoredMove move : ranked) {
+            if (likely.size() >= limit || move.score() < ranked.get(0).score() - SCORE_VARIANCE) {
+                break;
             }
-            if (momentum < -1 && t.tag == Tag.GUARD) {
-                score += 5;
+            likely.add(move.technique());
+        }
+        return likely;
+    }
+
+    /** Every technique {@link #choose} could pick this turn with its score before the variance, best first. */
+    public static List<ScoredMove> scores(Fighter me, Fighter opp, int momentum) {
+        List<ScoredMove> scored = new ArrayList<>();
+        for (Technique t : BaseMoves.MOVES) {
+            if (usable(me, t)) {
+                scored.add(new ScoredMove(t, score(me, opp, momentum, t)));
             }
+        }
+        scored.sort(Comparator.comparingDouble(ScoredMove::score).reversed());
+        return scored;
+    }
+
+    private static boolean usable(Fighter me, Technique t) {
+        return me.cd.getOrDefault(t, 0) <= 0 && !(me.status == Status.ROOTED && t.tag == Tag.CHARGE);
+    }
+
+    private static double score(Fighter me, Fighter opp, int momentum, Technique t) {
+        Technique lastUsed = me.lastUsed;
+        double myHpRatio = me.hp / (double) Math.max(1, me.base.hp);
+        double oppHpRatio = opp.hp / (double) Math.max(1, opp.base.hp);
+
+        double aff = AffinityChart.mult(t.affinity, opp.aura);
+        // Heuristic: value power by affinity, prefer higher priority,
+        // like momentum-shifting moves a bit, guard has utility value,
+        // and interrupts are great if opponent is charging.
+        double score = (t.power * aff)
+                + (t.priority * 4.5)
+                + (t.momentumDelta * 7)
+                + (t.tag == Tag.GUARD ? 9 : 0)
+                + ((opp.charging != null && t.tag == Tag.INTERRUPT) ? 40 : 0);
+
+        double hpRatio = me.hp / (double) Math.max(1, me.base.hp);
+        if (t.tag == Tag.GUARD) {
+            if (hpRatio < 0.45) score += 18;
+            else if (hpRatio > 0.85) score -= 10;
+            if (momentum < -1) score += 7;
+        }
+        if (opp.status == Status.IGNITED && t == BaseMoves.FLAME_LASH) {
+            score -= 6;
+        }
+        if (opp.status == Status.ROOTED && t == BaseMoves.THORN_BIND) {
+            score -= 5;
+        }
+        if (momentum < -1 && t.tag == Tag.GUARD) {
+            score += 5;
+        }
 
-            if (t == BaseMoves.FLAME_LASH) {
-                if (opp.status == Status.ROOTED) {
-                    score += 6;
-                }
-                if (opp.status == Status.IGNITED) {
-                    score += 8;
-                }
-                if (oppHpRatio < 0.35) {
-                    score += 4;
-                }
+        if (t == BaseMoves.FLAME_LASH) {
+            if (opp.status == Status.ROOTED) {
+                score += 6;
             }
-            if (t == BaseMoves.THORN_BIND) {
-                if (opp.status != Status.ROOTED) {
-                    score += (momentum >= 0 ? 10 : 6);
-                }
-                if (opp.charging != null) {
-                    score += 9;
-                }
+            if (opp.status == Status.IGNITED) {
+                score += 8;
             }
-            if (t == BaseMoves.DISRUPT_BOLT) {
-                if (opp.status != Status.SHOCKED) {
-                    score += 5;
-                }
-                if (momentum > 1) {
-                    score += 3;
-                }
-                if (oppHpRatio > myHpRatio + 0.2) {
-                    score += 4;
-                }
+            if (oppHpRatio < 0.35) {
+                score += 4;
             }
-
-            if (lastUsed == t) {
-                score -= 6.5;
+        }
+        if (t == BaseMoves.THORN_BIND) {
+            if (opp.status != Status.ROOTED) {
+                score += (momentum >= 0 ? 10 : 6);
             }
-            if (lastUsed == BaseMoves.THORN_BIND && t == BaseMoves.FLAME_LASH && opp.status == Status.ROOTED) {
-                score += 10;
+            if (opp.charging != null) {
+                score += 9;
             }
-            if (lastUsed == BaseMoves.FLAME_LASH && t == BaseMoves.BRACE && myHpRatio < 0.5) {
-                score += 6;
+        }
+        if (t == BaseMoves.DISRUPT_BOLT) {
+            if (opp.status != Status.SHOCKED) {
+                score += 5;
             }
-
-            // Inject a small amount of variance so the boss occasionally
-            // makes suboptimal choices and fights feel less deterministic.
-            score += (Rng.d01() - 0.5) * 12.0;
-
-            if (score > bestScore) {
-                bestScore = score;
-                best = t;
+            if (momentum > 1) {
+                score += 3;
+            }
+            if (oppHpRatio > myHpRatio + 0.2) {
+                score += 4;
             }
         }
-        return best;
+
+        if (lastUsed == t) {
+            score -= 6.5;
+        }
+        if (lastUsed == BaseMoves.THORN_BIND && t == BaseMoves.FLAME_LASH && opp.status == Status.ROOTED) {
+            score += 10;
+        }
+        if (lastUsed == BaseMoves.FLAME_LASH && t == BaseMoves.BRACE && myHpRatio < 0.5) {
+            score += 6;
+        }
+        return score;
     }
 }
@@ -0,0 +1,116 @@
+package Battle.scene;
+
+import Battle.scene.BossBattlePanel.BossKind;
+import Battle.scene.BossBattlePanel.PreparedAssets;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads a boss battle's assets in the background before the battle starts.
+ * <p>
+ * The dungeon calls {@link #prefetch} as soon as it announces a boss. The boss's sprite frames and attack
+ * animations, the hero's frames and the floor tile are then decoded and scaled for the battle layout on one
+ * low-priority daemon thread while the prelude plays, and {@link BossBattlePanel#create} takes the finished assets
+ * instead of loading anything on the event thread. If the battle starts before loading has finished, it waits for
+ * the job already under way rather than starting a second one. Work for a boss the player no longer faces is
+ * dropped with {@link #cancel} or {@link #cancelAll()}; a cancelled job stops before its next asset.
+ */
+public final class BossAssetPrefetcher {
+    private static final Logger LOGGER = Logger.getLogger(BossAssetPrefetcher.class.getName());
+
+    private static final class SharedHolder {
+        static final BossAssetPrefetcher SHARED = new BossAssetPrefetcher();
+    }
+
+    private record Job(CompletableFuture<PreparedAssets> assets, AtomicBoolean cancelled) {
+        void cancel() {
+            cancelled.set(true);
+            assets.cancel(false);
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread t = new Thread(task, "boss-prefetch");
+        t.setDaemon(true);
+        t.setPriority(Thread.NORM_PRIORITY - 1);
+        return t;
+    });
+    private final Map<BossKind, Job> jobs = new ConcurrentHashMap<>();
+
+    private BossAssetPrefetcher() {
+    }
+
+    public static BossAssetPrefetcher shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Start loading the assets for a battle against {@code kind}, unless that is already under way or done.
+     *
+     * @return completes once the assets are ready; completes exceptionally if loading fails or is cancelled
+     */
+    public CompletableFuture<Void> prefetch(BossKind kind) {
+        Job job = jobs.compute(kind, (k, existing) ->
+                existing == null || existing.assets().isCompletedExceptionally() ? start(k) : existing);
+        return job.assets().thenApply(assets -> null);
+    }
+
+    /** Whether the assets for {@code kind} are loaded and waiting for the battle. */
+    public boolean isReady(BossKind kind) {
+        Job job = jobs.get(kind);
+        return job != null && job.assets().isDone() && !job.assets().isCompletedExceptionally();
+    }
+
+    /** Stop loading the assets for {@code kind} and drop whatever was already loaded. */
+    public void cancel(BossKind kind) {
+        Job job = jobs.remove(kind);
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    /** {@link #cancel} every boss, for when the player leaves the dungeon. */
+    public void cancelAll() {
+        for (BossKind kind : jobs.keySet()) {
+            cancel(kind);
+        }
+    }
+
+    /**
+     * Hand the assets prefetched for {@code kind} over to the battle, waiting for them if they are still loading.
+     *
+     * @return the assets, or {@code null} when nothing was prefetched for {@code kind} or loading failed
+     */
+    PreparedAssets take(BossKind kind) {
+        Job job = jobs.remove(kind);
+        if (job == null) {
+            return null;
+        }
+        try {
+            return job.assets().join();
+        } catch (CancellationException | CompletionException ex) {
+            return null;
+        }
+    }
+
+    private Job start(BossKind kind) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletableFuture<PreparedAssets> assets = CompletableFuture.supplyAsync(
+                () -> BossBattlePanel.prepare(kind, cancelled::get), worker);
+        assets.whenComplete((ready, ex) -> {
+            if (ex != null && !cancelled.get()) {
+                LOGGER.log(Level.WARNING, "Could not prefetch assets for boss " + kind, ex);
+            }
+        });
+        return new Job(assets, cancelled);
+    }
+}
@@ -9,7 +9,12 @@ import fx.Effect;
 import fx.FXLibrary;
 import fx.FrameAnim;
 import gfx.AnimatedSprite;
+import gfx.FrameScheduler;
 import gfx.HiDpiScaler;
+import gfx.ParticleEmitter;
+import gfx.ParticleSystem;
+import gfx.QualityGovernor;
+import gfx.ReducedResolutionTarget;
 
 import javax.swing.*;
 import java.awt.*;
@@ -18,9 +23,14 @@ import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 import util.ResourceLoader;
@@ -32,11 +42,27 @@ public class BossBattlePanel extends JPanel {
 
     private static final double BASE_WIDTH = 960.0;
     private static final double BASE_HEIGHT = 540.0;
+    /** Frame rate for panels created without one, such as the standalone {@link BossBattleMain}. */
+    private static final int DEFAULT_REFRESH_RATE = 60;
     private static final double SPRITE_SCALE_BOOST = 1.5;
     private static final double RESOLVE_MIN_LOCK = 0.75;
     private static final double MIN_ATTACK_DISPLAY = 0.35;
     private static final double ATTACK_ANIM_FPS = 12.0;
+    /** Boss techniques whose attacks are loaded ahead while the player chooses. */
+    private static final int LIKELY_BOSS_MOVES = 2;
+    /** Twice the idle sprite rate, enough for idle animation while waiting on a command. */
+    private static final int IDLE_TICK_FPS = 12;
     private static final double MESSAGE_LIFETIME = 3.5;
+    private static final String FLOOR_TILE = "/resources/tiles/floor/floor_5.png";
+    private static final int PARTICLE_CAPACITY = 2048;
+    private static final ParticleEmitter BOSS_HIT_SPARKS = ParticleEmitter.builder()
+            .burst(40).speed(120, 320).life(0.25, 0.6).gravity(420).drag(3.0).spawnRadius(10)
+            .colours(0xFFFFFFFF, 0xF0FFC060, 0x90FF5020, 0x00802010)
+            .build();
+    private static final ParticleEmitter BOSS_CRIT_SPARKS = ParticleEmitter.builder()
+            .burst(90).speed(180, 480).life(0.35, 0.8).gravity(360).drag(2.5).spawnRadius(16)
+            .colours(0xFFFFFFFF, 0xF0FFF090, 0xA0FF9020, 0x00A03000)
+            .build();
 
     public enum BossKind {
         BIG_ZOMBIE,
@@ -76,9 +102,121 @@ public class BossBattlePanel extends JPanel {
     }
 
     public static BossBattlePanel create(BossKind kind, Consumer<Outcome> onEnd) {
+        return create(kind, onEnd, true);
+    }
+
+    /** As {@link #create(BossKind, Consumer, boolean, int)} at 60 Hz. */
+    public static BossBattlePanel create(BossKind kind, Consumer<Outcome> onEnd, boolean adaptiveQuality) {
+        return create(kind, onEnd, adaptiveQuality, DEFAULT_REFRESH_RATE);
+    }
+
+    /**
+     * Uses the assets {@link BossAssetPrefetcher} prepared for {@code kind} when there are any, waiting for them if
+     * they are still loading; otherwise everything is loaded and scaled here, on the calling thread.
+     *
+     * @param adaptiveQuality let the panel lower effect density, sharpening and render scale to hold the refresh rate
+     * @param refreshRate     frames per second the panel animates at and the quality governor budgets for
+     */
+    public static BossBattlePanel create(BossKind kind, Consumer<Outcome> onEnd, boolean adaptiveQuality,
+                                         int refreshRate) {
+        PreparedAssets assets = BossAssetPrefetcher.shared().take(kind);
+        if (assets == null) {
+            assets = prepare(kind, () -> false);
+        }
+        return new BossBattlePanel(assets, onEnd, adaptiveQuality, refreshRate);
+    }
+
+    /**
+     * Everything a battle against one boss reads from disk: both fighters' idle frames, the boss's attack
+     * animations and the floor tile. {@link #prepare} builds it and scales every frame for the layouts the panel is
+     * likely to open at, so a panel built from it only finds cached work.
+     */
+    static final class PreparedAssets {
+        final HeroDefinition hero;
+        final BossDefinition boss;
+        final BufferedImage[] heroFrames;
+        final BufferedImage[] bossFrames;
+        final Map<String, BufferedImage[]> attackFrames;
+        final BufferedImage floorTile;
+
+        private PreparedAssets(HeroDefinition hero, BossDefinition boss, BufferedImage[] heroFrames,
+                               BufferedImage[] bossFrames, Map<String, BufferedImage[]> attackFrames,
+                               BufferedImage floorTile) {
+            this.hero = hero;
+            this.boss = boss;
+            this.heroFrames = heroFrames;
+            this.bossFrames = bossFrames;
+            this.attackFrames = attackFrames;
+            this.floorTile = floorTile;
+        }
+    }
+
+    /**
+     * Decode and scale everything a battle against {@code kind} needs. Slow; callers off the event thread poll
+     * {@code cancelled} through it and get a {@link CancellationException} once it reports {@code true}.
+     */
+    static PreparedAssets prepare(BossKind kind, BooleanSupplier cancelled) {
+        Objects.requireNonNull(kind, "kind");
+        checkCancelled(cancelled);
         HeroDefinition hero = HeroDefinition.defaultHero();
         BossDefinition boss = BossDefinition.of(kind);
-        return new BossBattlePanel(hero, boss, onEnd);
+        checkCancelled(cancelled);
+        BufferedImage[] heroFrames = idleFrames(hero.sprite());
+        checkCancelled(cancelled);
+        BufferedImage[] bossFrames = idleFrames(boss.sprite());
+        Map<String, BufferedImage[]> attackFrames = new LinkedHashMap<>();
+        for (String attackId : boss.attackIds()) {
+            checkCancelled(cancelled);
+            try {
+                BufferedImage[] frames = BossFXLibrary.attackFrames(attackId);
+                if (frames.length > 0) {
+                    attackFrames.put(attackId, frames);
+                }
+            } catch (RuntimeException ex) {
+                // Left to the library, which reports the missing attack when it is played.
+            }
+        }
+        checkCancelled(cancelled);
+        PreparedAssets assets = new PreparedAssets(hero, boss, heroFrames, bossFrames, attackFrames,
+                loadImage(FLOOR_TILE));
+
+        // The panel opens at the base layout and then rescales to whatever size the last battle was shown at.
+        warm(assets, 1.0, cancelled);
+        double lastScale = lastLayoutScale;
+        if (Double.isFinite(lastScale) && Math.abs(lastScale - 1.0) >= 1e-3) {
+            warm(assets, lastScale, cancelled);
+        }
+        return assets;
+    }
+
+    private static void warm(PreparedAssets assets, double layoutScale, BooleanSupplier cancelled) {
+        checkCancelled(cancelled);
+        CompletableFuture.allOf(
+                heroVisual(assets.hero.toFighter(), assets).ensureWarmed(layoutScale),
+                bossVisual(assets.boss.toFighter(), assets).ensureWarmed(layoutScale)).join();
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Boss asset preparation cancelled");
+        }
+    }
+
+    private static BufferedImage[] idleFrames(SpriteSource source) {
+        AnimatedSprite sprite = new AnimatedSprite(0, 0);
+        source.loadInto(sprite);
+        List<BufferedImage> frames = new ArrayList<>();
+        sprite.forEachFrame(frames::add);
+        return frames.toArray(BufferedImage[]::new);
+    }
+
+    private static FighterVisual heroVisual(Fighter fighter, PreparedAssets assets) {
+        return new FighterVisual(fighter, assets.heroFrames, 280, 470, 3.2, Double.NaN, List.of(), Map.of());
+    }
+
+    private static FighterVisual bossVisual(Fighter fighter, PreparedAssets assets) {
+        return new FighterVisual(fighter, assets.bossFrames, 700, 320, assets.boss.scale(), assets.boss.maxHeight(),
+                assets.boss.attackIds(), assets.attackFrames);
     }
 
     private enum Phase { PLAYER_SELECT, RESOLVING, WIN, GAME_OVER }
@@ -92,6 +230,7 @@ public class BossBattlePanel extends JPanel {
     private final FighterVisual heroVisual;
     private final FighterVisual bossVisual;
     private final List<Effect> effects = new ArrayList<>();
+    private final ParticleSystem particles = new ParticleSystem(PARTICLE_CAPACITY, ParticleSystem.softDot(8));
     private final List<FloatingText> floatingTexts = new ArrayList<>();
     private final List<BattleMessage> battleMessages = new ArrayList<>();
 
@@ -99,14 +238,19 @@ public class BossBattlePanel extends JPanel {
     private BufferedImage floorCache;
     private int floorCacheWidth = -1;
     private int floorCacheHeight = -1;
-    private final Timer animationTimer;
+    private final FrameScheduler.Ticker animationTimer;
+    private final QualityGovernor quality;
+    private final ReducedResolutionTarget reducedTarget = new ReducedResolutionTarget();
 
     private long lastTickNs = 0;
     private double resolveLock = 0.0;
+    /** Layout scale the last panel was warmed for, so the next battle's assets can be scaled for it ahead of time. */
+    private static volatile double lastLayoutScale = Double.NaN;
 
-    private BossBattlePanel(HeroDefinition heroDef, BossDefinition bossDef, Consumer<Outcome> onEnd) {
-        Objects.requireNonNull(heroDef, "hero");
-        Objects.requireNonNull(bossDef, "boss");
+    private BossBattlePanel(PreparedAssets assets, Consumer<Outcome> onEnd, boolean adaptiveQuality, int refreshRate) {
+        quality = new QualityGovernor("BossBattlePanel", refreshRate, adaptiveQuality);
+        HeroDefinition heroDef = Objects.requireNonNull(assets, "assets").hero;
+        BossDefinition bossDef = assets.boss;
 
         setPreferredSize(new Dimension(960, 540));
         setBackground(Color.BLACK);
@@ -114,14 +258,12 @@ public class BossBattlePanel extends JPanel {
 
         int initialMomentum = Math.max(-2, Math.min(2, heroDef.openingMomentum() - bossDef.momentumEdge()));
         this.engine = new BattleEngine(heroDef.toFighter(), bossDef.toFighter(), initialMomentum, onEnd);
-        this.heroVisual = new FighterVisual(engine.hero, heroDef.sprite(), 280, 470, 3.2, Double.NaN, List.of());
-        this.bossVisual = new FighterVisual(engine.boss, bossDef.sprite(), 700, 320, bossDef.scale(),
-                bossDef.maxHeight(), bossDef.attackIds());
-        this.floorTile = loadImage("/resources/tiles/floor/floor_5.png");
+        this.heroVisual = heroVisual(engine.hero, assets);
+        this.bossVisual = bossVisual(engine.boss, assets);
+        this.floorTile = assets.floorTile;
 
         addMessage("A wild " + bossDef.displayName() + " appears!");
-        heroVisual.ensureWarmed(1.0);
-        bossVisual.ensureWarmed(1.0);
+        CompletableFuture.allOf(heroVisual.ensureWarmed(1.0), bossVisual.ensureWarmed(1.0)).join();
         SwingUtilities.invokeLater(this::warmForCurrentLayout);
 
         addKeyListener(new KeyAdapter() {
@@ -130,26 +272,25 @@ public class BossBattlePanel extends JPanel {
                 switch (e.getKeyCode()) {
                     case KeyEvent.VK_LEFT, KeyEvent.VK_UP -> {
                         cmdIndex = (cmdIndex + moves.length - 1) % moves.length;
-                        repaint();
+                        animationTimer.requestFrame();
                     }
                     case KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN -> {
                         cmdIndex = (cmdIndex + 1) % moves.length;
-                        repaint();
+                        animationTimer.requestFrame();
                     }
                     case KeyEvent.VK_ENTER, KeyEvent.VK_SPACE -> chooseCommand();
                 }
             }
         });
 
-        animationTimer = new Timer(1000 / 60, e -> tick());
-        animationTimer.setInitialDelay(0);
-        animationTimer.setCoalesce(true);
+        animationTimer = FrameScheduler.shared().register("BossBattlePanel", Math.max(30, refreshRate), dt -> tick());
+        animationTimer.setIdleFps(IDLE_TICK_FPS);
         animationTimer.start();
     }
 
     /** Stop the animation timer so the panel can be disposed without background work. */
     public void shutdown() {
-        animationTimer.stop();
+        animationTimer.cancel();
     }
 
     @Override public void addNotify() {
@@ -162,6 +303,7 @@ public class BossBattlePanel extends JPanel {
 
     @Override public void removeNotify() {
         animationTimer.stop();
+        BossFXLibrary.releasePrefetched();
         super.removeNotify();
     }
 
@@ -198,6 +340,10 @@ public class BossBattlePanel extends JPanel {
                     if (target != null) {
                         Point p = centerOf(target, metrics);
                         floatingTexts.add(FloatingText.damage("-" + event.value, p.x, p.y, event.critical));
+                        if (target == bossVisual) {
+                            double density = quality.level().particleDensity();
+                            particles.emit(event.critical ? BOSS_CRIT_SPARKS : BOSS_HIT_SPARKS, p.x, p.y, density);
+                        }
                     }
                     spawnEffect(event, metrics);
                 }
@@ -259,6 +405,7 @@ public class BossBattlePanel extends JPanel {
             phase = Phase.RESOLVING;
             resolveLock = Math.max(RESOLVE_MIN_LOCK, longestAttack);
         }
+        animationTimer.setMode(FrameScheduler.Mode.CONTINUOUS);
     }
 
     private void spawnEffect(Event event, LayoutMetrics metrics) {
@@ -274,13 +421,17 @@ public class BossBattlePanel extends JPanel {
                     Point t = centerOf(target, metrics);
                     double dir = (actor == heroVisual) ? 1 : -1;
                     effects.add(FXLibrary.fireBreath(a.x, a.y - 20, dir, 0));
-                    effects.add(FXLibrary.fireHit(t.x, t.y - 30));
+                    if (quality.allowParticle()) {
+                        effects.add(FXLibrary.fireHit(t.x, t.y - 30));
+                    }
                 }
             }
             case "Thorn Bind" -> {
                 if (target != null) {
                     Point t = centerOf(target, metrics);
-                    effects.add(FXLibrary.smokeLarge(t.x - 40, t.y - 40));
+                    if (quality.allowParticle()) {
+                        effects.add(FXLibrary.smokeLarge(t.x - 40, t.y - 40));
+                    }
                 }
             }
             case "Brace" -> {
@@ -293,7 +444,9 @@ public class BossBattlePanel extends JPanel {
                 if (target != null) {
                     Point t = centerOf(target, metrics);
                     effects.add(FXLibrary.thunderStrike(t.x - 40, t.y - 120));
-                    effects.add(FXLibrary.thunderSplash(t.x - 60, t.y - 60));
+                    if (quality.allowParticle()) {
+                        effects.add(FXLibrary.thunderSplash(t.x - 60, t.y - 60));
+                    }
                 }
             }
         }
@@ -308,6 +461,29 @@ public class BossBattlePanel extends JPanel {
 
     private void tick() {
         long now = System.nanoTime();
+        try {
+            advance(now);
+        } finally {
+            quality.recordUpdate(System.nanoTime() - now);
+        }
+
+        repaint();
+
+        if (pendingOutcome != null && engine.onEnd != null) {
+            Outcome out = pendingOutcome;
+            pendingOutcome = null;
+            SwingUtilities.invokeLater(() -> engine.onEnd.accept(out));
+        }
+        animationTimer.setMode(isQuiescent() ? FrameScheduler.Mode.IDLE : FrameScheduler.Mode.CONTINUOUS);
+    }
+
+    /** Waiting on the player with nothing fading or flying on screen; only the slow idle sprites still move. */
+    private boolean isQuiescent() {
+        return phase == Phase.PLAYER_SELECT && effects.isEmpty() && floatingTexts.isEmpty()
+                && battleMessages.isEmpty() && particles.size() == 0 && !heroVisual.isAttacking() && !bossVisual.isAttacking();
+    }
+
+    private void advance(long now) {
         double dt = (lastTickNs == 0) ? 1 / 60.0 : (now - lastTickNs) / 1_000_000_000.0;
         lastTickNs = now;
 
@@ -316,6 +492,7 @@ public class BossBattlePanel extends JPanel {
 
         effects.forEach(fx -> fx.update(dt));
         effects.removeIf(Effect::dead);
+        particles.update(dt);
 
         floatingTexts.forEach(ft -> ft.update(dt));
         floatingTexts.removeIf(FloatingText::dead);
@@ -332,36 +509,47 @@ public class BossBattlePanel extends JPanel {
             resolveLock -= dt;
             if (resolveLock <= 0) {
                 phase = Phase.PLAYER_SELECT;
+                prefetchLikelyBossAttacks();
             }
         }
-
-        repaint();
-
-        if (pendingOutcome != null && engine.onEnd != null) {
-            Outcome out = pendingOutcome;
-            pendingOutcome = null;
-            SwingUtilities.invokeLater(() -> engine.onEnd.accept(out));
-        }
     }
 
     @Override protected void paintComponent(Graphics g) {
+        long paintStart = System.nanoTime();
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
-        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-        g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        quality.applyHints(g2);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         LayoutMetrics metrics = layoutMetrics();
         heroVisual.ensureWarmed(metrics.scale());
         bossVisual.ensureWarmed(metrics.scale());
 
+        double renderScale = quality.level().renderScale();
+        if (renderScale < 1.0) {
+            Graphics2D scene = reducedTarget.begin(getWidth(), getHeight(), renderScale, getBackground());
+            try {
+                quality.applyHints(scene);
+                drawScene(scene, metrics);
+            } finally {
+                scene.dispose();
+            }
+            reducedTarget.present(g2, getWidth(), getHeight(), quality.level().interpolation());
+        } else {
+            reducedTarget.release();
+            drawScene(g2, metrics);
+        }
+        drawFloatingTexts(g2, metrics);
+        drawHud(g2, metrics);
+        quality.recordPaint(System.nanoTime() - paintStart);
+    }
+
+    private void drawScene(Graphics2D g2, LayoutMetrics metrics) {
         drawFloor(g2);
         drawEffectsBehind(g2);
         drawFighter(g2, heroVisual, false, metrics);
         drawFighter(g2, bossVisual, true, metrics);
         drawEffectsFront(g2);
-        drawFloatingTexts(g2, metrics);
-        drawHud(g2, metrics);
     }
 
     private LayoutMetrics layoutMetrics() {
@@ -376,8 +564,22 @@ public class BossBattlePanel extends JPanel {
 
     private void warmForCurrentLayout() {
         LayoutMetrics metrics = layoutMetrics();
+        lastLayoutScale = metrics.scale();
         heroVisual.ensureWarmed(metrics.scale());
         bossVisual.ensureWarmed(metrics.scale());
+        prefetchLikelyBossAttacks();
+    }
+
+    /**
+     * While the player picks a move, load and scale the attacks the boss is most likely to answer with, so the
+     * round resolves without waiting on them.
+     */
+    CompletableFuture<Void> prefetchLikelyBossAttacks() {
+        List<Technique> likely = engine.likelyBossMoves(LIKELY_BOSS_MOVES);
+        if (likely.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bossVisual.prefetchAttacks(likely, layoutMetrics().scale());
     }
 
     private record LayoutMetrics(double scale, double offsetX, double offsetY) { }
@@ -434,7 +636,8 @@ public class BossBattlePanel extends JPanel {
     }
 
     private void drawEffectsFront(Graphics2D g2) {
-        // world-space effects already rendered in drawEffectsBehind; we keep hook for layering if needed.
+        // world-space effects already rendered in drawEffectsBehind; hit sparks sit above the fighters.
+        particles.render(g2, null);
     }
 
     private void drawFloatingTexts(Graphics2D g2, LayoutMetrics metrics) {
@@ -452,7 +655,8 @@ public class BossBattlePanel extends JPanel {
         if (frame == null || bounds.width <= 0 || bounds.height <= 0) {
             return;
         }
-        BufferedImage renderFrame = HiDpiScaler.scale(frame, bounds.width, bounds.height);
+        BufferedImage renderFrame = HiDpiScaler.scaleOrPlaceholder(frame, bounds.width, bounds.height,
+                quality.level().sharpen(), () -> SwingUtilities.invokeLater(animationTimer::requestFrame));
         if (renderFrame == null) {
             renderFrame = frame;
         }
@@ -707,6 +911,8 @@ public class BossBattlePanel extends JPanel {
         final double baseScale;
         final Rectangle bounds = new Rectangle();
         final List<String> attackIds;
+        /** Attack frames loaded ahead of the battle; attacks missing here come from {@link BossFXLibrary}. */
+        final Map<String, BufferedImage[]> attackFrames;
         final double maxHeightBase;
         final double maxWidthBase;
 
@@ -716,8 +922,9 @@ public class BossBattlePanel extends JPanel {
         private double warmedScale = Double.NaN;
         private double warmedAttacksScale = Double.NaN;
 
-        FighterVisual(Fighter fighter, SpriteSource spriteSource, double footX, double footY,
-                      double baseScale, double maxHeight, List<String> attackIds) {
+        FighterVisual(Fighter fighter, BufferedImage[] idleFrames, double footX, double footY,
+                      double baseScale, double maxHeight, List<String> attackIds,
+                      Map<String, BufferedImage[]> attackFrames) {
             this.fighter = fighter;
             this.footX = footX;
             this.footY = footY;
@@ -726,7 +933,8 @@ public class BossBattlePanel extends JPanel {
             this.maxHeightBase = Math.max(derivedMaxHeight, 180.0);
             this.maxWidthBase = DEFAULT_MAX_WIDTH;
             this.attackIds = attackIds == null || attackIds.isEmpty() ? List.of() : List.copyOf(attackIds);
-            Objects.requireNonNull(spriteSource, "spriteSource").loadInto(sprite);
+            this.attackFrames = Map.copyOf(attackFrames);
+            sprite.add(AnimatedSprite.State.IDLE, Objects.requireNonNull(idleFrames, "idleFrames"));
             sprite.setState(AnimatedSprite.State.IDLE);
             sprite.setFps(6.0);
         }
@@ -747,6 +955,10 @@ public class BossBattlePanel extends JPanel {
             return (activeAttack != null) ? activeAttack.frame() : sprite.frame();
         }
 
+        boolean isAttacking() {
+            return activeAttack != null;
+        }
+
         double playAttack(Technique technique) {
             if (attackIds.isEmpty()) {
                 return 0.0;
@@ -755,9 +967,12 @@ public class BossBattlePanel extends JPanel {
             if (attackId == null || attackId.isEmpty()) {
                 return 0.0;
             }
+            BufferedImage[] prepared = attackFrames.get(attackId);
             FrameAnim anim;
             try {
-                anim = BossFXLibrary.attack(attackId, ATTACK_ANIM_FPS);
+                anim = prepared != null
+                        ? FrameAnim.fromFrames(prepared, ATTACK_ANIM_FPS, false)
+                        : BossFXLibrary.attack(attackId, ATTACK_ANIM_FPS);
             } catch (RuntimeException ex) {
                 return 0.0;
             }
@@ -773,21 +988,72 @@ public class BossBattlePanel extends JPanel {
             if (attackIds.isEmpty()) {
                 return null;
             }
+            int index = attackIndexFor(technique);
+            attackCursor = (index + 1) % attackIds.size();
+            return attackIds.get(index);
+        }
+
+        /** The attack {@link #playAttack} would show for {@code technique} next, without moving on the cursor. */
+        String peekAttackId(Technique technique) {
+            return attackIds.isEmpty() ? null : attackIds.get(attackIndexFor(technique));
+        }
+
+        /** The first attack from the cursor on named like {@code technique}, or the one at the cursor. */
+        private int attackIndexFor(Technique technique) {
             String desired = technique != null ? normalizeAttackToken(technique.name) : "";
             if (!desired.isEmpty()) {
                 for (int offset = 0; offset < attackIds.size(); offset++) {
                     int index = (attackCursor + offset) % attackIds.size();
-                    String candidate = attackIds.get(index);
-                    String token = normalizeAttackToken(candidate);
+                    String token = normalizeAttackToken(attackIds.get(index));
                     if (!token.isEmpty() && (token.contains(desired) || desired.contains(token))) {
-                        attackCursor = (index + 1) % attackIds.size();
-                        return candidate;
+                        return index;
                     }
                 }
             }
-            String fallback = attackIds.get(attackCursor);
-            attackCursor = (attackCursor + 1) % attackIds.size();
-            return fallback;
+            return attackCursor;
+        }
+
+        /**
+         * Load and scale for {@code layoutScale} the attacks this fighter would show for {@code techniques}, in the
+         * background. Attacks prepared with the battle are already loaded and only have their scaled frames checked;
+         * the scaler keeps those in the shared cache, which may have evicted them since.
+         *
+         * @return completes once every frame is loaded and scaled
+         */
+        CompletableFuture<Void> prefetchAttacks(List<Technique> techniques, double layoutScale) {
+            if (attackIds.isEmpty() || !Double.isFinite(layoutScale) || layoutScale <= 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            List<String> prepared = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (Technique technique : techniques) {
+                String attackId = peekAttackId(technique);
+                List<String> bucket = attackFrames.containsKey(attackId) ? prepared : missing;
+                if (!prepared.contains(attackId) && !missing.contains(attackId)) {
+                    bucket.add(attackId);
+                }
+            }
+            List<CompletableFuture<BufferedImage>> jobs = new ArrayList<>();
+            for (String attackId : prepared) {
+                for (BufferedImage frame : attackFrames.get(attackId)) {
+                    jobs.add(warmFrame(frame, layoutScale));
+                }
+            }
+            CompletableFuture<Void> loaded = BossFXLibrary.prefetch(missing).thenCompose(ignored -> {
+                List<CompletableFuture<BufferedImage>> scaled = new ArrayList<>();
+                for (String attackId : missing) {
+                    try {
+                        for (BufferedImage frame : BossFXLibrary.attackFrames(attackId)) {
+                            scaled.add(warmFrame(frame, layoutScale));
+                        }
+                    } catch (RuntimeException ex) {
+                        // Reported by the library when the attack is played.
+                    }
+                }
+                return CompletableFuture.allOf(scaled.toArray(CompletableFuture[]::new));
+            });
+            jobs.add(loaded.thenApply(ignored -> null));
+            return CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new));
         }
 
         private static String normalizeAttackToken(String value) {
@@ -812,22 +1078,29 @@ public class BossBattlePanel extends JPanel {
             return maxWidthBase > 0 ? maxWidthBase * layoutScale : Double.POSITIVE_INFINITY;
         }
 
-        void ensureWarmed(double layoutScale) {
+        /**
+         * Scale every frame this fighter can show for {@code layoutScale} on the scaler's worker threads.
+         *
+         * @return completes once all frames are cached
+         */
+        CompletableFuture<Void> ensureWarmed(double layoutScale) {
             if (!Double.isFinite(layoutScale) || layoutScale <= 0) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
             if (Double.isFinite(warmedScale) && Math.abs(warmedScale - layoutScale) < 1e-3) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
-            sprite.forEachFrame(frame -> warmFrame(frame, layoutScale));
-            warmAttackFrames(layoutScale);
+            List<CompletableFuture<BufferedImage>> jobs = new ArrayList<>();
+            sprite.forEachFrame(frame -> jobs.add(warmFrame(frame, layoutScale)));
+            warmAttackFrames(layoutScale, jobs);
             if (activeAttack != null) {
-                activeAttack.forEachFrame(frame -> warmFrame(frame, layoutScale));
+                activeAttack.forEachFrame(frame -> jobs.add(warmFrame(frame, layoutScale)));
             }
             warmedScale = layoutScale;
+            return CompletableFuture.allOf(jobs.toArray(CompletableFuture[]::new));
         }
 
-        private void warmAttackFrames(double layoutScale) {
+        private void warmAttackFrames(double layoutScale, List<CompletableFuture<BufferedImage>> jobs) {
             if (attackIds.isEmpty()) {
                 warmedAttacksScale = layoutScale;
                 return;
@@ -836,9 +1109,11 @@ public class BossBattlePanel extends JPanel {
                 return;
             }
             for (String attackId : attackIds) {
-                BufferedImage[] frames;
+                BufferedImage[] frames = attackFrames.get(attackId);
                 try {
-                    frames = BossFXLibrary.attackFrames(attackId);
+                    if (frames == null) {
+                        frames = BossFXLibrary.attackFrames(attackId);
+                    }
                 } catch (RuntimeException ex) {
                     continue;
                 }
@@ -846,21 +1121,18 @@ public class BossBattlePanel extends JPanel {
                     continue;
                 }
                 for (BufferedImage frame : frames) {
-                    warmFrame(frame, layoutScale);
+                    jobs.add(warmFrame(frame, layoutScale));
                 }
             }
             warmedAttacksScale = layoutScale;
         }
 
-        private void warmFrame(BufferedImage frame, double layoutScale) {
+        private CompletableFuture<BufferedImage> warmFrame(BufferedImage frame, double layoutScale) {
             if (frame == null) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
             FrameSize size = scaledFrameSize(this, frame, layoutScale);
-            if (size.width() <= 0 || size.height() <= 0) {
-                return;
-            }
-            HiDpiScaler.scale(frame, size.width(), size.height());
+            return HiDpiScaler.scaleAsync(frame, size.width(), size.height(), true);
         }
     }
 
@@ -1241,6 +1513,17 @@ public class BossBattlePanel extends JPanel {
             return momentum;
         }
 
+        /** The techniques the boss is most likely to use next round, most likely first; draws no random numbers. */
+        List<Technique> likelyBossMoves(int limit) {
+            if (over) {
+                return List.of();
+            }
+            if (boss.charging != null) {
+                return List.of(boss.charging);
+            }
+            return SimpleAi.likelyMoves(boss, hero, heroMomentumForAi(), limit);
+        }
+
         RoundOutcome resolve(int heroIndex) {
             if (over) {
                 RoundOutcome out = new RoundOutcome();
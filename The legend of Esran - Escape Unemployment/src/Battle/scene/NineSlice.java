@@ -2,13 +2,38 @@ package Battle.scene;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Stretches a bordered skin image over an arbitrary box, keeping the corners unscaled.
+ * <p>
+ * Box sizes in the battle UI and dialogs rarely change, so {@link #draw} composites the nine pieces once per
+ * target size, device scale and interpolation hint into an offscreen image and afterwards paints the box with a
+ * single {@code drawImage}. The cache holds the {@value #CACHE_ENTRIES} most recently used sizes. Boxes drawn
+ * under rotation or shear, or larger than {@value #MAX_CACHED_PIXELS} device pixels, are drawn piece by piece.
+ */
 public class NineSlice {
+    static final int CACHE_ENTRIES = 8;
+    static final int MAX_CACHED_PIXELS = 1920 * 1080;
+    private static final int SCALE_TYPES = AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE
+            | AffineTransform.TYPE_GENERAL_SCALE;
+
+    private record CacheKey(int width, int height, double scaleX, double scaleY, Object interpolation) { }
+
     private final BufferedImage lt,t,rt,l,c,r,lb,b,rb;
     private final int e;
+    private long renders;
+    private final Map<CacheKey, BufferedImage> rendered = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, BufferedImage> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
 
     /** Try to load a UI borders image from a few likely places; fallback to a generated skin. */
     public static BufferedImage loadWhole(String preferredPath){
@@ -79,7 +104,73 @@ public class NineSlice {
         e = E;
     }
 
+    /** Paint the box, from the per-size cache when the current transform allows it. */
     public void draw(Graphics2D g, int x, int y, int w, int h){
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        AffineTransform tx = g.getTransform();
+        double sx = tx.getScaleX();
+        double sy = tx.getScaleY();
+        int deviceW = (int) Math.ceil(w * sx);
+        int deviceH = (int) Math.ceil(h * sy);
+        if ((tx.getType() & ~SCALE_TYPES) != 0 || sx <= 0 || sy <= 0
+                || (long) deviceW * deviceH > MAX_CACHED_PIXELS) {
+            drawDirect(g, x, y, w, h);
+            return;
+        }
+        Object interpolation = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        CacheKey key = new CacheKey(w, h, sx, sy, interpolation);
+        BufferedImage box;
+        synchronized (rendered) {
+            box = rendered.get(key);
+            if (box == null) {
+                box = render(key, deviceW, deviceH);
+                rendered.put(key, box);
+                renders++;
+            }
+        }
+        g.drawImage(box, x, y, w, h, null);
+    }
+
+    /** Drop every cached box, e.g. after the skin image was edited in place. */
+    public void clearCache() {
+        synchronized (rendered) {
+            rendered.clear();
+        }
+    }
+
+    /** Number of box sizes currently held in the cache. */
+    public int cachedSizes() {
+        synchronized (rendered) {
+            return rendered.size();
+        }
+    }
+
+    /** Boxes composited for the cache so far; a size drawn again after eviction counts again. */
+    public long renders() {
+        synchronized (rendered) {
+            return renders;
+        }
+    }
+
+    private BufferedImage render(CacheKey key, int deviceW, int deviceH) {
+        BufferedImage box = new BufferedImage(Math.max(1, deviceW), Math.max(1, deviceH), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = box.createGraphics();
+        try {
+            if (key.interpolation() != null) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, key.interpolation());
+            }
+            g.scale(key.scaleX(), key.scaleY());
+            drawDirect(g, 0, 0, key.width(), key.height());
+        } finally {
+            g.dispose();
+        }
+        return box;
+    }
+
+    /** Paint the nine pieces straight onto {@code g}, bypassing the cache. */
+    public void drawDirect(Graphics2D g, int x, int y, int w, int h){
         int mw = Math.max(0,w-2*e), mh = Math.max(0,h-2*e);
         g.drawImage(lt,x,y,e,e,null);
         g.drawImage(rt,x+e+mw,y,e,e,null);
@@ -3,6 +3,7 @@ package Battle.swing;
 import Battle.core.*;
 import Battle.domain.*;
 import Battle.util.Rng;
+import gfx.FrameScheduler;
 
 
 import javax.swing.*;
@@ -28,7 +29,7 @@ public class BattlePanel extends JPanel {
     private final Sprite heroSprite = Sprite.placeholder(new Color(60,170,255), 96, 96);
     private final Sprite foeSprite  = Sprite.placeholder(new Color(255,110,120), 96, 96);
 
-    private final Timer loop;
+    private final FrameScheduler.Ticker loop;
 
     // When battle ends, invoke this callback (winnerName)
     private final Consumer<String> onEnd;
@@ -45,8 +46,9 @@ public class BattlePanel extends JPanel {
         setFocusable(true);
         addKeyListener(new Input());
 
-        // 60 FPS game loop
-        loop = new Timer(1000 / 60, e -> tick());
+        // 60 FPS while the attack tween plays; otherwise only redraw after input
+        loop = FrameScheduler.shared().register("BattlePanel", 60, dt -> tick());
+        loop.setMode(FrameScheduler.Mode.ON_DEMAND);
         loop.start();
     }
 
@@ -56,6 +58,7 @@ public class BattlePanel extends JPanel {
             if (animTick >= 28) { // animation length
                 animTick = 0;
                 phase = Phase.MESSAGE;
+                loop.setMode(FrameScheduler.Mode.ON_DEMAND);
             }
         }
         repaint();
@@ -64,6 +67,7 @@ public class BattlePanel extends JPanel {
     // ---- Input handling ----
     private class Input extends KeyAdapter {
         @Override public void keyPressed(KeyEvent e) {
+            loop.requestFrame();
             if (phase == Phase.MENU) {
                 switch (e.getKeyCode()) {
                     case KeyEvent.VK_LEFT, KeyEvent.VK_A -> selected = (selected + 3) % 4;
@@ -91,6 +95,7 @@ public class BattlePanel extends JPanel {
         message = ctrl.playerTurn(selected);
         phase = Phase.ANIM;   // play a quick tween before showing log text
         animTick = 0;
+        loop.setMode(FrameScheduler.Mode.CONTINUOUS);
     }
 
     // ---- Rendering ----
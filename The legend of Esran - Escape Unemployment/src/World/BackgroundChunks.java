@@ -0,0 +1,56 @@
+package World;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-room cache of baked background chunks, each covering {@link #CHUNK_TILES}&sup2; tiles. Only chunks that have
+ * been on screen are baked, and the least recently drawn are dropped once {@link #MAX_CHUNKS} is exceeded, so the
+ * memory and baking cost of a room follows the viewport rather than the room size.
+ */
+public final class BackgroundChunks {
+
+    public static final int CHUNK_TILES = 16;
+    public static final int MAX_CHUNKS = 24;
+
+    /** Bakes the chunk at the given chunk coordinates. */
+    public interface Baker {
+        BufferedImage bake(int chunkX, int chunkY);
+    }
+
+    private final Map<Long, BufferedImage> chunks = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_CHUNKS;
+        }
+    };
+    private int textureEpoch = -1;
+
+    /** Return the chunk, baking it on a miss. Baked chunks are discarded when {@code epoch} changes. */
+    public BufferedImage chunk(int chunkX, int chunkY, int epoch, Baker baker) {
+        if (epoch != textureEpoch) {
+            chunks.clear();
+            textureEpoch = epoch;
+        }
+        long key = ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+        BufferedImage image = chunks.get(key);
+        if (image == null) {
+            image = baker.bake(chunkX, chunkY);
+            if (image != null) {
+                chunks.put(key, image);
+            }
+        }
+        return image;
+    }
+
+    public void clear() {
+        chunks.clear();
+        textureEpoch = -1;
+    }
+
+    /** Chunks currently baked. */
+    public int size() {
+        return chunks.size();
+    }
+}
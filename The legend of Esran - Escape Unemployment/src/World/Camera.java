@@ -0,0 +1,49 @@
+package World;
+
+/**
+ * World-space top-left corner of the part of a room on screen. It eases toward the point it follows and is clamped
+ * so the view never shows past the room edge; a room no larger than the view keeps the camera at its origin.
+ */
+public final class Camera {
+
+    private final double follow;
+    private double x;
+    private double y;
+
+    /** @param follow share of the remaining distance closed by each {@link #follow} call, 1 to jump */
+    public Camera(double follow) {
+        this.follow = follow;
+    }
+
+    /**
+     * Move toward centring {@code (centerX, centerY)} in a {@code viewWidth} by {@code viewHeight} view of a
+     * {@code roomWidth} by {@code roomHeight} room, all in world pixels. {@code snap} jumps straight there, e.g.
+     * after entering a room.
+     */
+    public void follow(double centerX, double centerY, int roomWidth, int roomHeight,
+                       int viewWidth, int viewHeight, boolean snap) {
+        double maxX = Math.max(0, roomWidth - viewWidth);
+        double maxY = Math.max(0, roomHeight - viewHeight);
+        double targetX = Math.max(0, Math.min(maxX, centerX - viewWidth / 2.0));
+        double targetY = Math.max(0, Math.min(maxY, centerY - viewHeight / 2.0));
+        if (snap) {
+            x = targetX;
+            y = targetY;
+            return;
+        }
+        x += (targetX - x) * follow;
+        y += (targetY - y) * follow;
+        if (Math.abs(targetX - x) < 0.5) x = targetX;
+        if (Math.abs(targetY - y) < 0.5) y = targetY;
+    }
+
+    /** Left edge of the view, snapped to a whole pixel. */
+    public int x() {
+        return (int) Math.round(x);
+    }
+
+    /** Top edge of the view, snapped to a whole pixel. */
+    public int y() {
+        return (int) Math.round(y);
+    }
+}
@@ -1,5 +1,6 @@
 package World;
 
+import Battle.scene.BossAssetPrefetcher;
 import Battle.scene.BossBattlePanel;
 import Battle.scene.BossBattlePanel.Outcome;
 import World.DialogueText;
@@ -8,21 +9,26 @@ import World.cutscene.CutsceneLibrary;
 import World.cutscene.CutsceneScript;
 import World.cutscene.ShopDialog;
 import World.gfx.DungeonTextures;
+import gfx.FrameScheduler;
 import gfx.HiDpiScaler;
+import gfx.ParticleEmitter;
+import gfx.ParticleSystem;
+import gfx.PixelFramebuffer;
+import gfx.QualityGovernor;
+import gfx.ReducedResolutionTarget;
 import launcher.ControlAction;
 import launcher.ControlsProfile;
+import launcher.ExclusiveDisplay;
 import launcher.GameLauncher;
 import launcher.GameSettings;
 import launcher.LanguageBundle;
 import security.GameSecurity;
 import util.ResourceLoader;
 
-import javax.imageio.ImageIO;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
@@ -41,8 +47,6 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
@@ -50,7 +54,6 @@ import java.awt.event.MouseMotionAdapter;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.security.SecureRandom;
@@ -72,12 +75,12 @@ import java.util.function.Consumer;
  * Top-down dungeon crawler panel with persistent rooms and procedural generation.
  * Player movement, combat, and interactions obey the control bindings supplied by {@link ControlsProfile}.
  */
-public class DungeonRooms extends JPanel implements ActionListener, KeyListener {
+public class DungeonRooms extends JPanel implements KeyListener {
 
     // ----- Tunables -----
     static final int TILE = 36;           // pixels per tile
-    static final int COLS = 21;           // room width (odd looks nice)
-    static final int ROWS = 13;           // room height (odd looks nice)
+    static final int DEFAULT_COLS = 21;   // classic room width, also the visible width (odd looks nice)
+    static final int DEFAULT_ROWS = 13;   // classic room height, also the visible height (odd looks nice)
     static final int FPS  = 60;
     static final int PLAYER_SIZE = (int)(TILE * 0.6);
     static final int PLAYER_SPEED = 3;    // px per tick (tempered for slower pacing)
@@ -85,6 +88,11 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     static final int PLAYER_PROJECTILE_RADIUS = 6;
     static final int ENEMY_PROJECTILE_RADIUS = 5;
 
+    private static final double CAMERA_FOLLOW = 0.15; // share of the remaining distance closed per tick
+    private static final int CULL_MARGIN = TILE * 2;   // draw slack for sprites larger than their hit box
+    // Every enemy chases and checks line of sight each tick, on screen or not, so counts stop scaling at 6 rooms.
+    private static final int MAX_ENEMY_AREA_FACTOR = 6;
+
     private static final int MINIMAP_MARGIN = 16;
     private static final int MINIMAP_CELL_MIN = 10;
     private static final int MINIMAP_CELL_MAX = 26;
@@ -204,7 +212,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     static class Room implements Serializable {
         @Serial
         private static final long serialVersionUID = 1L;
-        T[][] g = new T[COLS][ROWS];
+        T[][] g;
         Set<Dir> doors = EnumSet.noneOf(Dir.class);
         List<RoomEnemy> enemies = new ArrayList<>();
         List<KeyPickup> keyPickups = new ArrayList<>();
@@ -219,14 +227,17 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         int accentSeed = 0;
         Dir shopDoor = null;
         boolean shopVisited = false;
-        transient boolean backgroundDirty = true;
-        transient int cachedTextureEpoch = -1;
-        transient BufferedImage cachedBackground;
-        Room() {
-            for (int x = 0; x < COLS; x++)
-                for (int y = 0; y < ROWS; y++)
+        transient BackgroundChunks backgroundChunks;
+        Room(int cols, int rows) {
+            g = new T[cols][rows];
+            for (int x = 0; x < cols; x++)
+                for (int y = 0; y < rows; y++)
                     g[x][y] = T.VOID;
         }
+
+        int cols() { return g.length; }
+
+        int rows() { return g.length == 0 ? 0 : g[0].length; }
     }
 
     static class RoomPalette {
@@ -294,6 +305,15 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     };
 
     private static final int MESSAGE_SECONDS = 3;
+    private static final int PARTICLE_CAPACITY = 4096;
+    private static final ParticleEmitter DEATH_BURST = ParticleEmitter.builder()
+            .burst(48).speed(40, 170).life(0.35, 0.9).gravity(220).drag(2.5).spawnRadius(6)
+            .colours(0xFFFFF0C0, 0xE0FF7040, 0x80A02060, 0x00401030)
+            .build();
+    private static final ParticleEmitter COIN_SPARKLE = ParticleEmitter.builder()
+            .burst(20).direction(-Math.PI / 2, Math.PI * 0.9).speed(60, 150).life(0.3, 0.6).gravity(300).drag(1.5)
+            .colours(0xFFFFFFE0, 0xF0FFD040, 0x00C08010)
+            .build();
     private static final int MAX_PLAYER_HP = 5;
     private static final int HEAL_FLASH_TICKS = FPS * 2;
     private static final String PLAYER_IDLE_PREFIX = "resources/sprites/Knight/Idle/knight_m_idle_anim_f";
@@ -307,7 +327,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     private final Runnable exitHandler;
     private final BossBattleHost bossBattleHost;
 
-    private final Timer timer;
+    private final FrameScheduler.Ticker timer;
     private final int messageDurationTicks;
 
     private Random rng = new Random();
@@ -337,10 +357,11 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     private BufferedImage playerShotTexture;
     private BufferedImage enemyShotTexture;
     private int animTick = 0;
-    private int mouseX = COLS * TILE / 2, mouseY = ROWS * TILE / 2;
+    private int mouseX = DEFAULT_COLS * TILE / 2, mouseY = DEFAULT_ROWS * TILE / 2;
     private final List<Bullet> bullets = new ArrayList<>();       // enemy bullets
     private final List<Bullet> playerBullets = new ArrayList<>(); // player bullets
     private final List<Explosion> explosions = new ArrayList<>();
+    private final ParticleSystem particles = new ParticleSystem(PARTICLE_CAPACITY, ParticleSystem.softDot(6));
     private int playerHP = MAX_PLAYER_HP;
     private int iFrames = 0;
     private int healTicks = 0;
@@ -354,6 +375,28 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     private Dimension renderSize;
     private double scaleX = 1.0;
     private double scaleY = 1.0;
+    private int viewportX = 0;
+    private int viewportY = 0;
+    private int cols = DEFAULT_COLS;   // size of rooms in this run, in tiles
+    private int rows = DEFAULT_ROWS;
+    private final Camera camera = new Camera(CAMERA_FOLLOW);
+    private PixelFramebuffer framebuffer;
+    private ExclusiveDisplay exclusiveDisplay;
+    private final QualityGovernor quality;
+    private final ReducedResolutionTarget reducedTarget = new ReducedResolutionTarget();
+    private final MouseMotionAdapter mouseTracker = new MouseMotionAdapter() {
+        @Override public void mouseMoved(MouseEvent e) {
+            Point p = toGameCoords(e.getX(), e.getY());
+            mouseX = p.x;
+            mouseY = p.y;
+        }
+
+        @Override public void mouseDragged(MouseEvent e) {
+            Point p = toGameCoords(e.getX(), e.getY());
+            mouseX = p.x;
+            mouseY = p.y;
+        }
+    };
     private Point shopRoom;
     private Dir shopDoorFacing;
     private boolean shopInitialized = false;
@@ -379,9 +422,12 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         this.saveHandler = saveHandler == null ? snapshotIgnored -> { } : saveHandler;
         this.exitHandler = exitHandler == null ? () -> { } : exitHandler;
         this.bossBattleHost = bossBattleHost;
-        this.timer = new Timer(1000 / Math.max(30, this.settings.refreshRate()), this);
+        this.timer = FrameScheduler.shared().register("DungeonRooms", Math.max(30, this.settings.refreshRate()), dt -> tick());
         this.messageDurationTicks = Math.max(1, this.settings.refreshRate() * MESSAGE_SECONDS);
         this.renderSize = this.settings.resolution();
+        this.cols = this.settings.roomSize().width;
+        this.rows = this.settings.roomSize().height;
+        this.quality = new QualityGovernor("DungeonRooms", this.settings.refreshRate(), this.settings.adaptiveQuality());
 
         setPreferredSize(new Dimension(renderSize));
         setBackground(BG);
@@ -389,19 +435,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         addKeyListener(this);
         updateScale();
 
-        addMouseMotionListener(new MouseMotionAdapter() {
-            @Override public void mouseMoved(MouseEvent e) {
-                Point p = toGameCoords(e.getX(), e.getY());
-                mouseX = p.x;
-                mouseY = p.y;
-            }
-
-            @Override public void mouseDragged(MouseEvent e) {
-                Point p = toGameCoords(e.getX(), e.getY());
-                mouseX = p.x;
-                mouseY = p.y;
-            }
-        });
+        addMouseMotionListener(mouseTracker);
 
         if (snapshot != null) {
             restoreFromSnapshot(snapshot);
@@ -413,6 +447,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     private void initializeNewRun() {
+        BossAssetPrefetcher.shared().cancelAll();
         rng = new Random();
         secureRandom = GameSecurity.secureRandom();
         world = new HashMap<>();
@@ -424,6 +459,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         bullets.clear();
         playerBullets.clear();
         explosions.clear();
+        particles.clear();
         up = down = left = right = false;
         playerHP = MAX_PLAYER_HP;
         iFrames = 0;
@@ -434,6 +470,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         statusTicks = 0;
         inBoss = false;
         paused = false;
+        updateTickerMode();
         shopRoom = null;
         shopDoorFacing = null;
         shopInitialized = false;
@@ -453,6 +490,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     private void restoreFromSnapshot(DungeonRoomsSnapshot snapshot) {
+        BossAssetPrefetcher.shared().cancelAll();
         refreshArtAssets();
 
         world = snapshot.world();
@@ -462,10 +500,16 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         worldPos = snapshot.worldPos();
         roomsVisited = snapshot.roomsVisited();
         room = snapshot.currentRoom();
+        if (room != null) {
+            // Saved runs keep the room size they were generated with.
+            cols = room.cols();
+            rows = room.rows();
+        }
         player = snapshot.playerRect();
         if (player == null) {
             placePlayerAtCenter();
         }
+        updateCamera(true);
         ensureRoomTheme(room);
         normalizeEnemyState(room);
         up = snapshot.moveUp();
@@ -479,6 +523,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         ensureProjectileDefaults(bullets, ENEMY_PROJECTILE_RADIUS);
         ensureProjectileDefaults(playerBullets, PLAYER_PROJECTILE_RADIUS);
         explosions.clear();
+        particles.clear();
         explosions.addAll(snapshot.explosions());
         playerHP = snapshot.playerHP();
         iFrames = snapshot.iFrames();
@@ -501,6 +546,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         rng = snapshot.rng();
         secureRandom = snapshot.secureRandom();
         paused = false;
+        updateTickerMode();
         if (shopInitialized && shopRoom != null) {
             Room shop = world.get(shopRoom);
             if (shop != null) {
@@ -519,7 +565,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     private void refreshArtAssets() {
         textureEpoch++;
         markAllRoomsDirty();
-        textures = DungeonTextures.load(TILE);
+        textures = DungeonTextures.shared(TILE);
         playerIdleFrames = loadSpriteSequence(PLAYER_IDLE_PREFIX, 0, 3);
         if (playerIdleFrames == null) {
             playerIdleFrames = fallbackIdleFrames(new Color(255, 214, 102), new Color(40, 30, 10));
@@ -577,8 +623,8 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     private void updateScale() {
-        scaleX = renderSize.getWidth() / (double) (COLS * TILE);
-        scaleY = renderSize.getHeight() / (double) (ROWS * TILE);
+        scaleX = renderSize.getWidth() / (double) (viewCols() * TILE);
+        scaleY = renderSize.getHeight() / (double) (viewRows() * TILE);
         if (Double.isNaN(scaleX) || scaleX <= 0) {
             scaleX = 1.0;
         }
@@ -588,20 +634,17 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     private Point toGameCoords(int x, int y) {
-        int gx = (int) Math.round(x / scaleX);
-        int gy = (int) Math.round(y / scaleY);
-        return new Point(Math.max(0, Math.min(COLS * TILE, gx)), Math.max(0, Math.min(ROWS * TILE, gy)));
+        int gx = (int) Math.round((x - viewportX) / scaleX + camera.x());
+        int gy = (int) Math.round((y - viewportY) / scaleY + camera.y());
+        return new Point(Math.max(0, Math.min(cols * TILE, gx)), Math.max(0, Math.min(rows * TILE, gy)));
     }
 
     private BufferedImage[] loadSpriteSequence(String prefix, int from, int toInclusive) {
         List<BufferedImage> frames = new ArrayList<>();
         for (int i = from; i <= toInclusive; i++) {
             String resource = prefix + i + ".png";
-            try (InputStream in = ResourceLoader.open(resource)) {
-                if (in == null) {
-                    continue;
-                }
-                BufferedImage img = ImageIO.read(in);
+            try {
+                BufferedImage img = ResourceLoader.imageIfPresent(resource);
                 if (img != null) {
                     frames.add(img);
                 }
@@ -700,11 +743,8 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         if (resource == null || resource.isBlank()) {
             return null;
         }
-        try (InputStream in = ResourceLoader.open(resource)) {
-            if (in == null) {
-                return null;
-            }
-            return ImageIO.read(in);
+        try {
+            return ResourceLoader.imageIfPresent(resource);
         } catch (IOException ex) {
             System.err.println("Failed to load sprite image: " + resource + " -> " + ex.getMessage());
             return null;
@@ -960,11 +1000,11 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         int base = 2 + Math.min(roomsVisited / 5, 2); // 2..4 based on progress
         int variance = Math.min(roomsVisited / 6, 2);
         int count = base + rng.nextInt(variance + 1);
-        count = Math.max(2, Math.min(5, count));
+        count = Math.max(2, Math.min(5, count)) * Math.min(roomAreaFactor(), MAX_ENEMY_AREA_FACTOR);
         int attempts = 0;
         while (r.enemySpawns.size() < count && attempts++ < count * 40) {
-            int tx = 2 + rng.nextInt(COLS - 4);
-            int ty = 2 + rng.nextInt(ROWS - 4);
+            int tx = 2 + rng.nextInt(cols - 4);
+            int ty = 2 + rng.nextInt(rows - 4);
             if (r.g[tx][ty] != T.FLOOR) continue;
             int px = tx * TILE + TILE / 2;
             int py = ty * TILE + TILE / 2;
@@ -1060,9 +1100,9 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         if (r == null) {
             return;
         }
-        r.backgroundDirty = true;
-        r.cachedBackground = null;
-        r.cachedTextureEpoch = -1;
+        if (r.backgroundChunks != null) {
+            r.backgroundChunks.clear();
+        }
     }
 
     private void ensureShopDoor(Room candidate, Point location) {
@@ -1132,11 +1172,13 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     private void pauseForOverlay(Runnable runnable) {
         boolean previousPaused = paused;
         paused = true;
+        updateTickerMode();
         timer.stop();
         try {
             runnable.run();
         } finally {
             paused = previousPaused;
+            updateTickerMode();
             if (!timer.isRunning()) {
                 timer.start();
             }
@@ -1433,9 +1475,9 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
 
     private boolean isRectFree(Room r, int cx, int cy, int half) {
         int minTX = Math.max(0, (cx - half) / TILE);
-        int maxTX = Math.min(COLS - 1, (cx + half - 1) / TILE);
+        int maxTX = Math.min(cols - 1, (cx + half - 1) / TILE);
         int minTY = Math.max(0, (cy - half) / TILE);
-        int maxTY = Math.min(ROWS - 1, (cy + half - 1) / TILE);
+        int maxTY = Math.min(rows - 1, (cy + half - 1) / TILE);
         for (int tx = minTX; tx <= maxTX; tx++) {
             for (int ty = minTY; ty <= maxTY; ty++) {
                 if (r.g[tx][ty] == T.WALL) return false;
@@ -1622,14 +1664,14 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             if (!b.alive) {
                 continue;
             }
-            if (b.x < 0 || b.y < 0 || b.x >= COLS * TILE || b.y >= ROWS * TILE) {
+            if (b.x < 0 || b.y < 0 || b.x >= cols * TILE || b.y >= rows * TILE) {
                 b.alive = false;
                 resolveBulletImpact(b);
                 continue;
             }
             int tx = (int) (b.x) / TILE;
             int ty = (int) (b.y) / TILE;
-            if (tx >= 0 && tx < COLS && ty >= 0 && ty < ROWS) {
+            if (tx >= 0 && tx < cols && ty >= 0 && ty < rows) {
                 if (room.g[tx][ty] == T.WALL) {
                     b.alive = false;
                     resolveBulletImpact(b);
@@ -1659,14 +1701,14 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             if (!b.alive) {
                 continue;
             }
-            if (b.x < 0 || b.y < 0 || b.x >= COLS * TILE || b.y >= ROWS * TILE) {
+            if (b.x < 0 || b.y < 0 || b.x >= cols * TILE || b.y >= rows * TILE) {
                 b.alive = false;
                 resolvePlayerProjectileImpact(b);
                 continue;
             }
             int tx = (int) (b.x) / TILE;
             int ty = (int) (b.y) / TILE;
-            if (tx >= 0 && tx < COLS && ty >= 0 && ty < ROWS) {
+            if (tx >= 0 && tx < cols && ty >= 0 && ty < rows) {
                 if (room.g[tx][ty] == T.WALL) {
                     b.alive = false;
                     resolvePlayerProjectileImpact(b);
@@ -1698,12 +1740,15 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             Color inner = b.tint != null ? b.tint : new Color(255, 180, 110);
             Color outer = inner.brighter();
             explosions.add(makeExplosion(b.x, b.y, life, radius, inner, outer));
-        } else {
+        } else if (quality.allowParticle()) {
             explosions.add(makeExplosion(b.x, b.y));
         }
     }
 
     private void resolvePlayerProjectileImpact(Bullet b) {
+        if (!quality.allowParticle()) {
+            return;
+        }
         explosions.add(makeExplosion(b.x, b.y, 16, 18,
                 new Color(200, 240, 255), new Color(150, 210, 255)));
     }
@@ -1872,8 +1917,8 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         double cx = sx;
         double cy = sy;
         for (int i = 0; i <= steps; i++) {
-            int ix = Math.max(0, Math.min(COLS - 1, (int) (cx / TILE)));
-            int iy = Math.max(0, Math.min(ROWS - 1, (int) (cy / TILE)));
+            int ix = Math.max(0, Math.min(cols - 1, (int) (cx / TILE)));
+            int iy = Math.max(0, Math.min(rows - 1, (int) (cy / TILE)));
             if (room.g[ix][iy] == T.WALL) {
                 return false;
             }
@@ -1952,6 +1997,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             enemy.spawn.defeated = true;
         }
         spawnKeyPickup(r, enemy.x, enemy.y);
+        particles.emit(DEATH_BURST, enemy.x, enemy.y, quality.level().particleDensity());
         if (enemy.coinReward > 0) {
             spawnCoinPickup(r, enemy.x, enemy.y, enemy.coinReward);
         }
@@ -2028,6 +2074,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
                 it.remove();
                 int gained = Math.max(1, coin.value);
                 coins += gained;
+                particles.emit(COIN_SPARKLE, coin.x, coin.y, quality.level().particleDensity());
                 showMessage(String.format("+%d coins (total %d)", gained, coins));
             }
         }
@@ -2190,10 +2237,13 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             playerDamageBuffer = 0.0;
             up = down = left = right = false;
             inBoss = false;
+            updateTickerMode();
             bullets.clear();
             playerBullets.clear();
             explosions.clear();
+            particles.clear();
             world.clear();
+            BossAssetPrefetcher.shared().cancelAll();
             bossEncounters.clear();
             visited.clear();
             roomsVisited = 1;
@@ -2214,8 +2264,11 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
 
     private void triggerBossEncounter(BossEncounter encounter) {
         if (encounter == null) return;
+        // Load the battle while the prelude plays; a no-op when the boss warning already started it.
+        BossAssetPrefetcher.shared().prefetch(encounter.kind);
         playBossPrelude(encounter);
         inBoss = true;
+        updateTickerMode();
         timer.stop();
         Consumer<Outcome> finish = outcome -> SwingUtilities.invokeLater(() -> {
             if (outcome == Outcome.HERO_WIN) {
@@ -2232,6 +2285,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
                 onPlayerDeath();
             }
             inBoss = false;
+            updateTickerMode();
             iFrames = 60; // grace on return
             timer.start();
             clearMovementInput(true);
@@ -2249,7 +2303,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             f.setContentPane(BossBattlePanel.create(encounter.kind, outcome -> {
                 finish.accept(outcome);
                 f.dispose();
-            }));
+            }, settings.adaptiveQuality(), settings.refreshRate()));
             f.pack();
             f.setLocationRelativeTo(null);
             f.setVisible(true);
@@ -2286,7 +2340,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     // ---- file-system sprite loading ----
     /** Create a fresh room with outer walls and 1–3 total doors (including the entrance, if any). */
     private Room generateNewRoom(Dir mustHaveEntrance) {
-        Room r = new Room();
+        Room r = new Room(cols, rows);
         r.floorThemeSeed = secureRandom.nextInt(10_000);
         r.wallThemeSeed = secureRandom.nextInt(10_000);
         r.accentSeed = secureRandom.nextInt(10_000);
@@ -2295,12 +2349,12 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         }
 
         // Floor fill and border walls
-        for (int x = 0; x < COLS; x++)
-            for (int y = 0; y < ROWS; y++)
+        for (int x = 0; x < cols; x++)
+            for (int y = 0; y < rows; y++)
                 r.g[x][y] = T.FLOOR;
 
-        for (int x = 0; x < COLS; x++) { r.g[x][0] = T.WALL; r.g[x][ROWS - 1] = T.WALL; }
-        for (int y = 0; y < ROWS; y++) { r.g[0][y] = T.WALL; r.g[COLS - 1][y] = T.WALL; }
+        for (int x = 0; x < cols; x++) { r.g[x][0] = T.WALL; r.g[x][rows - 1] = T.WALL; }
+        for (int y = 0; y < rows; y++) { r.g[0][y] = T.WALL; r.g[cols - 1][y] = T.WALL; }
 
         // Choose 2–3 total doors to avoid dead-ends
         int totalDoors = 2 + rng.nextInt(2); // 2..3
@@ -2320,10 +2374,10 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         r.doors = chosen;
 
         // Sprinkle obstacles while keeping space near doors
-        int blocks = 8 + rng.nextInt(7);
+        int blocks = (8 + rng.nextInt(7)) * roomAreaFactor();
         for (int i = 0; i < blocks; i++) {
-            int bx = 2 + rng.nextInt(COLS - 4);
-            int by = 2 + rng.nextInt(ROWS - 4);
+            int bx = 2 + rng.nextInt(cols - 4);
+            int by = 2 + rng.nextInt(rows - 4);
             if (nearAnyDoor(r, bx, by, 3)) continue;
             for (int dx = 0; dx < 2; dx++)
                 for (int dy = 0; dy < 2; dy++)
@@ -2337,9 +2391,9 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             if (isRectFree(r, e.x, e.y, e.size/2)) { kept.add(e); continue; }
             boolean placed = false;
             // Try spiral search around current tile
-            int ex = Math.max(0, Math.min(COLS-1, e.x / TILE));
-            int ey = Math.max(0, Math.min(ROWS-1, e.y / TILE));
-            for (int radius = 1; radius < Math.max(COLS, ROWS) && !placed; radius++) {
+            int ex = Math.max(0, Math.min(cols-1, e.x / TILE));
+            int ey = Math.max(0, Math.min(rows-1, e.y / TILE));
+            for (int radius = 1; radius < Math.max(cols, rows) && !placed; radius++) {
                 for (int dx = -radius; dx <= radius && !placed; dx++) {
                     for (int dy = -radius; dy <= radius; dy++) {
                         int tx = ex + dx, ty = ey + dy;
@@ -2381,34 +2435,43 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         return false;
     }
 
-    private static boolean inBounds(int x, int y) { return x >= 0 && x < COLS && y >= 0 && y < ROWS; }
+    /**
+     * How many classic rooms fit in the configured room size; obstacle counts scale with it, and enemy counts up to
+     * {@link #MAX_ENEMY_AREA_FACTOR}.
+     */
+    private int roomAreaFactor() {
+        return Math.max(1, (cols * rows) / (DEFAULT_COLS * DEFAULT_ROWS));
+    }
 
-    private static Point doorTile(Dir d) {
-        int midX = COLS / 2, midY = ROWS / 2;
+    private boolean inBounds(int x, int y) { return x >= 0 && x < cols && y >= 0 && y < rows; }
+
+    private Point doorTile(Dir d) {
+        int midX = cols / 2, midY = rows / 2;
         return switch (d) {
             case N -> new Point(midX, 0);
-            case S -> new Point(midX, ROWS - 1);
+            case S -> new Point(midX, rows - 1);
             case W -> new Point(0, midY);
-            case E -> new Point(COLS - 1, midY);
+            case E -> new Point(cols - 1, midY);
         };
     }
 
-    private static Dir dirForTile(int tx, int ty) {
-        int midX = COLS / 2, midY = ROWS / 2;
+    private Dir dirForTile(int tx, int ty) {
+        int midX = cols / 2, midY = rows / 2;
         if (tx == midX && ty == 0) return Dir.N;
-        if (tx == midX && ty == ROWS - 1) return Dir.S;
+        if (tx == midX && ty == rows - 1) return Dir.S;
         if (ty == midY && tx == 0) return Dir.W;
-        if (ty == midY && tx == COLS - 1) return Dir.E;
+        if (ty == midY && tx == cols - 1) return Dir.E;
         return null;
     }
 
     // ======= Player control / updates =======
 
     private void placePlayerAtCenter() {
-        int cx = COLS / 2 * TILE + TILE / 2;
-        int cy = ROWS / 2 * TILE + TILE / 2;
+        int cx = cols / 2 * TILE + TILE / 2;
+        int cy = rows / 2 * TILE + TILE / 2;
         Point p = safePlayerSpawn(room, cx, cy);
         player = new Rectangle(p.x - PLAYER_SIZE / 2, p.y - PLAYER_SIZE / 2, PLAYER_SIZE, PLAYER_SIZE);
+        updateCamera(true);
         repaint();
     }
 
@@ -2425,15 +2488,16 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         }
         Point p = safePlayerSpawn(room, px, py);
         player = new Rectangle(p.x - PLAYER_SIZE / 2, p.y - PLAYER_SIZE / 2, PLAYER_SIZE, PLAYER_SIZE);
+        updateCamera(true);
         repaint();
     }
 
     private Point safePlayerSpawn(Room r, int cx, int cy) {
         int half = PLAYER_SIZE / 2;
         if (isRectFree(r, cx, cy, half)) return new Point(cx, cy);
-        int startTx = Math.max(0, Math.min(COLS - 1, cx / TILE));
-        int startTy = Math.max(0, Math.min(ROWS - 1, cy / TILE));
-        for (int radius = 0; radius < Math.max(COLS, ROWS); radius++) {
+        int startTx = Math.max(0, Math.min(cols - 1, cx / TILE));
+        int startTy = Math.max(0, Math.min(rows - 1, cy / TILE));
+        for (int radius = 0; radius < Math.max(cols, rows); radius++) {
             for (int dx = -radius; dx <= radius; dx++) {
                 for (int dy = -radius; dy <= radius; dy++) {
                     int tx = startTx + dx;
@@ -2447,19 +2511,28 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             }
         }
         // Fallback to room center if all else fails
-        return new Point(COLS / 2 * TILE + TILE / 2, ROWS / 2 * TILE + TILE / 2);
+        return new Point(cols / 2 * TILE + TILE / 2, rows / 2 * TILE + TILE / 2);
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
+    /**
+     * Tick at the frame rate only while the room is being played. Paused or away in a boss battle, nothing moves,
+     * so the ticker waits for a requested frame instead of waking {@code refreshRate} times a second to do nothing.
+     */
+    private void updateTickerMode() {
+        timer.setMode(paused || inBoss ? FrameScheduler.Mode.ON_DEMAND : FrameScheduler.Mode.CONTINUOUS);
+    }
+
+    private void tick() {
         if (paused || inBoss) {
             return;
         }
+        long updateStart = System.nanoTime();
         animTick++;
         if (iFrames > 0) iFrames--;
         if (healTicks > 0) healTicks--;
         updatePlayer();
         updateCombat();
+        particles.update(timer.periodSeconds());
         checkKeyPickup();
         checkCoinPickup();
         animateCoinPickups();
@@ -2468,7 +2541,20 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             if (statusTicks == 0) statusMessage = "";
         }
         checkForBossEncounter();
-        repaint();
+        updateCamera(false);
+        quality.recordUpdate(System.nanoTime() - updateStart);
+        if (exclusiveDisplay == null || !exclusiveDisplay.present(this)) {
+            repaint();
+        }
+    }
+
+    /**
+     * Present frames actively through an exclusive fullscreen buffer strategy instead of queueing Swing repaints.
+     * Each present paints the whole window, HUD overlays included. Falls back to {@link #repaint()} whenever the
+     * display cannot present, including while a dialog is open over the game.
+     */
+    public void attachExclusiveDisplay(ExclusiveDisplay display) {
+        this.exclusiveDisplay = display;
     }
 
     private void updatePlayer() {
@@ -2494,13 +2580,13 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         Rectangle next = new Rectangle(player);
         next.translate(dx, dy);
 
-        next.x = Math.max(0, Math.min(next.x, COLS * TILE - next.width));
-        next.y = Math.max(0, Math.min(next.y, ROWS * TILE - next.height));
+        next.x = Math.max(0, Math.min(next.x, cols * TILE - next.width));
+        next.y = Math.max(0, Math.min(next.y, rows * TILE - next.height));
 
         int minTX = Math.max(0, (next.x) / TILE);
-        int maxTX = Math.min(COLS - 1, (next.x + next.width - 1) / TILE);
+        int maxTX = Math.min(cols - 1, (next.x + next.width - 1) / TILE);
         int minTY = Math.max(0, (next.y) / TILE);
-        int maxTY = Math.min(ROWS - 1, (next.y + next.height - 1) / TILE);
+        int maxTY = Math.min(rows - 1, (next.y + next.height - 1) / TILE);
 
         boolean blocked = false;
         for (int tx = minTX; tx <= maxTX; tx++) {
@@ -2518,13 +2604,13 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         int ny = e.y + dy;
         int half = e.size / 2;
         // Clamp to room bounds
-        nx = Math.max(half, Math.min(nx, COLS * TILE - half));
-        ny = Math.max(half, Math.min(ny, ROWS * TILE - half));
+        nx = Math.max(half, Math.min(nx, cols * TILE - half));
+        ny = Math.max(half, Math.min(ny, rows * TILE - half));
 
         int minTX = Math.max(0, (nx - half) / TILE);
-        int maxTX = Math.min(COLS - 1, (nx + half - 1) / TILE);
+        int maxTX = Math.min(cols - 1, (nx + half - 1) / TILE);
         int minTY = Math.max(0, (ny - half) / TILE);
-        int maxTY = Math.min(ROWS - 1, (ny + half - 1) / TILE);
+        int maxTY = Math.min(rows - 1, (ny + half - 1) / TILE);
 
         boolean blocked = false;
         for (int tx = minTX; tx <= maxTX && !blocked; tx++) {
@@ -2543,7 +2629,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             Point t = doorTile(Dir.N);
             if (room.g[t.x][t.y] == T.DOOR && Math.abs(cx - (t.x * TILE + TILE / 2)) < TILE / 2) return Dir.N;
         }
-        if (cy > ROWS * TILE - TILE / 3) {
+        if (cy > rows * TILE - TILE / 3) {
             Point t = doorTile(Dir.S);
             if (room.g[t.x][t.y] == T.DOOR && Math.abs(cx - (t.x * TILE + TILE / 2)) < TILE / 2) return Dir.S;
         }
@@ -2551,7 +2637,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             Point t = doorTile(Dir.W);
             if (room.g[t.x][t.y] == T.DOOR && Math.abs(cy - (t.y * TILE + TILE / 2)) < TILE / 2) return Dir.W;
         }
-        if (cx > COLS * TILE - TILE / 3) {
+        if (cx > cols * TILE - TILE / 3) {
             Point t = doorTile(Dir.E);
             if (room.g[t.x][t.y] == T.DOOR && Math.abs(cy - (t.y * TILE + TILE / 2)) < TILE / 2) return Dir.E;
         }
@@ -2592,6 +2678,11 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         if (consumedKey) {
             nextRoom.lockedDoors.remove(entranceSide);
         }
+        // Walking away from a boss before the battle starts drops the assets loaded for it.
+        BossEncounter leftBehind = bossEncounters.get(worldPos);
+        if (leftBehind != null && !leftBehind.defeated && leftBehind.kind != null) {
+            BossAssetPrefetcher.shared().cancel(leftBehind.kind);
+        }
         worldPos = nextPos;
         room = nextRoom;
 
@@ -2603,17 +2694,20 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         bullets.clear();
         playerBullets.clear();
         explosions.clear();
+        particles.clear();
 
         if (isNewVisit && roomsVisited == 2) {
             BossEncounter encounter = ensureBossFor(worldPos);
             if (encounter != null) {
                 prepareBossRoom(nextRoom);
+                BossAssetPrefetcher.shared().prefetch(encounter.kind);
                 showMessage(texts.text("boss_warning", formatBossName(encounter.kind)));
             }
         } else if (isNewVisit && consumedKey) {
             BossEncounter encounter = ensureBossFor(worldPos);
             if (encounter != null) {
                 prepareBossRoom(nextRoom);
+                BossAssetPrefetcher.shared().prefetch(encounter.kind);
                 showMessage(texts.text("boss_unlock", formatBossName(encounter.kind)));
             }
         }
@@ -2668,6 +2762,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
 
     @Override
     protected void paintComponent(Graphics g) {
+        long paintStart = System.nanoTime();
         super.paintComponent(g);
         Graphics2D worldGraphics = (Graphics2D) g.create();
         Graphics2D overlay = (Graphics2D) g.create();
@@ -2676,33 +2771,155 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             worldGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
             overlay.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-            scaleX = getWidth() / (double) (COLS * TILE);
-            scaleY = getHeight() / (double) (ROWS * TILE);
-            if (scaleX <= 0 || Double.isNaN(scaleX)) scaleX = 1.0;
-            if (scaleY <= 0 || Double.isNaN(scaleY)) scaleY = 1.0;
-            worldGraphics.scale(scaleX, scaleY);
+            if (settings.pixelFramebuffer()) {
+                paintThroughFramebuffer(worldGraphics);
+                drawHud(overlay);
+                return;
+            }
 
-            drawWorld(worldGraphics);
+            stretchViewport();
+            double renderScale = quality.level().renderScale();
+            if (renderScale < 1.0) {
+                paintWorldReduced(worldGraphics, renderScale);
+            } else {
+                reducedTarget.release();
+                worldGraphics.scale(scaleX, scaleY);
+                drawWorld(worldGraphics);
+            }
             drawHud(overlay);
         } finally {
             worldGraphics.dispose();
             overlay.dispose();
+            quality.recordPaint(System.nanoTime() - paintStart);
+        }
+    }
+
+    private void stretchViewport() {
+        viewportX = 0;
+        viewportY = 0;
+        scaleX = getWidth() / (double) (viewCols() * TILE);
+        scaleY = getHeight() / (double) (viewRows() * TILE);
+        if (scaleX <= 0 || Double.isNaN(scaleX)) scaleX = 1.0;
+        if (scaleY <= 0 || Double.isNaN(scaleY)) scaleY = 1.0;
+    }
+
+    /** Draw the world below device resolution and stretch it once; the HUD stays at full resolution. */
+    private void paintWorldReduced(Graphics2D target, double renderScale) {
+        Graphics2D reduced = reducedTarget.begin(getWidth(), getHeight(), renderScale, BG);
+        try {
+            reduced.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            reduced.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            reduced.scale(scaleX, scaleY);
+            drawWorld(reduced);
+        } finally {
+            reduced.dispose();
+        }
+        reducedTarget.present(target, getWidth(), getHeight(), quality.level().interpolation());
+    }
+
+    /**
+     * Compose the visible part of the world at its logical resolution and present it with a single integer
+     * nearest-neighbour upscale. Cached background chunks are copied straight into the pixel array; sprites are
+     * drawn unscaled on top.
+     */
+    private void paintThroughFramebuffer(Graphics2D target) {
+        int viewWidth = viewCols() * TILE;
+        int viewHeight = viewRows() * TILE;
+        if (framebuffer == null || framebuffer.width() != viewWidth || framebuffer.height() != viewHeight) {
+            framebuffer = new PixelFramebuffer(viewWidth, viewHeight);
+        }
+        ensureRoomTheme(room);
+        RoomPalette palette = paletteFor(room);
+        Rectangle view = visibleWorld();
+        framebuffer.clear(BG);
+        forEachVisibleChunk(room, palette, view, (chunk, x, y) -> framebuffer.composite(chunk, x - view.x, y - view.y));
+        Graphics2D fg = framebuffer.createGraphics();
+        try {
+            fg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            fg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            fg.translate(-view.x, -view.y);
+            drawWorldLayers(fg, view);
+        } finally {
+            fg.dispose();
+        }
+        particles.render(framebuffer.image(), view.x, view.y);
+        Rectangle viewport = framebuffer.present(target, getWidth(), getHeight(), Color.BLACK);
+        viewportX = viewport.x;
+        viewportY = viewport.y;
+        scaleX = viewport.width / (double) viewWidth;
+        scaleY = viewport.height / (double) viewHeight;
+    }
+
+    /** Tiles visible at once; rooms smaller than the classic size are shown whole. */
+    private int viewCols() {
+        return Math.min(cols, DEFAULT_COLS);
+    }
+
+    private int viewRows() {
+        return Math.min(rows, DEFAULT_ROWS);
+    }
+
+    /** World-space rectangle currently on screen, snapped to whole pixels. */
+    private Rectangle visibleWorld() {
+        return new Rectangle(camera.x(), camera.y(), viewCols() * TILE, viewRows() * TILE);
+    }
+
+    /**
+     * Ease the camera toward the player, clamped so it never shows past the room edge. {@code snap} jumps straight
+     * to the target, e.g. after entering a room.
+     */
+    private void updateCamera(boolean snap) {
+        if (player == null) {
+            return;
         }
+        int previousX = camera.x();
+        int previousY = camera.y();
+        camera.follow(player.getCenterX(), player.getCenterY(), cols * TILE, rows * TILE,
+                viewCols() * TILE, viewRows() * TILE, snap);
+        // Keep the aim point under a stationary mouse while the view scrolls.
+        mouseX += camera.x() - previousX;
+        mouseY += camera.y() - previousY;
     }
 
-    private BufferedImage renderRoomBackground(Room target, RoomPalette palette) {
+    private interface ChunkConsumer {
+        void accept(BufferedImage chunk, int worldX, int worldY);
+    }
+
+    /** Visit the baked background chunks overlapping {@code view}, baking any that are missing. */
+    private void forEachVisibleChunk(Room target, RoomPalette palette, Rectangle view, ChunkConsumer consumer) {
         if (target == null) {
-            return null;
+            return;
         }
-        if (!target.backgroundDirty && target.cachedBackground != null && target.cachedTextureEpoch == textureEpoch) {
-            return target.cachedBackground;
+        if (target.backgroundChunks == null) {
+            target.backgroundChunks = new BackgroundChunks();
+        }
+        int chunkPx = BackgroundChunks.CHUNK_TILES * TILE;
+        int firstX = Math.max(0, view.x / chunkPx);
+        int firstY = Math.max(0, view.y / chunkPx);
+        int lastX = Math.min((target.cols() - 1) / BackgroundChunks.CHUNK_TILES, (view.x + view.width - 1) / chunkPx);
+        int lastY = Math.min((target.rows() - 1) / BackgroundChunks.CHUNK_TILES, (view.y + view.height - 1) / chunkPx);
+        for (int cy = firstY; cy <= lastY; cy++) {
+            for (int cx = firstX; cx <= lastX; cx++) {
+                BufferedImage chunk = target.backgroundChunks.chunk(cx, cy, textureEpoch,
+                        (bx, by) -> bakeBackgroundChunk(target, palette, bx, by));
+                consumer.accept(chunk, cx * chunkPx, cy * chunkPx);
+            }
         }
-        BufferedImage img = new BufferedImage(COLS * TILE, ROWS * TILE, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private BufferedImage bakeBackgroundChunk(Room target, RoomPalette palette, int chunkX, int chunkY) {
+        int tx0 = chunkX * BackgroundChunks.CHUNK_TILES;
+        int ty0 = chunkY * BackgroundChunks.CHUNK_TILES;
+        int tx1 = Math.min(target.cols(), tx0 + BackgroundChunks.CHUNK_TILES);
+        int ty1 = Math.min(target.rows(), ty0 + BackgroundChunks.CHUNK_TILES);
+        BufferedImage img = new BufferedImage((tx1 - tx0) * TILE, (ty1 - ty0) * TILE, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = img.createGraphics();
         try {
             g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             if (textures != null && textures.isReady()) {
-                paintRoomTiles(g, target, palette);
+                g.translate(-tx0 * TILE, -ty0 * TILE);
+                // One tile of overlap so wall shading that spills across a chunk edge is not cut off.
+                paintRoomTiles(g, target, palette, tx0 - 1, ty0 - 1, tx1 + 1, ty1 + 1);
             } else {
                 g.setColor(new Color(18, 64, 78));
                 g.fillRect(0, 0, img.getWidth(), img.getHeight());
@@ -2710,18 +2927,18 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         } finally {
             g.dispose();
         }
-        target.cachedBackground = img;
-        target.cachedTextureEpoch = textureEpoch;
-        target.backgroundDirty = false;
         return img;
     }
 
-    private void paintRoomTiles(Graphics2D gg, Room target, RoomPalette palette) {
+    /** Paint tiles in {@code [x0, x1) x [y0, y1)}, clamped to the room. */
+    private void paintRoomTiles(Graphics2D gg, Room target, RoomPalette palette, int x0, int y0, int x1, int y1) {
         if (target == null) {
             return;
         }
-        for (int x = 0; x < COLS; x++) {
-            for (int y = 0; y < ROWS; y++) {
+        int maxX = Math.min(target.cols(), x1);
+        int maxY = Math.min(target.rows(), y1);
+        for (int x = Math.max(0, x0); x < maxX; x++) {
+            for (int y = Math.max(0, y0); y < maxY; y++) {
                 int px = x * TILE, py = y * TILE;
                 T t = target.g[x][y];
                 if (textures != null && textures.isReady()) {
@@ -2732,14 +2949,20 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
                     int fOrientation = tileOrientation(target.floorThemeSeed, x, y, 2);
                     int wOrientation = tileOrientation(target.wallThemeSeed, x, y, 3);
                     switch (t) {
-                        case FLOOR -> drawFloorTile(gg, textures.floorVariant(fIdx), px, py, palette, target, x, y, fOrientation);
-                        case WALL  -> drawWallTile(gg, textures.wallVariant(wIdx),  px, py, palette, target, x, y, wOrientation);
+                        case FLOOR -> drawFloorTile(gg, fIdx, px, py, palette, target, x, y, fOrientation);
+                        case WALL  -> {
+                            // Opaque indexed tiles come pre-tinted through their palette; others get the fill.
+                            BufferedImage tinted = palette == null ? null
+                                    : textures.tintedWallVariant(wIdx, palette.wallTint, palette.wallAlpha);
+                            drawWallTile(gg, tinted != null ? tinted : textures.wallVariant(wIdx), px, py,
+                                    palette, tinted == null, target, x, y, wOrientation);
+                        }
                         case DOOR  -> {
                             BufferedImage doorTile = textures.doorFloor();
                             if (doorTile != null) {
-                                drawFloorTile(gg, doorTile, px, py, palette, target, x, y, 0);
+                                drawFloorTile(gg, doorTile, px, py, palette, true, target, x, y, 0);
                             } else {
-                                drawFloorTile(gg, textures.floorVariant(fIdx), px, py, palette, target, x, y, fOrientation);
+                                drawFloorTile(gg, fIdx, px, py, palette, target, x, y, fOrientation);
                             }
                         }
                         default -> {}
@@ -2752,15 +2975,26 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         }
     }
 
-    private void drawWorld(Graphics2D gg) {
+    private void drawWorld(Graphics2D target) {
         ensureRoomTheme(room);
         RoomPalette palette = paletteFor(room);
-        BufferedImage cached = renderRoomBackground(room, palette);
-        if (cached != null) {
-            gg.drawImage(cached, 0, 0, null);
-        } else {
-            paintRoomTiles(gg, room, palette);
+        Rectangle view = visibleWorld();
+        Graphics2D gg = (Graphics2D) target.create();
+        try {
+            gg.translate(-view.x, -view.y);
+            forEachVisibleChunk(room, palette, view, (chunk, x, y) -> gg.drawImage(chunk, x, y, null));
+            gg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            drawWorldLayers(gg, view);
+            particles.render(gg, view);
+        } finally {
+            gg.dispose();
         }
+    }
+
+    /** Draw doors, pickups, actors and effects that overlap {@code view}; everything else is culled. */
+    private void drawWorldLayers(Graphics2D gg, Rectangle view) {
+        Rectangle cull = new Rectangle(view.x - CULL_MARGIN, view.y - CULL_MARGIN,
+                view.width + CULL_MARGIN * 2, view.height + CULL_MARGIN * 2);
         if (textures != null && textures.hasDoorAnimation()) {
             drawDoorways(gg);
         }
@@ -2778,6 +3012,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         }
 
         for (KeyPickup key : room.keyPickups) {
+            if (!cull.contains(key.x, key.y)) continue;
             gg.setColor(new Color(255, 215, 82));
             gg.fillOval(key.x - key.r, key.y - key.r, key.r * 2, key.r * 2);
             gg.setColor(new Color(140, 90, 30));
@@ -2785,11 +3020,12 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         }
 
         for (CoinPickup coin : room.coinPickups) {
+            if (!cull.contains(coin.x, coin.y)) continue;
             drawCoinPickup(gg, coin);
         }
 
         for (RoomEnemy e : room.enemies) {
-            if (!e.alive) continue;
+            if (!e.alive || !cull.contains(e.x, e.y)) continue;
             BufferedImage[] frames = enemyIdleAnimations.get(e.type);
             if (frames == null || frames.length == 0) {
                 frames = defaultEnemyFrames;
@@ -2836,37 +3072,47 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             int radius = (int) (Math.max(player.width, player.height) * (1.2f + (1.0f - phase) * 1.6f));
             int centerX = player.x + player.width / 2;
             int centerY = player.y + player.height / 2;
-            java.awt.Paint oldPaint = gg.getPaint();
-            java.awt.Composite oldComposite = gg.getComposite();
-            RadialGradientPaint aura = new RadialGradientPaint(
-                    new Point2D.Float(centerX, centerY),
-                    Math.max(1, radius),
-                    new float[]{0f, 0.45f, 1f},
-                    new Color[]{
-                            new Color(120, 255, 160, 200),
-                            new Color(60, 200, 120, 90),
-                            new Color(30, 120, 80, 0)
-                    }
-            );
-            gg.setComposite(AlphaComposite.SrcOver.derive(0.8f));
-            gg.setPaint(aura);
-            gg.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
-            gg.setComposite(oldComposite);
-            gg.setPaint(oldPaint);
+            if (!quality.level().richHealAura()) {
+                // Flat fill keeps the cue without rasterising a gradient every frame.
+                gg.setColor(new Color(80, 220, 140, 70));
+                gg.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+            } else {
+                java.awt.Paint oldPaint = gg.getPaint();
+                java.awt.Composite oldComposite = gg.getComposite();
+                RadialGradientPaint aura = new RadialGradientPaint(
+                        new Point2D.Float(centerX, centerY),
+                        Math.max(1, radius),
+                        new float[]{0f, 0.45f, 1f},
+                        new Color[]{
+                                new Color(120, 255, 160, 200),
+                                new Color(60, 200, 120, 90),
+                                new Color(30, 120, 80, 0)
+                        }
+                );
+                gg.setComposite(AlphaComposite.SrcOver.derive(0.8f));
+                gg.setPaint(aura);
+                gg.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+                gg.setComposite(oldComposite);
+                gg.setPaint(oldPaint);
+            }
             gg.setColor(new Color(120, 255, 160, 180));
             gg.setStroke(new BasicStroke(2f));
             gg.drawOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
         }
 
-        gg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        gg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, quality.level() == QualityGovernor.Level.MINIMUM
+                ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         for (Bullet b : bullets) {
+            if (!cull.contains(b.x, b.y)) continue;
             drawProjectile(gg, b, enemyShotTexture, new Color(255, 200, 120, 230));
         }
         for (Bullet b : playerBullets) {
+            if (!cull.contains(b.x, b.y)) continue;
             drawProjectile(gg, b, playerShotTexture, new Color(160, 230, 255, 230));
         }
 
         for (Explosion ex : explosions) {
+            if (!cull.intersects(ex.x - ex.maxR, ex.y - ex.maxR, ex.maxR * 2, ex.maxR * 2)) continue;
             float t = ex.age / (float)Math.max(1, ex.life);
             int r = (int)(ex.maxR * t);
             int alpha = (int)(180 * (1.0f - t));
@@ -2888,17 +3134,27 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         return ROOM_PALETTES[index];
     }
 
-    private void drawFloorTile(Graphics2D gg, BufferedImage texture, int px, int py, RoomPalette palette,
+    private void drawFloorTile(Graphics2D gg, int variant, int px, int py, RoomPalette palette,
                                Room room, int tx, int ty, int orientation) {
+        BufferedImage tinted = palette == null ? null
+                : textures.tintedFloorVariant(variant, palette.floorTint, palette.floorAlpha);
+        drawFloorTile(gg, tinted != null ? tinted : textures.floorVariant(variant), px, py, palette, tinted == null,
+                room, tx, ty, orientation);
+    }
+
+    private void drawFloorTile(Graphics2D gg, BufferedImage texture, int px, int py, RoomPalette palette,
+                               boolean fillTint, Room room, int tx, int ty, int orientation) {
         drawTexture(gg, texture, px, py, orientation, new Color(24, 60, 78));
         if (palette == null) {
             return;
         }
         java.awt.Composite original = gg.getComposite();
-        gg.setComposite(AlphaComposite.SrcOver.derive(palette.floorAlpha));
-        gg.setColor(palette.floorTint);
-        gg.fillRect(px, py, TILE, TILE);
-        gg.setComposite(original);
+        if (fillTint) {
+            gg.setComposite(AlphaComposite.SrcOver.derive(palette.floorAlpha));
+            gg.setColor(palette.floorTint);
+            gg.fillRect(px, py, TILE, TILE);
+            gg.setComposite(original);
+        }
 
         if (textures != null && textures.hasFloorOverlays()) {
             int overlaySalt = accentHash(room, tx, ty, 9);
@@ -2929,16 +3185,18 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     private void drawWallTile(Graphics2D gg, BufferedImage texture, int px, int py, RoomPalette palette,
-                               Room room, int tx, int ty, int orientation) {
+                              boolean fillTint, Room room, int tx, int ty, int orientation) {
         drawTexture(gg, texture, px, py, orientation, new Color(38, 82, 96));
         if (palette == null) {
             return;
         }
         java.awt.Composite original = gg.getComposite();
-        gg.setComposite(AlphaComposite.SrcOver.derive(palette.wallAlpha));
-        gg.setColor(palette.wallTint);
-        gg.fillRect(px, py, TILE, TILE);
-        gg.setComposite(original);
+        if (fillTint) {
+            gg.setComposite(AlphaComposite.SrcOver.derive(palette.wallAlpha));
+            gg.setColor(palette.wallTint);
+            gg.fillRect(px, py, TILE, TILE);
+            gg.setComposite(original);
+        }
 
         gg.setComposite(AlphaComposite.SrcOver.derive(0.55f));
         gg.setColor(palette.wallHighlight);
@@ -3861,6 +4119,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             return;
         }
         paused = true;
+        updateTickerMode();
         timer.stop();
         String[] options = {
                 texts.text("resume"),
@@ -3876,6 +4135,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
                 JOptionPane.showMessageDialog(this, "Unable to save: " + ex.getMessage(),
                         texts.text("pause_title"), JOptionPane.ERROR_MESSAGE);
                 paused = false;
+                updateTickerMode();
                 timer.start();
                 requestFocusInWindow();
                 return;
@@ -3885,6 +4145,7 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
             exitHandler.run();
         } else {
             paused = false;
+            updateTickerMode();
             timer.start();
             requestFocusInWindow();
         }
@@ -3931,7 +4192,8 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
     }
 
     public void shutdown() {
-        timer.stop();
+        timer.cancel();
+        BossAssetPrefetcher.shared().cancelAll();
     }
 
     /**
@@ -3945,12 +4207,12 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
 
     private Room rerollObstacles(Room r) {
         // Clear inside (except borders & doors), then re-add obstacles
-        for (int x = 1; x < COLS - 1; x++)
-            for (int y = 1; y < ROWS - 1; y++)
+        for (int x = 1; x < cols - 1; x++)
+            for (int y = 1; y < rows - 1; y++)
                 if (r.g[x][y] != T.DOOR) r.g[x][y] = T.FLOOR;
 
-        for (int x = 0; x < COLS; x++) { r.g[x][0] = T.WALL; r.g[x][ROWS - 1] = T.WALL; }
-        for (int y = 0; y < ROWS; y++) { r.g[0][y] = T.WALL; r.g[COLS - 1][y] = T.WALL; }
+        for (int x = 0; x < cols; x++) { r.g[x][0] = T.WALL; r.g[x][rows - 1] = T.WALL; }
+        for (int y = 0; y < rows; y++) { r.g[0][y] = T.WALL; r.g[cols - 1][y] = T.WALL; }
 
         // Choose 1–3 total doors
         int totalDoors = 1 + rng.nextInt(3); // 1..3
@@ -3970,10 +4232,10 @@ public class DungeonRooms extends JPanel implements ActionListener, KeyListener
         r.doors = chosen;
 
         // Sprinkle obstacles while keeping space near doors
-        int blocks = 8 + rng.nextInt(7);
+        int blocks = (8 + rng.nextInt(7)) * roomAreaFactor();
         for (int i = 0; i < blocks; i++) {
-            int bx = 2 + rng.nextInt(COLS - 4);
-            int by = 2 + rng.nextInt(ROWS - 4);
+            int bx = 2 + rng.nextInt(cols - 4);
+            int by = 2 + rng.nextInt(rows - 4);
             if (nearAnyDoor(r, bx, by, 3)) continue;
             for (int dx = 0; dx < 2; dx++)
                 for (int dy = 0; dy < 2; dy++)
@@ -285,9 +285,9 @@ public final class DungeonRoomsSnapshot implements Serializable {
         if (room == null) {
             return null;
         }
-        DungeonRooms.Room clone = new DungeonRooms.Room();
-        for (int x = 0; x < DungeonRooms.COLS; x++) {
-            System.arraycopy(room.g[x], 0, clone.g[x], 0, DungeonRooms.ROWS);
+        DungeonRooms.Room clone = new DungeonRooms.Room(room.cols(), room.rows());
+        for (int x = 0; x < room.cols(); x++) {
+            System.arraycopy(room.g[x], 0, clone.g[x], 0, room.rows());
         }
         clone.doors.addAll(room.doors);
         clone.enemies = copyEnemies(room.enemies);
@@ -303,9 +303,6 @@ public final class DungeonRoomsSnapshot implements Serializable {
         clone.accentSeed = room.accentSeed;
         clone.shopDoor = room.shopDoor;
         clone.shopVisited = room.shopVisited;
-        clone.backgroundDirty = true;
-        clone.cachedBackground = null;
-        clone.cachedTextureEpoch = -1;
         return clone;
     }
 
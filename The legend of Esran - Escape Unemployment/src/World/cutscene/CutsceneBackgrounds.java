@@ -1,11 +1,14 @@
 package World.cutscene;
 
 import gfx.AnimatedSprite;
+import gfx.GifAnimation;
 import gfx.HiDpiScaler;
+import gfx.ImageCache;
 import util.ResourceLoader;
 
 import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.GradientPaint;
 import java.awt.Graphics2D;
 import java.awt.RadialGradientPaint;
@@ -25,7 +28,14 @@ import java.util.function.Supplier;
  * Factory for animated backdrops used by cutscenes.
  */
 public final class CutsceneBackgrounds {
+    /** Backdrop objects by name; they hold no pixels, so this stays tiny. */
     private static final Map<String, AnimatedBackdrop> CACHE = new ConcurrentHashMap<>();
+    /** Decoded backdrop frames, charged to the shared image budget and reloaded if evicted. */
+    private static final ImageCache.Namespace FRAMES = ImageCache.shared().namespace("cutscene-backdrops");
+    /** Composited GIF frames kept at source size; the stream's ring holds the scaled ones ahead of the playhead. */
+    private static final int GIF_CACHE_FRAMES = 2;
+    /** A GIF loop this small stays composited once played, so looping it decodes nothing. */
+    private static final long GIF_BAKE_BYTES = 8L * 1024 * 1024;
 
     private CutsceneBackgrounds() {
     }
@@ -100,14 +110,91 @@ public final class CutsceneBackgrounds {
     private static AnimatedBackdrop cachedSequence(String key, Supplier<AnimatedBackdrop> fallback,
                                                    int frameTicks, String... directories) {
         return CACHE.computeIfAbsent(key, ignored -> {
-            BufferedImage[] frames = loadFrames(directories);
+            AnimatedBackdrop streamed = streamedSequence(frameTicks, directories);
+            if (streamed != null) {
+                return streamed;
+            }
+            BufferedImage[] frames = FRAMES.frames(key, () -> loadNormalisedFrames(directories));
             if (frames.length > 0) {
-                return new SequenceBackdrop(frames, frameTicks);
+                return new SequenceBackdrop(key, directories, frameTicks);
             }
             return fallback.get();
         });
     }
 
+    /**
+     * A {@link StreamingBackdrop} over the frames {@link #loadFrames} would pick, or {@code null} when it finds
+     * nothing or PNG frames that differ in size and need normalising up front.
+     */
+    private static AnimatedBackdrop streamedSequence(int frameTicks, String... directories) {
+        List<String> paths = framePaths(directories);
+        if (paths.isEmpty()) {
+            return null;
+        }
+        if (paths.size() == 1 && paths.get(0).toLowerCase(Locale.ROOT).endsWith(".gif")) {
+            try {
+                GifAnimation gif = GifAnimation.open(paths.get(0), GIF_CACHE_FRAMES, GIF_BAKE_BYTES);
+                return new StreamingBackdrop(gif, StreamingBackdrop.DEFAULT_CAPACITY);
+            } catch (IOException e) {
+                // Left to the eager loader, which reports it.
+                return null;
+            }
+        }
+        Dimension size = null;
+        for (String path : paths) {
+            Dimension frameSize;
+            try {
+                frameSize = ResourceLoader.imageSize(path);
+            } catch (IOException e) {
+                return null;
+            }
+            if (size != null && !size.equals(frameSize)) {
+                return null;
+            }
+            size = frameSize;
+        }
+        return new StreamingBackdrop(paths, size, frameTicks, StreamingBackdrop.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * The PNG frames {@link #loadFrames} would decode, or the one GIF it would, in the same order of preference and
+     * without decoding them.
+     */
+    private static List<String> framePaths(String... directories) {
+        if (directories == null) {
+            return List.of();
+        }
+        for (String dir : directories) {
+            if (dir == null || dir.isBlank()) {
+                continue;
+            }
+            String normalized = ensureLeadingSlash(dir);
+            String lower = normalized.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".png")) {
+                return ResourceLoader.exists(normalized) ? List.of(normalized) : List.of();
+            }
+            if (lower.endsWith(".gif")) {
+                return ResourceLoader.exists(normalized) ? List.of(normalized) : List.of();
+            }
+            for (String candidate : expandDirectories(normalized)) {
+                List<String> pngs = AnimatedSprite.framePathsInDirectory(candidate);
+                if (!pngs.isEmpty()) {
+                    return pngs;
+                }
+                List<String> gifs = ResourceLoader.list(candidate, name -> name.toLowerCase(Locale.ROOT).endsWith(".gif"));
+                if (!gifs.isEmpty()) {
+                    return List.of(gifs.get(0));
+                }
+            }
+        }
+        return List.of();
+    }
+
+    private static BufferedImage[] loadNormalisedFrames(String... directories) {
+        BufferedImage[] normalised = AnimatedSprite.normaliseFrames(loadFrames(directories));
+        return normalised == null ? new BufferedImage[0] : normalised;
+    }
+
     private static BufferedImage[] loadFrames(String... directories) {
         if (directories == null) {
             return new BufferedImage[0];
@@ -284,25 +371,34 @@ public final class CutsceneBackgrounds {
         return new Color(r, g, bC);
     }
 
+    /**
+     * Backdrop that cycles through authored frames decoded up front, for GIF sequences and frames of mixed sizes
+     * that {@link StreamingBackdrop} does not play. The frames live in {@link #FRAMES}, and each one is scaled to
+     * the dialog through {@link HiDpiScaler}, whose copies are charged to the same budget.
+     */
     private static final class SequenceBackdrop implements AnimatedBackdrop {
-        private final BufferedImage[] frames;
+        private final String key;
+        private final String[] directories;
         private final int frameTicks;
-        private final Map<Integer, Map<Long, BufferedImage>> scaledCache = new ConcurrentHashMap<>();
 
-        private SequenceBackdrop(BufferedImage[] rawFrames, int frameTicks) {
-            BufferedImage[] normalised = AnimatedSprite.normaliseFrames(rawFrames);
-            this.frames = normalised == null ? new BufferedImage[0] : normalised;
+        private SequenceBackdrop(String key, String[] directories, int frameTicks) {
+            this.key = key;
+            this.directories = directories;
             this.frameTicks = Math.max(1, frameTicks);
         }
 
         @Override
         public void paint(Graphics2D g, int width, int height, long tick) {
-            if (frames.length == 0 || width <= 0 || height <= 0) {
+            if (width <= 0 || height <= 0) {
+                return;
+            }
+            BufferedImage[] frames = FRAMES.frames(key, () -> loadNormalisedFrames(directories));
+            if (frames.length == 0) {
                 return;
             }
             g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             int index = (int) ((tick / frameTicks) % frames.length);
-            BufferedImage scaled = scaledFrame(index, width, height);
+            BufferedImage scaled = scaleFrame(frames[index], width, height);
             if (scaled == null) {
                 return;
             }
@@ -315,12 +411,6 @@ public final class CutsceneBackgrounds {
             g.setComposite(AlphaComposite.SrcOver);
         }
 
-        private BufferedImage scaledFrame(int index, int width, int height) {
-            Map<Long, BufferedImage> perFrame = scaledCache.computeIfAbsent(index, key -> new ConcurrentHashMap<>());
-            long key = (((long) width) << 32) ^ (height & 0xffffffffL);
-            return perFrame.computeIfAbsent(key, ignored -> scaleFrame(frames[index], width, height));
-        }
-
         private BufferedImage scaleFrame(BufferedImage frame, int width, int height) {
             if (frame == null) {
                 return null;
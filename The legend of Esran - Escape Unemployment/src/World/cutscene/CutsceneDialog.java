@@ -1,5 +1,7 @@
 package World.cutscene;
 
+import gfx.FrameScheduler;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyAdapter;
@@ -35,11 +37,17 @@ public final class CutsceneDialog extends JDialog {
     }
 
     private static final class CutscenePanel extends JPanel {
+        /** Animation clock rate; backdrops and the typewriter are tuned in these ticks. */
+        private static final int TICKS_PER_SECOND = 60;
+        /** Backdrop-only refresh rate once the slide's text is fully shown. */
+        private static final int IDLE_FPS = 10;
+
         private final List<CutsceneSlide> slides;
         private int slideIndex = 0;
         private int charsVisible = 0;
-        private final Timer timer;
+        private final FrameScheduler.Ticker timer;
         private long tick = 0;
+        private double tickCarry = 0.0;
         private boolean fastForward;
 
         private CutscenePanel(CutsceneScript script) {
@@ -48,13 +56,8 @@ public final class CutsceneDialog extends JDialog {
             setOpaque(false);
             setFocusable(true);
 
-            timer = new Timer(1000 / 60, e -> {
-                tick++;
-                if (!fastForward) {
-                    charsVisible = Math.min(currentText().length(), charsVisible + 2);
-                }
-                repaint();
-            });
+            timer = FrameScheduler.shared().register("CutsceneDialog", TICKS_PER_SECOND, this::onTick);
+            timer.setIdleFps(IDLE_FPS);
             timer.start();
 
             addKeyListener(new KeyAdapter() {
@@ -75,8 +78,27 @@ public final class CutsceneDialog extends JDialog {
             });
         }
 
+        /** Advance by elapsed time so the backdrop keeps its speed when ticking drops to the idle rate. */
+        private void onTick(double dt) {
+            tickCarry += dt * TICKS_PER_SECOND;
+            long steps = Math.max(1L, (long) tickCarry);
+            tickCarry = Math.max(0.0, tickCarry - steps);
+            tick += steps;
+            if (!fastForward) {
+                charsVisible = (int) Math.min(currentText().length(), charsVisible + 2 * steps);
+            }
+            timer.setMode(charsVisible < currentText().length()
+                    ? FrameScheduler.Mode.CONTINUOUS : FrameScheduler.Mode.IDLE);
+            repaint();
+        }
+
+        @Override
+        public void removeNotify() {
+            timer.cancel();
+            super.removeNotify();
+        }
+
         private void disposeDialog() {
-            timer.stop();
             Window window = SwingUtilities.getWindowAncestor(this);
             if (window != null) {
                 window.dispose();
@@ -96,6 +118,7 @@ public final class CutsceneDialog extends JDialog {
             } else {
                 slideIndex++;
                 charsVisible = 0;
+                timer.setMode(FrameScheduler.Mode.CONTINUOUS);
             }
         }
 
@@ -1,19 +1,16 @@
 package World.cutscene;
 
 import gfx.HiDpiScaler;
+import gfx.ImageCache;
 import util.ResourceLoader;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Provides lightly stylised portraits for cutscene characters.
@@ -31,7 +28,8 @@ public enum CutscenePortrait {
     PRINCESS(null, "/resources/sprites/Princess", 220),
     SHOPKEEPER("resources/sprites/Wizard/wizzard_m_idle_anim_f0.png", "/resources/Shop", 200);
 
-    private static final Map<CutscenePortrait, BufferedImage> CACHE = new EnumMap<>(CutscenePortrait.class);
+    /** Portraits are small and reused across every cutscene, so they stay pinned once loaded. */
+    private static final ImageCache.Namespace CACHE = ImageCache.shared().namespace("cutscene-portraits");
 
     private final String resourcePath;
     private final String directoryPath;
@@ -44,7 +42,9 @@ public enum CutscenePortrait {
     }
 
     public BufferedImage image() {
-        return CACHE.computeIfAbsent(this, CutscenePortrait::loadPortrait);
+        BufferedImage portrait = CACHE.image(this, () -> loadPortrait(this));
+        CACHE.pin(this);
+        return portrait;
     }
 
     private static BufferedImage loadPortrait(CutscenePortrait portrait) {
@@ -68,11 +68,8 @@ public enum CutscenePortrait {
         if (resourcePath == null || resourcePath.isBlank()) {
             return null;
         }
-        try (InputStream in = ResourceLoader.open(resourcePath)) {
-            if (in == null) {
-                return null;
-            }
-            BufferedImage raw = ImageIO.read(in);
+        try {
+            BufferedImage raw = ResourceLoader.imageIfPresent(resourcePath);
             if (raw == null) {
                 return null;
             }
@@ -1,6 +1,7 @@
 package World.cutscene;
 
 import World.DialogueText;
+import gfx.FrameScheduler;
 import gfx.HiDpiScaler;
 
 import javax.swing.*;
@@ -23,14 +24,20 @@ public final class ShopDialog extends JDialog {
 
     public record Result(int remainingCoins, int resultingHp, String closingRemark) { }
 
+    /** Animation clock rate; the backdrop, typewriter and cursor blink are tuned in these ticks. */
+    private static final int TICKS_PER_SECOND = 60;
+    /** Refresh rate while the shopkeeper has finished talking and only the glow and cursor move. */
+    private static final int IDLE_FPS = 10;
+
     private int coins;
     private int hp;
     private final int maxHp;
     private final JLabel coinsLabel = new JLabel();
     private final JLabel hpLabel = new JLabel();
     private final DialogueBubble dialogue = new DialogueBubble();
-    private final Timer timer;
+    private final FrameScheduler.Ticker timer;
     private long tick = 0;
+    private double tickCarry = 0.0;
     private final double uiScale;
     private String closingRemark;
 
@@ -54,17 +61,24 @@ public final class ShopDialog extends JDialog {
                 KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0),
                 JComponent.WHEN_IN_FOCUSED_WINDOW);
 
-        timer = new Timer(1000 / 60, e -> {
-            tick++;
+        timer = FrameScheduler.shared().register("ShopDialog", TICKS_PER_SECOND, dt -> {
+            // Count ticks from elapsed time so animation speed holds when ticking drops to the idle rate.
+            tickCarry += dt * TICKS_PER_SECOND;
+            long steps = Math.max(1L, (long) tickCarry);
+            tickCarry = Math.max(0.0, tickCarry - steps);
+            tick += steps;
             dialogue.advanceTick(tick);
+            ShopDialog.this.timer.setMode(dialogue.isRevealing()
+                    ? FrameScheduler.Mode.CONTINUOUS : FrameScheduler.Mode.IDLE);
             panel.repaint();
         });
+        timer.setIdleFps(IDLE_FPS);
         timer.start();
 
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosed(WindowEvent e) {
-                timer.stop();
+                timer.cancel();
             }
         });
     }
@@ -223,6 +237,10 @@ public final class ShopDialog extends JDialog {
     private void updateDialogue(String text) {
         dialogue.setMessage(text);
         closingRemark = text;
+        if (timer != null) {
+            // The panel builds its first line before the ticker exists; it starts continuous anyway.
+            timer.setMode(FrameScheduler.Mode.CONTINUOUS);
+        }
     }
 
     private void styleButton(JButton button, float fontSize) {
@@ -324,6 +342,10 @@ public final class ShopDialog extends JDialog {
             repaint();
         }
 
+        boolean isRevealing() {
+            return revealedCharacters < message.length();
+        }
+
         void advanceTick(long globalTick) {
             if (message.isEmpty()) {
                 return;
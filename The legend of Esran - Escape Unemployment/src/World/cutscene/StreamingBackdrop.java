@@ -0,0 +1,428 @@
+package World.cutscene;
+
+import gfx.GifAnimation;
+import gfx.ScalingKernels;
+import util.ResourceLoader;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backdrop that plays authored frames without holding the whole sequence in memory.
+ * <p>
+ * Frames are decoded one at a time on a background thread, scaled straight to the size the backdrop is painted at,
+ * and kept in a ring of slots covering the frame on screen and the next few. As playback moves on, the decoder
+ * overwrites the slots it has passed in place, and every frame is decoded into the same reused source raster and
+ * scaled with the same taps and scratch buffers, so memory stays at a handful of output-sized frames however long the sequence is. A sequence no longer than the
+ * ring stays resident once played and is not decoded again.
+ * <p>
+ * The frames are either PNG files shown for a fixed number of ticks each, or the frames of a {@link GifAnimation}
+ * shown for the GIF's own delays and composited as the decoder reaches them.
+ * <p>
+ * Only the first paint waits, for the ring to fill, as the backdrop used to wait for every frame to be decoded.
+ * After that, if the decoder falls behind, the frame on screen stays up and the miss is counted in
+ * {@link #lateFrames()}; after a resize the old frames are stretched until the new ones arrive.
+ * All PNG frames must share one size.
+ */
+public final class StreamingBackdrop implements AnimatedBackdrop {
+    private static final Logger LOGGER = Logger.getLogger(StreamingBackdrop.class.getName());
+
+    /** Slots in the ring: the frame on screen plus three decoded ahead. */
+    public static final int DEFAULT_CAPACITY = 4;
+    /** How long the first paint waits for the ring to fill before showing whatever is ready. */
+    private static final long FIRST_FILL_WAIT_MILLIS = 2_000L;
+    /** Rate at which {@link AnimatedBackdrop#paint} ticks advance; turns GIF delays into ticks. */
+    private static final int TICKS_PER_SECOND = 60;
+
+    private static final class DecoderHolder {
+        static final ExecutorService DECODER = Executors.newSingleThreadExecutor(task -> {
+            Thread t = new Thread(task, "cutscene-stream");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
+
+    /** One decoded, scaled frame, or room for one. Guarded by {@link #lock}. */
+    private static final class Slot {
+        BufferedImage image;
+        int frame = -1;
+        boolean filling;
+    }
+
+    /** Where the frames come from and which one is on screen at a tick. Only the decoder calls {@link #source}. */
+    private interface FrameSource {
+        int count();
+
+        int frameAt(long tick);
+
+        /** The full-size frame, valid until the next call. */
+        BufferedImage source(int frame) throws IOException;
+
+        String describe(int frame);
+
+        long decoded();
+    }
+
+    private final FrameSource frames;
+    private final int frameWidth;
+    private final int frameHeight;
+    private final Slot[] slots;
+    private final Object lock = new Object();
+    private final AtomicLong late = new AtomicLong();
+    private final AtomicLong allocations = new AtomicLong();
+    /** Taps and scratch buffers for scaling; only the decoder thread touches them. */
+    private final ScalingKernels.Workspace scratch = new ScalingKernels.Workspace();
+
+    private int targetWidth;
+    private int targetHeight;
+    private int playhead;
+    private Slot shown;
+    private boolean producing;
+    private boolean failed;
+    /**
+     * @param frames     resource paths of the frames in playback order
+     * @param frameSize  the size every frame shares
+     * @param frameTicks animation ticks each frame stays on screen
+     * @param capacity   slots in the ring; at least two so one frame can be decoded while another is shown
+     */
+    public StreamingBackdrop(List<String> frames, Dimension frameSize, int frameTicks, int capacity) {
+        this(new PngFrames(frames, frameTicks), frameSize, capacity);
+    }
+
+    /**
+     * @param gif      the animation, played at its own frame delays
+     * @param capacity slots in the ring; at least two so one frame can be decoded while another is shown
+     */
+    public StreamingBackdrop(GifAnimation gif, int capacity) {
+        this(new GifFrames(gif), new Dimension(gif.width(), gif.height()), capacity);
+    }
+
+    private StreamingBackdrop(FrameSource frames, Dimension frameSize, int capacity) {
+        this.frames = frames;
+        this.frameWidth = Math.max(1, frameSize.width);
+        this.frameHeight = Math.max(1, frameSize.height);
+        this.slots = new Slot[Math.max(2, capacity)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    @Override
+    public void paint(Graphics2D g, int width, int height, long tick) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        double scale = Math.max(width / (double) frameWidth, height / (double) frameHeight);
+        int scaledW = Math.max(width, (int) Math.round(frameWidth * scale));
+        int scaledH = Math.max(height, (int) Math.round(frameHeight * scale));
+        int frame = frames.frameAt(tick);
+        synchronized (lock) {
+            BufferedImage image = acquire(frame, scaledW, scaledH);
+            if (image == null) {
+                return;
+            }
+            // Drawn under the lock so the decoder cannot start overwriting a frame that is still being copied out.
+            g.drawImage(image, (width - scaledW) / 2, (height - scaledH) / 2, scaledW, scaledH, null);
+        }
+        g.setComposite(AlphaComposite.SrcOver.derive(0.18f));
+        g.setColor(new Color(0, 0, 0, 200));
+        g.fillRect(0, 0, width, height);
+        g.setComposite(AlphaComposite.SrcOver);
+    }
+
+    /** Frames decoded so far, counting each decode of a frame that was played again. */
+    public long decodedFrames() {
+        return frames.decoded();
+    }
+
+    /** Frame changes that found their frame not yet decoded, so the previous one stayed on screen. */
+    public long lateFrames() {
+        return late.get();
+    }
+
+    /** Output rasters allocated so far; stops growing once every slot holds one of the current size. */
+    public long allocatedRasters() {
+        return allocations.get();
+    }
+
+    /** Scaling taps and scratch buffers allocated so far; stops growing while the size stays the same. */
+    public long scalingAllocations() {
+        return scratch.allocations();
+    }
+
+    /** The image to show for {@code frame}, or {@code null} when there is nothing at all to show yet. */
+    private BufferedImage acquire(int frame, int width, int height) {
+        targetWidth = width;
+        targetHeight = height;
+        boolean advanced = frame != playhead;
+        playhead = frame;
+        if (shown == null) {
+            // Nothing to hold on screen yet: fill the whole window first, so playback starts a full ring ahead.
+            awaitFilledLocked(FIRST_FILL_WAIT_MILLIS);
+        }
+        Slot ready = ready(frame);
+        if (ready != null) {
+            shown = ready;
+        } else if (advanced && shown != null) {
+            late.incrementAndGet();
+        }
+        fill();
+        return shown == null ? null : shown.image;
+    }
+
+    /**
+     * Block until the decoder has filled the ring ahead of the last painted frame, or {@code timeoutMillis} passes.
+     * For callers that step playback themselves rather than in real time, such as tests and capture tools.
+     *
+     * @return {@code true} when the window is filled, {@code false} on timeout, after a decode failure, or before the
+     * first paint
+     */
+    public boolean awaitFilled(long timeoutMillis) {
+        synchronized (lock) {
+            return targetWidth > 0 && awaitFilledLocked(timeoutMillis);
+        }
+    }
+
+    private boolean awaitFilledLocked(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while ((nextMissing() >= 0 || producing) && !failed) {
+            fill();
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0L) {
+                return false;
+            }
+            try {
+                lock.wait(remaining);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !failed;
+    }
+
+    /** Start the decoder if a frame in the window is missing and it is not already running. */
+    private void fill() {
+        if (!producing && !failed && nextMissing() >= 0) {
+            producing = true;
+            DecoderHolder.DECODER.execute(this::fillAhead);
+        }
+    }
+
+    private void fillAhead() {
+        while (true) {
+            Slot slot;
+            int frame;
+            int width;
+            int height;
+            synchronized (lock) {
+                frame = nextMissing();
+                slot = frame < 0 ? null : claim();
+                if (slot == null) {
+                    producing = false;
+                    lock.notifyAll();
+                    return;
+                }
+                slot.filling = true;
+                slot.frame = frame;
+                width = targetWidth;
+                height = targetHeight;
+            }
+            BufferedImage image = null;
+            try {
+                image = render(frame, slot.image, width, height);
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Could not stream cutscene frame " + frames.describe(frame), ex);
+            }
+            synchronized (lock) {
+                slot.filling = false;
+                if (image == null) {
+                    slot.frame = -1;
+                    failed = true;
+                    producing = false;
+                    lock.notifyAll();
+                    return;
+                }
+                slot.image = image;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /** Decode one frame and scale it into {@code reuse}, or into a new raster when that has the wrong size. */
+    private BufferedImage render(int frame, BufferedImage reuse, int width, int height) throws IOException {
+        BufferedImage source = frames.source(frame);
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = reuse;
+        if (target == null || target.getWidth() != width || target.getHeight() != height || target.getType() != type) {
+            target = new BufferedImage(width, height, type);
+            allocations.incrementAndGet();
+        }
+        if (source.getWidth() == width && source.getHeight() == height) {
+            Graphics2D g = target.createGraphics();
+            try {
+                g.setComposite(AlphaComposite.Src);
+                g.drawImage(source, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        } else {
+            ScalingKernels.resample(source, target, ScalingKernels.Filter.MITCHELL, scratch);
+        }
+        return target;
+    }
+
+    /** The slot holding {@code frame} decoded at the current size, if any. */
+    private Slot ready(int frame) {
+        for (Slot slot : slots) {
+            if (slot.frame == frame && !slot.filling && current(slot)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    /** The first frame from the playhead on that is neither decoded nor being decoded, or -1. */
+    private int nextMissing() {
+        int window = window();
+        for (int i = 0; i < window; i++) {
+            int frame = (playhead + i) % frames.count();
+            if (ready(frame) == null && !filling(frame)) {
+                return frame;
+            }
+        }
+        return -1;
+    }
+
+    /** A slot the decoder may overwrite: empty, the wrong size, or holding a frame playback has passed. */
+    private Slot claim() {
+        Slot passed = null;
+        for (Slot slot : slots) {
+            if (slot == shown || slot.filling) {
+                continue;
+            }
+            if (slot.frame < 0 || !current(slot)) {
+                return slot;
+            }
+            if (passed == null && !inWindow(slot.frame)) {
+                passed = slot;
+            }
+        }
+        return passed;
+    }
+
+    private boolean filling(int frame) {
+        for (Slot slot : slots) {
+            if (slot.filling && slot.frame == frame) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean current(Slot slot) {
+        return slot.image != null && slot.image.getWidth() == targetWidth && slot.image.getHeight() == targetHeight;
+    }
+
+    private boolean inWindow(int frame) {
+        return Math.floorMod(frame - playhead, frames.count()) < window();
+    }
+
+    private int window() {
+        return Math.min(slots.length, frames.count());
+    }
+
+    /** Authored PNG frames, each decoded into the same reused raster. */
+    private static final class PngFrames implements FrameSource {
+        private final List<String> paths;
+        private final int frameTicks;
+        private final AtomicLong decoded = new AtomicLong();
+        private BufferedImage decodeBuffer;
+
+        PngFrames(List<String> paths, int frameTicks) {
+            if (paths.isEmpty()) {
+                throw new IllegalArgumentException("A streaming backdrop needs at least one frame");
+            }
+            this.paths = List.copyOf(paths);
+            this.frameTicks = Math.max(1, frameTicks);
+        }
+
+        @Override
+        public int count() {
+            return paths.size();
+        }
+
+        @Override
+        public int frameAt(long tick) {
+            return (int) ((tick / frameTicks) % paths.size());
+        }
+
+        @Override
+        public BufferedImage source(int frame) throws IOException {
+            String path = paths.get(frame);
+            BufferedImage source = ResourceLoader.preloaded(path);
+            if (source == null) {
+                source = ResourceLoader.decode(path, decodeBuffer);
+                decodeBuffer = source;
+                decoded.incrementAndGet();
+            }
+            return source;
+        }
+
+        @Override
+        public String describe(int frame) {
+            return paths.get(frame);
+        }
+
+        @Override
+        public long decoded() {
+            return decoded.get();
+        }
+    }
+
+    /** Frames of a GIF, composited by the animation's own small cache as the decoder asks for them. */
+    private static final class GifFrames implements FrameSource {
+        private final GifAnimation gif;
+
+        GifFrames(GifAnimation gif) {
+            this.gif = gif;
+        }
+
+        @Override
+        public int count() {
+            return gif.frameCount();
+        }
+
+        @Override
+        public int frameAt(long tick) {
+            return gif.frameAt(tick * 1000L / TICKS_PER_SECOND);
+        }
+
+        @Override
+        public BufferedImage source(int frame) throws IOException {
+            return gif.frame(frame);
+        }
+
+        @Override
+        public String describe(int frame) {
+            return "GIF frame " + frame;
+        }
+
+        @Override
+        public long decoded() {
+            return gif.decodedFrames();
+        }
+    }
+}
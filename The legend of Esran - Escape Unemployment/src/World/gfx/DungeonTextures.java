@@ -1,6 +1,9 @@
 package World.gfx;
 
 import gfx.HiDpiScaler;
+import gfx.IndexedSprite;
+import util.CompatibleImages;
+import util.ResourceIndex;
 import util.ResourceLoader;
 
 import javax.imageio.ImageIO;
@@ -24,12 +27,23 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
  * Provides textured tiles for the dungeon. We first try to load the handcrafted artwork that ships with the
  * project and only fall back to procedural placeholders when those resources cannot be located. This keeps the
  * visual style consistent with earlier builds while remaining resilient when resources are missing.
+ * <p>
+ * A set of textures never changes once built. {@link #shared(int)} keeps one per tile size for the whole process,
+ * so every run and every {@code DungeonRooms} reuses it instead of probing, slicing and tinting the art again.
+ * <p>
+ * Floor and wall tiles are palette-indexed at their source size and scaled nearest-neighbour, so each is an 8-bit
+ * {@link IndexedSprite}. Their hue variants and the room-tinted copies from {@link #tintedFloorVariant} and
+ * {@link #tintedWallVariant} are palette views over the same pixels rather than ARGB copies. Tiles with more than
+ * 256 colours are scaled and tinted as ARGB images instead.
  */
 public final class DungeonTextures {
 
@@ -69,6 +83,24 @@ public final class DungeonTextures {
 
     private static final int DEFAULT_TILE_SIZE = 36;
     private static volatile int targetTileSize = DEFAULT_TILE_SIZE;
+    /** Candidate images already searched for under every root without success; not probed again. */
+    private static final Set<String> MISSING_IMAGES = ConcurrentHashMap.newKeySet();
+    /** Indexed resource directories the textures are built from; their files make up {@link #contentVersion()}. */
+    private static final List<String> CONTENT_PREFIXES = List.of(
+            "resources/DungeonRooms/", "resources/tiles/", "resources/Shop/door/");
+
+    private record Key(int tileSize, long contentVersion) {
+    }
+
+    /** The content version worked out from an index; an index never changes, so this is good for its lifetime. */
+    private record Version(ResourceIndex index, long value) {
+    }
+
+    private static volatile Version lastVersion;
+
+    /** Built textures by tile size, all for the current content version. */
+    private static final Map<Key, DungeonTextures> SHARED = new ConcurrentHashMap<>();
+    private static final AtomicLong BUILDS = new AtomicLong();
 
     private static final String[] FLOOR_SHEETS = {
             "resources/tiles/atlas_floor-16x16.png",
@@ -90,6 +122,10 @@ public final class DungeonTextures {
     private final BufferedImage[] doorFrames;
     private final BufferedImage[] floorOverlays;
     private final BufferedImage[] wallOverlays;
+    private final Map<Tint, BufferedImage> tinted = new ConcurrentHashMap<>();
+
+    /** A room tint of one tile: {@code argb} blended over it at {@code alpha}. */
+    private record Tint(boolean wall, int index, int argb, int alphaBits) { }
 
     private DungeonTextures(BufferedImage[] floorCells, BufferedImage[] wallCells, BufferedImage doorFloor,
                             BufferedImage[] doorFrames, BufferedImage[] floorOverlays, BufferedImage[] wallOverlays) {
@@ -109,12 +145,73 @@ public final class DungeonTextures {
         return load(DEFAULT_TILE_SIZE);
     }
 
-    public static DungeonTextures load(int tileSize) {
+    /** Build a fresh set of textures for {@code tileSize}; {@link #shared(int)} avoids doing so more than once. */
+    public static synchronized DungeonTextures load(int tileSize) {
+        // Synchronized because the tile size is handed to the loading helpers through a static.
         targetTileSize = Math.max(1, tileSize);
+        BUILDS.incrementAndGet();
         DungeonTextures fromAssets = tryLoadAssets();
         return fromAssets != null ? fromAssets : procedural();
     }
 
+    /**
+     * The textures for {@code tileSize}, built by the first caller and shared with every later one. They are built
+     * again only when {@link #contentVersion()} changes, and the textures for the old art are dropped then.
+     */
+    public static DungeonTextures shared(int tileSize) {
+        Key key = new Key(Math.max(1, tileSize), contentVersion());
+        DungeonTextures textures = SHARED.get(key);
+        if (textures != null) {
+            return textures;
+        }
+        textures = SHARED.computeIfAbsent(key, k -> load(k.tileSize()));
+        SHARED.keySet().removeIf(other -> other.contentVersion() != key.contentVersion());
+        return textures;
+    }
+
+    /**
+     * Order-independent hash of the name, size and modification time of every indexed file under the texture
+     * directories. Worked out from the {@link ResourceIndex} in memory, so checking it costs no I/O.
+     */
+    public static long contentVersion() {
+        ResourceIndex index = ResourceLoader.index();
+        Version last = lastVersion;
+        if (last != null && last.index() == index) {
+            return last.value();
+        }
+        int count = 0;
+        long sum = 0L;
+        for (String path : index.paths()) {
+            if (!isContent(path)) {
+                continue;
+            }
+            ResourceIndex.Stat stat = index.stat(path);
+            long hash = path.hashCode();
+            if (stat != null) {
+                hash = (hash * 31 + stat.size()) * 31 + stat.lastModified();
+            }
+            count++;
+            sum += hash * 0x9E3779B97F4A7C15L;
+        }
+        long version = sum + count;
+        lastVersion = new Version(index, version);
+        return version;
+    }
+
+    /** Texture sets built so far by {@link #load(int)}, whether directly or for {@link #shared(int)}. */
+    public static long builds() {
+        return BUILDS.get();
+    }
+
+    private static boolean isContent(String path) {
+        for (String prefix : CONTENT_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Exposed for tests: returns a basic procedural palette so the game can run without external art.
      */
@@ -122,10 +219,10 @@ public final class DungeonTextures {
         BufferedImage[] floors = new BufferedImage[4];
         BufferedImage[] walls = new BufferedImage[3];
         for (int i = 0; i < floors.length; i++) {
-            floors[i] = upscaleTile(makeTile(new Color(18 + i * 4, 64 + i * 3, 78 + i * 4), new Color(12, 42, 56)));
+            floors[i] = indexedTile(makeTile(new Color(18 + i * 4, 64 + i * 3, 78 + i * 4), new Color(12, 42, 56)));
         }
         for (int i = 0; i < walls.length; i++) {
-            walls[i] = upscaleTile(makeTile(new Color(46 + i * 6, 126 + i * 5, 146 + i * 4), new Color(28, 82, 96)));
+            walls[i] = indexedTile(makeTile(new Color(46 + i * 6, 126 + i * 5, 146 + i * 4), new Color(28, 82, 96)));
         }
         BufferedImage door = upscaleTile(makeTile(new Color(38, 80, 92), new Color(24, 60, 70)));
         Graphics2D g = door.createGraphics();
@@ -166,6 +263,49 @@ public final class DungeonTextures {
         return wallCells[Math.floorMod(index, wallCells.length)];
     }
 
+    /**
+     * Floor variant {@code index} with {@code tint} blended over it at {@code alpha}, as filling the tile with the
+     * tint at that opacity would draw it. Built once per tint through the tile's palette; {@code null} when the
+     * tile is not an opaque indexed sprite, and the caller then fills over the plain variant.
+     */
+    public BufferedImage tintedFloorVariant(int index, Color tint, float alpha) {
+        return floorCells.length == 0 ? null
+                : tinted(false, Math.floorMod(index, floorCells.length), floorCells, tint, alpha);
+    }
+
+    /** Wall counterpart of {@link #tintedFloorVariant}. */
+    public BufferedImage tintedWallVariant(int index, Color tint, float alpha) {
+        return wallCells.length == 0 ? null
+                : tinted(true, Math.floorMod(index, wallCells.length), wallCells, tint, alpha);
+    }
+
+    private BufferedImage tinted(boolean wall, int index, BufferedImage[] cells, Color tint, float alpha) {
+        if (tint == null) {
+            return null;
+        }
+        IndexedSprite sprite = IndexedSprite.of(cells[index]).filter(IndexedSprite::isOpaque).orElse(null);
+        if (sprite == null) {
+            return null;
+        }
+        Tint key = new Tint(wall, index, tint.getRGB(), Float.floatToIntBits(alpha));
+        return tinted.computeIfAbsent(key, k -> sprite.recolour(blendOver(tint, alpha)));
+    }
+
+    /** Source-over of {@code tint} at {@code alpha} onto an opaque colour, rounded as Java2D rounds it. */
+    private static IntUnaryOperator blendOver(Color tint, float alpha) {
+        float a = Math.max(0f, Math.min(1f, alpha * tint.getAlpha() / 255f));
+        int[] over = {tint.getRed(), tint.getGreen(), tint.getBlue()};
+        return argb -> {
+            int result = 0xFF000000;
+            for (int c = 0; c < 3; c++) {
+                int shift = 16 - c * 8;
+                int under = (argb >> shift) & 0xFF;
+                result |= Math.round(over[c] * a + under * (1f - a)) << shift;
+            }
+            return result;
+        };
+    }
+
     public BufferedImage doorFloor() {
         return doorFloor != null ? doorFloor : floorVariant(0);
     }
@@ -238,8 +378,8 @@ public final class DungeonTextures {
             BufferedImage floorSheet = loadFirstExistingImage(FLOOR_SHEETS);
             BufferedImage wallSheet = loadFirstExistingImage(WALL_SHEETS);
             if (floorSheet != null && wallSheet != null) {
-                BufferedImage[] sheetFloors = upscaleTiles(sliceSheet(floorSheet, 16));
-                BufferedImage[] sheetWalls = upscaleTiles(sliceSheet(wallSheet, 16));
+                BufferedImage[] sheetFloors = indexedTiles(sliceSheet(floorSheet, 16));
+                BufferedImage[] sheetWalls = indexedTiles(sliceSheet(wallSheet, 16));
                 if (sheetFloors.length > 0 && sheetWalls.length > 0) {
                     sheetFloors = ensureVariety(sheetFloors, 6, 0.05f);
                     sheetWalls = ensureVariety(sheetWalls, 6, 0.04f);
@@ -285,12 +425,15 @@ public final class DungeonTextures {
 
         List<BufferedImage> images = new ArrayList<>();
         for (Path path : uniqueFiles.values()) {
-            try (InputStream in = Files.newInputStream(path)) {
-                BufferedImage img = ImageIO.read(in);
-                if (img != null) {
-                    images.add(upscaleTile(img));
+            BufferedImage img = ResourceLoader.preloaded(relativeDir + "/" + path.getFileName());
+            if (img == null) {
+                try (InputStream in = Files.newInputStream(path)) {
+                    img = ImageIO.read(in);
                 }
             }
+            if (img != null) {
+                images.add(indexedTile(img));
+            }
         }
         for (Map.Entry<String, String> entry : resourceFiles.entrySet()) {
             if (uniqueFiles.containsKey(entry.getKey())) {
@@ -299,7 +442,7 @@ public final class DungeonTextures {
             try {
                 BufferedImage img = ResourceLoader.image(entry.getValue());
                 if (img != null) {
-                    images.add(upscaleTile(img));
+                    images.add(indexedTile(img));
                 }
             } catch (IOException ex) {
                 System.err.println("Failed to load tile variant: " + entry.getValue() + " -> " + ex.getMessage());
@@ -401,13 +544,12 @@ public final class DungeonTextures {
     }
 
     private static BufferedImage loadImageIfExists(String relativePath) throws IOException {
-        try (InputStream fromResource = ResourceLoader.open(relativePath)) {
-            if (fromResource != null) {
-                BufferedImage image = ImageIO.read(fromResource);
-                if (image != null) {
-                    return image;
-                }
-            }
+        BufferedImage fromResource = ResourceLoader.imageIfPresent(relativePath);
+        if (fromResource != null) {
+            return fromResource;
+        }
+        if (MISSING_IMAGES.contains(relativePath)) {
+            return null;
         }
 
         for (Path base : candidateRoots()) {
@@ -421,20 +563,35 @@ public final class DungeonTextures {
                 }
             }
         }
+        MISSING_IMAGES.add(relativePath);
         return null;
     }
 
-    private static BufferedImage[] upscaleTiles(BufferedImage[] source) {
+    private static BufferedImage[] indexedTiles(BufferedImage[] source) {
         if (source == null) {
             return new BufferedImage[0];
         }
         BufferedImage[] scaled = new BufferedImage[source.length];
         for (int i = 0; i < source.length; i++) {
-            scaled[i] = upscaleTile(source[i]);
+            scaled[i] = indexedTile(source[i]);
         }
         return scaled;
     }
 
+    /**
+     * A floor or wall tile at the target size: indexed at its source size and scaled nearest-neighbour so it keeps
+     * its palette, or scaled as ARGB when it has more than 256 colours.
+     */
+    private static BufferedImage indexedTile(BufferedImage img) {
+        if (img == null) {
+            return null;
+        }
+        int target = Math.max(1, targetTileSize);
+        return IndexedSprite.tryIndex(img)
+                .map(sprite -> sprite.scaled(target, target).image())
+                .orElseGet(() -> upscaleTile(img));
+    }
+
     private static BufferedImage upscaleTile(BufferedImage img) {
         if (img == null) {
             return null;
@@ -449,12 +606,20 @@ public final class DungeonTextures {
         }
         List<BufferedImage> enriched = new ArrayList<>(Arrays.asList(base));
         int original = base.length;
+        // Indexed tiles give every variant their pixels; a variant only carries a new palette.
+        IndexedSprite[] indexed = new IndexedSprite[original];
+        for (int i = 0; i < original; i++) {
+            indexed[i] = IndexedSprite.of(base[i]).orElse(null);
+        }
         for (int i = 0; enriched.size() < targetVariants; i++) {
             BufferedImage source = base[i % original];
+            IndexedSprite sprite = indexed[i % original];
             float shift = hueStep * (i + 1);
             float satScale = 0.92f + (i % 3) * 0.06f;
             float brightScale = 0.9f + ((i % 2 == 0) ? 0.08f : -0.04f);
-            enriched.add(tintTile(source, shift, satScale, brightScale));
+            enriched.add(sprite != null
+                    ? sprite.recolour(IndexedSprite.hsbShift(shift, satScale, brightScale))
+                    : tintTile(source, shift, satScale, brightScale));
         }
         return enriched.toArray(new BufferedImage[0]);
     }
@@ -537,7 +702,8 @@ public final class DungeonTextures {
                 int w = Math.min(cell, sheet.getWidth() - px);
                 int h = Math.min(cell, sheet.getHeight() - py);
                 if (w > 0 && h > 0) {
-                    slices.add(sheet.getSubimage(px, py, w, h));
+                    // A tile of its own rather than a view into the sheet, so each can be cached and drawn alone.
+                    slices.add(CompatibleImages.forDisplay(sheet.getSubimage(px, py, w, h)));
                 }
             }
         }
@@ -1,21 +1,44 @@
 package fx;
 
 import gfx.AnimatedSprite;
+import gfx.ImageCache;
 
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
-/** Utility for loading boss attack animations from authored frame sequences. */
+/**
+ * Utility for loading boss attack animations from authored frame sequences.
+ * <p>
+ * Frames live in the shared {@link ImageCache}, which charges them to its byte budget and evicts least recently
+ * used first. {@link #prefetch} loads attacks on a background thread ahead of the turn that plays them and pins them
+ * in the cache until they are played or {@link #releasePrefetched()} is called, so the budget cannot drop them first.
+ */
 public final class BossFXLibrary {
     private BossFXLibrary() {
     }
 
-    private static final Map<String, BufferedImage[]> ATTACK_CACHE = new LinkedHashMap<>();
+    private static final ImageCache.Namespace ATTACK_CACHE = ImageCache.shared().namespace("boss-attacks");
+    private static final AtomicLong PREFETCHED = new AtomicLong();
+    /** Attacks pinned by {@link #prefetch} and not yet played. */
+    private static final Set<String> PINNED = ConcurrentHashMap.newKeySet();
+
+    private static final class PrefetchHolder {
+        static final ExecutorService PREFETCH = Executors.newSingleThreadExecutor(task -> {
+            Thread t = new Thread(task, "boss-fx-prefetch");
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);
+            return t;
+        });
+    }
 
     public static FrameAnim attack(String attackId, double fps) {
         return attack(attackId, fps, false);
@@ -24,6 +47,9 @@ public final class BossFXLibrary {
     public static FrameAnim attack(String attackId, double fps, boolean loop) {
         String normalized = normalize(attackId);
         BufferedImage[] frames = loadFrames(normalized);
+        if (PINNED.remove(normalized)) {
+            ATTACK_CACHE.unpin(normalized);
+        }
         if (frames.length == 0) {
             throw new IllegalStateException("Missing boss attack frames for: " + attackId);
         }
@@ -39,6 +65,56 @@ public final class BossFXLibrary {
         return frames.clone();
     }
 
+    /**
+     * Load the frames of {@code attackIds} in the background and pin them until {@link #attack} plays them. Attacks
+     * already cached are pinned all the same. Attacks that have no frames are left for {@link #attack} to report
+     * when they are played.
+     *
+     * @return completes once every attack has been looked up
+     */
+    public static CompletableFuture<Void> prefetch(Collection<String> attackIds) {
+        LinkedHashSet<String> normalized = new LinkedHashSet<>();
+        for (String attackId : attackIds) {
+            normalized.add(normalize(attackId));
+        }
+        if (normalized.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            for (String attackId : normalized) {
+                boolean cached = ATTACK_CACHE.contains(attackId);
+                BufferedImage[] frames = ATTACK_CACHE.pinnedFrames(attackId, () -> readFrames(attackId));
+                if (frames.length == 0) {
+                    ATTACK_CACHE.unpin(attackId);
+                    continue;
+                }
+                PINNED.add(attackId);
+                if (!cached && ATTACK_CACHE.contains(attackId)) {
+                    PREFETCHED.incrementAndGet();
+                }
+            }
+        }, PrefetchHolder.PREFETCH);
+    }
+
+    /** Whether the frames of {@code attackId} are in the cache, so playing it needs no loading. */
+    public static boolean isCached(String attackId) {
+        return ATTACK_CACHE.contains(normalize(attackId));
+    }
+
+    /** Unpin every prefetched attack that was not played, for example when the battle ends. */
+    public static void releasePrefetched() {
+        for (String attackId : PINNED) {
+            if (PINNED.remove(attackId)) {
+                ATTACK_CACHE.unpin(attackId);
+            }
+        }
+    }
+
+    /** Attacks {@link #prefetch} loaded into the cache so far. */
+    public static long prefetched() {
+        return PREFETCHED.get();
+    }
+
     private static String normalize(String attackId) {
         if (attackId == null || attackId.trim().isEmpty()) {
             throw new IllegalArgumentException("attackId must not be blank");
@@ -47,39 +123,19 @@ public final class BossFXLibrary {
     }
 
     private static BufferedImage[] loadFrames(String normalizedAttackId) {
-        synchronized (ATTACK_CACHE) {
-            BufferedImage[] cached = ATTACK_CACHE.get(normalizedAttackId);
-            if (cached != null) {
-                return cached;
-            }
-            String base = "/resources/bosses/attacks/" + normalizedAttackId;
-            for (String candidate : attackDirectories(base)) {
-                BufferedImage[] frames = AnimatedSprite.loadFramesFromDirectory(candidate);
-                if (frames.length > 0) {
-                    BufferedImage[] aligned = AnimatedSprite.normaliseFrames(frames);
-                    BufferedImage[] stored = (aligned != null) ? aligned : frames;
-                    ATTACK_CACHE.put(normalizedAttackId, stored);
-                    trimCache();
-                    return stored;
-                }
-            }
-            ATTACK_CACHE.put(normalizedAttackId, new BufferedImage[0]);
-            trimCache();
-            return new BufferedImage[0];
-        }
+        return ATTACK_CACHE.frames(normalizedAttackId, () -> readFrames(normalizedAttackId));
     }
 
-    private static void trimCache() {
-        final int maxEntries = 64;
-        if (ATTACK_CACHE.size() <= maxEntries) {
-            return;
-        }
-        int excess = ATTACK_CACHE.size() - maxEntries;
-        Iterator<Map.Entry<String, BufferedImage[]>> it = ATTACK_CACHE.entrySet().iterator();
-        while (excess-- > 0 && it.hasNext()) {
-            it.next();
-            it.remove();
+    private static BufferedImage[] readFrames(String normalizedAttackId) {
+        String base = "/resources/bosses/attacks/" + normalizedAttackId;
+        for (String candidate : attackDirectories(base)) {
+            BufferedImage[] frames = AnimatedSprite.loadFramesFromDirectory(candidate);
+            if (frames.length > 0) {
+                BufferedImage[] aligned = AnimatedSprite.normaliseFrames(frames);
+                return (aligned != null) ? aligned : frames;
+            }
         }
+        return new BufferedImage[0];
     }
 
     private static List<String> attackDirectories(String base) {
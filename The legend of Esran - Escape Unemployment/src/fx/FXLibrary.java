@@ -1,21 +1,20 @@
 package fx;
 
+import gfx.ImageCache;
 import util.ResourceLoader;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /** Factory of ready-made effects matching your folder layout. */
 public final class FXLibrary {
     private FXLibrary() {}
 
-    private static final Map<String, BufferedImage> IMAGE_CACHE = new ConcurrentHashMap<>();
-    private static final Map<String, BufferedImage[]> FRAME_CACHE = new ConcurrentHashMap<>();
+    private static final ImageCache.Namespace IMAGE_CACHE = ImageCache.shared().namespace("fx-images");
+    private static final ImageCache.Namespace FRAME_CACHE = ImageCache.shared().namespace("fx-frames");
 
     private static BufferedImage load(String path) {
-        return IMAGE_CACHE.computeIfAbsent(path, FXLibrary::loadImageUnchecked);
+        return IMAGE_CACHE.image(path, () -> loadImageUnchecked(path));
     }
 
     private static BufferedImage loadImageUnchecked(String path) {
@@ -28,8 +27,7 @@ public final class FXLibrary {
 
     private static FrameAnim sequence1Based(String base, String ext, int count, double fps, boolean loop) {
         String key = "seq|" + base + "|" + ext + "|" + count;
-        BufferedImage[] frames = FRAME_CACHE.computeIfAbsent(key,
-                unused -> loadSequenceFrames(base, ext, count));
+        BufferedImage[] frames = FRAME_CACHE.frames(key, () -> loadSequenceFrames(base, ext, count));
         return FrameAnim.fromFrames(frames, fps, loop);
     }
 
@@ -45,8 +43,7 @@ public final class FXLibrary {
 
     private static FrameAnim sheet(String path, int cols, int rows, double fps, boolean loop) {
         String key = "sheet|" + path + "|" + cols + "x" + rows;
-        BufferedImage[] frames = FRAME_CACHE.computeIfAbsent(key,
-                unused -> sliceSheet(path, cols, rows));
+        BufferedImage[] frames = FRAME_CACHE.frames(key, () -> sliceSheet(path, cols, rows));
         return FrameAnim.fromFrames(frames, fps, loop);
     }
 
@@ -0,0 +1,72 @@
+package gfx;
+
+import java.awt.Composite;
+import java.awt.CompositeContext;
+import java.awt.RenderingHints;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+/**
+ * Java2D counterpart of {@link SpriteBlitter.Mode#ADDITIVE}: adds the premultiplied source colour to the destination,
+ * saturating at white, and adds the alpha the same way. Java2D has no built-in additive rule, so this runs as a
+ * software loop; use it for small sprites such as particles, set once for a run of draws.
+ */
+final class AdditiveComposite implements Composite {
+
+    static final AdditiveComposite INSTANCE = new AdditiveComposite();
+
+    private AdditiveComposite() {
+    }
+
+    @Override
+    public CompositeContext createContext(ColorModel srcColorModel, ColorModel dstColorModel, RenderingHints hints) {
+        return new Context(srcColorModel, dstColorModel);
+    }
+
+    private static final class Context implements CompositeContext {
+        private final ColorModel srcModel;
+        private final ColorModel dstModel;
+
+        Context(ColorModel srcModel, ColorModel dstModel) {
+            this.srcModel = srcModel;
+            this.dstModel = dstModel;
+        }
+
+        @Override
+        public void compose(Raster src, Raster dstIn, WritableRaster dstOut) {
+            int w = Math.min(src.getWidth(), dstIn.getWidth());
+            int h = Math.min(src.getHeight(), dstIn.getHeight());
+            Object srcPixel = null;
+            Object dstPixel = null;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    srcPixel = src.getDataElements(src.getMinX() + x, src.getMinY() + y, srcPixel);
+                    dstPixel = dstIn.getDataElements(dstIn.getMinX() + x, dstIn.getMinY() + y, dstPixel);
+                    int s = srcModel.getRGB(srcPixel);
+                    int sa = s >>> 24;
+                    if (sa != 0) {
+                        dstPixel = dstModel.getDataElements(add(dstModel.getRGB(dstPixel), s, sa), dstPixel);
+                    }
+                    dstOut.setDataElements(dstOut.getMinX() + x, dstOut.getMinY() + y, dstPixel);
+                }
+            }
+        }
+
+        /** {@code d + s} in premultiplied space, both given and returned as straight ARGB. */
+        private static int add(int d, int s, int sa) {
+            int da = d >>> 24;
+            int a = Math.min(255, da + sa);
+            int result = a << 24;
+            for (int shift = 0; shift < 24; shift += 8) {
+                int sum = ((d >> shift) & 0xFF) * da / 255 + ((s >> shift) & 0xFF) * sa / 255;
+                result |= Math.min(255, Math.min(sum, 255) * 255 / a) << shift;
+            }
+            return result;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
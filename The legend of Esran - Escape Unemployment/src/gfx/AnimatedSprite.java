@@ -1,19 +1,14 @@
 package gfx;
 
+import util.CompatibleImages;
 import util.ResourceLoader;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.EnumMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -27,7 +22,13 @@ import java.util.function.Consumer;
 public class AnimatedSprite {
     public enum State { IDLE, RUN, HIT }
 
+    /** GIF loops up to this size are baked into frames; longer ones play from the GIF. */
+    private static final long GIF_BAKE_BYTES = 8L * 1024 * 1024;
+    /** Finished frames a GIF played without baking keeps around the playhead. */
+    private static final int GIF_CACHE_FRAMES = 2;
+
     private final Map<State, BufferedImage[]> states = new EnumMap<>(State.class);
+    private final Map<State, GifAnimation> gifs = new EnumMap<>(State.class);
     private int maxFrameWidth = 0;
     private int maxFrameHeight = 0;
     private State state = State.IDLE;
@@ -48,6 +49,7 @@ public class AnimatedSprite {
         BufferedImage[] normalised = normaliseFrames(frames);
         if (normalised != null && normalised.length > 0) {
             states.put(s, normalised);
+            gifs.remove(s);
             for (BufferedImage frame : normalised) {
                 if (frame == null) {
                     continue;
@@ -62,6 +64,35 @@ public class AnimatedSprite {
         }
     }
 
+    /**
+     * Play {@code gif} for state {@code s}. A loop within the bake budget is composited into frames up front;
+     * a longer one is decoded as it plays and keeps only a couple of frames.
+     */
+    public void add(State s, GifAnimation gif) throws IOException {
+        if (gif.loopBytes() <= GIF_BAKE_BYTES) {
+            add(s, gif.bake());
+            return;
+        }
+        states.remove(s);
+        gifs.put(s, gif);
+        maxFrameWidth = Math.max(maxFrameWidth, gif.width());
+        maxFrameHeight = Math.max(maxFrameHeight, gif.height());
+    }
+
+    /** Load a GIF resource for a state; see {@link #add(State, GifAnimation)}. */
+    public boolean addFromGif(State s, String resourcePath) {
+        if (resourcePath == null || resourcePath.isBlank() || !ResourceLoader.exists(resourcePath)) {
+            return false;
+        }
+        try {
+            add(s, GifAnimation.open(resourcePath, GIF_CACHE_FRAMES, GIF_BAKE_BYTES));
+            return true;
+        } catch (IOException ex) {
+            System.err.println("Failed to load GIF: " + resourcePath + " -> " + ex.getMessage());
+            return false;
+        }
+    }
+
     /** Load frames from a classpath prefix: /path/name_f  -> name_f0.png ... */
     public boolean addFromPrefix(State s, String resourcePrefix) {
         BufferedImage[] frames = loadFramesFromPrefix(resourcePrefix);
@@ -82,6 +113,11 @@ public class AnimatedSprite {
             return new BufferedImage[0];
         }
 
+        List<String> known = FrameSequenceManifest.shared().frames(resourcePrefix);
+        if (known != null) {
+            return loadListedFrames(known, maxFrames);
+        }
+
         int[] starts = {0, 1};
         int[] padWidths = {0, 2, 3};
         for (int start : starts) {
@@ -95,6 +131,19 @@ public class AnimatedSprite {
         return new BufferedImage[0];
     }
 
+    private static BufferedImage[] loadListedFrames(List<String> resources, int maxFrames) {
+        int count = Math.min(resources.size(), Math.max(1, maxFrames));
+        ArrayList<BufferedImage> frames = new ArrayList<>(count);
+        for (int idx = 0; idx < count; idx++) {
+            BufferedImage frame = readImage(resources.get(idx));
+            if (frame == null) {
+                break;
+            }
+            frames.add(frame);
+        }
+        return frames.toArray(new BufferedImage[0]);
+    }
+
     private static BufferedImage[] loadSequence(String resourcePrefix, int startIndex, int padWidth, int maxFrames) {
         ArrayList<BufferedImage> frames = new ArrayList<>();
         int limit = Math.max(1, maxFrames);
@@ -122,31 +171,30 @@ public class AnimatedSprite {
     private static BufferedImage readFrame(String basePath) {
         String[] extensions = {".png", ".PNG"};
         for (String ext : extensions) {
-            String path = basePath + ext;
-            try (InputStream is = ResourceLoader.open(path)) {
-                if (is == null) {
-                    continue;
-                }
-                BufferedImage image = ImageIO.read(is);
-                if (image != null) {
-                    return image;
-                }
-            } catch (IOException ex) {
-                System.err.println("Failed to load anim frame: " + path + " -> " + ex.getMessage());
-                return null;
+            if (!ResourceLoader.exists(basePath + ext)) {
+                continue;
             }
+            return readImage(basePath + ext);
         }
         return null;
     }
 
+    private static BufferedImage readImage(String path) {
+        try {
+            return ResourceLoader.imageIfPresent(path);
+        } catch (IOException ex) {
+            System.err.println("Failed to load anim frame: " + path + " -> " + ex.getMessage());
+            return null;
+        }
+    }
+
     /** Load all PNG frames that live directly under a resource directory. */
     public static BufferedImage[] loadFramesFromDirectory(String resourceDirectory) {
-        List<String> resources = ResourceLoader.listPng(resourceDirectory);
+        List<String> resources = framePathsInDirectory(resourceDirectory);
         if (resources.isEmpty()) {
             return new BufferedImage[0];
         }
 
-        resources.sort(AnimatedSprite::compareFramePaths);
         List<BufferedImage> frames = new ArrayList<>(resources.size());
         for (String resource : resources) {
             try {
@@ -158,43 +206,29 @@ public class AnimatedSprite {
         return frames.toArray(new BufferedImage[0]);
     }
 
-    /** Attempt to load every frame from a GIF resource. */
+    /** The PNG frames directly under a resource directory in playback order, without decoding them. */
+    public static List<String> framePathsInDirectory(String resourceDirectory) {
+        List<String> resources = new ArrayList<>(ResourceLoader.listPng(resourceDirectory));
+        resources.sort(AnimatedSprite::compareFramePaths);
+        return resources;
+    }
+
+    /**
+     * Attempt to load every frame from a GIF resource, each composited over the frames before it as a browser
+     * shows them. Only a loop within the bake budget is kept whole; a longer one gives just its first frame, and
+     * {@link #addFromGif} or {@link GifAnimation} play it without holding every frame.
+     */
     public static BufferedImage[] loadGifFrames(String resourcePath) {
-        if (resourcePath == null || resourcePath.isBlank()) {
+        if (resourcePath == null || resourcePath.isBlank() || !ResourceLoader.exists(resourcePath)) {
             return new BufferedImage[0];
         }
-        try (InputStream raw = ResourceLoader.open(resourcePath)) {
-            if (raw == null) {
-                return new BufferedImage[0];
-            }
-            try (ImageInputStream stream = ImageIO.createImageInputStream(new BufferedInputStream(raw))) {
-                if (stream == null) {
-                    return new BufferedImage[0];
-                }
-                Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
-                if (!readers.hasNext()) {
-                    return new BufferedImage[0];
-                }
-                ImageReader reader = readers.next();
-                try {
-                    reader.setInput(stream, false, false);
-                    int count = reader.getNumImages(true);
-                    List<BufferedImage> frames = new ArrayList<>(Math.max(1, count));
-                    for (int i = 0; i < count; i++) {
-                        try {
-                            BufferedImage frame = reader.read(i);
-                            if (frame != null) {
-                                frames.add(frame);
-                            }
-                        } catch (IndexOutOfBoundsException ignored) {
-                            break;
-                        }
-                    }
-                    return frames.toArray(new BufferedImage[0]);
-                } finally {
-                    reader.dispose();
-                }
+        try {
+            GifAnimation gif = GifAnimation.open(resourcePath, 1, GIF_BAKE_BYTES);
+            if (gif.loopBytes() <= GIF_BAKE_BYTES) {
+                return gif.bake();
             }
+            // Nothing else holds the animation, so its one cached frame is never recycled.
+            return new BufferedImage[]{gif.frame(0)};
         } catch (IOException ex) {
             throw new RuntimeException("Failed to load GIF frames: " + resourcePath, ex);
         }
@@ -322,7 +356,7 @@ public class AnimatedSprite {
             if (frame == null) {
                 frame = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
             }
-            BufferedImage padded = new BufferedImage(maxW, maxH, BufferedImage.TYPE_INT_ARGB);
+            BufferedImage padded = CompatibleImages.createTranslucent(maxW, maxH);
             Graphics2D g = padded.createGraphics();
             try {
                 int x = (maxW - frame.getWidth()) / 2;
@@ -337,17 +371,40 @@ public class AnimatedSprite {
     }
 
     public void update(double dt) {
-        var seq = states.get(state);
-        if (seq == null || seq.length <= 1) return;
+        int count = frameCount(state);
+        if (count <= 1) return;
         t += dt; double fpf = 1.0 / fps;
-        while (t >= fpf) { t -= fpf; i = (i + 1) % seq.length; }
+        while (t >= fpf) { t -= fpf; i = (i + 1) % count; }
     }
 
+    /**
+     * The current frame. One played from a GIF over the bake budget is recycled once a couple of later frames
+     * have been decoded, so draw it rather than keep it.
+     */
     public BufferedImage frame() {
+        GifAnimation gif = gifs.get(state);
+        if (gif != null) {
+            try {
+                return gif.frame(i % gif.frameCount());
+            } catch (IOException ex) {
+                System.err.println("Failed to decode GIF frame: " + ex.getMessage());
+                gifs.remove(state);
+                return null;
+            }
+        }
         var seq = states.get(state);
         return (seq == null || seq.length == 0) ? null : seq[i % seq.length];
     }
 
+    private int frameCount(State s) {
+        GifAnimation gif = gifs.get(s);
+        if (gif != null) {
+            return gif.frameCount();
+        }
+        var seq = states.get(s);
+        return seq == null ? 0 : seq.length;
+    }
+
     public int maxFrameWidth() {
         return maxFrameWidth;
     }
@@ -360,6 +417,7 @@ public class AnimatedSprite {
      * Visit every frame stored across all animation states.
      * Frames are provided in insertion order so callers can perform
      * cache warm-up or analysis without exposing the internal arrays.
+     * States played from a GIF without baking are skipped rather than decoded.
      */
     public void forEachFrame(Consumer<BufferedImage> consumer) {
         Objects.requireNonNull(consumer, "consumer");
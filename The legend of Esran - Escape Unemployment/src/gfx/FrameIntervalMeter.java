@@ -0,0 +1,92 @@
+package gfx;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of frame-to-frame intervals used to report pacing statistics (mean, percentiles, jitter).
+ * Not thread-safe; callers record and query from the thread that presents frames.
+ */
+public final class FrameIntervalMeter {
+
+    private final long[] intervals;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int next;
+    private int size;
+
+    public FrameIntervalMeter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.intervals = new long[capacity];
+    }
+
+    /** Record a frame boundary at {@code timestampNanos}; the first call only establishes the baseline. */
+    public void mark(long timestampNanos) {
+        if (lastTimestamp != Long.MIN_VALUE) {
+            record(timestampNanos - lastTimestamp);
+        }
+        lastTimestamp = timestampNanos;
+    }
+
+    /** Record a measured duration directly, e.g. the time spent painting a frame. */
+    public void record(long durationNanos) {
+        intervals[next] = Math.max(0L, durationNanos);
+        next = (next + 1) % intervals.length;
+        if (size < intervals.length) {
+            size++;
+        }
+    }
+
+    public void reset() {
+        lastTimestamp = Long.MIN_VALUE;
+        next = 0;
+        size = 0;
+    }
+
+    public int sampleCount() {
+        return size;
+    }
+
+    public double averageMillis() {
+        if (size == 0) {
+            return 0.0;
+        }
+        long total = 0L;
+        for (int i = 0; i < size; i++) {
+            total += intervals[i];
+        }
+        return total / (double) size / 1_000_000.0;
+    }
+
+    /** @param percentile value between 0 and 100 */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0.0;
+        }
+        long[] sorted = Arrays.copyOf(intervals, size);
+        Arrays.sort(sorted);
+        double clamped = Math.max(0.0, Math.min(100.0, percentile));
+        int index = (int) Math.ceil(clamped / 100.0 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))] / 1_000_000.0;
+    }
+
+    /** Standard deviation of the recorded intervals in milliseconds. */
+    public double jitterMillis() {
+        if (size < 2) {
+            return 0.0;
+        }
+        double mean = averageMillis() * 1_000_000.0;
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            double delta = intervals[i] - mean;
+            sum += delta * delta;
+        }
+        return Math.sqrt(sum / size) / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d avg=%.2fms p99=%.2fms jitter=%.2fms",
+                size, averageMillis(), percentileMillis(99), jitterMillis());
+    }
+}
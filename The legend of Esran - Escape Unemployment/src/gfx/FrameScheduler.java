@@ -0,0 +1,310 @@
+package gfx;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.Timer;
+
+/**
+ * One clock for every animated Swing component.
+ * <p>
+ * Components register a {@link Ticker} instead of starting their own {@link Timer}. Each ticker runs in one of
+ * three {@link Mode}s: {@link Mode#CONTINUOUS} ticks at the component's frame rate, {@link Mode#IDLE} ticks at a low
+ * rate for slow ambient animation, and {@link Mode#ON_DEMAND} ticks only after {@link Ticker#requestFrame()}. The
+ * scheduler arms a single one-shot Swing timer for the earliest due ticker, fires every ticker that is due on that
+ * wake-up, and stops the timer entirely when nothing is due, so an idle game costs no wake-ups at all.
+ * <p>
+ * Only running tickers are referenced by the scheduler, so a panel that is stopped and dropped can be collected
+ * without an explicit {@link Ticker#cancel()}. CPU time spent in each ticker is measured with {@link ThreadMXBean}
+ * (wall time where the JVM cannot measure thread CPU time) and reported through {@link #usage()}, every
+ * {@value #REPORT_INTERVAL_SECONDS} seconds at {@code FINE} on this class's logger, and once more when a ticker
+ * stops.
+ * <p>
+ * Everything runs on the event dispatch thread; register, change modes and cancel from there too.
+ */
+public final class FrameScheduler {
+    private static final Logger LOGGER = Logger.getLogger(FrameScheduler.class.getName());
+
+    /** Idle tick rate used until {@link Ticker#setIdleFps(int)} says otherwise. */
+    public static final int DEFAULT_IDLE_FPS = 8;
+    static final int REPORT_INTERVAL_SECONDS = 10;
+    /** Tickers due within this window of the wake-up fire together instead of arming another wake-up. */
+    private static final long COALESCE_NANOS = 1_000_000L;
+
+    private static final FrameScheduler SHARED = new FrameScheduler();
+
+    public enum Mode {
+        /** Tick at the ticker's frame rate. */
+        CONTINUOUS,
+        /** Tick at the ticker's idle rate, for ambient animation while waiting on the player. */
+        IDLE,
+        /** Tick once after each {@link Ticker#requestFrame()}, otherwise never. */
+        ON_DEMAND
+    }
+
+    /** Work done on each tick. */
+    @FunctionalInterface
+    public interface Client {
+        /** @param dtSeconds time since this ticker last ran, or since it was started */
+        void tick(double dtSeconds);
+    }
+
+    /** Accumulated cost of one ticker since it was registered. */
+    public record Usage(String name, Mode mode, boolean running, long ticks, long cpuNanos) {
+        public double cpuMillis() {
+            return cpuNanos / 1_000_000.0;
+        }
+    }
+
+    private final List<Ticker> active = new ArrayList<>();
+    private final Timer clock;
+    private final ThreadMXBean threads;
+    private final boolean cpuTimed;
+    private long lastReportNanos = System.nanoTime();
+    private long wakeUps;
+
+    public FrameScheduler() {
+        clock = new Timer(0, e -> onClock());
+        clock.setRepeats(false);
+        clock.setCoalesce(true);
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        boolean supported = bean.isCurrentThreadCpuTimeSupported();
+        if (supported && !bean.isThreadCpuTimeEnabled()) {
+            try {
+                bean.setThreadCpuTimeEnabled(true);
+            } catch (UnsupportedOperationException | SecurityException ex) {
+                supported = false;
+            }
+        }
+        threads = bean;
+        cpuTimed = supported;
+    }
+
+    /** The scheduler shared by the game's panels and dialogs. */
+    public static FrameScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Create a ticker that runs {@code client} at {@code fps} while {@link Mode#CONTINUOUS}. The ticker starts
+     * stopped, like a Swing timer; call {@link Ticker#start()} to begin.
+     */
+    public Ticker register(String name, int fps, Client client) {
+        return new Ticker(name, fps, client);
+    }
+
+    /** Whether the shared clock is armed; {@code false} means nothing is due and no wake-ups happen. */
+    public boolean isClockRunning() {
+        return clock.isRunning();
+    }
+
+    /** Clock wake-ups since construction. */
+    public long wakeUps() {
+        return wakeUps;
+    }
+
+    /** Tick counts and CPU time of the running tickers, in the order they started. */
+    public List<Usage> usage() {
+        List<Usage> result = new ArrayList<>(active.size());
+        for (Ticker t : active) {
+            result.add(t.usage());
+        }
+        return result;
+    }
+
+    private void onClock() {
+        long now = System.nanoTime();
+        wakeUps++;
+        // Tickers may start, stop or cancel others from inside a tick; iterate over a snapshot.
+        for (Ticker t : active.toArray(new Ticker[0])) {
+            if (t.dueAt() <= now + COALESCE_NANOS) {
+                t.fire(now);
+            }
+        }
+        if (now - lastReportNanos >= REPORT_INTERVAL_SECONDS * 1_000_000_000L) {
+            report(now);
+        }
+        reschedule();
+    }
+
+    private void reschedule() {
+        long earliest = Long.MAX_VALUE;
+        for (Ticker t : active) {
+            earliest = Math.min(earliest, t.dueAt());
+        }
+        if (earliest == Long.MAX_VALUE) {
+            clock.stop();
+            return;
+        }
+        long delayNanos = Math.max(0L, earliest - System.nanoTime());
+        clock.setInitialDelay((int) Math.min(Integer.MAX_VALUE, (delayNanos + 500_000L) / 1_000_000L));
+        clock.restart();
+    }
+
+    private void report(long now) {
+        double seconds = (now - lastReportNanos) / 1_000_000_000.0;
+        lastReportNanos = now;
+        if (!LOGGER.isLoggable(Level.FINE)) {
+            for (Ticker t : active) {
+                t.windowCpuNanos = 0L;
+                t.windowTicks = 0L;
+            }
+            return;
+        }
+        StringBuilder line = new StringBuilder(String.format("Frame scheduler over %.1fs (%s):", seconds,
+                cpuTimed ? "thread CPU" : "wall time"));
+        for (Ticker t : active) {
+            line.append(String.format(" %s[%s] %d ticks %.2f ms/s;", t.name, t.mode, t.windowTicks, t.windowCpuNanos / 1_000_000.0 / seconds));
+            t.windowCpuNanos = 0L;
+            t.windowTicks = 0L;
+        }
+        LOGGER.fine(line.toString());
+    }
+
+    private long cpuNow() {
+        return cpuTimed ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /** A component's registration with the scheduler. */
+    public final class Ticker {
+        private final String name;
+        private final Client client;
+        private final long periodNanos;
+        private long idlePeriodNanos = 1_000_000_000L / DEFAULT_IDLE_FPS;
+        private Mode mode = Mode.CONTINUOUS;
+        private boolean running;
+        private boolean frameRequested;
+        private boolean cancelled;
+        private long nextDue;
+        private long lastTick;
+        private long ticks;
+        private long cpuNanos;
+        private long windowTicks;
+        private long windowCpuNanos;
+
+        private Ticker(String name, int fps, Client client) {
+            this.name = name == null ? "ticker" : name;
+            this.client = Objects.requireNonNull(client, "client");
+            this.periodNanos = 1_000_000_000L / Math.max(1, fps);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public Mode mode() {
+            return mode;
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        /** Nominal seconds between ticks in {@link Mode#CONTINUOUS}. */
+        public double periodSeconds() {
+            return periodNanos / 1_000_000_000.0;
+        }
+
+        /** Begin ticking. Ignored after {@link #cancel()}, so late callbacks cannot revive a disposed component. */
+        public void start() {
+            if (running || cancelled) {
+                return;
+            }
+            running = true;
+            active.add(this);
+            long now = System.nanoTime();
+            lastTick = now;
+            nextDue = now + currentPeriod();
+            reschedule();
+        }
+
+        public void stop() {
+            if (!running) {
+                return;
+            }
+            running = false;
+            frameRequested = false;
+            active.remove(this);
+            reschedule();
+            if (ticks > 0) {
+                LOGGER.fine(() -> String.format("%s stopped after %d ticks, %.1f ms %s", name, ticks,
+                        cpuNanos / 1_000_000.0, cpuTimed ? "CPU" : "wall"));
+            }
+        }
+
+        /** Stop for good; later {@link #start()} calls are ignored. */
+        public void cancel() {
+            cancelled = true;
+            stop();
+        }
+
+        public void setMode(Mode next) {
+            Objects.requireNonNull(next, "mode");
+            if (next == mode) {
+                return;
+            }
+            mode = next;
+            if (running && next != Mode.ON_DEMAND) {
+                // Speeding up takes effect on the next period rather than after the slow one runs out.
+                nextDue = Math.min(nextDue, System.nanoTime() + currentPeriod());
+                reschedule();
+            }
+        }
+
+        public void setIdleFps(int fps) {
+            idlePeriodNanos = 1_000_000_000L / Math.max(1, fps);
+        }
+
+        /** Tick once as soon as possible; the only way an {@link Mode#ON_DEMAND} ticker runs. */
+        public void requestFrame() {
+            frameRequested = true;
+            if (running) {
+                nextDue = Math.min(nextDue, System.nanoTime());
+                reschedule();
+            }
+        }
+
+        Usage usage() {
+            return new Usage(name, mode, running, ticks, cpuNanos);
+        }
+
+        private long currentPeriod() {
+            return mode == Mode.IDLE ? idlePeriodNanos : periodNanos;
+        }
+
+        private long dueAt() {
+            if (!running || (mode == Mode.ON_DEMAND && !frameRequested)) {
+                return Long.MAX_VALUE;
+            }
+            return nextDue;
+        }
+
+        private void fire(long now) {
+            frameRequested = false;
+            double dt = (now - lastTick) / 1_000_000_000.0;
+            lastTick = now;
+            long period = currentPeriod();
+            nextDue += period;
+            if (nextDue <= now) {
+                // Fell behind (long frame or a mode change); skip ahead instead of bursting to catch up.
+                nextDue = now + period;
+            }
+            long cpuStart = cpuNow();
+            try {
+                client.tick(dt);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Ticker " + name + " failed", ex);
+            } finally {
+                long spent = Math.max(0L, cpuNow() - cpuStart);
+                cpuNanos += spent;
+                windowCpuNanos += spent;
+                ticks++;
+                windowTicks++;
+            }
+        }
+    }
+}
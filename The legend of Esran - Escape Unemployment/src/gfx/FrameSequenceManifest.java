@@ -0,0 +1,268 @@
+package gfx;
+
+import util.ProjectDirectories;
+import util.ResourceIndex;
+import util.ResourceLoader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * The exact frame files behind every numbered-frame prefix, so {@link AnimatedSprite#loadFramesFromPrefix(String)}
+ * can load a sequence without trying each start index, zero padding and extension in turn.
+ * <p>
+ * The manifest is written at build time by the Gradle task {@code generateFrameManifest} (this class's
+ * {@link #main(String[])}), one tab-separated line per prefix: the prefix, then its frames in order. The header
+ * carries a fingerprint of the PNG file names it was generated from; when that no longer matches the
+ * {@link ResourceIndex}, or no manifest was built, the same table is derived from the index at runtime. Either way
+ * the sequences are resolved with the rules {@code loadFramesFromPrefix} has always probed with: start index 0 then
+ * 1, no padding then 2 then 3 digits, {@code .png} before {@code .PNG}, stopping at the first gap.
+ * <p>
+ * Prefixes outside the indexed tree are not covered; {@link #frames(String)} returns {@code null} for them and the
+ * caller probes as before.
+ */
+public final class FrameSequenceManifest {
+    private static final Logger LOGGER = Logger.getLogger(FrameSequenceManifest.class.getName());
+
+    /** System property naming the manifest file; otherwise {@link #DEFAULT_LOCATION} is looked up in the search roots. */
+    public static final String LOCATION_PROPERTY = "esran.frameManifest";
+    public static final String DEFAULT_LOCATION = "build/assets/frame-sequences.manifest";
+    static final String HEADER = "# frame sequences v1 ";
+    static final int MAX_FRAMES = 128;
+
+    private static final int[] STARTS = {0, 1};
+    private static final int[] PAD_WIDTHS = {0, 2, 3};
+    private static final String[] EXTENSIONS = {".png", ".PNG"};
+
+    private static final class SharedHolder {
+        static final FrameSequenceManifest SHARED = locateAndLoad(ResourceLoader.index());
+    }
+
+    private final ResourceIndex index;
+    private final Map<String, List<String>> sequences;
+
+    private FrameSequenceManifest(ResourceIndex index, Map<String, List<String>> sequences) {
+        this.index = index;
+        this.sequences = Map.copyOf(sequences);
+    }
+
+    /** The manifest for the game's resources, loaded or derived on first use. */
+    public static FrameSequenceManifest shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Frames of the sequence starting at {@code resourcePrefix}, as resource paths with a leading slash.
+     *
+     * @return the frames in order, an empty list when the prefix is covered but has no frames, or {@code null} when
+     * the prefix lies outside the indexed tree and has to be probed
+     */
+    public List<String> frames(String resourcePrefix) {
+        String key = normalize(resourcePrefix);
+        if (!index.covers(key)) {
+            return null;
+        }
+        return sequences.getOrDefault(key, List.of());
+    }
+
+    public int size() {
+        return sequences.size();
+    }
+
+    /** Resolve every frame sequence in {@code index} without touching the disk. */
+    public static FrameSequenceManifest fromIndex(ResourceIndex index) {
+        Map<String, List<String>> sequences = new HashMap<>();
+        for (String path : index.paths()) {
+            String base = stripExtension(path);
+            if (base == null) {
+                continue;
+            }
+            // Every split inside the trailing digit run is a prefix some caller could ask for ("tile1" + "0").
+            for (int end = base.length() - 1; end >= 0 && Character.isDigit(base.charAt(end)); end--) {
+                String prefix = base.substring(0, end);
+                if (!prefix.isEmpty() && !sequences.containsKey(prefix)) {
+                    List<String> frames = resolve(prefix, index::exists);
+                    if (!frames.isEmpty()) {
+                        sequences.put(prefix, frames);
+                    }
+                }
+            }
+        }
+        return new FrameSequenceManifest(index, sequences);
+    }
+
+    /**
+     * Read a manifest written by {@link #write(Path)}.
+     *
+     * @return the manifest, or {@code null} when it was generated from a different set of files than {@code index}
+     */
+    public static FrameSequenceManifest read(Path file, ResourceIndex index) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(HEADER + fingerprint(index))) {
+                return null;
+            }
+            Map<String, List<String>> sequences = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length < 2) {
+                    throw new IOException(file + ": malformed line '" + line + "'");
+                }
+                sequences.put(fields[0], List.of(Arrays.copyOfRange(fields, 1, fields.length)));
+            }
+            return new FrameSequenceManifest(index, sequences);
+        }
+    }
+
+    /** Write this manifest, moving it into place only once complete. */
+    public void write(Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "frame-sequences", ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write(HEADER + fingerprint(index));
+                out.newLine();
+                for (Map.Entry<String, List<String>> entry : new TreeMap<>(sequences).entrySet()) {
+                    out.write(entry.getKey());
+                    for (String frame : entry.getValue()) {
+                        out.write('\t');
+                        out.write(frame);
+                    }
+                    out.newLine();
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** Build-time entry point: {@code FrameSequenceManifest <output file>}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: FrameSequenceManifest <output file>");
+            System.exit(2);
+        }
+        Path output = Path.of(args[0]);
+        FrameSequenceManifest manifest = fromIndex(ResourceLoader.index());
+        manifest.write(output);
+        System.out.printf("Wrote %d frame sequences to %s%n", manifest.size(), output);
+    }
+
+    /**
+     * The sequence {@code AnimatedSprite} probing finds for {@code prefix}, given which files exist.
+     *
+     * @param prefix normalised prefix without a leading slash
+     */
+    static List<String> resolve(String prefix, Predicate<String> exists) {
+        for (int start : STARTS) {
+            for (int pad : PAD_WIDTHS) {
+                List<String> frames = new ArrayList<>();
+                for (int idx = start; idx < start + MAX_FRAMES; idx++) {
+                    String frame = existingFrame(prefix + formatIndex(idx, pad), exists);
+                    if (frame == null) {
+                        break;
+                    }
+                    frames.add("/" + frame);
+                }
+                if (!frames.isEmpty()) {
+                    return List.copyOf(frames);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    static String formatIndex(int idx, int padWidth) {
+        if (padWidth <= 1) {
+            return String.valueOf(idx);
+        }
+        return String.format(Locale.ROOT, "%0" + padWidth + "d", idx);
+    }
+
+    private static String existingFrame(String base, Predicate<String> exists) {
+        for (String ext : EXTENSIONS) {
+            if (exists.test(base + ext)) {
+                return base + ext;
+            }
+        }
+        return null;
+    }
+
+    private static String stripExtension(String path) {
+        for (String ext : EXTENSIONS) {
+            if (path.endsWith(ext)) {
+                return path.substring(0, path.length() - ext.length());
+            }
+        }
+        return null;
+    }
+
+    /** Order-independent fingerprint of the frame file names in {@code index}. */
+    static String fingerprint(ResourceIndex index) {
+        int count = 0;
+        long sum = 0L;
+        for (String path : index.paths()) {
+            if (stripExtension(path) != null) {
+                count++;
+                sum += path.hashCode() * 0x9E3779B97F4A7C15L;
+            }
+        }
+        return count + " " + Long.toHexString(sum);
+    }
+
+    private static FrameSequenceManifest locateAndLoad(ResourceIndex index) {
+        Path file = locate();
+        if (file != null) {
+            try {
+                FrameSequenceManifest manifest = read(file, index);
+                if (manifest != null) {
+                    return manifest;
+                }
+                LOGGER.info("Frame manifest " + file + " is out of date; deriving frame sequences from the resources");
+            } catch (IOException ex) {
+                LOGGER.warning("Ignoring unreadable frame manifest " + file + ": " + ex);
+            }
+        }
+        return fromIndex(index);
+    }
+
+    private static Path locate() {
+        String configured = System.getProperty(LOCATION_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            Path file = Path.of(configured);
+            return Files.isRegularFile(file) ? file : null;
+        }
+        for (Path root : ProjectDirectories.locateSearchRoots()) {
+            Path candidate = root.resolve(DEFAULT_LOCATION);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String resourcePrefix) {
+        String trimmed = resourcePrefix.trim().replace('\\', '/');
+        return trimmed.startsWith("/") ? trimmed.substring(1) : trimmed;
+    }
+}
@@ -0,0 +1,379 @@
+package gfx;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An animated GIF decoded a frame at a time as it plays.
+ * <p>
+ * Opening one reads only the per-frame metadata: position, size, delay and disposal. The file itself stays in
+ * memory compressed. {@link #frame(int)} composites frames onto a canvas in order, as a browser does, and keeps a
+ * few finished frames around the playhead in an LRU cache whose evicted rasters are reused for the next frame, so
+ * memory grows with the cache rather than with the frame count. Playing on decodes one sub-frame per frame; going
+ * back past the cache starts again from the first frame. A loop small enough for the bake budget keeps every
+ * frame once played, and {@link #bake()} composites the whole loop up front.
+ * <p>
+ * Frames are shared: callers read them and must not draw into them.
+ */
+public final class GifAnimation {
+    private static final String IMAGE_FORMAT = "javax_imageio_gif_image_1.0";
+    private static final String STREAM_FORMAT = "javax_imageio_gif_stream_1.0";
+    /** Browsers play GIFs that ask for no delay, or one this short, at 10 frames a second. */
+    private static final int MIN_DELAY_MILLIS = 20;
+    private static final int DEFAULT_DELAY_MILLIS = 100;
+
+    private enum Disposal { NONE, BACKGROUND, PREVIOUS }
+
+    private record Frame(int x, int y, int width, int height, int delayMillis, Disposal disposal) { }
+
+    private final byte[] data;
+    private final List<Frame> frames;
+    private final int width;
+    private final int height;
+    private final long durationMillis;
+    private final Map<Integer, BufferedImage> cache;
+    private int cacheFrames;
+
+    private ImageReader reader;
+    /** The canvas with every frame up to {@link #position} drawn and the last one not yet disposed. */
+    private BufferedImage canvas;
+    /** The canvas as it was before a frame that restores to it was drawn. */
+    private BufferedImage saved;
+    private int position = -1;
+    private BufferedImage recycled;
+    private long decoded;
+
+    private GifAnimation(byte[] data, List<Frame> frames, int width, int height, int cacheFrames) {
+        this.data = data;
+        this.frames = frames;
+        this.width = width;
+        this.height = height;
+        long total = 0;
+        for (Frame frame : frames) {
+            total += frame.delayMillis();
+        }
+        this.durationMillis = total;
+        this.cacheFrames = cacheFrames;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Read the frame metadata of the GIF at {@code resourcePath}.
+     *
+     * @param cacheFrames      finished frames to keep around the playhead, at least one
+     * @param bakeBudgetBytes  keep every frame once played when the whole loop fits in this many bytes; 0 never
+     */
+    public static GifAnimation open(String resourcePath, int cacheFrames, long bakeBudgetBytes) throws IOException {
+        try (InputStream in = ResourceLoader.open(resourcePath)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + resourcePath);
+            }
+            return read(in.readAllBytes(), cacheFrames, bakeBudgetBytes);
+        }
+    }
+
+    /** Like {@link #open}, for a GIF already in memory. */
+    public static GifAnimation read(byte[] data, int cacheFrames, long bakeBudgetBytes) throws IOException {
+        ImageReader reader = newReader(data);
+        try {
+            int count = reader.getNumImages(true);
+            if (count <= 0) {
+                throw new IOException("GIF has no frames");
+            }
+            List<Frame> frames = new ArrayList<>(count);
+            int width = 0;
+            int height = 0;
+            for (int i = 0; i < count; i++) {
+                Node root = reader.getImageMetadata(i).getAsTree(IMAGE_FORMAT);
+                Node descriptor = child(root, "ImageDescriptor");
+                Node control = child(root, "GraphicControlExtension");
+                int x = intAttribute(descriptor, "imageLeftPosition", 0);
+                int y = intAttribute(descriptor, "imageTopPosition", 0);
+                int w = intAttribute(descriptor, "imageWidth", 0);
+                int h = intAttribute(descriptor, "imageHeight", 0);
+                width = Math.max(width, x + w);
+                height = Math.max(height, y + h);
+                int delay = intAttribute(control, "delayTime", 0) * 10;
+                frames.add(new Frame(x, y, w, h, delay < MIN_DELAY_MILLIS ? DEFAULT_DELAY_MILLIS : delay,
+                        disposal(attribute(control, "disposalMethod"))));
+            }
+            IIOMetadata stream = reader.getStreamMetadata();
+            if (stream != null) {
+                Node screen = child(stream.getAsTree(STREAM_FORMAT), "LogicalScreenDescriptor");
+                width = Math.max(width, intAttribute(screen, "logicalScreenWidth", 0));
+                height = Math.max(height, intAttribute(screen, "logicalScreenHeight", 0));
+            }
+            if (width <= 0 || height <= 0) {
+                throw new IOException("GIF has no size");
+            }
+            int capacity = loopBytes(count, width, height) <= bakeBudgetBytes
+                    ? count : Math.max(1, Math.min(cacheFrames, count));
+            return new GifAnimation(data, List.copyOf(frames), width, height, capacity);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    public int frameCount() {
+        return frames.size();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /** Bytes the whole loop takes once every frame is composited and kept. */
+    public long loopBytes() {
+        return loopBytes(frames.size(), width, height);
+    }
+
+    private static long loopBytes(int count, int width, int height) {
+        return (long) count * width * height * 4L;
+    }
+
+    public int delayMillis(int frame) {
+        return frames.get(frame).delayMillis();
+    }
+
+    /** One pass through every frame at the GIF's own delays. */
+    public long durationMillis() {
+        return durationMillis;
+    }
+
+    /** The frame on screen {@code elapsedMillis} after the animation started, looping. */
+    public int frameAt(long elapsedMillis) {
+        long t = Math.floorMod(elapsedMillis, durationMillis);
+        for (int i = 0; i < frames.size(); i++) {
+            t -= frames.get(i).delayMillis();
+            if (t < 0) {
+                return i;
+            }
+        }
+        return frames.size() - 1;
+    }
+
+    /**
+     * Frame {@code index} composited onto the full canvas. Shared; do not draw into it. Unless the whole loop is
+     * resident, the image is only good while it stays in the cache: once evicted it is recycled for a later frame
+     * and its pixels are overwritten, so draw it rather than hold on to it.
+     */
+    public synchronized BufferedImage frame(int index) throws IOException {
+        if (index < 0 || index >= frames.size()) {
+            throw new IndexOutOfBoundsException("Frame " + index + " of " + frames.size());
+        }
+        BufferedImage cached = cache.get(index);
+        if (cached != null) {
+            return cached;
+        }
+        if (reader == null || index <= position) {
+            rewind();
+        }
+        while (position < index) {
+            advance();
+        }
+        BufferedImage copy = recycled != null ? recycled : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        recycled = null;
+        copyInto(canvas, copy);
+        cache.put(index, copy);
+        if (cache.size() > cacheFrames) {
+            Iterator<BufferedImage> eldest = cache.values().iterator();
+            recycled = eldest.next();
+            eldest.remove();
+        } else if (cache.size() == frames.size()) {
+            // The whole loop is resident: the decoder and canvas are not needed again.
+            releaseDecoder();
+        }
+        return copy;
+    }
+
+    /** Composite every frame now and keep them all; the whole loop then plays without decoding. */
+    public synchronized BufferedImage[] bake() throws IOException {
+        cacheFrames = frames.size();
+        BufferedImage[] all = new BufferedImage[frames.size()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = frame(i);
+        }
+        return all;
+    }
+
+    /** Sub-frames decoded so far, counting frames decoded again after a rewind. */
+    public synchronized long decodedFrames() {
+        return decoded;
+    }
+
+    /** Finished frames held in the cache. */
+    public synchronized int residentFrames() {
+        return cache.size();
+    }
+
+    private void rewind() throws IOException {
+        if (reader != null) {
+            reader.dispose();
+        }
+        reader = newReader(data);
+        position = -1;
+        if (canvas == null) {
+            canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            clear(canvas, 0, 0, width, height);
+        }
+    }
+
+    /** Dispose of the frame at {@link #position} and draw the next one over what it leaves. */
+    private void advance() throws IOException {
+        if (position >= 0) {
+            Frame last = frames.get(position);
+            if (last.disposal() == Disposal.BACKGROUND) {
+                clear(canvas, last.x(), last.y(), last.width(), last.height());
+            } else if (last.disposal() == Disposal.PREVIOUS && saved != null) {
+                copyInto(saved, canvas);
+            }
+        }
+        int next = position + 1;
+        Frame frame = frames.get(next);
+        if (frame.disposal() == Disposal.PREVIOUS) {
+            if (saved == null) {
+                saved = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            }
+            copyInto(canvas, saved);
+        }
+        BufferedImage image = reader.read(next);
+        decoded++;
+        Graphics2D g = canvas.createGraphics();
+        try {
+            g.drawImage(image, frame.x(), frame.y(), null);
+        } finally {
+            g.dispose();
+        }
+        position = next;
+    }
+
+    private void releaseDecoder() {
+        if (reader != null) {
+            reader.dispose();
+            reader = null;
+        }
+        canvas = null;
+        saved = null;
+        position = -1;
+    }
+
+    private static void copyInto(BufferedImage from, BufferedImage to) {
+        Graphics2D g = to.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(from, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void clear(BufferedImage image, int x, int y, int w, int h) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(x, y, w, h);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static ImageReader newReader(byte[] data) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+        if (!readers.hasNext()) {
+            throw new IOException("No GIF reader installed");
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(new ByteArrayStream(data), false, false);
+        return reader;
+    }
+
+    private static Disposal disposal(String method) {
+        if ("restoreToBackgroundColor".equals(method)) {
+            return Disposal.BACKGROUND;
+        }
+        if ("restoreToPrevious".equals(method)) {
+            return Disposal.PREVIOUS;
+        }
+        return Disposal.NONE;
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node node = parent == null ? null : parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static String attribute(Node node, String name) {
+        NamedNodeMap attributes = node == null ? null : node.getAttributes();
+        Node value = attributes == null ? null : attributes.getNamedItem(name);
+        return value == null ? null : value.getNodeValue();
+    }
+
+    private static int intAttribute(Node node, String name, int fallback) {
+        String value = attribute(node, name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
+    /** Seekable view of the compressed file, so the reader does not keep a second copy of it as a cache. */
+    private static final class ByteArrayStream extends ImageInputStreamImpl {
+        private final byte[] data;
+
+        ByteArrayStream(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            bitOffset = 0;
+            return streamPos < data.length ? data[(int) streamPos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            bitOffset = 0;
+            if (streamPos >= data.length) {
+                return len == 0 ? 0 : -1;
+            }
+            int n = (int) Math.min(len, data.length - streamPos);
+            System.arraycopy(data, (int) streamPos, b, off, n);
+            streamPos += n;
+            return n;
+        }
+
+        @Override
+        public long length() {
+            return data.length;
+        }
+    }
+}
@@ -1,119 +1,290 @@
 package gfx;
 
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.awt.image.ConvolveOp;
-import java.awt.image.Kernel;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.lang.ref.WeakReference;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Utility that rescales sprites with multi-step sampling and a light sharpen pass so that
- * enlarged boss sprites remain crisp even on high resolution displays.
+ * Utility that rescales sprites with the {@link ScalingKernels} suited to the art, so that enlarged boss sprites
+ * remain crisp even on high resolution displays and pixel art keeps hard pixel edges. See
+ * {@link #render(BufferedImage, int, int, boolean, AssetClass)} for how the kernel is chosen.
+ * <p>
+ * Safe to call from any thread. Cached copies are found without locking, and a scale job that is already running
+ * for the same image, size and sharpening is joined instead of being repeated; a synchronous caller that finds the
+ * job still queued for a worker claims it and runs it on its own thread instead. {@link #scaleAsync} runs jobs on a
+ * small pool of daemon threads so callers can fan a whole sprite sheet out across cores, and
+ * {@link #scaleOrPlaceholder} lets a paint keep drawing the unscaled source until the copy is ready. Copies of at
+ * least {@link #MIN_PERSISTED_PIXELS} are also kept in the {@link ScaledImageStore}, so the next launch at the same
+ * display size reads them back instead of scaling.
  */
 public final class HiDpiScaler {
 
-    private static final Kernel SHARPEN_KERNEL = new Kernel(3, 3, new float[]{
-            0f, -0.05f, 0f,
-            -0.05f, 1.3f, -0.05f,
-            0f, -0.05f, 0f
-    });
-    private static final ConvolveOp SHARPEN = new ConvolveOp(SHARPEN_KERNEL, ConvolveOp.EDGE_NO_OP, null);
+    /** Bump whenever a kernel change alters output, so copies persisted by {@link ScaledImageStore} are not reused. */
+    public static final int SCALER_VERSION = 1;
+    /** Copies smaller than this are cheaper to scale again than to read back from disk. */
+    static final int MIN_PERSISTED_PIXELS = 96 * 96;
 
-    private static final Map<BufferedImage, Map<Long, BufferedImage>> CACHE =
-            Collections.synchronizedMap(new WeakHashMap<>());
+    /** Images no larger than this on either side are treated as {@link AssetClass#PIXEL_ART}. */
+    static final int PIXEL_ART_MAX_EDGE = 64;
+
+    /** What kind of art is being scaled, which decides the kernel. */
+    public enum AssetClass {
+        /** Hand-placed pixels (tiles, 16 px sprites, small effects) that must stay crisp when enlarged. */
+        PIXEL_ART,
+        /** Painted or high-resolution art (bosses, portraits, cutscene backdrops). */
+        PAINTED;
+
+        /** Guess from size: every pixel-art asset in the game fits in {@value #PIXEL_ART_MAX_EDGE} px. */
+        public static AssetClass of(BufferedImage image) {
+            return image.getWidth() <= PIXEL_ART_MAX_EDGE && image.getHeight() <= PIXEL_ART_MAX_EDGE
+                    ? PIXEL_ART
+                    : PAINTED;
+        }
+    }
+
+    /** Scaled copies, charged to the shared {@link ImageCache} budget. */
+    private static final ImageCache.Namespace CACHE = ImageCache.shared().namespace("hidpi-scaled");
+    /** Jobs started but not yet stored in {@link #CACHE}. */
+    private static final Map<ScaleKey, Job> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /** One scale in flight; whichever thread first sets {@code started} runs it, everyone else joins the result. */
+    private record Job(CompletableFuture<BufferedImage> result, AtomicBoolean started) {
+        Job() {
+            this(new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        boolean claim() {
+            return started.compareAndSet(false, true);
+        }
+    }
+
+    private static final class WorkerHolder {
+        static final ExecutorService WORKERS = createWorkers();
+    }
 
     private HiDpiScaler() {
     }
 
     public static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight) {
+        return scale(source, targetWidth, targetHeight, true);
+    }
+
+    /**
+     * Scale {@code source}, optionally trading the sharpest downscale kernel for a cheaper, softer one. Sharpened and
+     * unsharpened results are cached separately. The asset class is guessed with {@link AssetClass#of}.
+     */
+    public static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight, boolean sharpen) {
+        return scale(source, targetWidth, targetHeight, sharpen, source == null ? null : AssetClass.of(source));
+    }
+
+    public static BufferedImage scale(BufferedImage source, int targetWidth, int targetHeight, boolean sharpen,
+                                      AssetClass assetClass) {
         if (source == null || targetWidth <= 0 || targetHeight <= 0) {
             return null;
         }
         if (source.getWidth() == targetWidth && source.getHeight() == targetHeight) {
             return source;
         }
-
-        Map<Long, BufferedImage> perImageCache;
-        synchronized (CACHE) {
-            perImageCache = CACHE.computeIfAbsent(source, key -> createBoundedCache());
-        }
-        long cacheKey = (((long) targetWidth) << 32) ^ (targetHeight & 0xffffffffL);
-        BufferedImage cached = perImageCache.get(cacheKey);
+        ScaleKey key = new ScaleKey(source, targetWidth, targetHeight, sharpen, assetClass);
+        BufferedImage cached = CACHE.imageIfPresent(key);
         if (cached != null) {
             return cached;
         }
+        Job job = new Job();
+        Job running = IN_FLIGHT.putIfAbsent(key, job);
+        if (running == null) {
+            running = job;
+        }
+        // Run the job here unless a thread already has it, rather than waiting behind the worker queue.
+        if (running.claim()) {
+            run(key, source, running);
+        }
+        try {
+            return running.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
 
-        BufferedImage scaled = multiStepScale(source, targetWidth, targetHeight);
-        perImageCache.put(cacheKey, scaled);
-        return scaled;
+    /**
+     * Scale {@code source} on the scaler's worker threads. The returned future is already complete when the copy is
+     * cached, and is shared with any other caller waiting for the same copy.
+     */
+    public static CompletableFuture<BufferedImage> scaleAsync(BufferedImage source, int targetWidth, int targetHeight,
+                                                              boolean sharpen) {
+        return scaleAsync(source, targetWidth, targetHeight, sharpen, source == null ? null : AssetClass.of(source));
     }
 
-    private static Map<Long, BufferedImage> createBoundedCache() {
-        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
-                return size() > 12;
+    public static CompletableFuture<BufferedImage> scaleAsync(BufferedImage source, int targetWidth, int targetHeight,
+                                                              boolean sharpen, AssetClass assetClass) {
+        if (source == null || targetWidth <= 0 || targetHeight <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (source.getWidth() == targetWidth && source.getHeight() == targetHeight) {
+            return CompletableFuture.completedFuture(source);
+        }
+        ScaleKey key = new ScaleKey(source, targetWidth, targetHeight, sharpen, assetClass);
+        BufferedImage cached = CACHE.imageIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        Job job = new Job();
+        Job running = IN_FLIGHT.putIfAbsent(key, job);
+        if (running != null) {
+            return running.result();
+        }
+        try {
+            WorkerHolder.WORKERS.execute(() -> {
+                if (job.claim()) {
+                    run(key, source, job);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            if (job.claim()) {
+                run(key, source, job);
             }
-        });
+        }
+        return job.result();
     }
 
-    private static BufferedImage multiStepScale(BufferedImage source, int targetWidth, int targetHeight) {
-        int currentWidth = source.getWidth();
-        int currentHeight = source.getHeight();
-        BufferedImage current = source;
-
-        while (currentWidth != targetWidth || currentHeight != targetHeight) {
-            int nextWidth = stepTowards(currentWidth, targetWidth);
-            int nextHeight = stepTowards(currentHeight, targetHeight);
-            BufferedImage tmp = new BufferedImage(Math.max(1, nextWidth), Math.max(1, nextHeight), BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2 = tmp.createGraphics();
-            try {
-                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                g2.drawImage(current, 0, 0, nextWidth, nextHeight, null);
-            } finally {
-                g2.dispose();
-            }
-            current = tmp;
-            currentWidth = nextWidth;
-            currentHeight = nextHeight;
+    /**
+     * The scaled copy if it is ready, otherwise {@code source} itself while the copy is produced in the background.
+     * {@code onReady} runs on a worker thread once the copy is cached, so the caller can repaint.
+     */
+    public static BufferedImage scaleOrPlaceholder(BufferedImage source, int targetWidth, int targetHeight,
+                                                   boolean sharpen, Runnable onReady) {
+        CompletableFuture<BufferedImage> job = scaleAsync(source, targetWidth, targetHeight, sharpen);
+        if (job.isDone() && !job.isCompletedExceptionally()) {
+            return job.join();
         }
+        if (onReady != null) {
+            job.thenRun(onReady);
+        }
+        return source;
+    }
 
-        if (targetWidth < source.getWidth() || targetHeight < source.getHeight()) {
-            BufferedImage sharpened = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
-            SHARPEN.filter(current, sharpened);
-            current = sharpened;
+    private static void run(ScaleKey key, BufferedImage source, Job job) {
+        try {
+            job.result().complete(CACHE.image(key, () -> renderOrLoad(source, key)));
+        } catch (RuntimeException | Error ex) {
+            job.result().completeExceptionally(ex);
+        } finally {
+            IN_FLIGHT.remove(key, job);
         }
+    }
 
-        return current;
+    private static ExecutorService createWorkers() {
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadIds = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread t = new Thread(task, "hidpi-scaler-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                });
+        workers.allowCoreThreadTimeOut(true);
+        return workers;
     }
 
-    private static int stepTowards(int current, int target) {
-        if (current == target) {
-            return current;
+    /**
+     * Identifies one scaled copy of a source image without keeping the source alive. Once the source is collected
+     * the key is {@link #cleared()} and the cache drops the copy.
+     */
+    private static final class ScaleKey implements ImageCache.WeakKey {
+        private final WeakReference<BufferedImage> source;
+        private final int width;
+        private final int height;
+        private final boolean sharpen;
+        private final AssetClass assetClass;
+        private final int hash;
+
+        ScaleKey(BufferedImage source, int width, int height, boolean sharpen, AssetClass assetClass) {
+            this.source = new WeakReference<>(source);
+            this.width = width;
+            this.height = height;
+            this.sharpen = sharpen;
+            this.assetClass = Objects.requireNonNull(assetClass, "assetClass");
+            this.hash = (((System.identityHashCode(source) * 31 + width) * 31 + height) * 31 + assetClass.ordinal()) * 2
+                    + (sharpen ? 1 : 0);
         }
-        if (target < current) {
-            int next = current / 2;
-            if (next < target) {
-                next = target;
-            }
-            if (next == 0) {
-                next = target;
+
+        @Override
+        public boolean cleared() {
+            return source.get() == null;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
-            return next;
-        } else {
-            int next = current * 2;
-            if (next > target) {
-                next = target;
+            if (!(obj instanceof ScaleKey other) || hash != other.hash || width != other.width
+                    || height != other.height || sharpen != other.sharpen || assetClass != other.assetClass) {
+                return false;
             }
-            if (next == current) {
-                next = target;
+            BufferedImage image = source.get();
+            return image != null && image == other.source.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** Read the copy a previous launch stored, or render it and store it for the next one. */
+    private static BufferedImage renderOrLoad(BufferedImage source, ScaleKey key) {
+        if ((long) key.width * key.height < MIN_PERSISTED_PIXELS) {
+            return render(source, key.width, key.height, key.sharpen, key.assetClass);
+        }
+        int flags = (SCALER_VERSION << 8) | (key.assetClass.ordinal() << 1) | (key.sharpen ? 1 : 0);
+        ScaledImageStore.Key stored = new ScaledImageStore.Key(ScaledImageStore.contentHash(source), key.width,
+                key.height, flags);
+        BufferedImage scaled = ScaledImageStore.shared().load(stored);
+        if (scaled == null) {
+            scaled = render(source, key.width, key.height, key.sharpen, key.assetClass);
+            ScaledImageStore.shared().save(stored, scaled);
+        }
+        return scaled;
+    }
+
+    /**
+     * Pick a kernel: pixel art is enlarged by whole-pixel replication (smoothed down to the exact size when the
+     * factor is fractional), anything being shrunk uses Lanczos-3 when sharpening is wanted and Mitchell when not,
+     * and painted art being enlarged uses Mitchell, which does not ring.
+     */
+    static BufferedImage render(BufferedImage source, int targetWidth, int targetHeight, boolean sharpen,
+                                AssetClass assetClass) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        boolean enlarging = targetWidth >= sourceWidth && targetHeight >= sourceHeight;
+        if (assetClass == AssetClass.PIXEL_ART && enlarging) {
+            int factorX = Math.ceilDiv(targetWidth, sourceWidth);
+            int factorY = Math.ceilDiv(targetHeight, sourceHeight);
+            BufferedImage blocks = ScalingKernels.nearest(source, factorX, factorY);
+            if (blocks.getWidth() == targetWidth && blocks.getHeight() == targetHeight) {
+                return blocks;
             }
-            return next;
+            return ScalingKernels.resample(blocks, targetWidth, targetHeight, ScalingKernels.Filter.MITCHELL);
         }
+        ScalingKernels.Filter filter = sharpen && !enlarging
+                ? ScalingKernels.Filter.LANCZOS3
+                : ScalingKernels.Filter.MITCHELL;
+        return ScalingKernels.resample(source, targetWidth, targetHeight, filter);
     }
 }
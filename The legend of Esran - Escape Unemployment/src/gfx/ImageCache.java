@@ -0,0 +1,786 @@
+package gfx;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.SampleModel;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One memory budget for every decoded or scaled image the game keeps around.
+ * <p>
+ * Subsystems get a {@link Namespace} each ({@code hidpi-scaled}, {@code fx-frames}, {@code cutscene-portraits}, ...)
+ * and load through it; the namespaces share a single byte budget ({@value #BUDGET_PROPERTY} system property in MB,
+ * {@link #DEFAULT_BUDGET_BYTES} otherwise). Admission follows W-TinyLFU: a new image first goes into a small
+ * least-recently-used window ({@value #WINDOW_PERCENT}% of the budget) and is always kept there. When it falls out of
+ * the window, or straight away when it is too large for the window, it may only displace entries from the cold end of
+ * the main least-recently-used area if it has been asked for more often than the eviction victim, so a burst of
+ * one-off images cannot flush the frames every paint relies on; a rejected image is still returned to the caller,
+ * just not kept. The frequency sketch is halved every ten requests per cached entry, so a new working set overtakes
+ * the old one within a few dozen frames. {@link Namespace#pin(Object) Pinned} entries are never evicted, and entries
+ * whose {@link WeakKey} has been cleared are dropped whenever the sketch ages and before any live victim.
+ * <p>
+ * Hits, misses, evictions, rejected admissions and bytes are counted per namespace and in total, and the shared
+ * cache publishes them over JMX as {@code esran:type=ImageCache} and {@code esran:type=ImageCache,namespace=<name>},
+ * where the budget can also be changed at runtime.
+ * <p>
+ * Hits never take the cache lock: they are served from a concurrent index and queued, and the queued accesses are
+ * replayed into the LRU order and the frequency sketch by the next miss (or by whichever reader finds the queue
+ * long). Under heavy contention some accesses are dropped rather than queued, which only makes the recency order
+ * slightly approximate. Loaders run outside the lock too, so two threads missing on the same key at once may both
+ * load it; the first result stored wins and both callers receive it. Callers for whom a load is expensive
+ * deduplicate in-flight work themselves, as {@link HiDpiScaler} does.
+ */
+public final class ImageCache implements ImageCacheMXBean {
+    private static final Logger LOGGER = Logger.getLogger(ImageCache.class.getName());
+
+    /** System property holding the shared cache's budget in megabytes. */
+    public static final String BUDGET_PROPERTY = "esran.imageCacheMB";
+    public static final long DEFAULT_BUDGET_BYTES = 256L * 1024 * 1024;
+    static final String JMX_NAME = "esran:type=ImageCache";
+    /** Share of the budget given to the admission window. */
+    static final int WINDOW_PERCENT = 1;
+    private static final int DRAIN_THRESHOLD = 64;
+    private static final int MAX_PENDING_HITS = 1024;
+
+    public record Stats(String namespace, long hits, long misses, long evictions, long rejections, long bytes,
+                        int entries, int pinnedEntries) {
+    }
+
+    /**
+     * A key that refers to something weakly, such as the source of a scaled copy. Once {@link #cleared()} the entry
+     * can never be hit again, so the cache drops it instead of letting its old popularity hold the budget.
+     */
+    public interface WeakKey {
+        boolean cleared();
+    }
+
+    private record Key(Namespace namespace, Object key) {
+        boolean cleared() {
+            return key instanceof WeakKey weak && weak.cleared();
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long bytes;
+        boolean pinned;
+
+        Entry(Object value, long bytes) {
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class SharedHolder {
+        static final ImageCache SHARED = createShared();
+    }
+
+    private final Object lock = new Object();
+    /** Newcomers on probation, in least-recently-used order. */
+    private final LinkedHashMap<Key, Entry> window = new LinkedHashMap<>(64, 0.75f, true);
+    /** Entries that passed admission, in least-recently-used order. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    /** Lock-free view of {@link #entries} for the hit path; only written under the lock. */
+    private final Map<Key, Entry> index = new ConcurrentHashMap<>();
+    /** Hits not yet replayed into the LRU order and the sketch. */
+    private final ConcurrentLinkedQueue<Key> pendingHits = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Map<String, Namespace> namespaces = new LinkedHashMap<>();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private long budgetBytes;
+    private long usedBytes;
+    private long windowBytes;
+    private long pinnedBytes;
+    private MBeanServer mbeanServer;
+
+    public ImageCache(long budgetBytes) {
+        this.budgetBytes = Math.max(0L, budgetBytes);
+    }
+
+    /** The cache shared by the whole game, registered with the platform MBean server. */
+    public static ImageCache shared() {
+        return SharedHolder.SHARED;
+    }
+
+    private static ImageCache createShared() {
+        long budget = DEFAULT_BUDGET_BYTES;
+        String configured = System.getProperty(BUDGET_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            try {
+                budget = Long.parseLong(configured.trim()) * 1024L * 1024L;
+            } catch (NumberFormatException ex) {
+                LOGGER.warning("Ignoring invalid " + BUDGET_PROPERTY + "=" + configured);
+            }
+        }
+        ImageCache cache = new ImageCache(budget);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(cache, new ObjectName(JMX_NAME));
+            cache.mbeanServer = server;
+        } catch (JMException | SecurityException ex) {
+            LOGGER.log(Level.FINE, "Image cache statistics not published over JMX", ex);
+        }
+        return cache;
+    }
+
+    /** The namespace called {@code name}, created on first use. */
+    public Namespace namespace(String name) {
+        Objects.requireNonNull(name, "name");
+        Namespace created;
+        synchronized (lock) {
+            Namespace existing = namespaces.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            created = new Namespace(name);
+            namespaces.put(name, created);
+        }
+        if (mbeanServer != null) {
+            try {
+                mbeanServer.registerMBean(created, new ObjectName(JMX_NAME + ",namespace=" + ObjectName.quote(name)));
+            } catch (JMException ex) {
+                LOGGER.log(Level.FINE, "Namespace " + name + " not published over JMX", ex);
+            }
+        }
+        return created;
+    }
+
+    /** Per-namespace statistics in creation order. */
+    public List<Stats> stats() {
+        synchronized (lock) {
+            List<Stats> result = new ArrayList<>(namespaces.size());
+            for (Namespace namespace : namespaces.values()) {
+                result.add(namespace.stats());
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public long getBudgetBytes() {
+        synchronized (lock) {
+            return budgetBytes;
+        }
+    }
+
+    /** Change the budget; shrinking it evicts unpinned entries straight away. */
+    @Override
+    public void setBudgetBytes(long budgetBytes) {
+        synchronized (lock) {
+            drainHits();
+            this.budgetBytes = Math.max(0L, budgetBytes);
+            Iterator<Map.Entry<Key, Entry>> it = window.entrySet().iterator();
+            while (windowBytes > windowBudget() && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                windowBytes -= eldest.getValue().bytes;
+                removed(eldest.getKey(), eldest.getValue());
+                eldest.getKey().namespace().evictions++;
+            }
+            it = entries.entrySet().iterator();
+            while (usedBytes > this.budgetBytes && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                if (!eldest.getValue().pinned) {
+                    it.remove();
+                    removed(eldest.getKey(), eldest.getValue());
+                    eldest.getKey().namespace().evictions++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getUsedBytes() {
+        synchronized (lock) {
+            return usedBytes;
+        }
+    }
+
+    @Override
+    public long getPinnedBytes() {
+        synchronized (lock) {
+            return pinnedBytes;
+        }
+    }
+
+    @Override
+    public int getEntries() {
+        synchronized (lock) {
+            return window.size() + entries.size();
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return total(ns -> ns.hits.sum());
+    }
+
+    @Override
+    public long getMisses() {
+        return total(ns -> ns.misses);
+    }
+
+    @Override
+    public long getEvictions() {
+        return total(ns -> ns.evictions);
+    }
+
+    @Override
+    public long getRejections() {
+        return total(ns -> ns.rejections);
+    }
+
+    /** Drop every entry, pinned or not. Counters are kept. */
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            for (Map<Key, Entry> area : List.of(window, entries)) {
+                for (Map.Entry<Key, Entry> entry : area.entrySet()) {
+                    Namespace namespace = entry.getKey().namespace();
+                    namespace.bytes -= entry.getValue().bytes;
+                    namespace.entries--;
+                    if (entry.getValue().pinned) {
+                        namespace.pinned--;
+                    }
+                }
+            }
+            window.clear();
+            entries.clear();
+            index.clear();
+            usedBytes = 0L;
+            windowBytes = 0L;
+            pinnedBytes = 0L;
+        }
+    }
+
+    private long total(ToLongFunction<Namespace> counter) {
+        synchronized (lock) {
+            long sum = 0L;
+            for (Namespace namespace : namespaces.values()) {
+                sum += counter.applyAsLong(namespace);
+            }
+            return sum;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V get(Namespace namespace, Object key, Supplier<V> loader, ToLongFunction<V> sizer) {
+        Key cacheKey = new Key(namespace, Objects.requireNonNull(key, "key"));
+        Entry hit = index.get(cacheKey);
+        if (hit != null) {
+            namespace.hits.increment();
+            recordHit(cacheKey);
+            return (V) hit.value;
+        }
+        synchronized (lock) {
+            drainHits();
+            record(cacheKey);
+            Entry entry = lookup(cacheKey);
+            if (entry != null) {
+                namespace.hits.increment();
+                return (V) entry.value;
+            }
+            namespace.misses++;
+        }
+        V value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        long bytes = sizer.applyAsLong(value);
+        synchronized (lock) {
+            Entry raced = lookup(cacheKey);
+            if (raced != null) {
+                return (V) raced.value;
+            }
+            admit(cacheKey, new Entry(value, bytes));
+        }
+        return value;
+    }
+
+    /** Like {@link #get}, but the result is kept and pinned whatever the admission filter would say. */
+    @SuppressWarnings("unchecked")
+    private <V> V getPinned(Namespace namespace, Object key, Supplier<V> loader, ToLongFunction<V> sizer) {
+        Key cacheKey = new Key(namespace, Objects.requireNonNull(key, "key"));
+        synchronized (lock) {
+            drainHits();
+            record(cacheKey);
+            Entry entry = pinLocked(cacheKey);
+            if (entry != null) {
+                namespace.hits.increment();
+                return (V) entry.value;
+            }
+            namespace.misses++;
+        }
+        V value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        long bytes = sizer.applyAsLong(value);
+        synchronized (lock) {
+            Entry raced = pinLocked(cacheKey);
+            if (raced != null) {
+                return (V) raced.value;
+            }
+            Entry entry = new Entry(value, bytes);
+            entries.put(cacheKey, entry);
+            stored(cacheKey, entry);
+            pinLocked(cacheKey);
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (usedBytes > budgetBytes && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                if (!eldest.getValue().pinned) {
+                    it.remove();
+                    removed(eldest.getKey(), eldest.getValue());
+                    eldest.getKey().namespace().evictions++;
+                }
+            }
+        }
+        return value;
+    }
+
+    /** Pin the entry for {@code key} if it is cached, moving it out of the window. Caller holds the lock. */
+    private Entry pinLocked(Key key) {
+        Entry entry = window.remove(key);
+        if (entry != null) {
+            // Pinned entries live in the main area, so the window only ever holds evictable newcomers.
+            windowBytes -= entry.bytes;
+            entries.put(key, entry);
+        } else {
+            entry = entries.get(key);
+        }
+        if (entry != null && !entry.pinned) {
+            entry.pinned = true;
+            pinnedBytes += entry.bytes;
+            key.namespace().pinned++;
+        }
+        return entry;
+    }
+
+    /** Queue a hit for the LRU order and the sketch, dropping it if the queue is already full. */
+    private void recordHit(Key key) {
+        int pending = pendingCount.incrementAndGet();
+        if (pending > MAX_PENDING_HITS) {
+            pendingCount.decrementAndGet();
+            return;
+        }
+        pendingHits.offer(key);
+        if (pending >= DRAIN_THRESHOLD && draining.compareAndSet(false, true)) {
+            try {
+                synchronized (lock) {
+                    drainHits();
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /** Replay queued hits. Caller holds the lock. */
+    private void drainHits() {
+        Key key;
+        while ((key = pendingHits.poll()) != null) {
+            pendingCount.decrementAndGet();
+            record(key);
+            lookup(key);
+        }
+    }
+
+    /** Count a request for {@code key}, purging cleared keys whenever the sketch ages. Caller holds the lock. */
+    private void record(Key key) {
+        sketch.ensureCapacity(window.size() + entries.size());
+        if (sketch.increment(key)) {
+            purgeCleared();
+        }
+    }
+
+    /** The entry for {@code key} in either area, touching its recency. Caller holds the lock. */
+    private Entry lookup(Key key) {
+        Entry entry = window.get(key);
+        return entry != null ? entry : entries.get(key);
+    }
+
+    private long windowBudget() {
+        return budgetBytes * WINDOW_PERCENT / 100L;
+    }
+
+    /**
+     * Store {@code entry}: in the window when it fits there, otherwise straight into the main area if it wins the
+     * frequency comparison. Caller holds the lock.
+     */
+    private void admit(Key key, Entry entry) {
+        if (entry.bytes > windowBudget()) {
+            if (makeRoom(key, usedBytes + entry.bytes - budgetBytes)) {
+                entries.put(key, entry);
+                stored(key, entry);
+            } else {
+                key.namespace().rejections++;
+            }
+            return;
+        }
+        window.put(key, entry);
+        windowBytes += entry.bytes;
+        stored(key, entry);
+        Iterator<Map.Entry<Key, Entry>> it = window.entrySet().iterator();
+        while (windowBytes > windowBudget() && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            it.remove();
+            windowBytes -= eldest.getValue().bytes;
+            promote(eldest.getKey(), eldest.getValue());
+        }
+        // The window is part of the budget: a newcomer kept there pushes the main area's coldest entries out.
+        it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            if (!eldest.getValue().pinned) {
+                it.remove();
+                removed(eldest.getKey(), eldest.getValue());
+                eldest.getKey().namespace().evictions++;
+            }
+        }
+    }
+
+    /** Move an entry that fell out of the window into the main area, or drop it if it loses admission. */
+    private void promote(Key key, Entry entry) {
+        if (makeRoom(key, usedBytes - budgetBytes)) {
+            entries.put(key, entry);
+            return;
+        }
+        removed(key, entry);
+        key.namespace().rejections++;
+    }
+
+    /**
+     * Evict {@code needed} bytes from the cold end of the main area for {@code candidate}, unless it is requested no
+     * more often than the first live victim. Cleared victims never block admission. Caller holds the lock.
+     *
+     * @return {@code false}, evicting nothing, when the candidate should not be kept
+     */
+    private boolean makeRoom(Key candidate, long needed) {
+        if (needed <= 0L) {
+            return true;
+        }
+        List<Key> victims = new ArrayList<>();
+        Key coldestLive = null;
+        long freed = 0L;
+        for (Map.Entry<Key, Entry> victim : entries.entrySet()) {
+            if (victim.getValue().pinned) {
+                continue;
+            }
+            victims.add(victim.getKey());
+            if (coldestLive == null && !victim.getKey().cleared()) {
+                coldestLive = victim.getKey();
+            }
+            freed += victim.getValue().bytes;
+            if (freed >= needed) {
+                break;
+            }
+        }
+        if (freed < needed
+                || (coldestLive != null && sketch.frequency(candidate) <= sketch.frequency(coldestLive))) {
+            return false;
+        }
+        for (Key victim : victims) {
+            removed(victim, entries.remove(victim));
+            victim.namespace().evictions++;
+        }
+        return true;
+    }
+
+    /** Drop entries whose weak key has been cleared; they can never be hit again. Caller holds the lock. */
+    private void purgeCleared() {
+        for (Map<Key, Entry> area : List.of(window, entries)) {
+            Iterator<Map.Entry<Key, Entry>> it = area.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Entry> entry = it.next();
+                if (entry.getKey().cleared() && !entry.getValue().pinned) {
+                    it.remove();
+                    if (area == window) {
+                        windowBytes -= entry.getValue().bytes;
+                    }
+                    removed(entry.getKey(), entry.getValue());
+                    entry.getKey().namespace().evictions++;
+                }
+            }
+        }
+    }
+
+    private void stored(Key key, Entry entry) {
+        index.put(key, entry);
+        usedBytes += entry.bytes;
+        key.namespace().bytes += entry.bytes;
+        key.namespace().entries++;
+    }
+
+    private void removed(Key key, Entry entry) {
+        index.remove(key);
+        usedBytes -= entry.bytes;
+        key.namespace().bytes -= entry.bytes;
+        key.namespace().entries--;
+        if (entry.pinned) {
+            pinnedBytes -= entry.bytes;
+            key.namespace().pinned--;
+        }
+    }
+
+    /**
+     * Approximate heap held by an image's pixels, from the storage its sample model uses per pixel rather than the
+     * colour depth, so a {@code TYPE_INT_RGB} pixel counts four bytes, not three. Sub-images are charged for their
+     * own area only.
+     */
+    public static long bytesOf(BufferedImage image) {
+        if (image == null) {
+            return 0L;
+        }
+        SampleModel model = image.getSampleModel();
+        int bitsPerPixel = model instanceof MultiPixelPackedSampleModel packed
+                ? packed.getPixelBitStride()
+                : DataBuffer.getDataTypeSize(model.getDataType()) * model.getNumDataElements();
+        return ((long) image.getWidth() * image.getHeight() * Math.max(1, bitsPerPixel) + 7L) / 8L;
+    }
+
+    public static long bytesOf(BufferedImage[] frames) {
+        long total = 0L;
+        if (frames != null) {
+            for (BufferedImage frame : frames) {
+                total += bytesOf(frame);
+            }
+        }
+        return total;
+    }
+
+    /** One subsystem's share of the cache. Keys only need to be unique within the namespace. */
+    public final class Namespace implements ImageCacheNamespaceMXBean {
+        private final String name;
+        private final LongAdder hits = new LongAdder();
+        private long misses;
+        private long evictions;
+        private long rejections;
+        private long bytes;
+        private int entries;
+        private int pinned;
+
+        private Namespace(String name) {
+            this.name = name;
+        }
+
+        /** The cached image for {@code key}, loading it on a miss. A {@code null} result is not cached. */
+        public BufferedImage image(Object key, Supplier<BufferedImage> loader) {
+            return get(this, key, loader, ImageCache::bytesOf);
+        }
+
+        /** The cached frame sequence for {@code key}, loading it on a miss. A {@code null} result is not cached. */
+        public BufferedImage[] frames(Object key, Supplier<BufferedImage[]> loader) {
+            return get(this, key, loader, ImageCache::bytesOf);
+        }
+
+        /**
+         * The cached frame sequence for {@code key}, loading it on a miss, {@link #pin(Object) pinned} until
+         * {@link #unpin(Object)}. The admission filter is skipped: the caller knows the frames are about to be used,
+         * however rarely they were asked for before. A {@code null} result is not cached.
+         */
+        public BufferedImage[] pinnedFrames(Object key, Supplier<BufferedImage[]> loader) {
+            return getPinned(this, key, loader, ImageCache::bytesOf);
+        }
+
+        public boolean contains(Object key) {
+            return index.containsKey(new Key(this, key));
+        }
+
+        /**
+         * The cached image for {@code key}, or {@code null} without loading it. Never blocks; a miss is not
+         * counted, since the caller is expected to load through {@link #image(Object, Supplier)} next.
+         */
+        public BufferedImage imageIfPresent(Object key) {
+            Key cacheKey = new Key(this, Objects.requireNonNull(key, "key"));
+            Entry entry = index.get(cacheKey);
+            if (entry == null || !(entry.value instanceof BufferedImage image)) {
+                return null;
+            }
+            hits.increment();
+            recordHit(cacheKey);
+            return image;
+        }
+
+        /**
+         * Keep {@code key} resident regardless of budget pressure until {@link #unpin(Object)}.
+         *
+         * @return {@code false} when the key is not cached (for example because admission was rejected)
+         */
+        public boolean pin(Object key) {
+            synchronized (lock) {
+                return pinLocked(new Key(this, key)) != null;
+            }
+        }
+
+        public void unpin(Object key) {
+            synchronized (lock) {
+                Entry entry = ImageCache.this.entries.get(new Key(this, key));
+                if (entry != null && entry.pinned) {
+                    entry.pinned = false;
+                    pinnedBytes -= entry.bytes;
+                    pinned--;
+                }
+            }
+        }
+
+        public void invalidate(Object key) {
+            synchronized (lock) {
+                Key cacheKey = new Key(this, key);
+                Entry entry = window.remove(cacheKey);
+                if (entry != null) {
+                    windowBytes -= entry.bytes;
+                } else {
+                    entry = ImageCache.this.entries.remove(cacheKey);
+                }
+                if (entry != null) {
+                    removed(cacheKey, entry);
+                }
+            }
+        }
+
+        /** Drop every entry of this namespace, pinned or not. */
+        @Override
+        public void clear() {
+            synchronized (lock) {
+                for (Map<Key, Entry> area : List.of(window, ImageCache.this.entries)) {
+                    Iterator<Map.Entry<Key, Entry>> it = area.entrySet().iterator();
+                    while (it.hasNext()) {
+                        Map.Entry<Key, Entry> entry = it.next();
+                        if (entry.getKey().namespace() == this) {
+                            it.remove();
+                            if (area == window) {
+                                windowBytes -= entry.getValue().bytes;
+                            }
+                            removed(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+            }
+        }
+
+        public Stats stats() {
+            synchronized (lock) {
+                return new Stats(name, hits.sum(), misses, evictions, rejections, bytes, entries, pinned);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public long getBytes() {
+            return stats().bytes();
+        }
+
+        @Override
+        public int getEntries() {
+            return stats().entries();
+        }
+
+        @Override
+        public int getPinnedEntries() {
+            return stats().pinnedEntries();
+        }
+
+        @Override
+        public long getHits() {
+            return stats().hits();
+        }
+
+        @Override
+        public long getMisses() {
+            return stats().misses();
+        }
+
+        @Override
+        public long getEvictions() {
+            return stats().evictions();
+        }
+
+        @Override
+        public long getRejections() {
+            return stats().rejections();
+        }
+    }
+
+    /**
+     * Count-min sketch of recent key popularity with 4-bit saturating counters, halved after ten requests per cached
+     * entry so old popularity fades at the pace the cache turns over.
+     */
+    private static final class FrequencySketch {
+        private static final int WIDTH = 1 << 12;
+        private static final int MIN_ENTRIES = 16;
+        private static final int[] SEEDS = {0x97CB3127, 0xB7E15163, 0x8AEDF8F5, 0x4F1BBCDD};
+
+        private final byte[][] rows = new byte[SEEDS.length][WIDTH];
+        private int sampleSize = MIN_ENTRIES * 10;
+        private int additions;
+
+        /** Age the counters at a pace suited to a cache holding {@code entries} entries; never slows down. */
+        void ensureCapacity(int entries) {
+            sampleSize = Math.max(sampleSize, Math.min(WIDTH, entries) * 10);
+        }
+
+        /** @return {@code true} when this increment aged the sketch */
+        boolean increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < rows.length; row++) {
+                int index = index(hash, row);
+                if (rows[row][index] < 15) {
+                    rows[row][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                halve();
+                return true;
+            }
+            return false;
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int min = Integer.MAX_VALUE;
+            for (int row = 0; row < rows.length; row++) {
+                min = Math.min(min, rows[row][index(hash, row)]);
+            }
+            return min;
+        }
+
+        private void halve() {
+            for (byte[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            return h & (WIDTH - 1);
+        }
+    }
+}
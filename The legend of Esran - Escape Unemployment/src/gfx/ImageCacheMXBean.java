@@ -0,0 +1,24 @@
+package gfx;
+
+/** Totals of the shared {@link ImageCache} across every namespace, as published over JMX. */
+public interface ImageCacheMXBean {
+    long getBudgetBytes();
+
+    void setBudgetBytes(long budgetBytes);
+
+    long getUsedBytes();
+
+    long getPinnedBytes();
+
+    int getEntries();
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    long getRejections();
+
+    void clear();
+}
@@ -0,0 +1,22 @@
+package gfx;
+
+/** Counters of one {@link ImageCache.Namespace}, as published over JMX. */
+public interface ImageCacheNamespaceMXBean {
+    String getName();
+
+    long getBytes();
+
+    int getEntries();
+
+    int getPinnedEntries();
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    long getRejections();
+
+    void clear();
+}
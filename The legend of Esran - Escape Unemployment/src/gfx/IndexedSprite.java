@@ -0,0 +1,190 @@
+package gfx;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Pixel-art sprite stored as 8-bit palette indices.
+ * <p>
+ * Sprites with at most 256 distinct ARGB colours are converted once into a byte raster plus an
+ * {@link IndexColorModel}. Recolouring (hue-shifted tile variants, palette transitions) builds a new colour model
+ * over the <em>same</em> raster, so each variant costs a 1&nbsp;KB palette instead of a full ARGB copy, and a
+ * transition touches 256 entries rather than every pixel. Sprites with more colours are left to the ARGB path.
+ */
+public final class IndexedSprite {
+
+    private static final int MAX_COLOURS = 256;
+
+    private final WritableRaster indices;
+    private final int[] palette;
+    private final BufferedImage image;
+
+    private IndexedSprite(WritableRaster indices, int[] palette) {
+        this.indices = indices;
+        this.palette = palette;
+        this.image = new BufferedImage(colourModel(palette), indices, false, null);
+    }
+
+    /** Index {@code source} if it uses at most 256 distinct ARGB values; empty otherwise. */
+    public static Optional<IndexedSprite> tryIndex(BufferedImage source) {
+        if (source == null) {
+            return Optional.empty();
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        int[] argb = source.getRGB(0, 0, w, h, null, 0, w);
+        Map<Integer, Integer> lookup = new HashMap<>();
+        int[] palette = new int[MAX_COLOURS];
+        byte[] pixels = new byte[w * h];
+        for (int i = 0; i < argb.length; i++) {
+            // Fully transparent pixels all share one entry regardless of their colour bits.
+            int colour = (argb[i] >>> 24) == 0 ? 0 : argb[i];
+            Integer index = lookup.get(colour);
+            if (index == null) {
+                if (lookup.size() == MAX_COLOURS) {
+                    return Optional.empty();
+                }
+                index = lookup.size();
+                lookup.put(colour, index);
+                palette[index] = colour;
+            }
+            pixels[i] = (byte) (int) index;
+        }
+        int[] used = Arrays.copyOf(palette, Math.max(1, lookup.size()));
+        WritableRaster raster = colourModel(used).createCompatibleWritableRaster(w, h);
+        raster.setDataElements(0, 0, w, h, pixels);
+        return Optional.of(new IndexedSprite(raster, used));
+    }
+
+    /**
+     * The sprite behind an image this class made, such as {@link #image()} or a recoloured view, sharing its
+     * raster; empty for any other image.
+     */
+    public static Optional<IndexedSprite> of(BufferedImage image) {
+        if (image == null || !(image.getColorModel() instanceof IndexColorModel model)
+                || image.getType() != BufferedImage.TYPE_BYTE_INDEXED || model.getMapSize() > MAX_COLOURS) {
+            return Optional.empty();
+        }
+        int[] palette = new int[model.getMapSize()];
+        model.getRGBs(palette);
+        return Optional.of(new IndexedSprite(image.getRaster(), palette));
+    }
+
+    /**
+     * This sprite resized to {@code width x height} by nearest-neighbour, with the same palette. Any other filter
+     * would mix colours that the palette does not have, so pixel art is indexed first and scaled this way.
+     */
+    public IndexedSprite scaled(int width, int height) {
+        int w = Math.max(1, width);
+        int h = Math.max(1, height);
+        int srcW = indices.getWidth();
+        int srcH = indices.getHeight();
+        byte[] source = (byte[]) indices.getDataElements(0, 0, srcW, srcH, null);
+        byte[] scaled = new byte[w * h];
+        for (int y = 0; y < h; y++) {
+            int row = (int) ((long) y * srcH / h) * srcW;
+            for (int x = 0; x < w; x++) {
+                scaled[y * w + x] = source[row + (int) ((long) x * srcW / w)];
+            }
+        }
+        WritableRaster raster = colourModel(palette).createCompatibleWritableRaster(w, h);
+        raster.setDataElements(0, 0, w, h, scaled);
+        return new IndexedSprite(raster, palette);
+    }
+
+    /** Whether every colour in the palette is fully opaque. */
+    public boolean isOpaque() {
+        for (int colour : palette) {
+            if ((colour >>> 24) != 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The sprite with its original palette. */
+    public BufferedImage image() {
+        return image;
+    }
+
+    public int colourCount() {
+        return palette.length;
+    }
+
+    /** Copy of the ARGB palette. */
+    public int[] palette() {
+        return palette.clone();
+    }
+
+    /**
+     * A view of this sprite with every palette entry passed through {@code mapping}. The returned image shares the
+     * pixel raster with this sprite; only the colour model is new.
+     */
+    public BufferedImage recolour(IntUnaryOperator mapping) {
+        int[] mapped = new int[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            mapped[i] = palette[i] == 0 ? 0 : mapping.applyAsInt(palette[i]);
+        }
+        return withPalette(mapped);
+    }
+
+    /** A view of this sprite drawn with {@code argbPalette}, which must have {@link #colourCount()} entries. */
+    public BufferedImage withPalette(int[] argbPalette) {
+        if (argbPalette == null || argbPalette.length != palette.length) {
+            throw new IllegalArgumentException("palette must have " + palette.length + " entries");
+        }
+        return new BufferedImage(colourModel(argbPalette), indices, false, null);
+    }
+
+    /** Palette linearly blended from this sprite's colours toward {@code target} by {@code t} in {@code [0, 1]}. */
+    public int[] blendPalette(int[] target, double t) {
+        if (target == null || target.length != palette.length) {
+            throw new IllegalArgumentException("palette must have " + palette.length + " entries");
+        }
+        int weight = (int) Math.round(Math.max(0.0, Math.min(1.0, t)) * 256);
+        int[] blended = new int[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            int a = palette[i];
+            int b = target[i];
+            int result = 0;
+            for (int shift = 0; shift <= 24; shift += 8) {
+                int ca = (a >>> shift) & 0xFF;
+                int cb = (b >>> shift) & 0xFF;
+                result |= (ca + (((cb - ca) * weight) >> 8)) << shift;
+            }
+            blended[i] = result;
+        }
+        return blended;
+    }
+
+    /** Approximate pixel storage in bytes: one byte per pixel plus the palette. */
+    public long footprintBytes() {
+        return (long) indices.getWidth() * indices.getHeight() + palette.length * 4L;
+    }
+
+    /** Hue/saturation/brightness adjustment suitable for {@link #recolour}. */
+    public static IntUnaryOperator hsbShift(float hueShift, float satScale, float brightScale) {
+        return argb -> {
+            float[] hsb = Color.RGBtoHSB((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, null);
+            float hue = (hsb[0] + hueShift) % 1f;
+            if (hue < 0f) {
+                hue += 1f;
+            }
+            float sat = Math.max(0f, Math.min(1f, hsb[1] * satScale));
+            float bright = Math.max(0f, Math.min(1f, hsb[2] * brightScale));
+            return (argb & 0xFF000000) | (Color.HSBtoRGB(hue, sat, bright) & 0x00FFFFFF);
+        };
+    }
+
+    private static IndexColorModel colourModel(int[] argbPalette) {
+        return new IndexColorModel(8, argbPalette.length, argbPalette, 0, true, -1, DataBuffer.TYPE_BYTE);
+    }
+}
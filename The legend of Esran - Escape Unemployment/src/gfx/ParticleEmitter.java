@@ -0,0 +1,261 @@
+package gfx;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable description of how a {@link ParticleSystem} spawns and shades a family of particles.
+ * <p>
+ * An emitter either fires a fixed {@link Mode#BURST} at once or streams particles at a {@link Mode#RATE} for a
+ * while. Motion is described by a launch direction and spread, a speed and lifetime range, constant gravity on the
+ * y axis and exponential drag. Colour and alpha follow a ramp of ARGB stops spread evenly over the lifetime; the
+ * ramp is baked into a lookup table once so shading a particle is a single array read.
+ */
+public final class ParticleEmitter {
+
+    /** Number of entries in the baked colour ramp. */
+    static final int RAMP_STEPS = 64;
+
+    public enum Mode {
+        /** Spawn {@link Builder#burst(int)} particles in one call. */
+        BURST,
+        /** Spawn {@link Builder#rate(double, double)} particles per second for a fixed duration. */
+        RATE
+    }
+
+    private final Mode mode;
+    private final int burstCount;
+    private final double ratePerSecond;
+    private final double durationSeconds;
+    private final double direction;
+    private final double spread;
+    private final double speedMin;
+    private final double speedMax;
+    private final double lifeMin;
+    private final double lifeMax;
+    private final double gravity;
+    private final double drag;
+    private final double spawnRadius;
+    private final SpriteBlitter.Mode blend;
+    private final int[] ramp;
+
+    private ParticleEmitter(Builder b) {
+        this.mode = b.mode;
+        this.burstCount = b.burstCount;
+        this.ratePerSecond = b.ratePerSecond;
+        this.durationSeconds = b.durationSeconds;
+        this.direction = b.direction;
+        this.spread = b.spread;
+        this.speedMin = b.speedMin;
+        this.speedMax = b.speedMax;
+        this.lifeMin = b.lifeMin;
+        this.lifeMax = b.lifeMax;
+        this.gravity = b.gravity;
+        this.drag = b.drag;
+        this.spawnRadius = b.spawnRadius;
+        this.blend = b.blend;
+        this.ramp = bakeRamp(b.colours);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public int burstCount() {
+        return burstCount;
+    }
+
+    public double ratePerSecond() {
+        return ratePerSecond;
+    }
+
+    public double durationSeconds() {
+        return durationSeconds;
+    }
+
+    double direction() {
+        return direction;
+    }
+
+    double spread() {
+        return spread;
+    }
+
+    double speedMin() {
+        return speedMin;
+    }
+
+    double speedMax() {
+        return speedMax;
+    }
+
+    double lifeMin() {
+        return lifeMin;
+    }
+
+    double lifeMax() {
+        return lifeMax;
+    }
+
+    double gravity() {
+        return gravity;
+    }
+
+    double drag() {
+        return drag;
+    }
+
+    double spawnRadius() {
+        return spawnRadius;
+    }
+
+    SpriteBlitter.Mode blend() {
+        return blend;
+    }
+
+    /** Baked ARGB ramp of {@link #RAMP_STEPS} entries; shared, do not modify. */
+    int[] ramp() {
+        return ramp;
+    }
+
+    /** ARGB colour at normalised age {@code t} in {@code [0, 1]}. */
+    public int colourAt(double t) {
+        int step = (int) (Math.max(0.0, Math.min(1.0, t)) * (RAMP_STEPS - 1));
+        return ramp[step];
+    }
+
+    private static int[] bakeRamp(int[] stops) {
+        int[] baked = new int[RAMP_STEPS];
+        if (stops.length == 1) {
+            Arrays.fill(baked, stops[0]);
+            return baked;
+        }
+        int segments = stops.length - 1;
+        for (int i = 0; i < RAMP_STEPS; i++) {
+            double pos = i / (double) (RAMP_STEPS - 1) * segments;
+            int seg = Math.min(segments - 1, (int) pos);
+            double f = pos - seg;
+            baked[i] = lerp(stops[seg], stops[seg + 1], f);
+        }
+        return baked;
+    }
+
+    private static int lerp(int a, int b, double f) {
+        int result = 0;
+        for (int shift = 0; shift <= 24; shift += 8) {
+            int ca = (a >>> shift) & 0xFF;
+            int cb = (b >>> shift) & 0xFF;
+            result |= ((int) Math.round(ca + (cb - ca) * f) & 0xFF) << shift;
+        }
+        return result;
+    }
+
+    public static final class Builder {
+        private Mode mode = Mode.BURST;
+        private int burstCount = 16;
+        private double ratePerSecond;
+        private double durationSeconds;
+        private double direction;
+        private double spread = Math.PI * 2;
+        private double speedMin = 30;
+        private double speedMax = 90;
+        private double lifeMin = 0.4;
+        private double lifeMax = 0.8;
+        private double gravity;
+        private double drag;
+        private double spawnRadius;
+        private SpriteBlitter.Mode blend = SpriteBlitter.Mode.ADDITIVE;
+        private int[] colours = {0xFFFFFFFF, 0x00FFFFFF};
+
+        private Builder() {
+        }
+
+        public Builder burst(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("burst count must not be negative: " + count);
+            }
+            this.mode = Mode.BURST;
+            this.burstCount = count;
+            return this;
+        }
+
+        /** Stream {@code perSecond} particles for {@code seconds} after each emit. */
+        public Builder rate(double perSecond, double seconds) {
+            if (perSecond < 0 || seconds < 0) {
+                throw new IllegalArgumentException("rate and duration must not be negative");
+            }
+            this.mode = Mode.RATE;
+            this.ratePerSecond = perSecond;
+            this.durationSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Launch angle in radians (0 points along +x, {@code -PI/2} points up on screen) and the total cone
+         * width around it; a spread of {@code 2*PI} fires in every direction.
+         */
+        public Builder direction(double angle, double spread) {
+            this.direction = angle;
+            this.spread = Math.max(0.0, spread);
+            return this;
+        }
+
+        /** Launch speed range in pixels per second. */
+        public Builder speed(double min, double max) {
+            this.speedMin = Math.max(0.0, Math.min(min, max));
+            this.speedMax = Math.max(0.0, Math.max(min, max));
+            return this;
+        }
+
+        /** Lifetime range in seconds. */
+        public Builder life(double min, double max) {
+            this.lifeMin = Math.max(0.01, Math.min(min, max));
+            this.lifeMax = Math.max(0.01, Math.max(min, max));
+            return this;
+        }
+
+        /** Downward acceleration in pixels per second squared; negative values make particles rise. */
+        public Builder gravity(double pixelsPerSecondSquared) {
+            this.gravity = pixelsPerSecondSquared;
+            return this;
+        }
+
+        /** Exponential velocity damping per second; 0 disables drag. */
+        public Builder drag(double perSecond) {
+            this.drag = Math.max(0.0, perSecond);
+            return this;
+        }
+
+        /** Scatter spawn positions uniformly inside a circle of this radius. */
+        public Builder spawnRadius(double radius) {
+            this.spawnRadius = Math.max(0.0, radius);
+            return this;
+        }
+
+        /**
+         * Blend for the particles. {@link SpriteBlitter.Mode#ADDITIVE} suits sparks and glows and is drawn additively
+         * on Java2D targets too; the other modes only apply on int rasters, and Java2D draws them source-over.
+         */
+        public Builder blend(SpriteBlitter.Mode mode) {
+            this.blend = Objects.requireNonNull(mode, "mode");
+            return this;
+        }
+
+        /** ARGB colour stops spread evenly from birth to death; alpha in the stops drives the fade. */
+        public Builder colours(int... argbStops) {
+            if (argbStops == null || argbStops.length == 0) {
+                throw new IllegalArgumentException("at least one colour stop is required");
+            }
+            this.colours = argbStops.clone();
+            return this;
+        }
+
+        public ParticleEmitter build() {
+            return new ParticleEmitter(this);
+        }
+    }
+}
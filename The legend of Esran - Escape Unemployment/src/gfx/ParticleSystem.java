@@ -0,0 +1,398 @@
+package gfx;
+
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Objects;
+
+/**
+ * Fixed-capacity particle pool stored as parallel primitive arrays.
+ * <p>
+ * Each live particle is one index into a set of {@code float[]} columns (position, velocity, normalised age and
+ * age rate) plus the index of the {@link ParticleEmitter} that spawned it. Updating walks the columns linearly and
+ * removes expired particles by moving the last live particle into the hole, so there is no per-particle object,
+ * iterator or list shuffling and nothing is allocated after construction. Every particle is drawn with the same
+ * pre-rendered sprite: on an int raster through {@link SpriteBlitter} with the emitter's ramp colour as the tint,
+ * and on a Java2D surface through a handful of pre-tinted copies of the sprite per emitter. Both honour the
+ * emitter's blend: on Java2D, {@link SpriteBlitter.Mode#ADDITIVE} emitters draw through {@link AdditiveComposite}
+ * and every other mode through the surface's own composite.
+ * <p>
+ * Not thread-safe; emit, update and render from the thread that owns the scene.
+ */
+public final class ParticleSystem {
+
+    /** Emitters a single system can shade; each gets its own ramp and stamps. */
+    static final int MAX_EMITTERS = 64;
+    /** Concurrently streaming {@link ParticleEmitter.Mode#RATE} emitters. */
+    static final int MAX_STREAMS = 64;
+    /** Pre-tinted sprite copies per emitter for Java2D targets. */
+    static final int STAMP_STEPS = 16;
+
+    private final int capacity;
+    private final BufferedImage sprite;
+    private final int halfWidth;
+    private final int halfHeight;
+
+    private final float[] x;
+    private final float[] y;
+    private final float[] vx;
+    private final float[] vy;
+    private final float[] age;
+    private final float[] ageRate;
+    private final byte[] emitterOf;
+    private int count;
+
+    private final ParticleEmitter[] emitters = new ParticleEmitter[MAX_EMITTERS];
+    private final float[] emitterGravity = new float[MAX_EMITTERS];
+    private final float[] emitterDamping = new float[MAX_EMITTERS];
+    private final BufferedImage[][] stamps = new BufferedImage[MAX_EMITTERS][];
+    private int emitterCount;
+
+    private final int[] streamEmitter = new int[MAX_STREAMS];
+    private final double[] streamX = new double[MAX_STREAMS];
+    private final double[] streamY = new double[MAX_STREAMS];
+    private final double[] streamRemaining = new double[MAX_STREAMS];
+    private final double[] streamRate = new double[MAX_STREAMS];
+    private final double[] streamCarry = new double[MAX_STREAMS];
+    private int streamCount;
+
+    private long seed = 0x9E3779B97F4A7C15L;
+    private long dropped;
+
+    public ParticleSystem(int capacity, BufferedImage sprite) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sprite = SpriteBlitter.toBlittable(Objects.requireNonNull(sprite, "sprite"));
+        this.halfWidth = this.sprite.getWidth() / 2;
+        this.halfHeight = this.sprite.getHeight() / 2;
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.vx = new float[capacity];
+        this.vy = new float[capacity];
+        this.age = new float[capacity];
+        this.ageRate = new float[capacity];
+        this.emitterOf = new byte[capacity];
+    }
+
+    /** White disc of the given diameter whose alpha falls off smoothly toward the rim; a good default sprite. */
+    public static BufferedImage softDot(int diameter) {
+        int size = Math.max(1, diameter);
+        BufferedImage dot = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] pixels = ((DataBufferInt) dot.getRaster().getDataBuffer()).getData();
+        double c = (size - 1) / 2.0;
+        double r = Math.max(0.5, size / 2.0);
+        for (int py = 0; py < size; py++) {
+            for (int px = 0; px < size; px++) {
+                double d = Math.hypot(px - c, py - c) / r;
+                double falloff = Math.max(0.0, 1.0 - d);
+                int a = (int) Math.round(255 * falloff * falloff * (3 - 2 * falloff));
+                pixels[py * size + px] = (a << 24) | (a << 16) | (a << 8) | a;
+            }
+        }
+        return dot;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Live particles. */
+    public int size() {
+        return count;
+    }
+
+    /** Spawns refused because the pool was full, since construction. */
+    public long dropped() {
+        return dropped;
+    }
+
+    /** Rate emitters still streaming. */
+    public int activeStreams() {
+        return streamCount;
+    }
+
+    /** Drop every particle and stream. Registered emitters and their stamps are kept. */
+    public void clear() {
+        count = 0;
+        streamCount = 0;
+    }
+
+    /**
+     * Fire {@code emitter} at {@code (px, py)}: a burst spawns its particles now, a rate emitter starts streaming
+     * from that point. Returns the number of particles spawned immediately.
+     */
+    public int emit(ParticleEmitter emitter, double px, double py) {
+        return emit(emitter, px, py, 1.0);
+    }
+
+    /** As {@link #emit(ParticleEmitter, double, double)} with counts and rates scaled by {@code density}. */
+    public int emit(ParticleEmitter emitter, double px, double py, double density) {
+        int id = register(emitter);
+        double scale = Math.max(0.0, Math.min(1.0, density));
+        if (emitter.mode() == ParticleEmitter.Mode.BURST) {
+            return spawn(id, px, py, (int) Math.round(emitter.burstCount() * scale));
+        }
+        if (streamCount == MAX_STREAMS || emitter.ratePerSecond() * scale <= 0 || emitter.durationSeconds() <= 0) {
+            return 0;
+        }
+        int s = streamCount++;
+        streamEmitter[s] = id;
+        streamX[s] = px;
+        streamY[s] = py;
+        streamRemaining[s] = emitter.durationSeconds();
+        streamRate[s] = emitter.ratePerSecond() * scale;
+        streamCarry[s] = 0.0;
+        return 0;
+    }
+
+    /** Advance streams and particles by {@code dt} seconds. */
+    public void update(double dt) {
+        if (dt <= 0) {
+            return;
+        }
+        updateStreams(dt);
+        float step = (float) dt;
+        for (int e = 0; e < emitterCount; e++) {
+            emitterDamping[e] = (float) Math.exp(-emitters[e].drag() * dt);
+        }
+        int n = count;
+        for (int i = 0; i < n; i++) {
+            float a = age[i] + ageRate[i] * step;
+            if (a >= 1f) {
+                n--;
+                moveParticle(n, i);
+                i--;
+                continue;
+            }
+            age[i] = a;
+            int e = emitterOf[i];
+            float damping = emitterDamping[e];
+            float nvx = vx[i] * damping;
+            float nvy = (vy[i] + emitterGravity[e] * step) * damping;
+            vx[i] = nvx;
+            vy[i] = nvy;
+            x[i] += nvx * step;
+            y[i] += nvy * step;
+        }
+        count = n;
+    }
+
+    /**
+     * Draw every particle into an int raster ({@code TYPE_INT_RGB}, as used by {@link PixelFramebuffer}) whose
+     * top-left corner sits at {@code (originX, originY)} in particle space.
+     */
+    public void render(BufferedImage target, int originX, int originY) {
+        if (target == null || count == 0) {
+            return;
+        }
+        int w = target.getWidth();
+        int h = target.getHeight();
+        int sw = sprite.getWidth();
+        int sh = sprite.getHeight();
+        int offsetX = originX + halfWidth;
+        int offsetY = originY + halfHeight;
+        for (int i = 0; i < count; i++) {
+            int px = (int) x[i] - offsetX;
+            int py = (int) y[i] - offsetY;
+            if (px >= w || py >= h || px + sw <= 0 || py + sh <= 0) {
+                continue;
+            }
+            ParticleEmitter emitter = emitters[emitterOf[i]];
+            int tint = emitter.ramp()[(int) (age[i] * (ParticleEmitter.RAMP_STEPS - 1))];
+            if ((tint >>> 24) == 0) {
+                continue;
+            }
+            SpriteBlitter.blit(target, sprite, px, py, emitter.blend(), tint, false);
+        }
+    }
+
+    /**
+     * Draw every particle inside {@code cull} (particle space; {@code null} draws all) onto a Java2D surface that
+     * is already translated into particle space. The ramp is quantised to {@value #STAMP_STEPS} pre-tinted sprites
+     * per emitter, so each particle is one untransformed {@code drawImage}; the composite only changes where the
+     * blend differs from the particle before, and is restored afterwards.
+     */
+    public void render(Graphics2D g, Rectangle cull) {
+        if (g == null || count == 0) {
+            return;
+        }
+        int sw = sprite.getWidth();
+        int sh = sprite.getHeight();
+        Composite original = g.getComposite();
+        boolean additive = false;
+        for (int i = 0; i < count; i++) {
+            int px = (int) x[i] - halfWidth;
+            int py = (int) y[i] - halfHeight;
+            if (cull != null && !cull.intersects(px, py, sw, sh)) {
+                continue;
+            }
+            BufferedImage[] set = stampsFor(emitterOf[i]);
+            BufferedImage stamp = set[(int) (age[i] * (STAMP_STEPS - 1) + 0.5f)];
+            if (stamp == null) {
+                continue;
+            }
+            boolean wantsAdditive = emitters[emitterOf[i]].blend() == SpriteBlitter.Mode.ADDITIVE;
+            if (wantsAdditive != additive) {
+                g.setComposite(wantsAdditive ? AdditiveComposite.INSTANCE : original);
+                additive = wantsAdditive;
+            }
+            g.drawImage(stamp, px, py, null);
+        }
+        if (additive) {
+            g.setComposite(original);
+        }
+    }
+
+    private int register(ParticleEmitter emitter) {
+        Objects.requireNonNull(emitter, "emitter");
+        for (int e = 0; e < emitterCount; e++) {
+            if (emitters[e] == emitter) {
+                return e;
+            }
+        }
+        if (emitterCount == MAX_EMITTERS) {
+            throw new IllegalStateException("A particle system can shade at most " + MAX_EMITTERS + " emitters");
+        }
+        int id = emitterCount++;
+        emitters[id] = emitter;
+        emitterGravity[id] = (float) emitter.gravity();
+        return id;
+    }
+
+    private void updateStreams(double dt) {
+        int n = streamCount;
+        for (int s = 0; s < n; s++) {
+            double slice = Math.min(dt, streamRemaining[s]);
+            double due = streamCarry[s] + streamRate[s] * slice;
+            int whole = (int) due;
+            streamCarry[s] = due - whole;
+            spawn(streamEmitter[s], streamX[s], streamY[s], whole);
+            streamRemaining[s] -= dt;
+            if (streamRemaining[s] <= 0) {
+                n--;
+                streamEmitter[s] = streamEmitter[n];
+                streamX[s] = streamX[n];
+                streamY[s] = streamY[n];
+                streamRemaining[s] = streamRemaining[n];
+                streamRate[s] = streamRate[n];
+                streamCarry[s] = streamCarry[n];
+                s--;
+            }
+        }
+        streamCount = n;
+    }
+
+    private int spawn(int id, double px, double py, int requested) {
+        if (requested <= 0) {
+            return 0;
+        }
+        int spawned = Math.min(requested, capacity - count);
+        dropped += requested - spawned;
+        ParticleEmitter emitter = emitters[id];
+        double radius = emitter.spawnRadius();
+        double spread = emitter.spread();
+        double baseAngle = emitter.direction() - spread / 2;
+        double speedRange = emitter.speedMax() - emitter.speedMin();
+        double lifeRange = emitter.lifeMax() - emitter.lifeMin();
+        for (int k = 0; k < spawned; k++) {
+            int i = count++;
+            double ox = 0;
+            double oy = 0;
+            if (radius > 0) {
+                double r = radius * Math.sqrt(nextUnit());
+                double theta = nextUnit() * Math.PI * 2;
+                ox = Math.cos(theta) * r;
+                oy = Math.sin(theta) * r;
+            }
+            double angle = baseAngle + spread * nextUnit();
+            double speed = emitter.speedMin() + speedRange * nextUnit();
+            double life = emitter.lifeMin() + lifeRange * nextUnit();
+            x[i] = (float) (px + ox);
+            y[i] = (float) (py + oy);
+            vx[i] = (float) (Math.cos(angle) * speed);
+            vy[i] = (float) (Math.sin(angle) * speed);
+            age[i] = 0f;
+            ageRate[i] = (float) (1.0 / life);
+            emitterOf[i] = (byte) id;
+        }
+        return spawned;
+    }
+
+    private void moveParticle(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        age[to] = age[from];
+        ageRate[to] = ageRate[from];
+        emitterOf[to] = emitterOf[from];
+    }
+
+    private BufferedImage[] stampsFor(int id) {
+        BufferedImage[] set = stamps[id];
+        if (set == null) {
+            set = new BufferedImage[STAMP_STEPS];
+            int[] ramp = emitters[id].ramp();
+            int[] source = ((DataBufferInt) sprite.getRaster().getDataBuffer()).getData();
+            boolean premultiplied = sprite.getType() == BufferedImage.TYPE_INT_ARGB_PRE;
+            boolean opaque = sprite.getType() == BufferedImage.TYPE_INT_RGB;
+            for (int s = 0; s < STAMP_STEPS; s++) {
+                int tint = ramp[s * (ParticleEmitter.RAMP_STEPS - 1) / (STAMP_STEPS - 1)];
+                set[s] = (tint >>> 24) == 0 ? null : tinted(source, premultiplied, opaque, tint);
+            }
+            stamps[id] = set;
+        }
+        return set;
+    }
+
+    private BufferedImage tinted(int[] source, boolean premultiplied, boolean opaque, int tint) {
+        BufferedImage stamp = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] out = ((DataBufferInt) stamp.getRaster().getDataBuffer()).getData();
+        int ta = tint >>> 24;
+        int tr = (tint >>> 16) & 0xFF;
+        int tg = (tint >>> 8) & 0xFF;
+        int tb = tint & 0xFF;
+        for (int i = 0; i < out.length; i++) {
+            int p = source[i];
+            int a = opaque ? 0xFF : p >>> 24;
+            int outA = a * ta / 255;
+            if (outA == 0) {
+                continue;
+            }
+            // Work from straight colour so premultiplied and plain sprites tint identically.
+            int r = (p >>> 16) & 0xFF;
+            int gr = (p >>> 8) & 0xFF;
+            int b = p & 0xFF;
+            if (premultiplied) {
+                r = Math.min(255, r * 255 / a);
+                gr = Math.min(255, gr * 255 / a);
+                b = Math.min(255, b * 255 / a);
+            }
+            r = r * tr / 255 * outA / 255;
+            gr = gr * tg / 255 * outA / 255;
+            b = b * tb / 255 * outA / 255;
+            out[i] = (outA << 24) | (r << 16) | (gr << 8) | b;
+        }
+        return stamp;
+    }
+
+    /** Uniform double in {@code [0, 1)} from a xorshift64* generator; avoids contention on a shared Random. */
+    private double nextUnit() {
+        long v = seed;
+        v ^= v >>> 12;
+        v ^= v << 25;
+        v ^= v >>> 27;
+        seed = v;
+        return ((v * 0x2545F4914F6CDD1DL) >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public String toString() {
+        return "ParticleSystem[" + count + "/" + capacity + ", streams=" + streamCount
+                + ", emitters=" + emitterCount + ", dropped=" + dropped + "]";
+    }
+}
@@ -0,0 +1,193 @@
+package gfx;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * Logical-resolution {@code int[]} framebuffer for pixel-art scenes.
+ * <p>
+ * The world is composed at its native size (one array element per logical pixel) and presented with a single
+ * nearest-neighbour upscale by the largest integer factor that fits the target surface. Any remaining space is
+ * letterboxed so pixels never land on fractional boundaries, which keeps the art crisp and means Java2D only
+ * rasterises sprites at 1:1 instead of at device resolution.
+ */
+public final class PixelFramebuffer {
+
+    private final int width;
+    private final int height;
+    private final BufferedImage image;
+    private final int[] pixels;
+
+    public PixelFramebuffer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Framebuffer dimensions must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /** Backing pixel array in {@code 0x00RRGGBB} row-major order; writes are visible on the next present. */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    /** Image view over {@link #pixels()}, useful for drawing vector shapes at logical resolution. */
+    public BufferedImage image() {
+        return image;
+    }
+
+    public void clear(Color colour) {
+        Arrays.fill(pixels, colour == null ? 0 : colour.getRGB() & 0xffffff);
+    }
+
+    /**
+     * Graphics context that draws straight into the framebuffer at logical resolution.
+     * Callers must dispose the returned context.
+     */
+    public Graphics2D createGraphics() {
+        return image.createGraphics();
+    }
+
+    /**
+     * Composite {@code source} at the given logical position using direct array writes. Opaque rows are copied
+     * with {@link System#arraycopy}; translucent pixels are blended source-over in integer math.
+     */
+    public void composite(BufferedImage source, int dx, int dy) {
+        if (source == null) {
+            return;
+        }
+        int srcX = Math.max(0, -dx);
+        int srcY = Math.max(0, -dy);
+        int dstX = Math.max(0, dx);
+        int dstY = Math.max(0, dy);
+        int w = Math.min(source.getWidth() - srcX, width - dstX);
+        int h = Math.min(source.getHeight() - srcY, height - dstY);
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+
+        int[] src;
+        int srcOffset;
+        int srcStride;
+        boolean srcHasAlpha;
+        if (isPackedIntRaster(source)) {
+            SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) source.getSampleModel();
+            src = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+            srcStride = model.getScanlineStride();
+            srcOffset = (srcY - source.getRaster().getSampleModelTranslateY()) * srcStride
+                    + (srcX - source.getRaster().getSampleModelTranslateX());
+            srcHasAlpha = source.getType() == BufferedImage.TYPE_INT_ARGB;
+        } else {
+            src = source.getRGB(srcX, srcY, w, h, null, 0, w);
+            srcStride = w;
+            srcOffset = 0;
+            srcHasAlpha = source.getColorModel().hasAlpha();
+        }
+
+        int dstOffset = dstY * width + dstX;
+        if (!srcHasAlpha) {
+            for (int row = 0; row < h; row++) {
+                System.arraycopy(src, srcOffset + row * srcStride, pixels, dstOffset + row * width, w);
+            }
+            return;
+        }
+        for (int row = 0; row < h; row++) {
+            int s = srcOffset + row * srcStride;
+            int d = dstOffset + row * width;
+            for (int col = 0; col < w; col++, s++, d++) {
+                int argb = src[s];
+                int a = argb >>> 24;
+                if (a == 0xff) {
+                    pixels[d] = argb & 0xffffff;
+                } else if (a != 0) {
+                    pixels[d] = blend(pixels[d], argb, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Present the framebuffer into a {@code targetWidth x targetHeight} surface.
+     *
+     * @return destination rectangle actually covered by the scaled framebuffer
+     */
+    public Rectangle present(Graphics2D g, int targetWidth, int targetHeight, Color letterbox) {
+        Rectangle viewport = viewport(targetWidth, targetHeight);
+        if (letterbox != null) {
+            g.setColor(letterbox);
+            if (viewport.y > 0) {
+                g.fillRect(0, 0, targetWidth, viewport.y);
+                g.fillRect(0, viewport.y + viewport.height, targetWidth, targetHeight - viewport.y - viewport.height);
+            }
+            if (viewport.x > 0) {
+                g.fillRect(0, viewport.y, viewport.x, viewport.height);
+                g.fillRect(viewport.x + viewport.width, viewport.y,
+                        targetWidth - viewport.x - viewport.width, viewport.height);
+            }
+        }
+        Object previous = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(image, viewport.x, viewport.y, viewport.width, viewport.height, null);
+        if (previous != null) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, previous);
+        }
+        return viewport;
+    }
+
+    /**
+     * Destination rectangle for a target surface: the largest integer multiple of the logical size that fits,
+     * centred. Surfaces smaller than the logical size fall back to an aspect-preserving fractional fit.
+     */
+    public Rectangle viewport(int targetWidth, int targetHeight) {
+        return viewport(width, height, targetWidth, targetHeight);
+    }
+
+    public static Rectangle viewport(int logicalWidth, int logicalHeight, int targetWidth, int targetHeight) {
+        if (targetWidth <= 0 || targetHeight <= 0) {
+            return new Rectangle(0, 0, logicalWidth, logicalHeight);
+        }
+        int factor = Math.min(targetWidth / logicalWidth, targetHeight / logicalHeight);
+        int w;
+        int h;
+        if (factor >= 1) {
+            w = logicalWidth * factor;
+            h = logicalHeight * factor;
+        } else {
+            double fit = Math.min(targetWidth / (double) logicalWidth, targetHeight / (double) logicalHeight);
+            w = Math.max(1, (int) Math.floor(logicalWidth * fit));
+            h = Math.max(1, (int) Math.floor(logicalHeight * fit));
+        }
+        return new Rectangle((targetWidth - w) / 2, (targetHeight - h) / 2, w, h);
+    }
+
+    private static boolean isPackedIntRaster(BufferedImage image) {
+        int type = image.getType();
+        return (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB)
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt
+                && image.getSampleModel() instanceof SinglePixelPackedSampleModel;
+    }
+
+    private static int blend(int dst, int argb, int a) {
+        int inv = 255 - a;
+        int r = (((argb >> 16) & 0xff) * a + ((dst >> 16) & 0xff) * inv) / 255;
+        int g = (((argb >> 8) & 0xff) * a + ((dst >> 8) & 0xff) * inv) / 255;
+        int b = ((argb & 0xff) * a + (dst & 0xff) * inv) / 255;
+        return (r << 16) | (g << 8) | b;
+    }
+}
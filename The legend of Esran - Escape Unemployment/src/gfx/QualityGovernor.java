@@ -0,0 +1,190 @@
+package gfx;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.logging.Logger;
+
+/**
+ * Frame-budget governor that trades visual quality for a sustained frame rate.
+ * <p>
+ * Panels report how long each update and paint took; every {@value #EVALUATE_EVERY} frames the governor looks at
+ * the 90th percentile of recent frame work. Sustained overruns step quality down one {@link Level}; sustained
+ * headroom steps it back up. The up-step requires a longer streak and a lower threshold than the down-step, so the
+ * governor does not oscillate around the budget. Decisions are logged with the measurements that caused them.
+ */
+public final class QualityGovernor {
+    private static final Logger LOGGER = Logger.getLogger(QualityGovernor.class.getName());
+
+    static final int EVALUATE_EVERY = 30;
+    private static final int WINDOW = 90;
+    private static final double DOWNGRADE_FRACTION = 0.85;
+    private static final double UPGRADE_FRACTION = 0.50;
+    private static final int DOWNGRADE_STREAK = 2;
+    private static final int UPGRADE_STREAK = 6;
+
+    /** Quality steps, best first. */
+    public enum Level {
+        HIGH(RenderingHints.VALUE_INTERPOLATION_BICUBIC, true, 1.0, true, 1.0),
+        MEDIUM(RenderingHints.VALUE_INTERPOLATION_BILINEAR, true, 0.7, true, 1.0),
+        LOW(RenderingHints.VALUE_INTERPOLATION_BILINEAR, false, 0.4, false, 0.75),
+        MINIMUM(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR, false, 0.2, false, 0.5);
+
+        private final Object interpolation;
+        private final boolean sharpen;
+        private final double particleDensity;
+        private final boolean richHealAura;
+        private final double renderScale;
+
+        Level(Object interpolation, boolean sharpen, double particleDensity, boolean richHealAura, double renderScale) {
+            this.interpolation = interpolation;
+            this.sharpen = sharpen;
+            this.particleDensity = particleDensity;
+            this.richHealAura = richHealAura;
+            this.renderScale = renderScale;
+        }
+
+        /** Value for {@link RenderingHints#KEY_INTERPOLATION} when drawing scaled sprites. */
+        public Object interpolation() {
+            return interpolation;
+        }
+
+        /** Whether {@link HiDpiScaler} should run its sharpen pass on downscaled sprites. */
+        public boolean sharpen() {
+            return sharpen;
+        }
+
+        /** Fraction of cosmetic particles and effects that should be spawned. */
+        public double particleDensity() {
+            return particleDensity;
+        }
+
+        /** Whether the heal aura uses its gradient fill rather than a flat ring. */
+        public boolean richHealAura() {
+            return richHealAura;
+        }
+
+        /** Fraction of the device resolution the world is rendered at before the final upscale. */
+        public double renderScale() {
+            return renderScale;
+        }
+
+        Level lower() {
+            return this == MINIMUM ? this : values()[ordinal() + 1];
+        }
+
+        Level higher() {
+            return this == HIGH ? this : values()[ordinal() - 1];
+        }
+    }
+
+    private final String owner;
+    private final FrameIntervalMeter frameWork = new FrameIntervalMeter(WINDOW);
+    private final long budgetNanos;
+    private boolean enabled;
+    private Level level = Level.HIGH;
+    private long pendingUpdateNanos;
+    private int framesSinceEvaluation;
+    private int overBudgetStreak;
+    private int headroomStreak;
+    private double particleCredit;
+
+    public QualityGovernor(String owner, int targetFps, boolean enabled) {
+        this.owner = owner == null ? "renderer" : owner;
+        this.budgetNanos = 1_000_000_000L / Math.max(1, targetFps);
+        this.enabled = enabled;
+    }
+
+    public Level level() {
+        return level;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Disabling the governor pins quality at {@link Level#HIGH}. */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled && level != Level.HIGH) {
+            changeLevel(Level.HIGH, "governor disabled");
+        }
+    }
+
+    /** Record time spent in game-logic updates since the last painted frame. */
+    public void recordUpdate(long nanos) {
+        pendingUpdateNanos += Math.max(0L, nanos);
+    }
+
+    /** Record the time spent painting a frame; this closes the frame and may trigger a quality decision. */
+    public void recordPaint(long nanos) {
+        long work = pendingUpdateNanos + Math.max(0L, nanos);
+        pendingUpdateNanos = 0L;
+        if (!enabled) {
+            return;
+        }
+        frameWork.record(work);
+        if (++framesSinceEvaluation >= EVALUATE_EVERY && frameWork.sampleCount() >= EVALUATE_EVERY) {
+            framesSinceEvaluation = 0;
+            evaluate();
+        }
+    }
+
+    /**
+     * Thin cosmetic spawns to the current particle density. Deterministic: at density 0.4 exactly two out of
+     * every five calls return {@code true}.
+     */
+    public boolean allowParticle() {
+        double density = level.particleDensity();
+        if (density >= 1.0) {
+            return true;
+        }
+        particleCredit += density;
+        if (particleCredit >= 1.0) {
+            particleCredit -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /** Apply the level's interpolation hint, plus render-quality hints only at the top level. */
+    public void applyHints(Graphics2D g) {
+        if (g == null) {
+            return;
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, level.interpolation());
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, level == Level.HIGH
+                ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+    }
+
+    private void evaluate() {
+        double p90 = frameWork.percentileMillis(90);
+        double budget = budgetNanos / 1_000_000.0;
+        if (p90 > budget * DOWNGRADE_FRACTION) {
+            overBudgetStreak++;
+            headroomStreak = 0;
+        } else if (p90 < budget * UPGRADE_FRACTION) {
+            headroomStreak++;
+            overBudgetStreak = 0;
+        } else {
+            overBudgetStreak = 0;
+            headroomStreak = 0;
+        }
+
+        String reason = String.format("p90 frame work %.2fms of %.2fms budget", p90, budget);
+        if (overBudgetStreak >= DOWNGRADE_STREAK && level != Level.MINIMUM) {
+            changeLevel(level.lower(), reason);
+        } else if (headroomStreak >= UPGRADE_STREAK && level != Level.HIGH) {
+            changeLevel(level.higher(), reason);
+        }
+    }
+
+    private void changeLevel(Level next, String reason) {
+        Level previous = level;
+        level = next;
+        overBudgetStreak = 0;
+        headroomStreak = 0;
+        framesSinceEvaluation = 0;
+        frameWork.reset();
+        LOGGER.info(() -> String.format("[%s] quality %s -> %s (%s)", owner, previous, next, reason));
+    }
+}
@@ -0,0 +1,55 @@
+package gfx;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Reusable offscreen surface for drawing a scene below device resolution and stretching it back up in one
+ * {@code drawImage}. Callers draw in full-size coordinates; the returned graphics is pre-scaled.
+ */
+public final class ReducedResolutionTarget {
+
+    private BufferedImage buffer;
+    private int renderWidth;
+    private int renderHeight;
+
+    /**
+     * Prepare the surface for a {@code width x height} scene rendered at {@code scale} and return a graphics
+     * context for it. The caller must dispose the context before calling {@link #present}.
+     */
+    public Graphics2D begin(int width, int height, double scale, Color background) {
+        double clamped = Math.max(0.1, Math.min(1.0, scale));
+        renderWidth = Math.max(1, (int) Math.ceil(width * clamped));
+        renderHeight = Math.max(1, (int) Math.ceil(height * clamped));
+        if (buffer == null || buffer.getWidth() < renderWidth || buffer.getHeight() < renderHeight) {
+            buffer = new BufferedImage(renderWidth, renderHeight, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g = buffer.createGraphics();
+        g.setClip(0, 0, renderWidth, renderHeight);
+        g.setColor(background == null ? Color.BLACK : background);
+        g.fillRect(0, 0, renderWidth, renderHeight);
+        g.scale(renderWidth / (double) Math.max(1, width), renderHeight / (double) Math.max(1, height));
+        return g;
+    }
+
+    /** Stretch the last rendered scene over {@code width x height} of {@code target}. */
+    public void present(Graphics2D target, int width, int height, Object interpolation) {
+        if (buffer == null || target == null) {
+            return;
+        }
+        Object previous = target.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        target.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation == null
+                ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : interpolation);
+        target.drawImage(buffer, 0, 0, width, height, 0, 0, renderWidth, renderHeight, null);
+        if (previous != null) {
+            target.setRenderingHint(RenderingHints.KEY_INTERPOLATION, previous);
+        }
+    }
+
+    /** Drop the backing surface, e.g. when quality returns to full resolution. */
+    public void release() {
+        buffer = null;
+    }
+}
@@ -0,0 +1,347 @@
+package gfx;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Scaled images kept on disk between launches, so the second start at the same display size reads the frames
+ * {@link HiDpiScaler} produced last time instead of scaling them again.
+ * <p>
+ * Each entry is one file named after its {@link Key}: a hash of the source's pixels (not its identity, which changes
+ * every launch), the target size, the kernel choice and {@link HiDpiScaler#SCALER_VERSION}, so changing a kernel
+ * orphans the old entries instead of serving them. Layout, big-endian:
+ * <pre>
+ *   int magic, int version, long sourceHash, int width, int height, int flags, int imageType, int crc32c
+ *   width * height ARGB ints (premultiplied when imageType says so)
+ * </pre>
+ * Entries are read a band of rows at a time into a heap buffer and checked against the requested key, their length
+ * and the CRC of the pixels; anything that fails is deleted and treated as a miss. They are not memory-mapped: a
+ * live mapping keeps the file open until it is collected, and Windows then refuses to delete or replace it. The
+ * directory is bounded by a byte budget: when a write pushes it over, the least recently read entries are deleted
+ * until it is back under {@link #TRIM_RATIO} of the budget. Reads refresh an entry's modification time to keep that
+ * order.
+ * <p>
+ * The shared store lives in {@code ~/.dungeonrooms/scaled}, or {@value #DIRECTORY_PROPERTY} when set, with a
+ * budget of {@value #BUDGET_PROPERTY} MB ({@link #DEFAULT_BUDGET_BYTES} otherwise). I/O errors are logged and
+ * behave as misses; the game never depends on the store being writable.
+ */
+public final class ScaledImageStore {
+    private static final Logger LOGGER = Logger.getLogger(ScaledImageStore.class.getName());
+
+    public static final String DIRECTORY_PROPERTY = "esran.scaledCacheDir";
+    public static final String BUDGET_PROPERTY = "esran.scaledCacheMB";
+    public static final long DEFAULT_BUDGET_BYTES = 128L * 1024 * 1024;
+    static final int MAGIC = 0x45535253; // "ESRS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 36;
+    static final double TRIM_RATIO = 0.9;
+    private static final String SUFFIX = ".px";
+    private static final int BAND_PIXELS = 64 * 1024;
+
+    /**
+     * What a stored image was made from and how.
+     *
+     * @param sourceHash {@link #contentHash(BufferedImage)} of the source
+     * @param flags      anything else that changes the output, such as the kernel choice and scaler version
+     */
+    public record Key(long sourceHash, int width, int height, int flags) {
+        /** The file this entry is stored in, relative to the store directory. */
+        public String fileName() {
+            long shape = mix(((long) width << 32 | height & 0xFFFFFFFFL) ^ mix(flags));
+            return String.format(Locale.ROOT, "%016x%016x", sourceHash, shape) + SUFFIX;
+        }
+    }
+
+    private static final class SharedHolder {
+        static final ScaledImageStore SHARED = createShared();
+    }
+
+    private final Path directory;
+    private final long budgetBytes;
+    private final Object lock = new Object();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong corrupt = new AtomicLong();
+    private long usedBytes = -1L;
+
+    public ScaledImageStore(Path directory, long budgetBytes) {
+        this.directory = directory;
+        this.budgetBytes = Math.max(0L, budgetBytes);
+    }
+
+    /** The store the game runs with, created on first use. */
+    public static ScaledImageStore shared() {
+        return SharedHolder.SHARED;
+    }
+
+    private static ScaledImageStore createShared() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        Path directory = configured != null && !configured.isBlank()
+                ? Path.of(configured)
+                : Path.of(System.getProperty("user.home"), ".dungeonrooms", "scaled");
+        long budget = DEFAULT_BUDGET_BYTES;
+        String megabytes = System.getProperty(BUDGET_PROPERTY);
+        if (megabytes != null && !megabytes.isBlank()) {
+            try {
+                budget = Long.parseLong(megabytes.trim()) * 1024L * 1024L;
+            } catch (NumberFormatException ex) {
+                LOGGER.warning("Ignoring invalid " + BUDGET_PROPERTY + "=" + megabytes);
+            }
+        }
+        return new ScaledImageStore(directory, budget);
+    }
+
+    /** Hash of the pixels of {@code image}, identical for equal images decoded in different launches. */
+    public static long contentHash(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int type = image.getType();
+        int[] pixels = type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_ARGB_PRE
+                ? (int[]) image.getRaster().getDataElements(0, 0, width, height, null)
+                : image.getRGB(0, 0, width, height, null, 0, width);
+        long hash = mix(((long) width << 32 | height) ^ type);
+        for (int pixel : pixels) {
+            hash = (hash ^ pixel) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return mix(hash);
+    }
+
+    /** The stored image for {@code key}, or {@code null} when there is none or it failed its checks. */
+    public BufferedImage load(Key key) {
+        Path file = directory.resolve(key.fileName());
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            BufferedImage image = read(file, key);
+            if (image == null) {
+                corrupt.incrementAndGet();
+                misses.incrementAndGet();
+                delete(file);
+                return null;
+            }
+            hits.incrementAndGet();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return image;
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not read scaled image " + file, ex);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /** Store {@code image} under {@code key}, evicting old entries if the directory outgrows its budget. */
+    public void save(Key key, BufferedImage image) {
+        int type = image.getType() == BufferedImage.TYPE_INT_ARGB_PRE
+                ? BufferedImage.TYPE_INT_ARGB_PRE
+                : BufferedImage.TYPE_INT_ARGB;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long length = HEADER_BYTES + (long) width * height * 4L;
+        if (length > budgetBytes || length > Integer.MAX_VALUE) {
+            return;
+        }
+        int[] pixels = type == image.getType()
+                ? (int[]) image.getRaster().getDataElements(0, 0, width, height, null)
+                : image.getRGB(0, 0, width, height, null, 0, width);
+        ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.BIG_ENDIAN);
+        buffer.position(HEADER_BYTES);
+        buffer.asIntBuffer().put(pixels);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        buffer.position(0);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(key.sourceHash()).putInt(width).putInt(height)
+                .putInt(key.flags()).putInt(type).putInt((int) crc.getValue());
+        buffer.position(0);
+
+        Path file = directory.resolve(key.fileName());
+        try {
+            Files.createDirectories(directory);
+            usedBytes(); // Count the directory before the new entry lands in it.
+            Path temp = Files.createTempFile(directory, "scaled", ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                long replaced = Files.isRegularFile(file) ? Files.size(file) : 0L;
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                added(length - replaced);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not store scaled image " + file, ex);
+        }
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    /** Entries that were found but rejected as damaged or not matching their key. */
+    public long corruptEntries() {
+        return corrupt.get();
+    }
+
+    /** Bytes the store's files take on disk, counted on first use and tracked since. */
+    public long usedBytes() {
+        synchronized (lock) {
+            if (usedBytes < 0L) {
+                usedBytes = 0L;
+                for (Path entry : entries()) {
+                    try {
+                        usedBytes += Files.size(entry);
+                    } catch (IOException ignored) {
+                        // Deleted meanwhile.
+                    }
+                }
+            }
+            return usedBytes;
+        }
+    }
+
+    private static BufferedImage read(Path file, Key key) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            readFully(channel, header);
+            int width = header.getInt(16);
+            int height = header.getInt(20);
+            int type = header.getInt(28);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getLong(8) != key.sourceHash()
+                    || width != key.width() || height != key.height() || header.getInt(24) != key.flags()
+                    || (type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_ARGB_PRE)
+                    || size != HEADER_BYTES + (long) width * height * 4L) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(width, height, type);
+            WritableRaster raster = image.getRaster();
+            int bandRows = Math.max(1, Math.min(height, BAND_PIXELS / width));
+            ByteBuffer bytes = ByteBuffer.allocate(bandRows * width * 4).order(ByteOrder.BIG_ENDIAN);
+            IntBuffer pixels = bytes.asIntBuffer();
+            int[] band = new int[bandRows * width];
+            CRC32C crc = new CRC32C();
+            for (int y = 0; y < height; y += bandRows) {
+                int rows = Math.min(bandRows, height - y);
+                bytes.clear().limit(rows * width * 4);
+                readFully(channel, bytes);
+                crc.update(bytes.duplicate());
+                pixels.clear();
+                pixels.get(band, 0, rows * width);
+                raster.setDataElements(0, y, width, rows, band);
+            }
+            return (int) crc.getValue() == header.getInt(32) ? image : null;
+        }
+    }
+
+    /** Fill {@code buffer} from the channel's position, then flip it for reading. */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private void added(long bytes) {
+        synchronized (lock) {
+            long used = usedBytes() + bytes;
+            usedBytes = used;
+            if (used <= budgetBytes) {
+                return;
+            }
+            Map<Path, FileTime> lastRead = new HashMap<>();
+            for (Path entry : entries()) {
+                try {
+                    lastRead.put(entry, Files.getLastModifiedTime(entry));
+                } catch (IOException ex) {
+                    lastRead.put(entry, FileTime.fromMillis(0L));
+                }
+            }
+            List<Path> oldestFirst = new ArrayList<>(lastRead.keySet());
+            oldestFirst.sort(Comparator.comparing(lastRead::get));
+            long target = (long) (budgetBytes * TRIM_RATIO);
+            for (Path entry : oldestFirst) {
+                if (usedBytes <= target) {
+                    break;
+                }
+                delete(entry);
+            }
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            long size = Files.size(file);
+            Files.deleteIfExists(file);
+            synchronized (lock) {
+                if (usedBytes >= 0L) {
+                    usedBytes = Math.max(0L, usedBytes - size);
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not delete " + file, ex);
+        }
+    }
+
+    private List<Path> entries() {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path entry : stream) {
+                files.add(entry);
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not list " + directory, ex);
+        }
+        return files;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,302 @@
+package gfx;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Objects;
+
+/**
+ * Software sprite blitter that writes straight into {@link DataBufferInt} rasters.
+ * <p>
+ * Java2D's generic {@code drawImage} path pays for loop selection, composite setup and colour conversion on every
+ * call, which dominates when thousands of small sprites are drawn per frame. This blitter targets the opaque
+ * {@code TYPE_INT_RGB} surfaces used by {@link PixelFramebuffer} and accepts {@code TYPE_INT_ARGB},
+ * {@code TYPE_INT_ARGB_PRE} or {@code TYPE_INT_RGB} sources. Every mode supports a multiplicative ARGB tint
+ * ({@link #NO_TINT} disables it), horizontal flipping and clipping against the destination bounds.
+ */
+public final class SpriteBlitter {
+
+    /** Tint value that leaves the sprite untouched. */
+    public static final int NO_TINT = 0xFFFFFFFF;
+
+    /** Alpha threshold used by {@link Mode#ALPHA_TEST}. */
+    public static final int ALPHA_TEST_THRESHOLD = 128;
+
+    public enum Mode {
+        /** Copy source colour, ignoring alpha entirely. */
+        OPAQUE,
+        /** Copy source colour where alpha is at least {@link #ALPHA_TEST_THRESHOLD}; discard the rest. */
+        ALPHA_TEST,
+        /** Source-over blend using premultiplied arithmetic. */
+        BLEND,
+        /** Add premultiplied source colour to the destination, saturating at white. */
+        ADDITIVE
+    }
+
+    private SpriteBlitter() {
+    }
+
+    public static void blit(BufferedImage dst, BufferedImage src, int dx, int dy, Mode mode) {
+        blit(dst, src, dx, dy, mode, NO_TINT, false);
+    }
+
+    /**
+     * Draw {@code src} with its top-left corner at {@code (dx, dy)} in {@code dst}.
+     *
+     * @param tint  ARGB multiplier; alpha scales coverage and RGB scales colour per channel
+     * @param flipX mirror the sprite horizontally
+     */
+    public static void blit(BufferedImage dst, BufferedImage src, int dx, int dy, Mode mode, int tint, boolean flipX) {
+        Objects.requireNonNull(mode, "mode");
+        if (dst == null || src == null) {
+            return;
+        }
+        if (dst.getType() != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Destination must be TYPE_INT_RGB but was type " + dst.getType());
+        }
+        int srcType = src.getType();
+        if (srcType != BufferedImage.TYPE_INT_ARGB && srcType != BufferedImage.TYPE_INT_ARGB_PRE
+                && srcType != BufferedImage.TYPE_INT_RGB) {
+            throw new IllegalArgumentException("Unsupported sprite type " + srcType + "; convert with toBlittable");
+        }
+
+        int dstW = dst.getWidth();
+        int dstH = dst.getHeight();
+        int srcW = src.getWidth();
+        int srcH = src.getHeight();
+        int x0 = Math.max(0, dx);
+        int y0 = Math.max(0, dy);
+        int x1 = Math.min(dstW, dx + srcW);
+        int y1 = Math.min(dstH, dy + srcH);
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        int w = x1 - x0;
+        int h = y1 - y0;
+        int clipLeft = x0 - dx;
+        int clipTop = y0 - dy;
+
+        WritableRaster dstRaster = dst.getRaster();
+        int[] d = ((DataBufferInt) dstRaster.getDataBuffer()).getData();
+        int dStride = ((SinglePixelPackedSampleModel) dst.getSampleModel()).getScanlineStride();
+        int dBase = (y0 - dstRaster.getSampleModelTranslateY()) * dStride + (x0 - dstRaster.getSampleModelTranslateX());
+
+        WritableRaster srcRaster = src.getRaster();
+        int[] s = ((DataBufferInt) srcRaster.getDataBuffer()).getData();
+        int sStride = ((SinglePixelPackedSampleModel) src.getSampleModel()).getScanlineStride();
+        int sCol = flipX ? srcW - 1 - clipLeft : clipLeft;
+        int sStep = flipX ? -1 : 1;
+        int sBase = (clipTop - srcRaster.getSampleModelTranslateY()) * sStride + (sCol - srcRaster.getSampleModelTranslateX());
+
+        boolean premultiplied = srcType == BufferedImage.TYPE_INT_ARGB_PRE;
+        boolean opaqueSource = srcType == BufferedImage.TYPE_INT_RGB;
+        switch (mode) {
+            case OPAQUE -> opaque(d, dBase, dStride, s, sBase, sStride, sStep, w, h, tint, premultiplied);
+            case ALPHA_TEST -> alphaTest(d, dBase, dStride, s, sBase, sStride, sStep, w, h, tint, premultiplied, opaqueSource);
+            case BLEND -> blend(d, dBase, dStride, s, sBase, sStride, sStep, w, h, tint, premultiplied, opaqueSource);
+            case ADDITIVE -> additive(d, dBase, dStride, s, sBase, sStride, sStep, w, h, tint, premultiplied, opaqueSource);
+        }
+    }
+
+    /**
+     * Return {@code image} unchanged when it is already blittable, otherwise a premultiplied copy. Premultiplied
+     * sources skip a multiply per channel in {@link Mode#BLEND} and {@link Mode#ADDITIVE}.
+     */
+    public static BufferedImage toBlittable(BufferedImage image) {
+        if (image == null) {
+            return null;
+        }
+        int type = image.getType();
+        if (type == BufferedImage.TYPE_INT_ARGB_PRE || type == BufferedImage.TYPE_INT_RGB
+                || type == BufferedImage.TYPE_INT_ARGB) {
+            return image;
+        }
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    private static void opaque(int[] d, int dBase, int dStride, int[] s, int sBase, int sStride, int sStep,
+                               int w, int h, int tint, boolean premultiplied) {
+        boolean tinted = (tint | 0xFF000000) != NO_TINT;
+        if (!tinted && !premultiplied && sStep == 1) {
+            for (int row = 0; row < h; row++) {
+                System.arraycopy(s, sBase + row * sStride, d, dBase + row * dStride, w);
+            }
+            return;
+        }
+        int tr = (tint >>> 16) & 0xFF;
+        int tg = (tint >>> 8) & 0xFF;
+        int tb = tint & 0xFF;
+        for (int row = 0; row < h; row++) {
+            int si = sBase + row * sStride;
+            int di = dBase + row * dStride;
+            for (int col = 0; col < w; col++, si += sStep, di++) {
+                int p = s[si];
+                if (premultiplied) {
+                    p = unpremultiply(p);
+                }
+                d[di] = tinted ? multiply(p, tr, tg, tb) : p & 0xFFFFFF;
+            }
+        }
+    }
+
+    private static void alphaTest(int[] d, int dBase, int dStride, int[] s, int sBase, int sStride, int sStep,
+                                  int w, int h, int tint, boolean premultiplied, boolean opaqueSource) {
+        if (opaqueSource) {
+            opaque(d, dBase, dStride, s, sBase, sStride, sStep, w, h, tint, false);
+            return;
+        }
+        boolean tinted = (tint | 0xFF000000) != NO_TINT;
+        int tr = (tint >>> 16) & 0xFF;
+        int tg = (tint >>> 8) & 0xFF;
+        int tb = tint & 0xFF;
+        int ta = tint >>> 24;
+        for (int row = 0; row < h; row++) {
+            int si = sBase + row * sStride;
+            int di = dBase + row * dStride;
+            for (int col = 0; col < w; col++, si += sStep, di++) {
+                int p = s[si];
+                int a = p >>> 24;
+                if (ta != 0xFF) {
+                    a = mul255(a, ta);
+                }
+                if (a < ALPHA_TEST_THRESHOLD) {
+                    continue;
+                }
+                if (premultiplied) {
+                    p = unpremultiply(p);
+                }
+                d[di] = tinted ? multiply(p, tr, tg, tb) : p & 0xFFFFFF;
+            }
+        }
+    }
+
+    private static void blend(int[] d, int dBase, int dStride, int[] s, int sBase, int sStride, int sStep,
+                              int w, int h, int tint, boolean premultiplied, boolean opaqueSource) {
+        boolean tinted = tint != NO_TINT;
+        for (int row = 0; row < h; row++) {
+            int si = sBase + row * sStride;
+            int di = dBase + row * dStride;
+            for (int col = 0; col < w; col++, si += sStep, di++) {
+                int p = s[si];
+                int a = opaqueSource ? 0xFF : p >>> 24;
+                if (a == 0) {
+                    continue;
+                }
+                if (tinted) {
+                    p = tintPremultiplied(p, a, premultiplied, tint);
+                    a = p >>> 24;
+                    if (a == 0) {
+                        continue;
+                    }
+                } else if (!premultiplied && a != 0xFF) {
+                    p = premultiply(p, a);
+                }
+                if (a == 0xFF) {
+                    d[di] = p & 0xFFFFFF;
+                    continue;
+                }
+                int q = d[di];
+                int inv = 0xFF - a;
+                int rb = (p & 0xFF00FF) + div255Packed((q & 0xFF00FF) * inv);
+                int g = ((p >>> 8) & 0xFF) + mul255((q >>> 8) & 0xFF, inv);
+                d[di] = rb | (g << 8);
+            }
+        }
+    }
+
+    private static void additive(int[] d, int dBase, int dStride, int[] s, int sBase, int sStride, int sStep,
+                                 int w, int h, int tint, boolean premultiplied, boolean opaqueSource) {
+        boolean tinted = tint != NO_TINT;
+        for (int row = 0; row < h; row++) {
+            int si = sBase + row * sStride;
+            int di = dBase + row * dStride;
+            for (int col = 0; col < w; col++, si += sStep, di++) {
+                int p = s[si];
+                int a = opaqueSource ? 0xFF : p >>> 24;
+                if (a == 0) {
+                    continue;
+                }
+                if (tinted) {
+                    p = tintPremultiplied(p, a, premultiplied, tint);
+                    a = p >>> 24;
+                    if (a == 0) {
+                        continue;
+                    }
+                } else if (!premultiplied && a != 0xFF) {
+                    p = premultiply(p, a);
+                }
+                int q = d[di];
+                int rb = (q & 0xFF00FF) + (p & 0xFF00FF);
+                int g = ((q >>> 8) & 0xFF) + ((p >>> 8) & 0xFF);
+                // Saturate both lanes at once: a carry out of a channel becomes an all-ones mask for it.
+                rb |= ((rb >>> 8) & 0x10001) * 0xFF;
+                d[di] = (rb & 0xFF00FF) | (Math.min(0xFF, g) << 8);
+            }
+        }
+    }
+
+    /** Premultiply a non-premultiplied pixel, keeping its alpha byte. */
+    private static int premultiply(int argb, int a) {
+        int rb = div255Packed((argb & 0xFF00FF) * a);
+        int g = mul255((argb >>> 8) & 0xFF, a);
+        return (a << 24) | rb | (g << 8);
+    }
+
+    /** Apply an ARGB tint and return the premultiplied result. */
+    private static int tintPremultiplied(int argb, int a, boolean premultiplied, int tint) {
+        int ta = tint >>> 24;
+        int outA = mul255(a, ta);
+        if (outA == 0) {
+            return 0;
+        }
+        int coverage = premultiplied ? ta : outA;
+        int r = mul255(mul255((argb >>> 16) & 0xFF, (tint >>> 16) & 0xFF), coverage);
+        int g = mul255(mul255((argb >>> 8) & 0xFF, (tint >>> 8) & 0xFF), coverage);
+        int b = mul255(mul255(argb & 0xFF, tint & 0xFF), coverage);
+        return (outA << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int multiply(int rgb, int tr, int tg, int tb) {
+        int r = mul255((rgb >>> 16) & 0xFF, tr);
+        int g = mul255((rgb >>> 8) & 0xFF, tg);
+        int b = mul255(rgb & 0xFF, tb);
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static int unpremultiply(int argb) {
+        int a = argb >>> 24;
+        if (a == 0xFF) {
+            return argb;
+        }
+        if (a == 0) {
+            return 0;
+        }
+        int r = Math.min(0xFF, (((argb >>> 16) & 0xFF) * 0xFF + a / 2) / a);
+        int g = Math.min(0xFF, (((argb >>> 8) & 0xFF) * 0xFF + a / 2) / a);
+        int b = Math.min(0xFF, ((argb & 0xFF) * 0xFF + a / 2) / a);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /** Exact {@code round(v / 255)} applied independently to the two 16-bit lanes of {@code v}. */
+    private static int div255Packed(int v) {
+        v += 0x00800080;
+        return ((v + ((v >>> 8) & 0x00FF00FF)) >>> 8) & 0x00FF00FF;
+    }
+
+    /** Exact {@code round(x * y / 255)} for 8-bit operands without a division. */
+    private static int mul255(int x, int y) {
+        int t = x * y + 0x80;
+        return (t + (t >>> 8)) >>> 8;
+    }
+}
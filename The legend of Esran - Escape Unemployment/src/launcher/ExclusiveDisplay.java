@@ -0,0 +1,267 @@
+package launcher;
+
+import gfx.FrameIntervalMeter;
+
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.DisplayMode;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.image.BufferStrategy;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exclusive fullscreen with page flipping.
+ * <p>
+ * Swing's passive painting copies a back buffer to the window whenever the repaint manager gets around to it, so
+ * frames are neither synchronised with the display nor paced by it. When the platform grants exclusive mode this
+ * class switches the device to the {@link DisplayMode} closest to the configured resolution and refresh rate,
+ * attaches a flipping {@link BufferStrategy} to the window and lets the game present each frame actively. While
+ * active the window ignores the platform's repaint requests and each present paints its whole component tree, so
+ * overlays in the layered pane reach the screen through the same buffer as the game; whenever a dialog or other
+ * window owned by it is showing, {@link #present} declines so the caller paints passively until it closes. The
+ * interval between presents is measured so pacing problems are visible in the logs. When exclusive mode is not
+ * available (headless CI, remote sessions, unsupported drivers) {@link #enter} reports failure and the caller keeps
+ * the windowed path.
+ */
+public final class ExclusiveDisplay {
+    private static final Logger LOGGER = Logger.getLogger(ExclusiveDisplay.class.getName());
+    private static final int METER_CAPACITY = 240;
+    private static final int REPORT_EVERY_FRAMES = 600;
+
+    private final GraphicsDevice device;
+    private final FrameIntervalMeter presentIntervals = new FrameIntervalMeter(METER_CAPACITY);
+    private Window window;
+    private DisplayMode originalMode;
+    private DisplayMode activeMode;
+    private BufferStrategy strategy;
+    private boolean pageFlipping;
+    private boolean windowIgnoredRepaint;
+    private long presentedFrames;
+
+    private ExclusiveDisplay(GraphicsDevice device) {
+        this.device = device;
+    }
+
+    /**
+     * Try to take over the default screen with {@code window}. Returns an empty optional (leaving the window
+     * untouched) when exclusive fullscreen cannot be used.
+     */
+    public static Optional<ExclusiveDisplay> enter(Window window, GameSettings settings) {
+        if (window == null || GraphicsEnvironment.isHeadless()) {
+            return Optional.empty();
+        }
+        GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        if (!device.isFullScreenSupported()) {
+            return Optional.empty();
+        }
+        ExclusiveDisplay display = new ExclusiveDisplay(device);
+        try {
+            display.activate(window, settings);
+            return Optional.of(display);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Exclusive fullscreen unavailable; falling back to windowed rendering", ex);
+            display.release();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Pick the display mode that best matches the requested resolution and refresh rate. Exact sizes win over
+     * larger ones, which win over smaller ones; within a size the closest refresh rate at or above the target is
+     * preferred, then deeper colour.
+     */
+    public static Optional<DisplayMode> selectDisplayMode(DisplayMode[] modes, Dimension resolution, int refreshRate) {
+        if (modes == null || modes.length == 0 || resolution == null) {
+            return Optional.empty();
+        }
+        DisplayMode best = null;
+        long bestScore = Long.MAX_VALUE;
+        for (DisplayMode mode : modes) {
+            if (mode == null) {
+                continue;
+            }
+            long score = score(mode, resolution, refreshRate);
+            if (score < bestScore) {
+                bestScore = score;
+                best = mode;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static long score(DisplayMode mode, Dimension resolution, int refreshRate) {
+        int dw = mode.getWidth() - resolution.width;
+        int dh = mode.getHeight() - resolution.height;
+        long sizeClass;
+        if (dw == 0 && dh == 0) {
+            sizeClass = 0;
+        } else if (dw >= 0 && dh >= 0) {
+            sizeClass = 1;
+        } else {
+            sizeClass = 2;
+        }
+        long area = Math.abs((long) mode.getWidth() * mode.getHeight() - (long) resolution.width * resolution.height);
+
+        int hz = mode.getRefreshRate();
+        long refreshPenalty;
+        if (hz == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            refreshPenalty = 500;
+        } else if (hz >= refreshRate) {
+            refreshPenalty = (hz - refreshRate) * 2L;
+        } else {
+            refreshPenalty = 250 + (refreshRate - hz) * 2L;
+        }
+
+        int depth = mode.getBitDepth();
+        long depthPenalty = depth == DisplayMode.BIT_DEPTH_MULTI || depth >= 32 ? 0 : depth >= 24 ? 1 : 2;
+
+        return (sizeClass << 56) | (Math.min(area, (1L << 40) - 1) << 12) | (Math.min(refreshPenalty, 1023) << 2)
+                | depthPenalty;
+    }
+
+    private void activate(Window target, GameSettings settings) {
+        this.window = target;
+        this.originalMode = device.getDisplayMode();
+        device.setFullScreenWindow(target);
+        if (device.getFullScreenWindow() != target) {
+            throw new IllegalStateException("Device refused the fullscreen window");
+        }
+
+        activeMode = originalMode;
+        if (device.isDisplayChangeSupported()) {
+            Optional<DisplayMode> match = selectDisplayMode(device.getDisplayModes(), settings.resolution(),
+                    settings.refreshRate());
+            if (match.isPresent() && !match.get().equals(originalMode)) {
+                try {
+                    device.setDisplayMode(match.get());
+                    activeMode = match.get();
+                } catch (IllegalArgumentException | UnsupportedOperationException ex) {
+                    LOGGER.log(Level.INFO, "Display mode change rejected; keeping desktop mode", ex);
+                }
+            }
+        }
+
+        pageFlipping = device.getDefaultConfiguration().getBufferCapabilities().isPageFlipping();
+        try {
+            if (pageFlipping) {
+                ImageCapabilities accelerated = new ImageCapabilities(true);
+                target.createBufferStrategy(2, new BufferCapabilities(accelerated, accelerated,
+                        BufferCapabilities.FlipContents.UNDEFINED));
+            } else {
+                target.createBufferStrategy(2);
+            }
+        } catch (AWTException ex) {
+            pageFlipping = false;
+            target.createBufferStrategy(2);
+        }
+        strategy = target.getBufferStrategy();
+        windowIgnoredRepaint = target.getIgnoreRepaint();
+        target.setIgnoreRepaint(true);
+        LOGGER.info(() -> String.format("Exclusive fullscreen %dx%d @ %s Hz, %s",
+                activeMode.getWidth(), activeMode.getHeight(),
+                activeMode.getRefreshRate() == DisplayMode.REFRESH_RATE_UNKNOWN ? "?" : activeMode.getRefreshRate(),
+                pageFlipping ? "page flipping" : "blit presentation"));
+    }
+
+    /** Refresh rate of the active display mode, or {@code fallback} when the platform does not report one. */
+    public int refreshRate(int fallback) {
+        if (activeMode == null || activeMode.getRefreshRate() == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            return fallback;
+        }
+        return activeMode.getRefreshRate();
+    }
+
+    public boolean isActive() {
+        return strategy != null && window != null && device.getFullScreenWindow() == window;
+    }
+
+    public boolean isPageFlipping() {
+        return pageFlipping;
+    }
+
+    public FrameIntervalMeter presentIntervals() {
+        return presentIntervals;
+    }
+
+    /**
+     * Paint the whole window, with {@code component} and anything layered over it, into the back buffer and flip it
+     * to the screen. Call on the event dispatch thread. Returns {@code false} when the display is no longer usable,
+     * {@code component} is not showing, or a window owned by the fullscreen window (a dialog, a heavyweight popup)
+     * is showing, so the caller can fall back to {@code repaint()}.
+     */
+    public boolean present(Component component) {
+        if (!isActive() || component == null || !component.isShowing() || ownedWindowShowing()) {
+            return false;
+        }
+        try {
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        g.setColor(Color.BLACK);
+                        g.fillRect(0, 0, window.getWidth(), window.getHeight());
+                        window.paint(g);
+                    } finally {
+                        g.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+            } while (strategy.contentsLost());
+        } catch (IllegalStateException ex) {
+            // The peer was torn down mid-frame (window closing or mode switch).
+            return false;
+        }
+        Toolkit.getDefaultToolkit().sync();
+        presentIntervals.mark(System.nanoTime());
+        if (++presentedFrames % REPORT_EVERY_FRAMES == 0) {
+            LOGGER.fine(() -> "Present intervals: " + presentIntervals);
+        }
+        return true;
+    }
+
+    /** Dialogs and heavyweight popups are separate windows that a flip would paint over. */
+    private boolean ownedWindowShowing() {
+        for (Window owned : window.getOwnedWindows()) {
+            if (owned.isShowing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Restore the desktop display mode and leave fullscreen. Safe to call repeatedly. */
+    public void release() {
+        if (strategy != null) {
+            strategy.dispose();
+            strategy = null;
+            window.setIgnoreRepaint(windowIgnoredRepaint);
+            window.repaint();
+        }
+        try {
+            if (originalMode != null && activeMode != null && !originalMode.equals(activeMode)
+                    && device.isDisplayChangeSupported()) {
+                device.setDisplayMode(originalMode);
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Unable to restore desktop display mode", ex);
+        }
+        if (window != null && device.getFullScreenWindow() == window) {
+            device.setFullScreenWindow(null);
+        }
+        if (presentIntervals.sampleCount() > 0) {
+            LOGGER.info(() -> "Exclusive fullscreen present intervals: " + presentIntervals);
+        }
+        window = null;
+        activeMode = null;
+    }
+}
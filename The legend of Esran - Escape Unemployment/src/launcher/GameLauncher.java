@@ -15,6 +15,7 @@ import javax.swing.JList;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
@@ -50,6 +51,7 @@ import java.util.function.Consumer;
 import security.GameSecurity;
 import security.integrity.IntegrityCheckReport;
 import security.integrity.IntegrityCheckStatus;
+import util.AssetPreloader;
 import util.ResourceLoader;
 
 /**
@@ -75,6 +77,28 @@ public final class GameLauncher {
         new LocaleOption("Cymraeg", new Locale("cy", "GB"))
     };
 
+    private static final DisplayModeOption[] DISPLAY_MODES = {
+        new DisplayModeOption("Borderless fullscreen", false),
+        new DisplayModeOption("Exclusive fullscreen (page flip)", true)
+    };
+
+    private static final QualityOption[] QUALITY_MODES = {
+        new QualityOption("Adaptive (hold frame rate)", true),
+        new QualityOption("Always high", false)
+    };
+
+    private static final DimensionOption[] ROOM_SIZES = {
+            new DimensionOption("Classic (21 x 13)", new Dimension(21, 13)),
+            new DimensionOption("Large (41 x 25)", new Dimension(41, 25)),
+            new DimensionOption("Arena (101 x 61)", new Dimension(101, 61)),
+            new DimensionOption("Horde (200 x 200)", new Dimension(200, 200))
+    };
+
+    private static final RenderModeOption[] RENDER_MODES = {
+        new RenderModeOption("Smooth (device resolution)", false),
+        new RenderModeOption("Pixel perfect (integer upscale)", true)
+    };
+
     private final Path storageDir;
     private final SettingsPersistence settingsPersistence;
     private final SaveManager saveManager;
@@ -88,13 +112,21 @@ public final class GameLauncher {
     private JPanel bossWrapper;
     private DungeonRooms currentGame;
     private GraphicsDevice fullscreenDevice;
+    private ExclusiveDisplay exclusiveDisplay;
     private Font menuFont;
     private JComboBox<DimensionOption> resolutionBox;
     private JComboBox<Integer> refreshBox;
     private JComboBox<LocaleOption> languageBox;
+    private JComboBox<RenderModeOption> renderModeBox;
+    private JComboBox<DimensionOption> roomSizeBox;
+    private JComboBox<DisplayModeOption> displayModeBox;
+    private JComboBox<QualityOption> qualityBox;
     private final Map<ControlAction, JButton> controlButtons = new EnumMap<>(ControlAction.class);
     private JButton resumeButton;
     private JButton quitButton;
+    private JProgressBar preloadBar;
+    private JLabel preloadLabel;
+    private boolean preloadStarted;
     private final IntegrityCheckReport integrityReport;
 
     public static void main(String[] args) {
@@ -151,6 +183,7 @@ public final class GameLauncher {
                 JComponent.WHEN_IN_FOCUSED_WINDOW);
 
         showMenuCard();
+        startAssetPreload();
 
         SwingUtilities.invokeLater(this::reportIntegrityOutcome);
     }
@@ -173,6 +206,18 @@ public final class GameLauncher {
         languageBox = styleComboBox(new JComboBox<>(LANGUAGES), textFont);
         languageBox.setSelectedItem(findLanguage(settings.language()));
 
+        displayModeBox = styleComboBox(new JComboBox<>(DISPLAY_MODES), textFont);
+        displayModeBox.setSelectedItem(findDisplayMode(settings.exclusiveFullscreen()));
+
+        renderModeBox = styleComboBox(new JComboBox<>(RENDER_MODES), textFont);
+        renderModeBox.setSelectedItem(findRenderMode(settings.pixelFramebuffer()));
+
+        roomSizeBox = styleComboBox(new JComboBox<>(ROOM_SIZES), textFont);
+        roomSizeBox.setSelectedItem(findRoomSize(settings.roomSize()));
+
+        qualityBox = styleComboBox(new JComboBox<>(QUALITY_MODES), textFont);
+        qualityBox.setSelectedItem(findQuality(settings.adaptiveQuality()));
+
         GlassPanel content = new GlassPanel();
         content.setLayout(new GridBagLayout());
 
@@ -225,6 +270,54 @@ public final class GameLauncher {
         gbc.insets = new Insets(6, 12, 6, 24);
         content.add(refreshBox, gbc);
 
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = new Insets(6, 24, 6, 12);
+        JLabel displayModeLabel = new JLabel("Display mode");
+        displayModeLabel.setFont(textFont);
+        displayModeLabel.setForeground(new Color(224, 234, 247));
+        content.add(displayModeLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.insets = new Insets(6, 12, 6, 24);
+        content.add(displayModeBox, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = new Insets(6, 24, 6, 12);
+        JLabel renderModeLabel = new JLabel("Render mode");
+        renderModeLabel.setFont(textFont);
+        renderModeLabel.setForeground(new Color(224, 234, 247));
+        content.add(renderModeLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.insets = new Insets(6, 12, 6, 24);
+        content.add(renderModeBox, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = new Insets(6, 24, 6, 12);
+        JLabel roomSizeLabel = new JLabel("Room size");
+        roomSizeLabel.setFont(textFont);
+        roomSizeLabel.setForeground(new Color(224, 234, 247));
+        content.add(roomSizeLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.insets = new Insets(6, 12, 6, 24);
+        content.add(roomSizeBox, gbc);
+
+        gbc.gridx = 0;
+        gbc.gridy++;
+        gbc.insets = new Insets(6, 24, 6, 12);
+        JLabel qualityLabel = new JLabel("Graphics quality");
+        qualityLabel.setFont(textFont);
+        qualityLabel.setForeground(new Color(224, 234, 247));
+        content.add(qualityLabel, gbc);
+
+        gbc.gridx = 1;
+        gbc.insets = new Insets(6, 12, 6, 24);
+        content.add(qualityBox, gbc);
+
         gbc.gridx = 0;
         gbc.gridy++;
         gbc.insets = new Insets(6, 24, 6, 12);
@@ -301,11 +394,57 @@ public final class GameLauncher {
 
         content.add(buttons, gbc);
 
+        gbc.gridy++;
+        gbc.insets = new Insets(6, 24, 18, 24);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        JPanel preloadRow = new JPanel(new BorderLayout(16, 0));
+        preloadRow.setOpaque(false);
+        preloadLabel = new JLabel("Loading art...");
+        preloadLabel.setFont(controlFont);
+        preloadLabel.setForeground(new Color(214, 233, 255));
+        preloadBar = new JProgressBar();
+        preloadBar.setForeground(new Color(244, 223, 138));
+        preloadBar.setBackground(new Color(34, 50, 66));
+        preloadBar.setBorderPainted(false);
+        preloadBar.setPreferredSize(new Dimension(320, 14));
+        preloadRow.add(preloadLabel, BorderLayout.WEST);
+        preloadRow.add(preloadBar, BorderLayout.CENTER);
+        content.add(preloadRow, gbc);
+        gbc.fill = GridBagConstraints.NONE;
+
         MenuPanel wrapper = new MenuPanel(content);
         wrapper.setPreferredSize(new Dimension(1280, 720));
         return wrapper;
     }
 
+    /**
+     * Decode the startup art in the background while the menu is up, so starting a game does not stall on PNG
+     * decoding. Starting before it finishes is fine; anything not yet preloaded is decoded on demand as before.
+     */
+    private void startAssetPreload() {
+        if (preloadStarted) {
+            return;
+        }
+        preloadStarted = true;
+        AssetPreloader preloader = AssetPreloader.fromDefaultManifest();
+        preloadBar.setMaximum(Math.max(1, preloader.size()));
+        preloadBar.setValue(0);
+        preloader.start((done, total) -> SwingUtilities.invokeLater(() -> {
+            // Workers post out of order; never move the bar backwards or overwrite the finished state.
+            if (!preloadBar.isVisible() || done <= preloadBar.getValue()) {
+                return;
+            }
+            preloadBar.setValue(done);
+            preloadLabel.setText("Loading art " + done + "/" + total);
+        })).thenAccept(report -> SwingUtilities.invokeLater(() -> {
+            preloadBar.setValue(preloadBar.getMaximum());
+            preloadBar.setVisible(false);
+            preloadLabel.setText(report.failed() == 0
+                    ? "Art ready (" + report.wallMillis() + " ms)"
+                    : "Art ready, " + report.failed() + " images will load on demand");
+        }));
+    }
+
     private void saveSettings() {
         updateSettingsFromUi();
         try {
@@ -345,7 +484,12 @@ public final class GameLauncher {
 
     private void launchGame(Optional<DungeonRoomsSnapshot> snapshot) {
         updateSettingsFromUi();
+        applyDisplayMode();
         GameSettings launchSettings = new GameSettings(settings);
+        if (exclusiveDisplay != null) {
+            // Tick at the rate the display actually flips at rather than the nominal menu choice.
+            launchSettings.setRefreshRate(exclusiveDisplay.refreshRate(launchSettings.refreshRate()));
+        }
         ControlsProfile controlsCopy = launchSettings.controls();
         LanguageBundle bundle = new LanguageBundle(launchSettings.language());
 
@@ -388,6 +532,9 @@ public final class GameLauncher {
         wrapper.setBackground(Color.BLACK);
         wrapper.add(panel, BorderLayout.CENTER);
 
+        if (exclusiveDisplay != null) {
+            panel.attachExclusiveDisplay(exclusiveDisplay);
+        }
         currentGame = panel;
         gameWrapper = wrapper;
         cardPanel.add(wrapper, CARD_GAME);
@@ -399,6 +546,13 @@ public final class GameLauncher {
     }
 
     private void enableFullScreen() {
+        if (settings.exclusiveFullscreen()) {
+            exclusiveDisplay = ExclusiveDisplay.enter(frame, settings).orElse(null);
+            if (exclusiveDisplay != null) {
+                fullscreenDevice = null;
+                return;
+            }
+        }
         GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
         if (device.isFullScreenSupported()) {
             fullscreenDevice = device;
@@ -408,7 +562,23 @@ public final class GameLauncher {
         }
     }
 
+    /**
+     * Re-enter fullscreen when the display mode choice changed since the window was shown.
+     */
+    private void applyDisplayMode() {
+        boolean exclusiveActive = exclusiveDisplay != null && exclusiveDisplay.isActive();
+        if (settings.exclusiveFullscreen() == exclusiveActive) {
+            return;
+        }
+        releaseFullScreen();
+        enableFullScreen();
+    }
+
     private void releaseFullScreen() {
+        if (exclusiveDisplay != null) {
+            exclusiveDisplay.release();
+            exclusiveDisplay = null;
+        }
         if (fullscreenDevice != null && fullscreenDevice.getFullScreenWindow() == frame) {
             fullscreenDevice.setFullScreenWindow(null);
         }
@@ -463,6 +633,18 @@ public final class GameLauncher {
         if (refreshBox != null) {
             refreshBox.setSelectedItem(findRefreshOption(settings.refreshRate()));
         }
+        if (displayModeBox != null) {
+            displayModeBox.setSelectedItem(findDisplayMode(settings.exclusiveFullscreen()));
+        }
+        if (qualityBox != null) {
+            qualityBox.setSelectedItem(findQuality(settings.adaptiveQuality()));
+        }
+        if (renderModeBox != null) {
+            renderModeBox.setSelectedItem(findRenderMode(settings.pixelFramebuffer()));
+        }
+        if (roomSizeBox != null) {
+            roomSizeBox.setSelectedItem(findRoomSize(settings.roomSize()));
+        }
         if (languageBox != null) {
             languageBox.setSelectedItem(findLanguage(settings.language()));
         }
@@ -496,6 +678,22 @@ public final class GameLauncher {
         if (localeOption != null) {
             settings.setLanguage(localeOption.locale());
         }
+        DisplayModeOption displayMode = (DisplayModeOption) displayModeBox.getSelectedItem();
+        if (displayMode != null) {
+            settings.setExclusiveFullscreen(displayMode.exclusive());
+        }
+        QualityOption quality = (QualityOption) qualityBox.getSelectedItem();
+        if (quality != null) {
+            settings.setAdaptiveQuality(quality.adaptive());
+        }
+        RenderModeOption renderMode = (RenderModeOption) renderModeBox.getSelectedItem();
+        if (renderMode != null) {
+            settings.setPixelFramebuffer(renderMode.pixelFramebuffer());
+        }
+        DimensionOption roomSize = (DimensionOption) roomSizeBox.getSelectedItem();
+        if (roomSize != null) {
+            settings.setRoomSize(roomSize.dimension());
+        }
         // Controls buttons already update settings in promptRebind
     }
 
@@ -539,6 +737,15 @@ public final class GameLauncher {
         return RESOLUTIONS[0];
     }
 
+    private DimensionOption findRoomSize(Dimension current) {
+        for (DimensionOption option : ROOM_SIZES) {
+            if (option.dimension().equals(current)) {
+                return option;
+            }
+        }
+        return ROOM_SIZES[0];
+    }
+
     private LocaleOption findLanguage(Locale locale) {
         for (LocaleOption option : LANGUAGES) {
             if (option.locale().getLanguage().equalsIgnoreCase(locale.getLanguage())) {
@@ -548,6 +755,33 @@ public final class GameLauncher {
         return LANGUAGES[0];
     }
 
+    private DisplayModeOption findDisplayMode(boolean exclusive) {
+        for (DisplayModeOption option : DISPLAY_MODES) {
+            if (option.exclusive() == exclusive) {
+                return option;
+            }
+        }
+        return DISPLAY_MODES[0];
+    }
+
+    private QualityOption findQuality(boolean adaptive) {
+        for (QualityOption option : QUALITY_MODES) {
+            if (option.adaptive() == adaptive) {
+                return option;
+            }
+        }
+        return QUALITY_MODES[0];
+    }
+
+    private RenderModeOption findRenderMode(boolean pixelFramebuffer) {
+        for (RenderModeOption option : RENDER_MODES) {
+            if (option.pixelFramebuffer() == pixelFramebuffer) {
+                return option;
+            }
+        }
+        return RENDER_MODES[0];
+    }
+
     private String controlLabel(ControlAction action) {
         Integer code = settings.mutableControls().view().get(action);
         return code == null ? "Unbound" : KeyEvent.getKeyText(code);
@@ -644,7 +878,7 @@ public final class GameLauncher {
                         currentGame.requestFocusInWindow();
                     }
                 });
-            });
+            }, settings.adaptiveQuality(), settings.refreshRate());
             panel.setOpaque(true);
             panel.setBackground(Color.BLACK);
 
@@ -734,4 +968,25 @@ public final class GameLauncher {
             return label;
         }
     }
+
+    private record DisplayModeOption(String label, boolean exclusive) {
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private record QualityOption(String label, boolean adaptive) {
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private record RenderModeOption(String label, boolean pixelFramebuffer) {
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
 }
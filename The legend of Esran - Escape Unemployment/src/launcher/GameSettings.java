@@ -13,10 +13,18 @@ public final class GameSettings implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    public static final int CLASSIC_ROOM_COLUMNS = 21;
+    public static final int CLASSIC_ROOM_ROWS = 13;
+    public static final int MAX_ROOM_TILES = 256;
+
     private Dimension resolution;
     private int refreshRate;
     private Locale language;
     private ControlsProfile controls;
+    private boolean pixelFramebuffer;
+    private boolean exclusiveFullscreen;
+    private boolean adaptiveQuality = true;
+    private Dimension roomSize = new Dimension(CLASSIC_ROOM_COLUMNS, CLASSIC_ROOM_ROWS);
 
     public GameSettings() {
         this(new Dimension(756, 468), 60, Locale.UK, new ControlsProfile());
@@ -24,6 +32,10 @@ public final class GameSettings implements Serializable {
 
     public GameSettings(GameSettings other) {
         this(other.resolution(), other.refreshRate(), other.language(), new ControlsProfile(other.controls()));
+        this.pixelFramebuffer = other.pixelFramebuffer;
+        this.exclusiveFullscreen = other.exclusiveFullscreen;
+        this.adaptiveQuality = other.adaptiveQuality;
+        this.roomSize = other.roomSize();
     }
 
     public GameSettings(Dimension resolution, int refreshRate, Locale language, ControlsProfile controls) {
@@ -68,6 +80,54 @@ public final class GameSettings implements Serializable {
     public ControlsProfile mutableControls() {
         return controls;
     }
+
+    /**
+     * Whether the dungeon is composed into a logical-resolution framebuffer and upscaled once by an integer factor
+     * instead of being rasterised through Java2D at device resolution.
+     */
+    public boolean pixelFramebuffer() {
+        return pixelFramebuffer;
+    }
+
+    public void setPixelFramebuffer(boolean pixelFramebuffer) {
+        this.pixelFramebuffer = pixelFramebuffer;
+    }
+
+    /**
+     * Whether the launcher should request exclusive fullscreen with page flipping at a display mode matching
+     * {@link #resolution()} and {@link #refreshRate()}, falling back to borderless fullscreen when unavailable.
+     */
+    public boolean exclusiveFullscreen() {
+        return exclusiveFullscreen;
+    }
+
+    public void setExclusiveFullscreen(boolean exclusiveFullscreen) {
+        this.exclusiveFullscreen = exclusiveFullscreen;
+    }
+
+    /**
+     * Whether renderers may lower interpolation, sharpening, effect density and render scale to hold the frame rate.
+     */
+    public boolean adaptiveQuality() {
+        return adaptiveQuality;
+    }
+
+    public void setAdaptiveQuality(boolean adaptiveQuality) {
+        this.adaptiveQuality = adaptiveQuality;
+    }
+
+    /** Size of newly generated rooms in tiles. Rooms larger than the classic size scroll with the player. */
+    public Dimension roomSize() {
+        return (Dimension) roomSize.clone();
+    }
+
+    public void setRoomSize(Dimension roomSize) {
+        Objects.requireNonNull(roomSize, "roomSize");
+        this.roomSize = new Dimension(
+                Math.max(CLASSIC_ROOM_COLUMNS, Math.min(MAX_ROOM_TILES, roomSize.width)),
+                Math.max(CLASSIC_ROOM_ROWS, Math.min(MAX_ROOM_TILES, roomSize.height)));
+    }
+
     private static int clampRefresh(int refreshRate) {
         return Math.max(30, Math.min(240, refreshRate));
     }
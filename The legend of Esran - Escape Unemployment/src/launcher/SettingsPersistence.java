@@ -39,6 +39,11 @@ public final class SettingsPersistence {
         props.setProperty("resolution.height", Integer.toString(resolution.height));
         props.setProperty("refreshRate", Integer.toString(settings.refreshRate()));
         props.setProperty("language", settings.language().toLanguageTag());
+        props.setProperty("render.pixelFramebuffer", Boolean.toString(settings.pixelFramebuffer()));
+        props.setProperty("display.exclusiveFullscreen", Boolean.toString(settings.exclusiveFullscreen()));
+        props.setProperty("render.adaptiveQuality", Boolean.toString(settings.adaptiveQuality()));
+        props.setProperty("world.roomColumns", Integer.toString(settings.roomSize().width));
+        props.setProperty("world.roomRows", Integer.toString(settings.roomSize().height));
         for (var entry : settings.controls().view().entrySet()) {
             props.setProperty("control." + entry.getKey().name(), Integer.toString(entry.getValue()));
         }
@@ -62,7 +67,16 @@ public final class SettingsPersistence {
             int refresh = parseRefreshRate(props);
             Locale language = parseLocale(props);
             ControlsProfile profile = parseControls(props);
-            return Optional.of(new GameSettings(resolution, refresh, language, profile));
+            GameSettings settings = new GameSettings(resolution, refresh, language, profile);
+            settings.setPixelFramebuffer(Boolean.parseBoolean(props.getProperty("render.pixelFramebuffer", "false").trim()));
+            settings.setExclusiveFullscreen(Boolean.parseBoolean(props.getProperty("display.exclusiveFullscreen", "false").trim()));
+            settings.setAdaptiveQuality(Boolean.parseBoolean(props.getProperty("render.adaptiveQuality", "true").trim()));
+            settings.setRoomSize(new Dimension(
+                    Integer.parseInt(props.getProperty("world.roomColumns",
+                            Integer.toString(GameSettings.CLASSIC_ROOM_COLUMNS)).trim()),
+                    Integer.parseInt(props.getProperty("world.roomRows",
+                            Integer.toString(GameSettings.CLASSIC_ROOM_ROWS)).trim())));
+            return Optional.of(settings);
         } catch (RuntimeException ex) {
             return Optional.empty();
         }
@@ -0,0 +1,331 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Pre-decoded images packed into one file, so launching the game does not inflate every PNG again.
+ * <p>
+ * The bundle is written at build time by {@link AssetBundlePacker} (Gradle task {@code packAssetBundle}). Layout,
+ * all big-endian:
+ * <pre>
+ *   int magic, int version, int entryCount, int reserved
+ *   entryCount x { short pathLength, byte[] utf8Path, int width, int height,
+ *                  long sourceSize, long sourceModified, long pixelOffset }
+ *   pixel data: width * height premultiplied ARGB ints per entry, each block 8-byte aligned
+ * </pre>
+ * Each entry remembers the size and modification time of the PNG it was made from. {@link ResourceLoader} only
+ * takes an image from the bundle when those still match the {@link ResourceIndex}, so an edited or replaced PNG
+ * falls back to normal decoding until the bundle is rebuilt. A missing, unreadable or foreign-version bundle
+ * behaves as an empty one.
+ * <p>
+ * {@link #open} reads only the index. {@link #image} opens the file for each image and reads its pixels into a
+ * {@code TYPE_INT_ARGB_PRE} image a band of rows at a time through a heap buffer: a plain read with no inflate or
+ * filter work. Nothing keeps the file mapped or open between images, so {@link #write} can replace the bundle while
+ * the game runs. An image is only read while the file still has the size and modification time it had when opened;
+ * after a repack this bundle misses, and images are decoded from their PNGs until the game opens the new bundle.
+ */
+public final class AssetBundle {
+    private static final Logger LOGGER = Logger.getLogger(AssetBundle.class.getName());
+
+    static final int MAGIC = 0x45535242; // "ESRB"
+    static final int VERSION = 1;
+    /** System property naming the bundle file; otherwise {@link #DEFAULT_LOCATION} is looked up in the search roots. */
+    public static final String LOCATION_PROPERTY = "esran.assetBundle";
+    public static final String DEFAULT_LOCATION = "build/assets/assets.bundle";
+    /** Rows are read through a scratch buffer of about this many pixels. */
+    private static final int BAND_PIXELS = 64 * 1024;
+
+    private static final AssetBundle EMPTY = new AssetBundle(null, -1L, -1L, Map.of());
+
+    /** One image to pack, with the PNG's size and modification time for the staleness check. */
+    public record Source(String path, BufferedImage image, long sourceSize, long sourceModified) {
+        public Source {
+            Objects.requireNonNull(path, "path");
+            Objects.requireNonNull(image, "image");
+        }
+    }
+
+    private record Entry(int width, int height, long sourceSize, long sourceModified, long pixelOffset) {
+    }
+
+    private static final class SharedHolder {
+        static final AssetBundle SHARED = locateAndOpen();
+    }
+
+    private final Path file;
+    private final long fileSize;
+    private final long fileModified;
+    private final Map<String, Entry> entries;
+
+    private AssetBundle(Path file, long fileSize, long fileModified, Map<String, Entry> entries) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.entries = entries;
+    }
+
+    /** The bundle the game runs with, opened on first use; empty when none was built. */
+    public static AssetBundle shared() {
+        return SharedHolder.SHARED;
+    }
+
+    public static AssetBundle empty() {
+        return EMPTY;
+    }
+
+    /** Read a bundle's index, or return {@link #empty()} when it is missing or not a readable bundle. */
+    public static AssetBundle open(Path file) {
+        if (file == null || !Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            Map<String, Entry> entries;
+            try (InputStream raw = Files.newInputStream(file);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16))) {
+                entries = readIndex(in, size);
+            }
+            LOGGER.fine(() -> "Opened asset bundle " + file + " with " + entries.size() + " images");
+            return new AssetBundle(file, size, attributes.lastModifiedTime().toMillis(), entries);
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warning("Ignoring unreadable asset bundle " + file + ": " + ex);
+            return EMPTY;
+        }
+    }
+
+    private static AssetBundle locateAndOpen() {
+        String configured = System.getProperty(LOCATION_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return open(Path.of(configured));
+        }
+        for (Path root : ProjectDirectories.locateSearchRoots()) {
+            Path candidate = root.resolve(DEFAULT_LOCATION);
+            if (Files.isRegularFile(candidate)) {
+                return open(candidate);
+            }
+        }
+        return EMPTY;
+    }
+
+    private static Map<String, Entry> readIndex(DataInputStream in, long fileSize) throws IOException {
+        if (fileSize < 16 || in.readInt() != MAGIC) {
+            throw new IOException("not an asset bundle");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported asset bundle version " + version);
+        }
+        int count = in.readInt();
+        in.readInt();
+        long position = 16;
+        Map<String, Entry> entries = new HashMap<>(Math.max(16, count * 2));
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[in.readShort() & 0xFFFF];
+            in.readFully(name);
+            Entry entry = new Entry(in.readInt(), in.readInt(), in.readLong(), in.readLong(), in.readLong());
+            position += 2 + name.length + 4 + 4 + 8 + 8 + 8;
+            long end = entry.pixelOffset() + (long) entry.width() * entry.height() * 4L;
+            if (entry.width() <= 0 || entry.height() <= 0 || entry.pixelOffset() < position || end > fileSize) {
+                throw new IOException("corrupt entry " + i);
+            }
+            entries.put(new String(name, StandardCharsets.UTF_8), entry);
+        }
+        return Map.copyOf(entries);
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** The bundle file, or {@code null} for the empty bundle. */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Read one packed image from the file.
+     *
+     * @param normalizedPath resource path without a leading slash
+     * @param current        size and modification time of the PNG right now, or {@code null} to skip the check
+     * @return the image, or {@code null} when the bundle does not hold it, holds an outdated copy, or the file has
+     *         been replaced or cannot be read since it was opened
+     */
+    public BufferedImage image(String normalizedPath, ResourceIndex.Stat current) {
+        return image(normalizedPath, current, null);
+    }
+
+    /**
+     * Like {@link #image(String, ResourceIndex.Stat)}, but copies into {@code reuse} when it is a premultiplied
+     * image of the same size, so callers streaming frames out of the bundle recycle one raster.
+     */
+    public BufferedImage image(String normalizedPath, ResourceIndex.Stat current, BufferedImage reuse) {
+        Entry entry = entries.get(normalizedPath);
+        if (entry == null) {
+            return null;
+        }
+        if (current != null && (current.size() != entry.sourceSize() || current.lastModified() != entry.sourceModified())) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != fileSize || Files.getLastModifiedTime(file).toMillis() != fileModified) {
+                LOGGER.fine(() -> "Asset bundle " + file + " changed since it was opened; decoding " + normalizedPath);
+                return null;
+            }
+            return read(channel, entry, reuse);
+        } catch (IOException ex) {
+            LOGGER.warning("Could not read " + normalizedPath + " from asset bundle " + file + ": " + ex);
+            return null;
+        }
+    }
+
+    private static BufferedImage read(FileChannel channel, Entry entry, BufferedImage reuse) throws IOException {
+        int width = entry.width();
+        int height = entry.height();
+        BufferedImage image = reuse != null && reuse.getType() == BufferedImage.TYPE_INT_ARGB_PRE
+                && reuse.getWidth() == width && reuse.getHeight() == height
+                ? reuse
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        WritableRaster raster = image.getRaster();
+        int bandRows = Math.max(1, Math.min(height, BAND_PIXELS / width));
+        ByteBuffer bytes = ByteBuffer.allocate(bandRows * width * 4).order(ByteOrder.BIG_ENDIAN);
+        IntBuffer pixels = bytes.asIntBuffer();
+        int[] band = new int[bandRows * width];
+        long position = entry.pixelOffset();
+        for (int y = 0; y < height; y += bandRows) {
+            int rows = Math.min(bandRows, height - y);
+            bytes.clear().limit(rows * width * 4);
+            while (bytes.hasRemaining()) {
+                int read = channel.read(bytes, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                position += read;
+            }
+            pixels.clear();
+            pixels.get(band, 0, rows * width);
+            raster.setDataElements(0, y, width, rows, band);
+        }
+        return image;
+    }
+
+    /**
+     * Write {@code sources} as a bundle. The file is written next to {@code output} and moved into place, so a
+     * running game never reads a half-written bundle.
+     */
+    public static void write(Path output, List<Source> sources) throws IOException {
+        List<byte[]> names = sources.stream().map(s -> normalize(s.path()).getBytes(StandardCharsets.UTF_8)).toList();
+        long offset = 16;
+        for (byte[] name : names) {
+            offset += 2 + name.length + 4 + 4 + 8 + 8 + 8;
+        }
+        long headerEnd = offset;
+        long[] pixelOffsets = new long[sources.size()];
+        for (int i = 0; i < sources.size(); i++) {
+            offset = align(offset);
+            pixelOffsets[i] = offset;
+            BufferedImage image = sources.get(i).image();
+            offset += (long) image.getWidth() * image.getHeight() * 4L;
+        }
+
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "assets", ".bundle.tmp");
+        try {
+            try (OutputStream raw = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(sources.size());
+                out.writeInt(0);
+                for (int i = 0; i < sources.size(); i++) {
+                    Source source = sources.get(i);
+                    byte[] name = names.get(i);
+                    if (name.length > 0xFFFF) {
+                        throw new IOException("Resource path too long: " + source.path());
+                    }
+                    out.writeShort(name.length);
+                    out.write(name);
+                    out.writeInt(source.image().getWidth());
+                    out.writeInt(source.image().getHeight());
+                    out.writeLong(source.sourceSize());
+                    out.writeLong(source.sourceModified());
+                    out.writeLong(pixelOffsets[i]);
+                }
+                long position = headerEnd;
+                for (int i = 0; i < sources.size(); i++) {
+                    for (; position < pixelOffsets[i]; position++) {
+                        out.writeByte(0);
+                    }
+                    BufferedImage image = sources.get(i).image();
+                    writePremultiplied(out, image);
+                    position += (long) image.getWidth() * image.getHeight() * 4L;
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writePremultiplied(DataOutputStream out, BufferedImage image) throws IOException {
+        int width = image.getWidth();
+        int[] row = new int[width];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int argb : row) {
+                out.writeInt(premultiply(argb));
+            }
+        }
+    }
+
+    static int premultiply(int argb) {
+        int a = argb >>> 24;
+        if (a == 0xFF) {
+            return argb;
+        }
+        if (a == 0) {
+            return 0;
+        }
+        int r = ((argb >> 16) & 0xFF) * a + 128;
+        int g = ((argb >> 8) & 0xFF) * a + 128;
+        int b = (argb & 0xFF) * a + 128;
+        return (a << 24) | ((r + (r >> 8)) >> 8) << 16 | ((g + (g >> 8)) >> 8) << 8 | ((b + (b >> 8)) >> 8);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static String normalize(String path) {
+        String trimmed = path.trim().replace('\\', '/');
+        return trimmed.startsWith("/") ? trimmed.substring(1) : trimmed;
+    }
+}
@@ -0,0 +1,66 @@
+package util;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Build-time entry point behind the Gradle {@code packAssetBundle} task: decodes every PNG in the
+ * {@link ResourceIndex} and writes them into an {@link AssetBundle}.
+ * <p>
+ * Usage: {@code AssetBundlePacker <output file>}
+ */
+public final class AssetBundlePacker {
+
+    private AssetBundlePacker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: AssetBundlePacker <output file>");
+            System.exit(2);
+        }
+        Path output = Path.of(args[0]);
+        long start = System.nanoTime();
+        List<AssetBundle.Source> sources = collect(ResourceLoader.index());
+        AssetBundle.write(output, sources);
+        long pixels = 0;
+        for (AssetBundle.Source source : sources) {
+            pixels += (long) source.image().getWidth() * source.image().getHeight();
+        }
+        System.out.printf("Packed %d images (%.1f MB of pixels, %.1f MB file) into %s in %d ms%n", sources.size(),
+                pixels * 4 / (1024.0 * 1024.0), Files.size(output) / (1024.0 * 1024.0), output,
+                (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /** Decode every indexed PNG, bypassing any existing bundle so stale pixels are never re-packed. */
+    static List<AssetBundle.Source> collect(ResourceIndex index) throws IOException {
+        List<String> paths = new ArrayList<>();
+        for (String path : index.paths()) {
+            if (path.toLowerCase(Locale.ROOT).endsWith(".png")) {
+                paths.add(path);
+            }
+        }
+        paths.sort(null);
+        List<AssetBundle.Source> sources = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            BufferedImage image;
+            try (InputStream in = index.open(path)) {
+                image = in == null ? null : ImageIO.read(in);
+            }
+            if (image == null) {
+                System.err.println("Skipping unreadable image " + path);
+                continue;
+            }
+            ResourceIndex.Stat stat = index.stat(path);
+            sources.add(new AssetBundle.Source(path, image, stat.size(), stat.lastModified()));
+        }
+        return sources;
+    }
+}
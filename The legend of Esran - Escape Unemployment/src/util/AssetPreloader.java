@@ -0,0 +1,246 @@
+package util;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decodes the images the game needs at startup on a small worker pool while the launcher menu is showing.
+ * <p>
+ * The list of images comes from a manifest ({@value #DEFAULT_MANIFEST}) with one {@code <group> <path>} pair per
+ * line; a path naming a directory stands for every PNG directly inside it. Each decoded image is published to
+ * {@link ResourceLoader}, which keeps it within the shared {@code ImageCache} budget, so the existing lazy loaders
+ * ({@code DungeonTextures}, {@code CutsceneBackgrounds}, {@code CutscenePortrait}, the boss battle sprites) find it
+ * there instead of decoding on the event dispatch thread. Anything requested before its turn simply loads the old
+ * way. Total and per-group load times are logged when the run finishes.
+ */
+public final class AssetPreloader {
+    private static final Logger LOGGER = Logger.getLogger(AssetPreloader.class.getName());
+
+    public static final String DEFAULT_MANIFEST = "/resources/preload.manifest";
+    /** Upper bound on decode threads; PNG inflate is CPU bound and the game still needs a core for the menu. */
+    static final int MAX_THREADS = 4;
+
+    /** One image to decode and the group it is reported under. */
+    public record Entry(String group, String resourcePath) {
+        public Entry {
+            Objects.requireNonNull(group, "group");
+            Objects.requireNonNull(resourcePath, "resourcePath");
+        }
+    }
+
+    /** Called from worker threads after every image, decoded or failed. */
+    @FunctionalInterface
+    public interface Listener {
+        void progress(int done, int total);
+    }
+
+    /**
+     * @param wallMillis   time from the start of the run until the group's last image was ready
+     * @param decodeMillis decode time summed over the group's images, across all workers
+     */
+    public record GroupReport(String group, int images, int failed, long decodedBytes, long wallMillis,
+                              long decodeMillis) {
+    }
+
+    public record Report(int images, int failed, long decodedBytes, long wallMillis, int threads,
+                         List<GroupReport> groups) {
+    }
+
+    private final List<Entry> entries;
+    private final int threads;
+
+    public AssetPreloader(List<Entry> entries) {
+        this(entries, defaultThreads());
+    }
+
+    public AssetPreloader(List<Entry> entries, int threads) {
+        this.entries = List.copyOf(entries);
+        this.threads = Math.max(1, threads);
+    }
+
+    /** Preloader for the bundled {@value #DEFAULT_MANIFEST}; empty when the manifest is missing. */
+    public static AssetPreloader fromDefaultManifest() {
+        try {
+            return new AssetPreloader(readManifest(DEFAULT_MANIFEST));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Preload manifest unavailable; assets will load on demand", ex);
+            return new AssetPreloader(List.of());
+        }
+    }
+
+    /**
+     * Expand a manifest into concrete image paths. Blank lines and {@code #} comments are ignored; a path ending in
+     * {@code .png} is taken as a single image, anything else as a directory.
+     */
+    public static List<Entry> readManifest(String manifestPath) throws IOException {
+        List<Entry> result = new ArrayList<>();
+        try (InputStream in = ResourceLoader.open(manifestPath)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + manifestPath);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+", 2);
+                if (parts.length < 2) {
+                    throw new IOException(manifestPath + ":" + lineNumber + ": expected '<group> <path>'");
+                }
+                String path = parts[1].strip();
+                if (path.toLowerCase(Locale.ROOT).endsWith(".png")) {
+                    result.add(new Entry(parts[0], path));
+                } else {
+                    for (String image : ResourceLoader.listPng(path)) {
+                        result.add(new Entry(parts[0], image));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    static int defaultThreads() {
+        return Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Decode every entry on a pool of daemon threads that shuts itself down when the queue drains.
+     *
+     * @param listener progress callback, may be {@code null}
+     * @return completes with the timing report once every entry has been attempted
+     */
+    public CompletableFuture<Report> start(Listener listener) {
+        int total = entries.size();
+        long started = System.nanoTime();
+        Map<String, GroupStats> groups = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            GroupStats stats = groups.computeIfAbsent(entry.group(), GroupStats::new);
+            stats.images++;
+            stats.remaining.incrementAndGet();
+        }
+        if (total == 0) {
+            return CompletableFuture.completedFuture(new Report(0, 0, 0L, 0L, 0, List.of()));
+        }
+
+        int poolSize = Math.min(threads, total);
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread t = new Thread(task, "asset-preload-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.NORM_PRIORITY - 1);
+                    return t;
+                });
+        AtomicInteger done = new AtomicInteger();
+        CompletableFuture<Report> result = new CompletableFuture<>();
+        for (Entry entry : entries) {
+            GroupStats stats = groups.get(entry.group());
+            pool.execute(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    BufferedImage image = ResourceLoader.image(entry.resourcePath());
+                    ResourceLoader.publish(entry.resourcePath(), image);
+                    stats.bytes.addAndGet((long) image.getWidth() * image.getHeight() * 4L);
+                } catch (IOException | RuntimeException ex) {
+                    stats.failed.incrementAndGet();
+                    LOGGER.log(Level.FINE, "Could not preload " + entry.resourcePath(), ex);
+                } finally {
+                    long t1 = System.nanoTime();
+                    stats.decodeNanos.addAndGet(t1 - t0);
+                    if (stats.remaining.decrementAndGet() == 0) {
+                        stats.wallNanos = t1 - started;
+                    }
+                    int finished = done.incrementAndGet();
+                    if (listener != null) {
+                        listener.progress(finished, total);
+                    }
+                    if (finished == total) {
+                        result.complete(report(groups, System.nanoTime() - started, poolSize));
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        return result.whenComplete((report, error) -> {
+            if (report != null) {
+                log(report);
+            }
+        });
+    }
+
+    private static Report report(Map<String, GroupStats> groups, long wallNanos, int threads) {
+        List<GroupReport> perGroup = new ArrayList<>(groups.size());
+        int images = 0;
+        int failed = 0;
+        long bytes = 0L;
+        for (GroupStats stats : groups.values()) {
+            GroupReport group = stats.toReport();
+            perGroup.add(group);
+            images += group.images();
+            failed += group.failed();
+            bytes += group.decodedBytes();
+        }
+        return new Report(images, failed, bytes, wallNanos / 1_000_000L, threads,
+                Collections.unmodifiableList(perGroup));
+    }
+
+    private static void log(Report report) {
+        StringBuilder line = new StringBuilder(String.format(
+                "Preloaded %d images (%.1f MB decoded, %d failed) in %d ms on %d threads:",
+                report.images() - report.failed(), report.decodedBytes() / (1024.0 * 1024.0), report.failed(),
+                report.wallMillis(), report.threads()));
+        for (GroupReport group : report.groups()) {
+            line.append(String.format(" %s %d images ready at %d ms (%d ms decoding);", group.group(),
+                    group.images() - group.failed(), group.wallMillis(), group.decodeMillis()));
+        }
+        LOGGER.info(line.toString());
+    }
+
+    private static final class GroupStats {
+        final String group;
+        final AtomicInteger remaining = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong decodeNanos = new AtomicLong();
+        volatile long wallNanos;
+        int images;
+
+        GroupStats(String group) {
+            this.group = group;
+        }
+
+        GroupReport toReport() {
+            return new GroupReport(group, images, failed.get(), bytes.get(), wallNanos / 1_000_000L,
+                    decodeNanos.get() / 1_000_000L);
+        }
+    }
+}
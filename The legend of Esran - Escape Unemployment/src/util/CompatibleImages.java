@@ -0,0 +1,169 @@
+package util;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Brings loaded images into the pixel layout the screen draws fastest.
+ * <p>
+ * PNG decoding yields {@code TYPE_4BYTE_ABGR}, palette or custom-layout images, which Java2D blends through its
+ * general loops and is slow to cache on the graphics card. {@link #forDisplay} scans an image's alpha once to tell
+ * whether it is opaque, only has fully transparent holes (bitmask) or is truly translucent, and copies it into the
+ * layout the default screen's {@link GraphicsConfiguration} creates for that transparency. Opaque art then blits
+ * without blending at all. Where the screen would use a custom colour model, as X11 does for bitmask images, the
+ * nearest standard layout from {@link Layout#STANDARD} is used instead, so {@link gfx.SpriteBlitter} and
+ * {@link gfx.ScalingKernels} keep their integer fast paths. Without a screen there is nothing to match and images are
+ * left as they are.
+ */
+public final class CompatibleImages {
+    private static final Logger LOGGER = Logger.getLogger(CompatibleImages.class.getName());
+
+    private static final AtomicLong CONVERTED = new AtomicLong();
+
+    /**
+     * The {@link BufferedImage} type to use for each kind of transparency.
+     *
+     * @param opaqueType      for images with no transparent pixels
+     * @param bitmaskType     for images whose pixels are all either fully opaque or fully transparent
+     * @param translucentType for images with partly transparent pixels
+     */
+    public record Layout(int opaqueType, int bitmaskType, int translucentType) {
+        /** Integer layouts every renderer in the game handles directly; premultiplied to save a multiply per blend. */
+        public static final Layout STANDARD = new Layout(BufferedImage.TYPE_INT_RGB,
+                BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        /** The type for an image of the given {@link Transparency}. */
+        public int typeFor(int transparency) {
+            return switch (transparency) {
+                case Transparency.OPAQUE -> opaqueType;
+                case Transparency.BITMASK -> bitmaskType;
+                default -> translucentType;
+            };
+        }
+    }
+
+    /** Asked once, on first use, so that loading this class never touches the display. */
+    private static final class DisplayHolder {
+        static final Layout DISPLAY = displayLayout();
+
+        private static Layout displayLayout() {
+            if (GraphicsEnvironment.isHeadless()) {
+                return null;
+            }
+            try {
+                GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDefaultConfiguration();
+                return new Layout(compatibleType(config, Transparency.OPAQUE, Layout.STANDARD),
+                        compatibleType(config, Transparency.BITMASK, Layout.STANDARD),
+                        compatibleType(config, Transparency.TRANSLUCENT, Layout.STANDARD));
+            } catch (HeadlessException | IllegalStateException ex) {
+                LOGGER.log(Level.FINE, "No screen to match image layouts to", ex);
+                return null;
+            }
+        }
+
+        private static int compatibleType(GraphicsConfiguration config, int transparency, Layout fallback) {
+            int type = config.createCompatibleImage(1, 1, transparency).getType();
+            return type == BufferedImage.TYPE_CUSTOM ? fallback.typeFor(transparency) : type;
+        }
+    }
+
+    private CompatibleImages() {
+    }
+
+    /** The layouts of the default screen, or {@code null} when running headless. */
+    public static Layout displayLayout() {
+        return DisplayHolder.DISPLAY;
+    }
+
+    /**
+     * {@code image} in the default screen's layout for its transparency: the image itself when it already is, or
+     * when running headless, otherwise a copy.
+     */
+    public static BufferedImage forDisplay(BufferedImage image) {
+        Layout display = DisplayHolder.DISPLAY;
+        return display == null || image == null ? image : convert(image, display);
+    }
+
+    /**
+     * A new, fully transparent image of the type the screen uses for translucent images, for callers that paint
+     * loaded frames onto a canvas of their own. {@code TYPE_INT_ARGB} when running headless.
+     */
+    public static BufferedImage createTranslucent(int width, int height) {
+        Layout display = DisplayHolder.DISPLAY;
+        int type = display == null ? BufferedImage.TYPE_INT_ARGB : display.translucentType();
+        return new BufferedImage(width, height, type);
+    }
+
+    /**
+     * {@code image} in {@code layout}'s type for its transparency. Returned as is when it already has that type
+     * and owns its pixels; sub-images, which share their parent's raster, are always copied.
+     */
+    public static BufferedImage convert(BufferedImage image, Layout layout) {
+        int type = layout.typeFor(transparencyOf(image));
+        if (image.getType() == type && image.getRaster().getParent() == null) {
+            return image;
+        }
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        CONVERTED.incrementAndGet();
+        return copy;
+    }
+
+    /**
+     * Whether {@code image} is {@link Transparency#OPAQUE}, {@link Transparency#BITMASK} or
+     * {@link Transparency#TRANSLUCENT}, judged from its pixels rather than its colour model: a PNG saved with an
+     * alpha channel it never uses is opaque. Stops at the first partly transparent pixel.
+     */
+    public static int transparencyOf(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return Transparency.OPAQUE;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Raster raster = image.getRaster();
+        // Packed rows straight from the raster where the layout allows; taking the data buffer itself would stop
+        // Java2D from caching the image.
+        boolean packed = image.getType() == BufferedImage.TYPE_INT_ARGB
+                || image.getType() == BufferedImage.TYPE_INT_ARGB_PRE;
+        int[] row = new int[width];
+        boolean holes = false;
+        for (int y = 0; y < height; y++) {
+            if (packed) {
+                raster.getDataElements(0, y, width, 1, row);
+            } else {
+                image.getRGB(0, y, width, 1, row, 0, width);
+            }
+            for (int argb : row) {
+                int alpha = argb >>> 24;
+                if (alpha != 0xFF) {
+                    if (alpha != 0) {
+                        return Transparency.TRANSLUCENT;
+                    }
+                    holes = true;
+                }
+            }
+        }
+        return holes ? Transparency.BITMASK : Transparency.OPAQUE;
+    }
+
+    /** Images copied into another layout so far. */
+    public static long convertedImages() {
+        return CONVERTED.get();
+    }
+}
@@ -0,0 +1,151 @@
+package util;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Image decoding without the per-image setup of {@link ImageIO#read(InputStream)}.
+ * <p>
+ * {@code ImageIO.read} asks the service registry for a stream and a reader, builds both, and decodes into a new
+ * image every time. Here each thread keeps one PNG reader and reuses it for every PNG it decodes; the format is
+ * told from the file signature, so the registry is only consulted for the odd non-PNG file, whose reader is then
+ * thrown away as before. Callers can pass a destination image to decode into, which saves the allocation when they
+ * stream many same-sized frames, and a subsampling factor that decodes only every n-th pixel in each direction for
+ * thumbnails and previews.
+ */
+public final class ImageDecoder {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private static final AtomicLong READERS_CREATED = new AtomicLong();
+    /** Never disposed: a reader holds no native resources between images, and lives as long as its thread. */
+    private static final ThreadLocal<ImageReader> PNG_READER = ThreadLocal.withInitial(ImageDecoder::newPngReader);
+
+    @FunctionalInterface
+    private interface ReaderTask<T> {
+        T run(ImageReader reader) throws IOException;
+    }
+
+    private ImageDecoder() {
+    }
+
+    /**
+     * Decode the first image in {@code in}.
+     *
+     * @param reuse       image to decode into when it has the decoder's own type and the decoded size, or
+     *                    {@code null}; converting to another type while decoding costs more than the allocation
+     * @param subsampling keep every {@code subsampling}-th pixel in each direction; 1 decodes the full image
+     * @return the decoded image, {@code reuse} itself when it was written to, or {@code null} when no installed
+     * reader understands the data
+     */
+    public static BufferedImage read(InputStream in, BufferedImage reuse, int subsampling) throws IOException {
+        if (subsampling < 1) {
+            throw new IllegalArgumentException("Subsampling must be at least 1 but was " + subsampling);
+        }
+        return withReader(in, reader -> {
+            ImageReadParam param = reader.getDefaultReadParam();
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if (subsampling > 1) {
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                width = (width + subsampling - 1) / subsampling;
+                height = (height + subsampling - 1) / subsampling;
+            }
+            if (reuse != null && reuse.getWidth() == width && reuse.getHeight() == height) {
+                Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+                int nativeType = types.hasNext() ? types.next().getBufferedImageType() : BufferedImage.TYPE_CUSTOM;
+                if (nativeType != BufferedImage.TYPE_CUSTOM && reuse.getType() == nativeType) {
+                    param.setDestination(reuse);
+                }
+            }
+            return reader.read(0, param);
+        });
+    }
+
+    /** Width and height of the first image in {@code in}, from its header; {@code null} for unknown formats. */
+    public static Dimension size(InputStream in) throws IOException {
+        return withReader(in, reader -> new Dimension(reader.getWidth(0), reader.getHeight(0)));
+    }
+
+    /**
+     * The smallest subsampling factor that brings a {@code width} by {@code height} image within {@code maxWidth}
+     * by {@code maxHeight}.
+     */
+    public static int subsamplingFor(int width, int height, int maxWidth, int maxHeight) {
+        int horizontal = (width + Math.max(1, maxWidth) - 1) / Math.max(1, maxWidth);
+        int vertical = (height + Math.max(1, maxHeight) - 1) / Math.max(1, maxHeight);
+        return Math.max(1, Math.max(horizontal, vertical));
+    }
+
+    /** PNG readers created so far; one per thread that has decoded a PNG. */
+    public static long readersCreated() {
+        return READERS_CREATED.get();
+    }
+
+    private static <T> T withReader(InputStream in, ReaderTask<T> task) throws IOException {
+        // Built directly rather than through the registry; caches only what the reader seeks back over.
+        ImageInputStream stream = new MemoryCacheImageInputStream(in);
+        try {
+            if (isPng(stream)) {
+                ImageReader reader = PNG_READER.get();
+                try {
+                    reader.setInput(stream, true, true);
+                    return task.run(reader);
+                } finally {
+                    reader.reset();
+                }
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return task.run(reader);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            // Leaves the caller's stream open.
+            stream.close();
+        }
+    }
+
+    private static boolean isPng(ImageInputStream stream) throws IOException {
+        byte[] header = new byte[PNG_SIGNATURE.length];
+        stream.mark();
+        try {
+            int read = 0;
+            while (read < header.length) {
+                int n = stream.read(header, read, header.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            return Arrays.equals(header, PNG_SIGNATURE);
+        } finally {
+            stream.reset();
+        }
+    }
+
+    private static ImageReader newPngReader() {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("png");
+        if (!readers.hasNext()) {
+            throw new IllegalStateException("No PNG reader installed");
+        }
+        READERS_CREATED.incrementAndGet();
+        return readers.next();
+    }
+}
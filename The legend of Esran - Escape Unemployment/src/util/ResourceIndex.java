@@ -0,0 +1,302 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+
+/**
+ * Immutable map of every bundled resource to the place it is read from, built by one walk over the classpath and
+ * the {@link ProjectDirectories} search roots.
+ * <p>
+ * Only paths under {@link #INDEXED_PREFIXES} are indexed; that is where all game art lives. For those paths the
+ * index answers existence checks, opens and directory listings with hash lookups instead of probing each class
+ * loader and search root in turn, and a path it does not contain is known not to exist. Where the same path is
+ * found in several places the first one wins, in the order {@link ResourceLoader#open(String)} has always used:
+ * context class loader, this class's loader, then the search roots.
+ * <p>
+ * {@link #directoryWalks()} and {@link #jarScans()} count the expensive enumerations across every index built in
+ * this JVM, so tests can prove nothing walks the disk again after warm-up.
+ */
+public final class ResourceIndex {
+    private static final Logger LOGGER = Logger.getLogger(ResourceIndex.class.getName());
+
+    /** Normalised directory prefixes covered by the index. */
+    static final List<String> INDEXED_PREFIXES = List.of("resources/");
+
+    private static final AtomicLong DIRECTORY_WALKS = new AtomicLong();
+    private static final AtomicLong JAR_SCANS = new AtomicLong();
+
+    /** Size and modification time of an indexed file, as seen when the index was built. */
+    public record Stat(long size, long lastModified) {
+    }
+
+    /** Where an indexed file is read from: a file on disk or an entry inside a jar. */
+    private record Location(Path file, URL jarEntry, Stat stat) {
+        InputStream open() throws IOException {
+            return file != null ? Files.newInputStream(file) : jarEntry.openStream();
+        }
+    }
+
+    private final Map<String, Location> files;
+    private final Map<String, List<String>> childFiles;
+    private final Map<String, List<String>> childDirectories;
+
+    private ResourceIndex(Map<String, Location> files, Map<String, Set<String>> childFiles,
+                          Map<String, Set<String>> childDirectories) {
+        this.files = Map.copyOf(files);
+        this.childFiles = freeze(childFiles);
+        this.childDirectories = freeze(childDirectories);
+    }
+
+    /**
+     * Walk the given class loaders and search roots once and index everything under {@link #INDEXED_PREFIXES}.
+     */
+    public static ResourceIndex build(List<ClassLoader> loaders, List<Path> searchRoots) {
+        long start = System.nanoTime();
+        Builder builder = new Builder();
+        Set<ClassLoader> seenLoaders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ClassLoader loader : loaders) {
+            if (loader != null && seenLoaders.add(loader)) {
+                for (String prefix : INDEXED_PREFIXES) {
+                    builder.addClassLoader(loader, prefix);
+                }
+            }
+        }
+        for (Path root : searchRoots) {
+            for (String prefix : INDEXED_PREFIXES) {
+                builder.addDirectory(root.resolve(prefix), prefix);
+            }
+        }
+        ResourceIndex index = new ResourceIndex(builder.files, builder.childFiles, builder.childDirectories);
+        LOGGER.fine(() -> String.format("Indexed %d resources in %d directories in %.1f ms", index.files.size(),
+                index.childDirectories.size(), (System.nanoTime() - start) / 1_000_000.0));
+        return index;
+    }
+
+    /** Whether {@code normalizedPath} lies in the indexed part of the tree, so a miss means "does not exist". */
+    public boolean covers(String normalizedPath) {
+        for (String prefix : INDEXED_PREFIXES) {
+            if (normalizedPath.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean exists(String normalizedPath) {
+        return files.containsKey(normalizedPath);
+    }
+
+    /** @return size and modification time of the indexed file, or {@code null} when it is not indexed */
+    public Stat stat(String normalizedPath) {
+        Location location = files.get(normalizedPath);
+        return location == null ? null : location.stat();
+    }
+
+    /** Every indexed path, normalised without a leading slash. */
+    public Set<String> paths() {
+        return files.keySet();
+    }
+
+    /** @return a stream for the indexed file, or {@code null} when the index does not contain it */
+    public InputStream open(String normalizedPath) throws IOException {
+        Location location = files.get(normalizedPath);
+        return location == null ? null : location.open();
+    }
+
+    /**
+     * Files directly inside a directory, as sorted paths with a leading slash.
+     *
+     * @param normalizedDirectory normalised directory path ending in {@code /}
+     */
+    public List<String> files(String normalizedDirectory) {
+        return childFiles.getOrDefault(normalizedDirectory, List.of());
+    }
+
+    /** Directories directly inside a directory, as sorted paths with a leading slash and no trailing slash. */
+    public List<String> directories(String normalizedDirectory) {
+        return childDirectories.getOrDefault(normalizedDirectory, List.of());
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /** Filesystem directory trees walked by index builds in this JVM. */
+    public static long directoryWalks() {
+        return DIRECTORY_WALKS.get();
+    }
+
+    /** Jar files enumerated by index builds in this JVM. */
+    public static long jarScans() {
+        return JAR_SCANS.get();
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, Set<String>> source) {
+        Map<String, List<String>> frozen = new HashMap<>(source.size() * 2);
+        for (Map.Entry<String, Set<String>> entry : source.entrySet()) {
+            frozen.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Map.copyOf(frozen);
+    }
+
+    private static final class Builder {
+        final Map<String, Location> files = new HashMap<>();
+        final Map<String, Set<String>> childFiles = new HashMap<>();
+        final Map<String, Set<String>> childDirectories = new HashMap<>();
+        /** Several search roots and class path entries can name the same directory; walk each one once. */
+        final Set<Path> walked = new HashSet<>();
+
+        void addClassLoader(ClassLoader loader, String prefix) {
+            Enumeration<URL> urls;
+            try {
+                urls = loader.getResources(prefix);
+            } catch (IOException ex) {
+                return;
+            }
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if ("file".equals(url.getProtocol())) {
+                    try {
+                        addDirectory(Paths.get(url.toURI()), prefix);
+                    } catch (URISyntaxException | IllegalArgumentException ignored) {
+                        // Not a plain directory URL; nothing to index.
+                    }
+                } else if ("jar".equals(url.getProtocol())) {
+                    addJar(url, prefix);
+                }
+            }
+        }
+
+        void addDirectory(Path root, String prefix) {
+            Path dir = root.toAbsolutePath().normalize();
+            if (!Files.isDirectory(dir) || !walked.add(dir)) {
+                return;
+            }
+            DIRECTORY_WALKS.incrementAndGet();
+            addDirectoryEntry(prefix);
+            try {
+                Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) {
+                        if (!path.equals(dir)) {
+                            addDirectoryEntry(prefix + toResourcePath(dir.relativize(path)) + "/");
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                        if (attrs.isRegularFile()) {
+                            Stat stat = new Stat(attrs.size(), attrs.lastModifiedTime().toMillis());
+                            addFile(prefix + toResourcePath(dir.relativize(path)), new Location(path, null, stat));
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path path, IOException ex) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.fine(() -> "Could not fully index " + dir + ": " + ex);
+            }
+        }
+
+        void addJar(URL url, String prefix) {
+            try {
+                URLConnection raw = url.openConnection();
+                if (!(raw instanceof JarURLConnection connection)) {
+                    return;
+                }
+                connection.setUseCaches(false);
+                URL jarUrl = connection.getJarFileURL();
+                JAR_SCANS.incrementAndGet();
+                try (JarFile jar = connection.getJarFile()) {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        JarEntry entry = entries.nextElement();
+                        String name = entry.getName();
+                        if (!name.startsWith(prefix)) {
+                            continue;
+                        }
+                        if (entry.isDirectory()) {
+                            addDirectoryEntry(name);
+                        } else {
+                            addFile(name, new Location(null, jarEntryUrl(jarUrl, name),
+                                    new Stat(entry.getSize(), entry.getTime())));
+                        }
+                    }
+                }
+            } catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+                LOGGER.fine(() -> "Could not index jar " + url + ": " + ex);
+            }
+        }
+
+        private void addFile(String path, Location location) {
+            if (files.putIfAbsent(path, location) != null) {
+                return;
+            }
+            int slash = path.lastIndexOf('/');
+            String parent = path.substring(0, slash + 1);
+            childFiles.computeIfAbsent(parent, k -> new TreeSet<>()).add("/" + path);
+            addDirectoryEntry(parent);
+        }
+
+        /** Register {@code directory} (ending in {@code /}) and every ancestor with its parent. */
+        private void addDirectoryEntry(String directory) {
+            String current = directory;
+            while (current.length() > 1) {
+                String withoutSlash = current.substring(0, current.length() - 1);
+                int slash = withoutSlash.lastIndexOf('/');
+                String parent = withoutSlash.substring(0, slash + 1);
+                if (!childDirectories.computeIfAbsent(parent, k -> new TreeSet<>()).add("/" + withoutSlash)) {
+                    return;
+                }
+                current = parent;
+            }
+        }
+
+        /** The entry name is percent-encoded; the jar handler decodes it again when the entry is opened. */
+        private static URL jarEntryUrl(URL jarUrl, String entry) throws MalformedURLException, URISyntaxException {
+            String encoded = new URI(null, null, "/" + entry, null).getRawPath();
+            return URI.create("jar:" + jarUrl.toExternalForm() + "!" + encoded).toURL();
+        }
+
+        private static String toResourcePath(Path relative) {
+            StringBuilder builder = new StringBuilder();
+            for (Path element : relative) {
+                if (builder.length() > 0) {
+                    builder.append('/');
+                }
+                builder.append(element);
+            }
+            return builder.toString();
+        }
+    }
+}
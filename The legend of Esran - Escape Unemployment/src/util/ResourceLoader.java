@@ -1,6 +1,9 @@
 package util;
 
+import gfx.ImageCache;
+
 import javax.imageio.ImageIO;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,6 +20,8 @@ import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -38,6 +43,34 @@ public final class ResourceLoader {
     }
 
     private static final List<Path> SEARCH_ROOTS = ProjectDirectories.locateSearchRoots();
+    /**
+     * Images decoded ahead of time by {@link AssetPreloader}, keyed by normalised resource path. Charged to the shared
+     * {@link ImageCache} budget, so preloaded art that goes unused is evicted like any other cold image and simply
+     * decoded again if it is ever asked for.
+     */
+    private static final ImageCache.Namespace PRELOADED = ImageCache.shared().namespace("preloaded");
+    /** Lookups outside the {@link ResourceIndex} that still probe every loader and search root. */
+    private static final AtomicLong UNINDEXED_LOOKUPS = new AtomicLong();
+    /** Lookups that found nothing. */
+    private static final AtomicLong MISSED_LOOKUPS = new AtomicLong();
+    /** Images decoded from a file or copied out of the {@link AssetBundle}, as opposed to handed out preloaded. */
+    private static final AtomicLong DECODED_IMAGES = new AtomicLong();
+    /**
+     * Unindexed paths that every loader and search root has already been probed for without success. Resources do
+     * not appear while the game runs, so such a path is answered as missing straight away from then on.
+     */
+    private static final Set<String> KNOWN_MISSING = ConcurrentHashMap.newKeySet();
+
+    /** Built on first use so merely loading this class stays cheap. */
+    private static final class IndexHolder {
+        static final ResourceIndex INDEX = ResourceIndex.build(
+                List.of(contextLoader(), ResourceLoader.class.getClassLoader()), SEARCH_ROOTS);
+
+        private static ClassLoader contextLoader() {
+            ClassLoader context = Thread.currentThread().getContextClassLoader();
+            return context != null ? context : ResourceLoader.class.getClassLoader();
+        }
+    }
 
     private ResourceLoader() {
     }
@@ -57,6 +90,20 @@ public final class ResourceLoader {
             throw new IOException("Invalid resource path: " + resourcePath, ex);
         }
 
+        ResourceIndex index = index();
+        if (index.covers(normalized)) {
+            InputStream indexed = index.open(normalized);
+            if (indexed == null) {
+                MISSED_LOOKUPS.incrementAndGet();
+            }
+            return indexed;
+        }
+        if (KNOWN_MISSING.contains(normalized)) {
+            MISSED_LOOKUPS.incrementAndGet();
+            return null;
+        }
+        UNINDEXED_LOOKUPS.incrementAndGet();
+
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
         if (loader != null) {
             InputStream stream = loader.getResourceAsStream(normalized);
@@ -77,25 +124,219 @@ public final class ResourceLoader {
             }
         }
 
+        KNOWN_MISSING.add(normalized);
+        MISSED_LOOKUPS.incrementAndGet();
         return null;
     }
 
     /**
      * Convenience wrapper that reads a {@link BufferedImage} from the same lookup scheme as {@link #open(String)}.
+     * Freshly loaded images are handed out in the screen's own layout, see {@link CompatibleImages#forDisplay}.
      */
     public static BufferedImage image(String resourcePath) throws IOException {
+        BufferedImage ready = preloaded(resourcePath);
+        if (ready != null) {
+            return ready;
+        }
+        BufferedImage packed = packed(resourcePath);
+        if (packed != null) {
+            DECODED_IMAGES.incrementAndGet();
+            return CompatibleImages.forDisplay(packed);
+        }
         try (InputStream in = open(resourcePath)) {
             if (in == null) {
                 throw new IOException("Resource not found: " + resourcePath);
             }
-            BufferedImage image = ImageIO.read(in);
+            BufferedImage image = ImageDecoder.read(in, null, 1);
             if (image == null) {
                 throw new IOException("Unsupported image format: " + resourcePath);
             }
+            DECODED_IMAGES.incrementAndGet();
+            return CompatibleImages.forDisplay(image);
+        }
+    }
+
+    /**
+     * Whether a resource exists, answered from the {@link ResourceIndex} without opening it where possible.
+     */
+    public static boolean exists(String resourcePath) {
+        String normalized;
+        try {
+            normalized = normalize(resourcePath);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        ResourceIndex index = index();
+        if (index.covers(normalized)) {
+            if (!index.exists(normalized)) {
+                MISSED_LOOKUPS.incrementAndGet();
+                return false;
+            }
+            return true;
+        }
+        try (InputStream in = open(resourcePath)) {
+            return in != null;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /** The index of bundled resources, built on first use. */
+    public static ResourceIndex index() {
+        return IndexHolder.INDEX;
+    }
+
+    /** Lookups and listings that fell outside the index and probed the classpath and search roots directly. */
+    public static long unindexedLookups() {
+        return UNINDEXED_LOOKUPS.get();
+    }
+
+    /** Lookups through {@link #open(String)} and {@link #exists(String)} that found nothing. */
+    public static long missedLookups() {
+        return MISSED_LOOKUPS.get();
+    }
+
+    /** Images decoded or unpacked from the asset bundle so far; images served from the preload map do not count. */
+    public static long decodedImages() {
+        return DECODED_IMAGES.get();
+    }
+
+    /**
+     * Decode the image at {@code resourcePath} into {@code reuse} when it has the same size and a type the decoder
+     * or the {@link AssetBundle} can write, so a caller streaming many same-sized frames recycles one raster instead
+     * of allocating one per frame. Otherwise a new image is returned. Never returns a preloaded image, so the result
+     * is always the caller's to overwrite; check {@link #preloaded(String)} first to skip the decode altogether.
+     */
+    public static BufferedImage decode(String resourcePath, BufferedImage reuse) throws IOException {
+        return decode(resourcePath, reuse, 1);
+    }
+
+    /**
+     * Like {@link #decode(String, BufferedImage)}, keeping only every {@code subsampling}-th pixel in each direction,
+     * which is far cheaper than decoding the whole image and shrinking it. Subsampled images are always decoded
+     * from the file, as the {@link AssetBundle} only holds full-size pixels.
+     */
+    public static BufferedImage decode(String resourcePath, BufferedImage reuse, int subsampling) throws IOException {
+        if (subsampling == 1) {
+            BufferedImage packed = packed(resourcePath, reuse);
+            if (packed != null) {
+                DECODED_IMAGES.incrementAndGet();
+                return packed;
+            }
+        }
+        try (InputStream in = open(resourcePath)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + resourcePath);
+            }
+            BufferedImage image = ImageDecoder.read(in, reuse, subsampling);
+            if (image == null) {
+                throw new IOException("Unsupported image format: " + resourcePath);
+            }
+            DECODED_IMAGES.incrementAndGet();
             return image;
         }
     }
 
+    /**
+     * A preview of the image at {@code resourcePath} no larger than {@code maxWidth} by {@code maxHeight}, decoded
+     * with the coarsest subsampling that fits rather than decoded in full and scaled down.
+     */
+    public static BufferedImage thumbnail(String resourcePath, int maxWidth, int maxHeight) throws IOException {
+        Dimension size = imageSize(resourcePath);
+        return decode(resourcePath, null, ImageDecoder.subsamplingFor(size.width, size.height, maxWidth, maxHeight));
+    }
+
+    /** Width and height of the image at {@code resourcePath}, read from its header without decoding the pixels. */
+    public static Dimension imageSize(String resourcePath) throws IOException {
+        BufferedImage ready = preloaded(resourcePath);
+        if (ready != null) {
+            return new Dimension(ready.getWidth(), ready.getHeight());
+        }
+        try (InputStream in = open(resourcePath)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + resourcePath);
+            }
+            Dimension size = ImageDecoder.size(in);
+            if (size == null) {
+                throw new IOException("Unsupported image format: " + resourcePath);
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Like {@link #image(String)}, but returns {@code null} instead of throwing when the resource does not exist.
+     */
+    public static BufferedImage imageIfPresent(String resourcePath) throws IOException {
+        BufferedImage ready = preloaded(resourcePath);
+        if (ready != null) {
+            return ready;
+        }
+        BufferedImage packed = packed(resourcePath);
+        if (packed != null) {
+            DECODED_IMAGES.incrementAndGet();
+            return CompatibleImages.forDisplay(packed);
+        }
+        try (InputStream in = open(resourcePath)) {
+            if (in == null) {
+                return null;
+            }
+            BufferedImage image = ImageDecoder.read(in, null, 1);
+            if (image != null) {
+                DECODED_IMAGES.incrementAndGet();
+            }
+            return CompatibleImages.forDisplay(image);
+        }
+    }
+
+    /**
+     * The image {@link AssetPreloader} already decoded for this path, or {@code null} when it has not (yet) been
+     * preloaded or the cache has evicted it since. Loaders that read files directly rather than through
+     * {@link #image(String)} check this first.
+     */
+    public static BufferedImage preloaded(String resourcePath) {
+        if (resourcePath == null || resourcePath.isBlank()) {
+            return null;
+        }
+        try {
+            return PRELOADED.imageIfPresent(normalize(resourcePath));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The image from the shared {@link AssetBundle}, or {@code null} when there is no bundle, it does not hold this
+     * path, or the PNG changed since the bundle was packed.
+     */
+    private static BufferedImage packed(String resourcePath) {
+        return packed(resourcePath, null);
+    }
+
+    private static BufferedImage packed(String resourcePath, BufferedImage reuse) {
+        AssetBundle bundle = AssetBundle.shared();
+        if (bundle.isEmpty()) {
+            return null;
+        }
+        String normalized;
+        try {
+            normalized = normalize(resourcePath);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        ResourceIndex.Stat current = index().stat(normalized);
+        return current == null ? null : bundle.image(normalized, current, reuse);
+    }
+
+    /**
+     * Make a decoded image available to later {@link #image(String)} calls for the same path, for as long as the
+     * shared cache keeps it.
+     */
+    static void publish(String resourcePath, BufferedImage image) {
+        Objects.requireNonNull(image, "image");
+        PRELOADED.image(normalize(resourcePath), () -> image);
+    }
+
     /**
      * Enumerate resources that live directly under the supplied directory.
      * <p>
@@ -115,6 +356,18 @@ public final class ResourceLoader {
                 ? normalizedDir.substring(0, normalizedDir.length() - 1)
                 : normalizedDir;
 
+        ResourceIndex index = index();
+        if (index.covers(normalizedDir)) {
+            List<String> matches = new ArrayList<>();
+            for (String resource : index.files(normalizedDir)) {
+                if (filter.test(resource.substring(resource.lastIndexOf('/') + 1))) {
+                    matches.add(resource);
+                }
+            }
+            return matches;
+        }
+        UNINDEXED_LOOKUPS.incrementAndGet();
+
         Set<String> resources = new TreeSet<>();
 
         collectFromClassLoader(resources, normalizedDir, filter);
@@ -140,6 +393,12 @@ public final class ResourceLoader {
                 ? normalizedDir.substring(0, normalizedDir.length() - 1)
                 : normalizedDir;
 
+        ResourceIndex index = index();
+        if (index.covers(normalizedDir)) {
+            return new ArrayList<>(index.directories(normalizedDir));
+        }
+        UNINDEXED_LOOKUPS.incrementAndGet();
+
         Set<String> directories = new TreeSet<>();
 
         collectDirectoriesFromClassLoader(directories, normalizedDir);
@@ -0,0 +1,58 @@
+package benchmark.battle.scene;
+
+import Battle.scene.NineSlice;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Box drawing cost of {@link NineSlice} with and without its per-size cache, for the dialog and battle-menu box
+ * sizes at 1x and 1.5x device scale. Reports boxes per millisecond.
+ */
+public final class NineSliceBenchmark {
+
+    private static final int BOXES_PER_ROUND = 200;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int[][] BOX_SIZES = {{720, 140}, {240, 180}, {160, 48}};
+
+    public static void main(String[] args) {
+        NineSlice slice = new NineSlice(NineSlice.loadWhole("/UI/Pixel Art UI borders.png"), 8);
+        BufferedImage target = new BufferedImage(1134, 702, BufferedImage.TYPE_INT_RGB);
+        for (double scale : new double[]{1.0, 1.5}) {
+            for (int[] size : BOX_SIZES) {
+                String label = String.format("%dx%d @%.1fx", size[0], size[1], scale);
+                double direct = measure(target, scale, g -> slice.drawDirect(g, 8, 8, size[0], size[1]));
+                double cached = measure(target, scale, g -> slice.draw(g, 8, 8, size[0], size[1]));
+                System.out.printf("%-16s nine blits %8.1f boxes/ms   cached %8.1f boxes/ms   (%.1fx)%n",
+                        label, direct, cached, cached / direct);
+            }
+        }
+    }
+
+    private interface BoxDraw {
+        void draw(Graphics2D g);
+    }
+
+    private static double measure(BufferedImage target, double scale, BoxDraw box) {
+        Runnable round = () -> {
+            Graphics2D g = target.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.scale(scale, scale);
+            for (int i = 0; i < BOXES_PER_ROUND; i++) {
+                box.draw(g);
+            }
+            g.dispose();
+        };
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        return (BOXES_PER_ROUND * (double) MEASURED_ROUNDS) / Math.max(0.001, elapsedMs);
+    }
+}
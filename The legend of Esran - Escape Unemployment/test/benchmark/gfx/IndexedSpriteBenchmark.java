@@ -0,0 +1,153 @@
+package benchmark.gfx;
+
+import gfx.IndexedSprite;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+
+/**
+ * Measures what palette indexing saves on the bundled sprites and tiles, and how much faster a palette transition
+ * is when it swaps the colour model instead of recolouring every pixel into a fresh ARGB image.
+ */
+public final class IndexedSpriteBenchmark {
+
+    private static final String[] ASSET_DIRS = {"resources/sprites", "resources/tiles"};
+    private static final int TRANSITION_STEPS = 60;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        List<IndexedSprite> indexed = new ArrayList<>();
+        List<BufferedImage> indexedSources = new ArrayList<>();
+        for (String dir : ASSET_DIRS) {
+            Path root = locate(dir);
+            if (root == null) {
+                System.out.println(dir + ": not found");
+                continue;
+            }
+            int images = 0;
+            int indexable = 0;
+            long argbBytes = 0;
+            long indexedBytes = 0;
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(IndexedSpriteBenchmark::isPng)::iterator) {
+                    BufferedImage image = ImageIO.read(file.toFile());
+                    if (image == null) {
+                        continue;
+                    }
+                    images++;
+                    long argb = (long) image.getWidth() * image.getHeight() * 4;
+                    argbBytes += argb;
+                    Optional<IndexedSprite> sprite = IndexedSprite.tryIndex(image);
+                    if (sprite.isPresent()) {
+                        indexable++;
+                        indexedBytes += sprite.get().footprintBytes();
+                        indexed.add(sprite.get());
+                        indexedSources.add(image);
+                    } else {
+                        indexedBytes += argb;
+                    }
+                }
+            }
+            System.out.printf("%-18s %4d images, %4d indexable, ARGB %8.1f KB -> mixed %8.1f KB (%.0f%% saved)%n",
+                    dir, images, indexable, argbBytes / 1024.0, indexedBytes / 1024.0,
+                    argbBytes == 0 ? 0.0 : 100.0 * (argbBytes - indexedBytes) / argbBytes);
+        }
+        if (indexed.isEmpty()) {
+            return;
+        }
+
+        // A room palette transition: every indexable asset fades toward a hue-shifted variant over 60 frames.
+        IntUnaryOperator shift = IndexedSprite.hsbShift(0.1f, 0.9f, 0.85f);
+        List<int[]> targets = new ArrayList<>();
+        for (IndexedSprite sprite : indexed) {
+            int[] palette = sprite.palette();
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = palette[i] == 0 ? 0 : shift.applyAsInt(palette[i]);
+            }
+            targets.add(palette);
+        }
+        double copyMs = measure(() -> {
+            for (int step = 1; step <= TRANSITION_STEPS; step++) {
+                double t = step / (double) TRANSITION_STEPS;
+                for (BufferedImage source : indexedSources) {
+                    recolourCopy(source, shift, t);
+                }
+            }
+        });
+        double swapMs = measure(() -> {
+            for (int step = 1; step <= TRANSITION_STEPS; step++) {
+                double t = step / (double) TRANSITION_STEPS;
+                for (int s = 0; s < indexed.size(); s++) {
+                    IndexedSprite sprite = indexed.get(s);
+                    sprite.withPalette(sprite.blendPalette(targets.get(s), t));
+                }
+            }
+        });
+        System.out.printf("palette transition (%d assets x %d steps): ARGB copy %.2f ms, palette swap %.2f ms "
+                + "(%.1fx)%n", indexed.size(), TRANSITION_STEPS, copyMs, swapMs, copyMs / Math.max(0.001, swapMs));
+    }
+
+    /**
+     * The pre-indexing approach, as in {@code DungeonTextures.tintTile}: a fresh ARGB image with every pixel run
+     * through the colour mapping and blended toward the result.
+     */
+    private static BufferedImage recolourCopy(BufferedImage source, IntUnaryOperator mapping, double t) {
+        int weight = (int) Math.round(t * 256);
+        int w = source.getWidth();
+        int h = source.getHeight();
+        int[] argb = source.getRGB(0, 0, w, h, null, 0, w);
+        for (int i = 0; i < argb.length; i++) {
+            int colour = argb[i];
+            if ((colour >>> 24) == 0) {
+                argb[i] = 0;
+                continue;
+            }
+            int target = mapping.applyAsInt(colour);
+            int result = 0;
+            for (int shift = 0; shift <= 24; shift += 8) {
+                int ca = (colour >>> shift) & 0xFF;
+                int cb = (target >>> shift) & 0xFF;
+                result |= (ca + (((cb - ca) * weight) >> 8)) << shift;
+            }
+            argb[i] = result;
+        }
+        BufferedImage copy = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        copy.setRGB(0, 0, w, h, argb, 0, w);
+        return copy;
+    }
+
+    private static double measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private static boolean isPng(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().toLowerCase().endsWith(".png");
+    }
+
+    private static Path locate(String relative) {
+        for (Path base : new Path[]{Paths.get("src"), Paths.get("")}) {
+            Path candidate = base.resolve(relative);
+            if (Files.isDirectory(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
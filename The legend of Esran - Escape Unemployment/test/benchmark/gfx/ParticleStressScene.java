@@ -0,0 +1,118 @@
+package benchmark.gfx;
+
+import gfx.FrameIntervalMeter;
+import gfx.ParticleEmitter;
+import gfx.ParticleSystem;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * CPU-only stress scene for {@link ParticleSystem}: eight rate-mode fountains keep roughly 50,000 particles alive in
+ * a 1280x720 int raster. By default the scene runs headless and reports update and render time per frame against
+ * the 60 FPS budget; pass {@code --window} to watch it in a Swing window with a live frame-time readout.
+ */
+public final class ParticleStressScene {
+
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final int TARGET_LIVE = 50_000;
+    private static final int FOUNTAINS = 8;
+    private static final double MEAN_LIFE = 1.0;
+    private static final double DT = 1.0 / 60.0;
+    private static final int WARMUP_FRAMES = 240;
+    private static final int MEASURED_FRAMES = 600;
+
+    private final BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private final int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+    private final ParticleSystem particles = new ParticleSystem(TARGET_LIVE + TARGET_LIVE / 5, ParticleSystem.softDot(4));
+    private final ParticleEmitter fountain = ParticleEmitter.builder()
+            .rate(TARGET_LIVE / MEAN_LIFE / FOUNTAINS, Double.MAX_VALUE)
+            .direction(-Math.PI / 2, Math.PI / 3).speed(260, 520).life(MEAN_LIFE * 0.7, MEAN_LIFE * 1.3)
+            .gravity(520).drag(0.4).spawnRadius(4)
+            .colours(0xFFFFFFFF, 0xE0A0E0FF, 0x804080FF, 0x00201060)
+            .build();
+    private final FrameIntervalMeter updateTimes = new FrameIntervalMeter(MEASURED_FRAMES);
+    private final FrameIntervalMeter renderTimes = new FrameIntervalMeter(MEASURED_FRAMES);
+
+    private ParticleStressScene() {
+        for (int f = 0; f < FOUNTAINS; f++) {
+            particles.emit(fountain, WIDTH * (f + 0.5) / FOUNTAINS, HEIGHT - 40);
+        }
+    }
+
+    public static void main(String[] args) {
+        ParticleStressScene scene = new ParticleStressScene();
+        if (Arrays.asList(args).contains("--window") && !GraphicsEnvironment.isHeadless()) {
+            SwingUtilities.invokeLater(scene::showWindow);
+            return;
+        }
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            scene.frame();
+        }
+        scene.updateTimes.reset();
+        scene.renderTimes.reset();
+        int minLive = Integer.MAX_VALUE;
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            scene.frame();
+            minLive = Math.min(minLive, scene.particles.size());
+        }
+        double budget = DT * 1000.0;
+        double p99 = scene.updateTimes.percentileMillis(99) + scene.renderTimes.percentileMillis(99);
+        System.out.printf("particles: %d live (min %d), capacity %d%n",
+                scene.particles.size(), minLive, scene.particles.capacity());
+        System.out.printf("update: avg %.2f ms, p99 %.2f ms%n",
+                scene.updateTimes.averageMillis(), scene.updateTimes.percentileMillis(99));
+        System.out.printf("render: avg %.2f ms, p99 %.2f ms%n",
+                scene.renderTimes.averageMillis(), scene.renderTimes.percentileMillis(99));
+        System.out.printf("frame p99 %.2f ms of %.2f ms budget: %s%n", p99, budget,
+                p99 <= budget ? "sustains 60 FPS" : "over budget");
+    }
+
+    private void frame() {
+        long start = System.nanoTime();
+        particles.update(DT);
+        long updated = System.nanoTime();
+        Arrays.fill(pixels, 0x080810);
+        particles.render(target, 0, 0);
+        long rendered = System.nanoTime();
+        updateTimes.record(updated - start);
+        renderTimes.record(rendered - updated);
+    }
+
+    private void showWindow() {
+        JPanel view = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                g.drawImage(target, 0, 0, getWidth(), getHeight(), null);
+                Graphics2D g2 = (Graphics2D) g;
+                g2.setColor(Color.WHITE);
+                g2.drawString(String.format("%d particles  update %.2f ms  render %.2f ms", particles.size(),
+                        updateTimes.averageMillis(), renderTimes.averageMillis()), 12, 20);
+            }
+        };
+        view.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        view.setBackground(Color.BLACK);
+        JFrame frame = new JFrame("Particle stress scene");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.add(view);
+        frame.pack();
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        new Timer(1000 / 60, e -> {
+            frame();
+            view.repaint();
+        }).start();
+    }
+}
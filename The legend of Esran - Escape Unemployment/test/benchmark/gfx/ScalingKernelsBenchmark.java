@@ -0,0 +1,61 @@
+package benchmark.gfx;
+
+import gfx.ScalingKernels;
+import gfx.ScalingKernels.Filter;
+import util.ResourceLoader;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Cost of the {@link ScalingKernels} against the Graphics2D bicubic path {@code HiDpiScaler} used before, for the
+ * three jobs the game actually scales: a 16 px sprite enlarged 3x, a boss frame shrunk for the battle layout and a
+ * cutscene backdrop fitted to the dialog. Reports milliseconds per image.
+ */
+public final class ScalingKernelsBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    public static void main(String[] args) throws IOException {
+        BufferedImage sprite = ResourceLoader.image("/resources/sprites/Imp/imp_idle_anim_f0.png");
+        BufferedImage boss = ResourceLoader.image("/resources/bosses/goldenKnight/GN6.png");
+        BufferedImage backdrop = ResourceLoader.image("/resources/Cutscene/Dungeon/DungeonAnim2.png");
+
+        int spriteW = sprite.getWidth() * 3;
+        int spriteH = sprite.getHeight() * 3;
+        System.out.printf("sprite %dx%d -> %dx%d%n", sprite.getWidth(), sprite.getHeight(), spriteW, spriteH);
+        report("bicubic multi-step", measure(() -> ScalingKernels.bicubicMultiStep(sprite, spriteW, spriteH, true)));
+        report("nearest 3x", measure(() -> ScalingKernels.nearest(sprite, 3, 3)));
+
+        int bossW = boss.getWidth() * 2 / 5;
+        int bossH = boss.getHeight() * 2 / 5;
+        System.out.printf("boss %dx%d -> %dx%d%n", boss.getWidth(), boss.getHeight(), bossW, bossH);
+        report("bicubic + sharpen", measure(() -> ScalingKernels.bicubicMultiStep(boss, bossW, bossH, true)));
+        report("lanczos-3", measure(() -> ScalingKernels.resample(boss, bossW, bossH, Filter.LANCZOS3)));
+        report("mitchell", measure(() -> ScalingKernels.resample(boss, bossW, bossH, Filter.MITCHELL)));
+
+        int backdropW = 960;
+        int backdropH = backdrop.getHeight() * backdropW / backdrop.getWidth();
+        System.out.printf("backdrop %dx%d -> %dx%d%n", backdrop.getWidth(), backdrop.getHeight(), backdropW, backdropH);
+        report("bicubic multi-step", measure(() -> ScalingKernels.bicubicMultiStep(backdrop, backdropW, backdropH, false)));
+        report("lanczos-3", measure(() -> ScalingKernels.resample(backdrop, backdropW, backdropH, Filter.LANCZOS3)));
+        report("mitchell", measure(() -> ScalingKernels.resample(backdrop, backdropW, backdropH, Filter.MITCHELL)));
+    }
+
+    private static double measure(Supplier<BufferedImage> job) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            job.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            job.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+
+    private static void report(String label, double millis) {
+        System.out.printf("  %-20s %8.3f ms%n", label, millis);
+    }
+}
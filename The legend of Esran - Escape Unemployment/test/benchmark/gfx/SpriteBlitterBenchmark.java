@@ -0,0 +1,100 @@
+package benchmark.gfx;
+
+import gfx.SpriteBlitter;
+import gfx.SpriteBlitter.Mode;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Throughput comparison between {@link SpriteBlitter} and Java2D {@code drawImage} for small sprites drawn into
+ * the 756x468 logical framebuffer. Reports sprites per millisecond for each mode.
+ */
+public final class SpriteBlitterBenchmark {
+
+    private static final int SPRITES_PER_ROUND = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) {
+        BufferedImage target = new BufferedImage(756, 468, BufferedImage.TYPE_INT_RGB);
+        BufferedImage sprite = sprite(24, 24);
+        BufferedImage preSprite = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D pg = preSprite.createGraphics();
+        pg.setComposite(AlphaComposite.Src);
+        pg.drawImage(sprite, 0, 0, null);
+        pg.dispose();
+
+        int[] xs = new int[SPRITES_PER_ROUND];
+        int[] ys = new int[SPRITES_PER_ROUND];
+        Random random = new Random(1);
+        for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+            xs[i] = random.nextInt(target.getWidth() + 24) - 12;
+            ys[i] = random.nextInt(target.getHeight() + 24) - 12;
+        }
+
+        report("java2d drawImage", measure(() -> {
+            Graphics2D g = target.createGraphics();
+            for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+                g.drawImage(sprite, xs[i], ys[i], null);
+            }
+            g.dispose();
+        }));
+        report("java2d flipped", measure(() -> {
+            Graphics2D g = target.createGraphics();
+            for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+                g.drawImage(sprite, xs[i] + 24, ys[i], xs[i], ys[i] + 24, 0, 0, 24, 24, null);
+            }
+            g.dispose();
+        }));
+        for (Mode mode : Mode.values()) {
+            report("blitter " + mode, measure(() -> {
+                for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+                    SpriteBlitter.blit(target, sprite, xs[i], ys[i], mode);
+                }
+            }));
+        }
+        report("blitter BLEND premultiplied", measure(() -> {
+            for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+                SpriteBlitter.blit(target, preSprite, xs[i], ys[i], Mode.BLEND);
+            }
+        }));
+        report("blitter BLEND tinted+flipped", measure(() -> {
+            for (int i = 0; i < SPRITES_PER_ROUND; i++) {
+                SpriteBlitter.blit(target, sprite, xs[i], ys[i], Mode.BLEND, 0xFFFF6060, true);
+            }
+        }));
+    }
+
+    private static double measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        return (SPRITES_PER_ROUND * (double) MEASURED_ROUNDS) / Math.max(0.001, elapsedMs);
+    }
+
+    private static void report(String label, double spritesPerMs) {
+        System.out.printf("%-32s %10.1f sprites/ms%n", label, spritesPerMs);
+    }
+
+    private static BufferedImage sprite(int w, int h) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        double cx = (w - 1) / 2.0;
+        double cy = (h - 1) / 2.0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                double dist = Math.hypot(x - cx, y - cy) / (w / 2.0);
+                int a = dist >= 1 ? 0 : (int) Math.round(255 * Math.min(1, (1 - dist) * 2));
+                image.setRGB(x, y, (a << 24) | ((x * 10) << 16) | ((y * 10) << 8) | 0x40);
+            }
+        }
+        return image;
+    }
+}
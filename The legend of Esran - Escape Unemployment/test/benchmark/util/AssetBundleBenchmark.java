@@ -0,0 +1,91 @@
+package benchmark.util;
+
+import util.AssetBundle;
+import util.AssetPreloader;
+import util.ResourceIndex;
+import util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cold-start image cost with and without an {@link AssetBundle}: decodes every image in the preload manifest from
+ * its PNG, then maps a bundle of the same images and copies them out. Reports milliseconds per full startup set.
+ */
+public final class AssetBundleBenchmark {
+
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        ResourceIndex index = ResourceLoader.index();
+        List<String> paths = new ArrayList<>();
+        for (AssetPreloader.Entry entry : AssetPreloader.readManifest(AssetPreloader.DEFAULT_MANIFEST)) {
+            String path = entry.resourcePath().startsWith("/") ? entry.resourcePath().substring(1) : entry.resourcePath();
+            if (index.stat(path) != null) {
+                paths.add(path);
+            }
+        }
+
+        List<AssetBundle.Source> sources = new ArrayList<>(paths.size());
+        long pixels = 0;
+        for (String path : paths) {
+            BufferedImage image = decode(index, path);
+            ResourceIndex.Stat stat = index.stat(path);
+            sources.add(new AssetBundle.Source(path, image, stat.size(), stat.lastModified()));
+            pixels += (long) image.getWidth() * image.getHeight();
+        }
+        Path file = Files.createTempFile("esran-benchmark", ".bundle");
+        try {
+            AssetBundle.write(file, sources);
+            double png = measure(() -> {
+                for (String path : paths) {
+                    decode(index, path);
+                }
+            });
+            double bundled = measure(() -> {
+                AssetBundle bundle = AssetBundle.open(file);
+                for (String path : paths) {
+                    if (bundle.image(path, index.stat(path)) == null) {
+                        throw new IllegalStateException("Bundle is missing " + path);
+                    }
+                }
+            });
+            System.out.printf("%d startup images, %.1f MB decoded%n", paths.size(), pixels * 4 / (1024.0 * 1024.0));
+            System.out.printf("PNG decode %8.1f ms   bundle read %8.1f ms   (%.1fx)%n", png, bundled, png / bundled);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private interface Startup {
+        void run() throws IOException;
+    }
+
+    private static BufferedImage decode(ResourceIndex index, String path) throws IOException {
+        try (InputStream in = index.open(path)) {
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                throw new IOException("Unreadable image " + path);
+            }
+            return image;
+        }
+    }
+
+    private static double measure(Startup startup) throws IOException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            startup.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            startup.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+    }
+}
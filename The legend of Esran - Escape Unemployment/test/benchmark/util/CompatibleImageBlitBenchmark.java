@@ -0,0 +1,122 @@
+package benchmark.util;
+
+import util.CompatibleImages;
+import util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * What {@link CompatibleImages} buys when drawing: blits a translucent sprite and an opaque floor tile, each in the
+ * layout the PNG decoder produced and in the layouts it is converted to, onto the software back buffer and, when a
+ * screen is available, onto an accelerated one. Reports thousands of blits per second.
+ */
+public final class CompatibleImageBlitBenchmark {
+
+    private static final int WARMUP_BLITS = 20_000;
+    private static final int MEASURED_BLITS = 100_000;
+    private static final int TARGET_WIDTH = 960;
+    private static final int TARGET_HEIGHT = 540;
+
+    public static void main(String[] args) throws IOException {
+        BufferedImage sprite = decode("/resources/sprites/Imp/imp_idle_anim_f0.png");
+        BufferedImage tile = decode("/resources/tiles/floor/floor_5.png");
+
+        BufferedImage software = new BufferedImage(TARGET_WIDTH, TARGET_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        report("software back buffer", software, sprite, tile);
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            VolatileImage screen = config.createCompatibleVolatileImage(TARGET_WIDTH, TARGET_HEIGHT, Transparency.OPAQUE);
+            report("accelerated back buffer", screen, sprite, tile);
+        } else {
+            System.out.println("(headless: no screen layout or accelerated back buffer to compare)");
+        }
+    }
+
+    private static void report(String target, Image backBuffer, BufferedImage sprite, BufferedImage tile) {
+        System.out.println(target);
+        for (Map.Entry<String, BufferedImage> variant : variants(sprite).entrySet()) {
+            System.out.printf("  sprite %-22s %10.1f k blits/s%n", variant.getKey(), blitRate(backBuffer, variant.getValue()));
+        }
+        for (Map.Entry<String, BufferedImage> variant : variants(tile).entrySet()) {
+            System.out.printf("  tile   %-22s %10.1f k blits/s%n", variant.getKey(), blitRate(backBuffer, variant.getValue()));
+        }
+    }
+
+    /** The decoded image, the common hand-made copies and the converted ones, labelled by layout. */
+    private static Map<String, BufferedImage> variants(BufferedImage decoded) {
+        Map<String, BufferedImage> variants = new LinkedHashMap<>();
+        variants.put("decoded " + typeName(decoded.getType()), decoded);
+        variants.put("INT_ARGB copy", copy(decoded, BufferedImage.TYPE_INT_ARGB));
+        BufferedImage standard = CompatibleImages.convert(decoded, CompatibleImages.Layout.STANDARD);
+        variants.put("standard " + typeName(standard.getType()), standard);
+        BufferedImage display = CompatibleImages.forDisplay(decoded);
+        if (display != decoded) {
+            variants.put("screen " + typeName(display.getType()), display);
+        }
+        return variants;
+    }
+
+    private static double blitRate(Image backBuffer, BufferedImage image) {
+        Graphics2D g = (Graphics2D) backBuffer.getGraphics();
+        try {
+            int spanX = TARGET_WIDTH - image.getWidth();
+            int spanY = TARGET_HEIGHT - image.getHeight();
+            for (int i = 0; i < WARMUP_BLITS; i++) {
+                g.drawImage(image, (i * 37) % spanX, (i * 53) % spanY, null);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_BLITS; i++) {
+                g.drawImage(image, (i * 37) % spanX, (i * 53) % spanY, null);
+            }
+            return MEASURED_BLITS / ((System.nanoTime() - start) / 1_000_000.0);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /** Straight from the PNG decoder, as {@code ResourceLoader} read images before they were converted. */
+    private static BufferedImage decode(String path) throws IOException {
+        try (InputStream in = ResourceLoader.open(path)) {
+            if (in == null) {
+                throw new IOException("Missing benchmark image " + path);
+            }
+            return ImageIO.read(in);
+        }
+    }
+
+    private static BufferedImage copy(BufferedImage image, int type) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    private static String typeName(int type) {
+        return switch (type) {
+            case BufferedImage.TYPE_INT_RGB -> "INT_RGB";
+            case BufferedImage.TYPE_INT_ARGB -> "INT_ARGB";
+            case BufferedImage.TYPE_INT_ARGB_PRE -> "INT_ARGB_PRE";
+            case BufferedImage.TYPE_4BYTE_ABGR -> "4BYTE_ABGR";
+            case BufferedImage.TYPE_3BYTE_BGR -> "3BYTE_BGR";
+            case BufferedImage.TYPE_BYTE_INDEXED -> "BYTE_INDEXED";
+            case BufferedImage.TYPE_CUSTOM -> "CUSTOM";
+            default -> "type " + type;
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package benchmark.util;
+
+import util.ImageDecoder;
+import util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk decode of every cutscene frame, and of every sprite frame for comparison, held in memory so only decoding is
+ * measured: {@link ImageIO#read} as {@code ResourceLoader} used before, the pooled {@link ImageDecoder} reader, the
+ * pooled reader decoding into a recycled image as the streaming backdrop does, and a quarter-size subsampled
+ * preview. Every variant is warmed up before any is measured. Reports milliseconds per pass over the whole set.
+ */
+public final class ImageDecoderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @FunctionalInterface
+    private interface Pass {
+        void run(List<byte[]> files) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Pass> passes = new LinkedHashMap<>();
+        passes.put("ImageIO.read", all -> {
+            for (byte[] file : all) {
+                ImageIO.read(new ByteArrayInputStream(file));
+            }
+        });
+        passes.put("pooled reader", all -> {
+            for (byte[] file : all) {
+                ImageDecoder.read(new ByteArrayInputStream(file), null, 1);
+            }
+        });
+        passes.put("pooled + recycled", all -> {
+            BufferedImage reuse = null;
+            for (byte[] file : all) {
+                reuse = ImageDecoder.read(new ByteArrayInputStream(file), reuse, 1);
+            }
+        });
+        passes.put("1/4 preview", all -> {
+            for (byte[] file : all) {
+                ImageDecoder.read(new ByteArrayInputStream(file), null, 4);
+            }
+        });
+
+        run("/resources/Cutscene", passes);
+        run("/resources/sprites", passes);
+    }
+
+    private static void run(String root, Map<String, Pass> passes) throws IOException {
+        List<byte[]> files = new ArrayList<>();
+        collect(root, files);
+        long bytes = 0;
+        for (byte[] file : files) {
+            bytes += file.length;
+        }
+        System.out.printf("%s: %d images, %.1f MB of PNG%n", root, files.size(), bytes / 1_048_576.0);
+        for (Pass pass : passes.values()) {
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                pass.run(files);
+            }
+        }
+        for (Map.Entry<String, Pass> pass : passes.entrySet()) {
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                pass.getValue().run(files);
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0 / MEASURED_ROUNDS;
+            System.out.printf("  %-20s %9.1f ms%n", pass.getKey(), millis);
+        }
+    }
+
+    private static void collect(String directory, List<byte[]> files) throws IOException {
+        for (String path : ResourceLoader.listPng(directory)) {
+            try (InputStream in = ResourceLoader.open(path)) {
+                files.add(in.readAllBytes());
+            }
+        }
+        for (String child : ResourceLoader.listDirectories(directory)) {
+            collect(child, files);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package integration.battle.scene;
+
+import Battle.scene.BossAssetPrefetcher;
+import Battle.scene.BossBattlePanel;
+import Battle.scene.BossBattlePanel.BossKind;
+import util.ResourceLoader;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.FutureTask;
+
+public final class BossAssetPrefetchIntegrationTest {
+
+    public static void main(String[] args) throws Exception {
+        BossAssetPrefetcher prefetcher = BossAssetPrefetcher.shared();
+
+        long beforePrefetch = ResourceLoader.decodedImages();
+        prefetcher.prefetch(BossKind.GRIM).join();
+        if (ResourceLoader.decodedImages() == beforePrefetch || !prefetcher.isReady(BossKind.GRIM)) {
+            throw new AssertionError("Prefetching should decode the boss assets ahead of the battle");
+        }
+        long decodesInBattle = decodesWhileCreating(BossKind.GRIM);
+        if (decodesInBattle != 0) {
+            throw new AssertionError("A prefetched battle decoded " + decodesInBattle + " images on the event thread");
+        }
+        if (prefetcher.isReady(BossKind.GRIM)) {
+            throw new AssertionError("The battle should take the prefetched assets");
+        }
+        if (decodesWhileCreating(BossKind.GOLLUM) == 0) {
+            throw new AssertionError("Without a prefetch the battle should have to load its own assets");
+        }
+
+        CompletableFuture<Void> abandoned = prefetcher.prefetch(BossKind.TOXIC_TREE);
+        prefetcher.cancel(BossKind.TOXIC_TREE);
+        try {
+            abandoned.join();
+            throw new AssertionError("A cancelled prefetch should not complete normally");
+        } catch (CancellationException | CompletionException expected) {
+            // The player left before the battle.
+        }
+        if (prefetcher.isReady(BossKind.TOXIC_TREE)) {
+            throw new AssertionError("Cancelled assets should not be kept for the battle");
+        }
+        System.out.println("BossAssetPrefetchIntegrationTest passed");
+    }
+
+    /** Build a battle against {@code kind} on the event thread, returning how many images that decoded. */
+    private static long decodesWhileCreating(BossKind kind) throws Exception {
+        FutureTask<long[]> task = new FutureTask<>(() -> {
+            long before = ResourceLoader.decodedImages();
+            BossBattlePanel panel = BossBattlePanel.create(kind, outcome -> { });
+            long decoded = ResourceLoader.decodedImages() - before;
+            panel.shutdown();
+            return new long[] {decoded};
+        });
+        SwingUtilities.invokeAndWait(task);
+        return task.get()[0];
+    }
+}
@@ -1,13 +1,11 @@
 package integration.battle.scene;
 
 import Battle.scene.BossBattlePanel;
-import gfx.HiDpiScaler;
+import gfx.ImageCache;
 
 import javax.swing.SwingUtilities;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.lang.reflect.Field;
-import java.util.Map;
 import java.util.concurrent.FutureTask;
 
 public final class BossBattlePanelPrewarmIntegrationTest {
@@ -31,15 +29,8 @@ public final class BossBattlePanelPrewarmIntegrationTest {
                 }
             });
 
-            Field cacheField = HiDpiScaler.class.getDeclaredField("CACHE");
-            cacheField.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            Map<?, ?> cache = (Map<?, ?>) cacheField.get(null);
-            int cacheSize;
-            synchronized (cache) {
-                cacheSize = cache.size();
-            }
-            if (cacheSize <= 0) {
+            ImageCache.Stats scaled = ImageCache.shared().namespace("hidpi-scaled").stats();
+            if (scaled.entries() <= 0) {
                 throw new AssertionError("Expected HiDPI cache to contain entries after paint");
             }
             System.out.println("BossBattlePanelPrewarmIntegrationTest passed");
@@ -0,0 +1,87 @@
+package unit.battle;
+
+import Battle.core.SimpleAi;
+import Battle.core.SimpleAi.ScoredMove;
+import Battle.domain.Affinity;
+import Battle.domain.BaseMoves;
+import Battle.domain.Fighter;
+import Battle.domain.Stats;
+import Battle.domain.Status;
+import Battle.domain.Technique;
+
+import java.util.List;
+import java.util.Random;
+
+public final class SimpleAiTest {
+
+    private static final int TURNS = 4_000;
+
+    public static void main(String[] args) {
+        scoresSkipMovesOnCooldown();
+        likelyMovesPredictTheChoice();
+        System.out.println("SimpleAiTest passed");
+    }
+
+    private static void scoresSkipMovesOnCooldown() {
+        Fighter boss = new Fighter("Boss", Affinity.STONE, new Stats(120, 10, 6, 5));
+        Fighter hero = new Fighter("Hero", Affinity.EMBER, new Stats(100, 10, 5, 6));
+        boss.cd.put(BaseMoves.THORN_BIND, 1);
+        List<ScoredMove> scores = SimpleAi.scores(boss, hero, 0);
+        if (scores.size() != BaseMoves.MOVES.length - 1
+                || scores.stream().anyMatch(move -> move.technique() == BaseMoves.THORN_BIND)) {
+            throw new AssertionError("A technique on cooldown cannot be chosen, so it should not be scored");
+        }
+        for (int i = 1; i < scores.size(); i++) {
+            if (scores.get(i).score() > scores.get(i - 1).score()) {
+                throw new AssertionError("Scores should come best first");
+            }
+        }
+        List<Technique> likely = SimpleAi.likelyMoves(boss, hero, 0, 2);
+        if (likely.isEmpty() || likely.size() > 2 || likely.get(0) != scores.get(0).technique()) {
+            throw new AssertionError("The likeliest move should be the best scored one");
+        }
+    }
+
+    /**
+     * Over many varied turns, the boss should almost always pick one of the moves predicted for it: every pick except
+     * the occasional purely random one lies within the variance of the best score.
+     */
+    private static void likelyMovesPredictTheChoice() {
+        Random random = new Random(7);
+        int predicted = 0;
+        int inTopTwo = 0;
+        for (int turn = 0; turn < TURNS; turn++) {
+            Fighter boss = new Fighter("Boss", Affinity.values()[random.nextInt(4)], new Stats(120, 10, 6, 5));
+            Fighter hero = new Fighter("Hero", Affinity.values()[random.nextInt(4)], new Stats(100, 10, 5, 6));
+            boss.hp = 1 + random.nextInt(boss.base.hp);
+            hero.hp = 1 + random.nextInt(hero.base.hp);
+            hero.status = Status.values()[random.nextInt(Status.values().length)];
+            boss.lastUsed = BaseMoves.MOVES[random.nextInt(BaseMoves.MOVES.length)];
+            if (random.nextInt(4) == 0) {
+                boss.cd.put(BaseMoves.MOVES[random.nextInt(BaseMoves.MOVES.length)], 1);
+            }
+            if (random.nextInt(6) == 0) {
+                hero.charging = BaseMoves.FLAME_LASH;
+            }
+            int momentum = random.nextInt(7) - 3;
+
+            List<Technique> likely = SimpleAi.likelyMoves(boss, hero, momentum, BaseMoves.MOVES.length);
+            List<Technique> topTwo = SimpleAi.likelyMoves(boss, hero, momentum, 2);
+            Technique chosen = SimpleAi.choose(boss, hero, momentum);
+            if (likely.contains(chosen)) {
+                predicted++;
+            }
+            if (topTwo.contains(chosen)) {
+                inTopTwo++;
+            }
+        }
+        if (predicted < TURNS * 0.85) {
+            throw new AssertionError("Only " + predicted + " of " + TURNS + " choices were among the likely moves");
+        }
+        if (inTopTwo < TURNS * 0.75) {
+            throw new AssertionError("Only " + inTopTwo + " of " + TURNS + " choices were among the two likeliest");
+        }
+        System.out.printf("SimpleAiTest: likely moves covered %.1f%% of choices, the top two %.1f%%%n",
+                100.0 * predicted / TURNS, 100.0 * inTopTwo / TURNS);
+    }
+}
@@ -0,0 +1,131 @@
+package unit.battle.scene;
+
+import Battle.scene.NineSlice;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+public final class NineSliceCacheTest {
+
+    public static void main(String[] args) {
+        cachedDrawMatchesDirectDraw();
+        repeatedSizesReuseOneEntry();
+        leastRecentlyUsedSizeIsEvicted();
+        rotatedDrawsBypassTheCache();
+        System.out.println("NineSliceCacheTest passed");
+    }
+
+    private static void cachedDrawMatchesDirectDraw() {
+        NineSlice slice = new NineSlice(skin(), 6);
+        BufferedImage direct = new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage cached = new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D dg = direct.createGraphics();
+        Graphics2D wg = new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        Graphics2D cg = cached.createGraphics();
+        try {
+            slice.drawDirect(dg, 7, 5, 100, 64);
+            // The first draw builds the cached box, the second paints from it.
+            slice.draw(wg, 0, 0, 100, 64);
+            slice.draw(cg, 7, 5, 100, 64);
+        } finally {
+            dg.dispose();
+            wg.dispose();
+            cg.dispose();
+        }
+        for (int y = 0; y < direct.getHeight(); y++) {
+            for (int x = 0; x < direct.getWidth(); x++) {
+                if (direct.getRGB(x, y) != cached.getRGB(x, y)) {
+                    throw new AssertionError("Cached box differs at " + x + "," + y + ": "
+                            + Integer.toHexString(direct.getRGB(x, y)) + " vs " + Integer.toHexString(cached.getRGB(x, y)));
+                }
+            }
+        }
+    }
+
+    private static void repeatedSizesReuseOneEntry() {
+        NineSlice slice = new NineSlice(skin(), 6);
+        BufferedImage target = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            for (int i = 0; i < 20; i++) {
+                slice.draw(g, i, i, 90, 40);
+            }
+            if (slice.cachedSizes() != 1) {
+                throw new AssertionError("One box size drawn at many positions should cache once: " + slice.cachedSizes());
+            }
+            g.scale(2, 2);
+            slice.draw(g, 0, 0, 90, 40);
+            if (slice.cachedSizes() != 2) {
+                throw new AssertionError("A new device scale needs its own entry: " + slice.cachedSizes());
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void leastRecentlyUsedSizeIsEvicted() {
+        NineSlice slice = new NineSlice(skin(), 6);
+        BufferedImage target = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            // Fill the cache's 8 entries with widths 20..27, then touch 20 so 21 is the least recently used.
+            for (int w = 20; w < 28; w++) {
+                slice.draw(g, 0, 0, w, 30);
+            }
+            slice.draw(g, 0, 0, 20, 30);
+            if (slice.cachedSizes() != 8 || slice.renders() != 8) {
+                throw new AssertionError("Eight sizes should fill the cache with one render each: "
+                        + slice.cachedSizes() + " cached, " + slice.renders() + " renders");
+            }
+            for (int w = 28; w < 36; w++) {
+                slice.draw(g, 0, 0, w, 30);
+                // Keep the touched size recent while the new ones push the others out.
+                slice.draw(g, 0, 0, 20, 30);
+            }
+            if (slice.cachedSizes() != 8 || slice.renders() != 16) {
+                throw new AssertionError("Each new size should render once and evict one: "
+                        + slice.cachedSizes() + " cached, " + slice.renders() + " renders");
+            }
+            slice.draw(g, 0, 0, 20, 30);
+            if (slice.renders() != 16) {
+                throw new AssertionError("The recently used size should still be cached");
+            }
+            slice.draw(g, 0, 0, 21, 30);
+            if (slice.renders() != 17) {
+                throw new AssertionError("The least recently used size should have been evicted and rendered again");
+            }
+            slice.clearCache();
+            if (slice.cachedSizes() != 0) {
+                throw new AssertionError("clearCache left " + slice.cachedSizes() + " sizes");
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void rotatedDrawsBypassTheCache() {
+        NineSlice slice = new NineSlice(skin(), 6);
+        BufferedImage target = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.rotate(0.3);
+            slice.draw(g, 40, 10, 80, 40);
+        } finally {
+            g.dispose();
+        }
+        if (slice.cachedSizes() != 0) {
+            throw new AssertionError("Rotated boxes must be drawn piece by piece, not cached");
+        }
+    }
+
+    private static BufferedImage skin() {
+        BufferedImage img = new BufferedImage(24, 24, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 24; y++) {
+            for (int x = 0; x < 24; x++) {
+                boolean border = x < 6 || y < 6 || x >= 18 || y >= 18;
+                img.setRGB(x, y, border ? 0xFF000000 | (x * 10) << 16 | (y * 10) << 8 : 0xC0203040);
+            }
+        }
+        return img;
+    }
+}
@@ -0,0 +1,173 @@
+package unit.cutscene;
+
+import World.cutscene.CutsceneBackgrounds;
+import World.cutscene.StreamingBackdrop;
+import gfx.AnimatedSprite;
+import gfx.ScalingKernels;
+import util.ResourceLoader;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public final class StreamingBackdropTest {
+
+    private static final String DUNGEON = "/resources/Cutscene/Dungeon";
+    private static final int WIDTH = 480;
+    private static final int HEIGHT = 320;
+    private static final int FRAME_TICKS = 6;
+    private static final long DECODE_WAIT_MILLIS = 10_000L;
+
+    public static void main(String[] args) throws Exception {
+        List<String> dungeon = AnimatedSprite.framePathsInDirectory(DUNGEON);
+        if (dungeon.size() < 2) {
+            throw new AssertionError("Expected the dungeon cutscene frames under " + DUNGEON);
+        }
+        Dimension size = ResourceLoader.imageSize(dungeon.get(0));
+        decodeRecyclesTheRaster(dungeon);
+        longSequencePlaysInOrder(dungeon, size);
+        shortSequenceStaysResident(dungeon, size);
+        if (!(CutsceneBackgrounds.dungeonCaptivity() instanceof StreamingBackdrop)) {
+            throw new AssertionError("The dungeon cutscene should stream its frames");
+        }
+        System.out.println("StreamingBackdropTest passed");
+    }
+
+    private static void decodeRecyclesTheRaster(List<String> frames) throws Exception {
+        BufferedImage first = ResourceLoader.decode(frames.get(0), null);
+        BufferedImage second = ResourceLoader.decode(frames.get(1), first);
+        if (second != first) {
+            throw new AssertionError("A same-sized frame should be decoded into the raster passed in");
+        }
+        BufferedImage fresh = ResourceLoader.decode(frames.get(1), null);
+        for (int y = 0; y < fresh.getHeight(); y += 37) {
+            for (int x = 0; x < fresh.getWidth(); x += 41) {
+                if (fresh.getRGB(x, y) != second.getRGB(x, y)) {
+                    throw new AssertionError("Decoding into a recycled raster changed pixel " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Three passes over the dungeon frames as one fifteen-frame sequence, stepped tick by tick with the decoder given
+     * time to catch up before every frame change: every frame must be ready and correct when it comes up, and the
+     * ring must not grow with the sequence. How the decoder keeps up in real time is measured by
+     * {@code StreamingBackdropBenchmark}, since it depends on the machine.
+     */
+    private static void longSequencePlaysInOrder(List<String> dungeon, Dimension size) throws Exception {
+        List<String> sequence = new ArrayList<>();
+        for (int pass = 0; pass < 3; pass++) {
+            sequence.addAll(dungeon);
+        }
+        StreamingBackdrop backdrop = new StreamingBackdrop(sequence, size, FRAME_TICKS, StreamingBackdrop.DEFAULT_CAPACITY);
+        List<BufferedImage> painted = play(backdrop, sequence.size());
+
+        if (backdrop.lateFrames() != 0) {
+            throw new AssertionError(backdrop.lateFrames() + " frames were not ready although the decoder had caught up");
+        }
+        if (backdrop.allocatedRasters() > StreamingBackdrop.DEFAULT_CAPACITY) {
+            throw new AssertionError("Ring allocated " + backdrop.allocatedRasters() + " rasters for "
+                    + StreamingBackdrop.DEFAULT_CAPACITY + " slots");
+        }
+        if (backdrop.decodedFrames() < sequence.size()) {
+            throw new AssertionError("A sequence longer than the ring should be decoded as it plays");
+        }
+        ScalingKernels.Workspace oneFrame = new ScalingKernels.Workspace();
+        ScalingKernels.resample(ResourceLoader.decode(sequence.get(0), null),
+                new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ScalingKernels.Filter.MITCHELL, oneFrame);
+        if (backdrop.scalingAllocations() != oneFrame.allocations()) {
+            throw new AssertionError("Scaling " + sequence.size() + " frames allocated " + backdrop.scalingAllocations()
+                    + " taps and buffers where one frame needs " + oneFrame.allocations());
+        }
+        for (int i = 0; i < painted.size(); i++) {
+            BufferedImage expected = expectedPaint(sequence.get(i));
+            if (!samePixels(expected, painted.get(i))) {
+                throw new AssertionError("Frame " + i + " painted something other than " + sequence.get(i));
+            }
+        }
+    }
+
+    /**
+     * Paint {@code frames} frames tick by tick, waiting for the decoder before each frame change, and return a copy
+     * of what was painted as each frame came up.
+     */
+    private static List<BufferedImage> play(StreamingBackdrop backdrop, int frames) {
+        BufferedImage canvas = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        List<BufferedImage> painted = new ArrayList<>();
+        for (long tick = 0; tick < (long) frames * FRAME_TICKS; tick++) {
+            if (tick > 0 && tick % FRAME_TICKS == 0 && !backdrop.awaitFilled(DECODE_WAIT_MILLIS)) {
+                throw new AssertionError("Decoder did not fill the ring within " + DECODE_WAIT_MILLIS + " ms");
+            }
+            Graphics2D g = canvas.createGraphics();
+            try {
+                backdrop.paint(g, WIDTH, HEIGHT, tick);
+            } finally {
+                g.dispose();
+            }
+            if (tick % FRAME_TICKS == 0) {
+                painted.add(copy(canvas));
+            }
+        }
+        return painted;
+    }
+
+    private static void shortSequenceStaysResident(List<String> dungeon, Dimension size) {
+        List<String> sequence = dungeon.subList(0, 3);
+        StreamingBackdrop backdrop = new StreamingBackdrop(sequence, size, 1, StreamingBackdrop.DEFAULT_CAPACITY);
+        BufferedImage canvas = new BufferedImage(WIDTH / 2, HEIGHT / 2, BufferedImage.TYPE_INT_RGB);
+        for (long tick = 0; tick < 60; tick++) {
+            Graphics2D g = canvas.createGraphics();
+            try {
+                backdrop.paint(g, canvas.getWidth(), canvas.getHeight(), tick);
+            } finally {
+                g.dispose();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        if (backdrop.decodedFrames() != sequence.size()) {
+            throw new AssertionError("A sequence that fits the ring should be decoded once, not "
+                    + backdrop.decodedFrames() + " times");
+        }
+    }
+
+    /** What the backdrop should paint for {@code frame}: the frame scaled to the canvas, under the dimming wash. */
+    private static BufferedImage expectedPaint(String frame) throws Exception {
+        BufferedImage scaled = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        ScalingKernels.resample(ResourceLoader.decode(frame, null), scaled, ScalingKernels.Filter.MITCHELL);
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = expected.createGraphics();
+        try {
+            g.drawImage(scaled, 0, 0, null);
+            g.setComposite(AlphaComposite.SrcOver.derive(0.18f));
+            g.setColor(new Color(0, 0, 0, 200));
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+        } finally {
+            g.dispose();
+        }
+        return expected;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+        BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        copy.setData(image.getRaster());
+        return copy;
+    }
+
+    private static boolean samePixels(BufferedImage a, BufferedImage b) {
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
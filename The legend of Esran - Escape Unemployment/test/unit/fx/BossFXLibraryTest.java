@@ -0,0 +1,90 @@
+package unit.fx;
+
+import fx.BossFXLibrary;
+import fx.FrameAnim;
+import gfx.ImageCache;
+import util.ResourceLoader;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+public final class BossFXLibraryTest {
+
+    private static final String ATTACK = "goldenKnightAttack1";
+
+    public static void main(String[] args) {
+        prefetchedAttacksPlayWithoutLoading();
+        prefetchSurvivesAFullCache();
+        System.out.println("BossFXLibraryTest passed");
+    }
+
+    private static void prefetchedAttacksPlayWithoutLoading() {
+        ImageCache.shared().namespace("boss-attacks").clear();
+        if (BossFXLibrary.isCached(ATTACK)) {
+            throw new AssertionError("Clearing the cache should drop the attack");
+        }
+        long prefetched = BossFXLibrary.prefetched();
+        BossFXLibrary.prefetch(List.of(ATTACK, ATTACK, "noSuchAttack")).join();
+        if (!BossFXLibrary.isCached(ATTACK) || BossFXLibrary.prefetched() != prefetched + 1) {
+            throw new AssertionError("Prefetching should load the attack once into the cache");
+        }
+
+        long decoded = ResourceLoader.decodedImages();
+        FrameAnim anim = BossFXLibrary.attack(ATTACK, 12.0);
+        if (anim.duration() <= 0 || ResourceLoader.decodedImages() != decoded) {
+            throw new AssertionError("A prefetched attack should play without decoding anything");
+        }
+
+        BossFXLibrary.prefetch(List.of(ATTACK)).join();
+        if (BossFXLibrary.prefetched() != prefetched + 1 || ResourceLoader.decodedImages() != decoded) {
+            throw new AssertionError("Prefetching a cached attack should only mark it recently used");
+        }
+    }
+
+    /**
+     * With the shared budget full of images used every frame, a never-played attack would lose the admission
+     * comparison; a prefetch must keep it anyway, pinned until the attack is played.
+     */
+    private static void prefetchSurvivesAFullCache() {
+        ImageCache cache = ImageCache.shared();
+        ImageCache.Namespace attacks = cache.namespace("boss-attacks");
+        ImageCache.Namespace hot = cache.namespace("boss-fx-test-hot");
+        long budget = cache.getBudgetBytes();
+        try {
+            attacks.clear();
+            cache.setBudgetBytes(8L * 1024 * 1024);
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 8; i++) {
+                    hot.image("frame" + i, () -> new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB));
+                }
+            }
+            long prefetched = BossFXLibrary.prefetched();
+            long rejections = attacks.stats().rejections();
+            BossFXLibrary.prefetch(List.of(ATTACK)).join();
+            if (!BossFXLibrary.isCached(ATTACK) || attacks.stats().pinnedEntries() != 1
+                    || attacks.stats().rejections() != rejections || BossFXLibrary.prefetched() != prefetched + 1) {
+                throw new AssertionError("A prefetched attack should be kept and pinned in a full cache: "
+                        + attacks.stats());
+            }
+            for (int i = 0; i < 8; i++) {
+                hot.image("frame" + i, () -> new BufferedImage(512, 512, BufferedImage.TYPE_INT_ARGB));
+            }
+
+            long decoded = ResourceLoader.decodedImages();
+            BossFXLibrary.attack(ATTACK, 12.0);
+            if (ResourceLoader.decodedImages() != decoded || attacks.stats().pinnedEntries() != 0) {
+                throw new AssertionError("Playing the attack should use the prefetched frames and unpin them: "
+                        + attacks.stats());
+            }
+
+            BossFXLibrary.prefetch(List.of(ATTACK)).join();
+            BossFXLibrary.releasePrefetched();
+            if (attacks.stats().pinnedEntries() != 0) {
+                throw new AssertionError("Releasing prefetched attacks should unpin them: " + attacks.stats());
+            }
+        } finally {
+            cache.setBudgetBytes(budget);
+            hot.clear();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package unit.gfx;
+
+import gfx.FrameScheduler;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+public final class FrameSchedulerTest {
+    private static volatile double sink;
+
+    public static void main(String[] args) throws Exception {
+        FrameScheduler scheduler = new FrameScheduler();
+        AtomicInteger continuousTicks = new AtomicInteger();
+        AtomicInteger idleTicks = new AtomicInteger();
+        AtomicInteger demandTicks = new AtomicInteger();
+        FrameScheduler.Ticker[] tickers = new FrameScheduler.Ticker[3];
+
+        onEdt(() -> {
+            tickers[0] = scheduler.register("continuous", 100, dt -> {
+                continuousTicks.incrementAndGet();
+                busyWork();
+            });
+            tickers[1] = scheduler.register("idle", 100, dt -> idleTicks.incrementAndGet());
+            tickers[1].setIdleFps(4);
+            tickers[1].setMode(FrameScheduler.Mode.IDLE);
+            tickers[2] = scheduler.register("on-demand", 100, dt -> demandTicks.incrementAndGet());
+            tickers[2].setMode(FrameScheduler.Mode.ON_DEMAND);
+            for (FrameScheduler.Ticker t : tickers) {
+                t.start();
+            }
+        });
+        Thread.sleep(600);
+
+        onEdt(() -> {
+            if (continuousTicks.get() < 25) {
+                throw new AssertionError("100 fps ticker should run ~60 times in 600ms but ran " + continuousTicks.get());
+            }
+            if (idleTicks.get() < 1 || idleTicks.get() > 4) {
+                throw new AssertionError("4 fps idle ticker should run ~2 times in 600ms but ran " + idleTicks.get());
+            }
+            if (demandTicks.get() != 0) {
+                throw new AssertionError("On-demand ticker ran without a request: " + demandTicks.get());
+            }
+            List<FrameScheduler.Usage> usage = scheduler.usage();
+            if (usage.size() != 3 || usage.get(0).cpuNanos() <= 0 || usage.get(0).ticks() != continuousTicks.get()) {
+                throw new AssertionError("Usage should report CPU time per ticker: " + usage);
+            }
+            tickers[0].stop();
+            tickers[1].stop();
+            tickers[2].requestFrame();
+        });
+        Thread.sleep(150);
+
+        onEdt(() -> {
+            if (demandTicks.get() != 1) {
+                throw new AssertionError("requestFrame should produce exactly one tick but produced " + demandTicks.get());
+            }
+            if (scheduler.isClockRunning()) {
+                throw new AssertionError("Clock must stop when no ticker is due");
+            }
+            if (scheduler.usage().size() != 1) {
+                throw new AssertionError("Stopped tickers should no longer be held: " + scheduler.usage());
+            }
+        });
+        long wakeUps = scheduler.wakeUps();
+        Thread.sleep(200);
+        if (scheduler.wakeUps() != wakeUps) {
+            throw new AssertionError("Idle scheduler woke up " + (scheduler.wakeUps() - wakeUps) + " times");
+        }
+
+        // Switching an idle ticker to continuous should speed it up straight away.
+        int before = idleTicks.get();
+        onEdt(() -> {
+            tickers[1].start();
+            tickers[1].setMode(FrameScheduler.Mode.CONTINUOUS);
+        });
+        Thread.sleep(200);
+        onEdt(() -> {
+            if (idleTicks.get() - before < 8) {
+                throw new AssertionError("Mode change to continuous did not take effect: "
+                        + (idleTicks.get() - before) + " ticks in 200ms");
+            }
+            tickers[1].cancel();
+            tickers[1].start();
+            if (tickers[1].isRunning()) {
+                throw new AssertionError("A cancelled ticker must ignore start()");
+            }
+            tickers[2].cancel();
+        });
+
+        System.out.println("FrameSchedulerTest passed");
+    }
+
+    /** Burn CPU for the ticker to be charged with; the volatile write keeps the loop from being optimised away. */
+    private static void busyWork() {
+        long end = System.nanoTime() + 200_000L;
+        double sum = 0;
+        while (System.nanoTime() < end) {
+            sum += Math.sqrt(sum + 1);
+        }
+        sink = sum;
+    }
+
+    private static void onEdt(Runnable action) throws Exception {
+        SwingUtilities.invokeAndWait(action);
+    }
+}
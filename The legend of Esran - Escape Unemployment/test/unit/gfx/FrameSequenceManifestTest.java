@@ -0,0 +1,90 @@
+package unit.gfx;
+
+import gfx.AnimatedSprite;
+import gfx.FrameSequenceManifest;
+import gfx.SpriteFactory;
+import util.ResourceLoader;
+
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class FrameSequenceManifestTest {
+
+    private static final String IMP_IDLE = "/resources/sprites/Imp/imp_idle_anim_f";
+
+    public static void main(String[] args) throws Exception {
+        FrameSequenceManifest derived = FrameSequenceManifest.fromIndex(ResourceLoader.index());
+        List<String> imp = derived.frames(IMP_IDLE);
+        List<String> expected = List.of(IMP_IDLE + "0.png", IMP_IDLE + "1.png", IMP_IDLE + "2.png", IMP_IDLE + "3.png");
+        if (!expected.equals(imp)) {
+            throw new AssertionError("Imp idle frames should be f0..f3 but were " + imp);
+        }
+        if (!derived.frames("resources/sprites/Imp/no_such_anim_f").isEmpty()) {
+            throw new AssertionError("A covered prefix without frames should resolve to no frames");
+        }
+        if (derived.frames("/Sprites/elsewhere/anim_f") != null) {
+            throw new AssertionError("Prefixes outside the index must be left to probing");
+        }
+
+        roundTrip(derived);
+        noFailedProbes();
+
+        System.out.println("FrameSequenceManifestTest passed");
+    }
+
+    private static void roundTrip(FrameSequenceManifest derived) throws Exception {
+        Path dir = Files.createTempDirectory("frame-manifest-test");
+        Path file = dir.resolve("frames.manifest");
+        Path stale = dir.resolve("stale.manifest");
+        try {
+            derived.write(file);
+            FrameSequenceManifest read = FrameSequenceManifest.read(file, ResourceLoader.index());
+            if (read == null || read.size() != derived.size() || !derived.frames(IMP_IDLE).equals(read.frames(IMP_IDLE))) {
+                throw new AssertionError("Written manifest did not read back the same sequences");
+            }
+            List<String> lines = new ArrayList<>(Files.readAllLines(file, StandardCharsets.UTF_8));
+            lines.set(0, lines.get(0) + "0");
+            Files.write(stale, lines, StandardCharsets.UTF_8);
+            if (FrameSequenceManifest.read(stale, ResourceLoader.index()) != null) {
+                throw new AssertionError("A manifest generated from other files must be rejected");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(stale);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void noFailedProbes() throws Exception {
+        long missed = ResourceLoader.missedLookups();
+        long unindexed = ResourceLoader.unindexedLookups();
+        List<AnimatedSprite> sprites = List.of(SpriteFactory.wizardMale(16), SpriteFactory.knightMale(16),
+                SpriteFactory.imp(16), SpriteFactory.ogre(16), SpriteFactory.skeleton(16),
+                SpriteFactory.pumpkinDude(16), SpriteFactory.bigZombie(16));
+        BufferedImage[] frames = AnimatedSprite.loadFramesFromPrefix(IMP_IDLE);
+        if (frames.length != 4 || sprites.stream().anyMatch(s -> s.frame() == null)) {
+            throw new AssertionError("Sprites should still load their frames: imp has " + frames.length);
+        }
+        if (ResourceLoader.missedLookups() != missed || ResourceLoader.unindexedLookups() != unindexed) {
+            throw new AssertionError("Loading frame sequences probed for missing files "
+                    + (ResourceLoader.missedLookups() - missed) + " times");
+        }
+
+        if (ResourceLoader.open("Sprites/elsewhere/anim_f0.png") != null) {
+            throw new AssertionError("Unexpected resource outside the index");
+        }
+        long afterFirstMiss = ResourceLoader.unindexedLookups();
+        for (int i = 0; i < 5; i++) {
+            if (ResourceLoader.open("/Sprites/elsewhere/anim_f0.png") != null) {
+                throw new AssertionError("Known-missing resource appeared");
+            }
+        }
+        if (ResourceLoader.unindexedLookups() != afterFirstMiss) {
+            throw new AssertionError("A failed probe was repeated " + (ResourceLoader.unindexedLookups() - afterFirstMiss) + " times");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package unit.gfx;
+
+import gfx.AnimatedSprite;
+import gfx.GifAnimation;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public final class GifAnimationTest {
+    private static final int RED = 0xFFFF0000;
+    private static final int GREEN = 0xFF00FF00;
+    private static final int BLUE = 0xFF0000FF;
+    private static final int CLEAR = 0;
+
+    /** One frame to write: a solid block at an offset, shown for a delay and then disposed of. */
+    private record Spec(int x, int y, int w, int h, int argb, int delayCs, String disposal) { }
+
+    public static void main(String[] args) throws IOException {
+        framesAreComposited();
+        delaysPickTheFrame();
+        memoryFollowsTheCacheNotTheLength();
+        smallLoopsStayResident();
+        spritesPlayLongLoopsWithoutBaking();
+        System.out.println("GifAnimationTest passed");
+    }
+
+    private static void framesAreComposited() throws IOException {
+        byte[] gif = write(16, 16,
+                new Spec(0, 0, 16, 16, RED, 10, "none"),
+                new Spec(4, 4, 4, 4, GREEN, 10, "restoreToPrevious"),
+                new Spec(8, 8, 4, 4, BLUE, 10, "restoreToBackgroundColor"),
+                new Spec(0, 0, 2, 2, GREEN, 10, "none"));
+        GifAnimation animation = GifAnimation.read(gif, 2, 0);
+        if (animation.frameCount() != 4 || animation.width() != 16 || animation.height() != 16) {
+            throw new AssertionError("Frame count and canvas size should come from the metadata");
+        }
+        // Asked for out of order, so frames are rebuilt from the start after leaving the cache.
+        for (int pass = 0; pass < 2; pass++) {
+            for (int index : new int[]{3, 1, 2, 0}) {
+                check(animation.frame(index), index);
+            }
+        }
+        if (animation.residentFrames() > 2) {
+            throw new AssertionError("No more frames should be kept than the cache holds");
+        }
+    }
+
+    private static void check(BufferedImage frame, int index) {
+        if (frame.getWidth() != 16 || frame.getHeight() != 16) {
+            throw new AssertionError("Frame " + index + " should cover the whole canvas");
+        }
+        expect(frame, index, 15, 15, RED);
+        expect(frame, index, 5, 5, index == 1 ? GREEN : RED);
+        // Frame 2's own pixels, then cleared to transparent by its disposal.
+        expect(frame, index, 9, 9, index == 2 ? BLUE : index == 3 ? CLEAR : RED);
+        expect(frame, index, 1, 1, index == 3 ? GREEN : RED);
+    }
+
+    private static void expect(BufferedImage frame, int index, int x, int y, int argb) {
+        int actual = frame.getRGB(x, y);
+        if ((argb == CLEAR ? actual >>> 24 : actual) != argb) {
+            throw new AssertionError("Frame " + index + " at " + x + "," + y + " was "
+                    + Integer.toHexString(actual) + " not " + Integer.toHexString(argb));
+        }
+    }
+
+    private static void delaysPickTheFrame() throws IOException {
+        byte[] gif = write(4, 4,
+                new Spec(0, 0, 4, 4, RED, 10, "none"),
+                new Spec(0, 0, 4, 4, GREEN, 30, "none"),
+                new Spec(0, 0, 4, 4, BLUE, 0, "none"));
+        GifAnimation animation = GifAnimation.read(gif, 1, 0);
+        // No delay plays at the browsers' 100 ms.
+        if (animation.delayMillis(1) != 300 || animation.delayMillis(2) != 100 || animation.durationMillis() != 500) {
+            throw new AssertionError("Delays should come from the metadata");
+        }
+        if (animation.frameAt(0) != 0 || animation.frameAt(99) != 0 || animation.frameAt(100) != 1
+                || animation.frameAt(399) != 1 || animation.frameAt(400) != 2 || animation.frameAt(500) != 0
+                || animation.frameAt(1_150) != 1) {
+            throw new AssertionError("Elapsed time should map onto frames by their delays, looping");
+        }
+    }
+
+    private static void memoryFollowsTheCacheNotTheLength() throws IOException {
+        Spec[] specs = new Spec[60];
+        for (int i = 0; i < specs.length; i++) {
+            specs[i] = new Spec(i % 8, i % 8, 8, 8, i % 2 == 0 ? RED : BLUE, 5, "none");
+        }
+        GifAnimation animation = GifAnimation.read(write(16, 16, specs), 3, 16 * 16 * 4);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < specs.length; i++) {
+                animation.frame(i);
+                if (animation.residentFrames() > 3) {
+                    throw new AssertionError("A long GIF should keep only the cached frames");
+                }
+            }
+        }
+        if (animation.decodedFrames() != 2L * specs.length) {
+            throw new AssertionError("Playing forward should decode each frame once a pass but decoded "
+                    + animation.decodedFrames());
+        }
+    }
+
+    private static void smallLoopsStayResident() throws IOException {
+        byte[] gif = write(8, 8,
+                new Spec(0, 0, 8, 8, RED, 10, "none"),
+                new Spec(2, 2, 4, 4, GREEN, 10, "none"),
+                new Spec(0, 0, 2, 2, BLUE, 10, "none"));
+        GifAnimation played = GifAnimation.read(gif, 1, 1024 * 1024);
+        for (int pass = 0; pass < 3; pass++) {
+            for (int i = 0; i < 3; i++) {
+                played.frame(i);
+            }
+        }
+        if (played.decodedFrames() != 3 || played.residentFrames() != 3) {
+            throw new AssertionError("A loop within the bake budget should be decoded once and kept");
+        }
+
+        GifAnimation baked = GifAnimation.read(gif, 1, 0);
+        BufferedImage[] frames = baked.bake();
+        if (frames.length != 3 || baked.decodedFrames() != 3 || baked.frame(1) != frames[1]
+                || frames[2].getRGB(3, 3) != GREEN || frames[2].getRGB(1, 1) != BLUE) {
+            throw new AssertionError("Baking should composite every frame once and keep them");
+        }
+    }
+
+    private static void spritesPlayLongLoopsWithoutBaking() throws IOException {
+        // 64 frames of 256x256 come to 16 MiB composited, twice the sprite's bake budget.
+        Spec[] specs = new Spec[64];
+        for (int i = 0; i < specs.length; i++) {
+            specs[i] = new Spec(0, 0, 256, 256, i % 2 == 0 ? RED : BLUE, 5, "none");
+        }
+        GifAnimation gif = GifAnimation.read(write(256, 256, specs), 2, 0);
+        AnimatedSprite sprite = new AnimatedSprite(256, 256);
+        sprite.setFps(10);
+        sprite.add(AnimatedSprite.State.IDLE, gif);
+        if (sprite.maxFrameWidth() != 256 || sprite.maxFrameHeight() != 256) {
+            throw new AssertionError("A streamed GIF should still size the sprite");
+        }
+        for (int step = 0; step < 2 * specs.length; step++) {
+            int expected = step % 2 == 0 ? RED : BLUE;
+            if (sprite.frame().getRGB(128, 128) != expected) {
+                throw new AssertionError("Step " + step + " showed the wrong frame");
+            }
+            if (gif.residentFrames() > 2) {
+                throw new AssertionError("A GIF over the bake budget should keep only its cache but held "
+                        + gif.residentFrames());
+            }
+            sprite.update(0.1);
+        }
+
+        GifAnimation small = GifAnimation.read(write(8, 8,
+                new Spec(0, 0, 8, 8, RED, 10, "none"),
+                new Spec(0, 0, 8, 8, GREEN, 10, "none")), 1, 0);
+        AnimatedSprite baked = new AnimatedSprite(8, 8);
+        baked.add(AnimatedSprite.State.IDLE, small);
+        int[] seen = {0};
+        baked.forEachFrame(frame -> seen[0]++);
+        if (seen[0] != 2 || small.residentFrames() != 2) {
+            throw new AssertionError("A GIF within the bake budget should be baked into the sprite's frames");
+        }
+    }
+
+    /** An animated GIF of solid blocks, written with the metadata the specs ask for. */
+    private static byte[] write(int width, int height, Spec... specs) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (Spec spec : specs) {
+                BufferedImage block = new BufferedImage(spec.w(), spec.h(), BufferedImage.TYPE_INT_RGB);
+                for (int y = 0; y < spec.h(); y++) {
+                    for (int x = 0; x < spec.w(); x++) {
+                        block.setRGB(x, y, spec.argb());
+                    }
+                }
+                ImageTypeSpecifier type = ImageTypeSpecifier.createFromRenderedImage(block);
+                IIOMetadata metadata = writer.getDefaultImageMetadata(type, null);
+                String format = metadata.getNativeMetadataFormatName();
+                IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+                IIOMetadataNode descriptor = child(root, "ImageDescriptor");
+                descriptor.setAttribute("imageLeftPosition", Integer.toString(spec.x()));
+                descriptor.setAttribute("imageTopPosition", Integer.toString(spec.y()));
+                IIOMetadataNode control = child(root, "GraphicControlExtension");
+                control.setAttribute("disposalMethod", spec.disposal());
+                control.setAttribute("delayTime", Integer.toString(spec.delayCs()));
+                metadata.setFromTree(format, root);
+                writer.writeToSequence(new IIOImage(block, null, metadata), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        byte[] gif = bytes.toByteArray();
+        // The writer sizes the logical screen from the first frame; widen it to the whole canvas.
+        gif[6] = (byte) width;
+        gif[7] = (byte) (width >>> 8);
+        gif[8] = (byte) height;
+        gif[9] = (byte) (height >>> 8);
+        return gif;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return (IIOMetadataNode) node;
+            }
+        }
+        IIOMetadataNode created = new IIOMetadataNode(name);
+        root.appendChild(created);
+        return created;
+    }
+}
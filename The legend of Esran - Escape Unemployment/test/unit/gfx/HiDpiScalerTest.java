@@ -0,0 +1,149 @@
+package unit.gfx;
+
+import gfx.HiDpiScaler;
+import gfx.ImageCache;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public final class HiDpiScalerTest {
+
+    private static final ImageCache.Namespace SCALED = ImageCache.shared().namespace("hidpi-scaled");
+
+    public static void main(String[] args) throws Exception {
+        concurrentCallersShareOneJob();
+        placeholderUntilReady();
+        synchronousCallerRunsQueuedJob();
+        System.out.println("HiDpiScalerTest passed");
+    }
+
+    private static void concurrentCallersShareOneJob() throws Exception {
+        BufferedImage source = sprite(512, 512);
+        int threads = 8;
+        long missesBefore = SCALED.stats().misses();
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<BufferedImage>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return HiDpiScaler.scale(source, 97, 97);
+                }));
+            }
+            CompletableFuture<BufferedImage> async = HiDpiScaler.scaleAsync(source, 97, 97, true);
+            start.countDown();
+            BufferedImage first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<BufferedImage> result : results) {
+                if (result.get(10, TimeUnit.SECONDS) != first) {
+                    throw new AssertionError("Concurrent callers should all receive the same scaled copy");
+                }
+            }
+            if (async.get(10, TimeUnit.SECONDS) != first || first.getWidth() != 97 || first.getHeight() != 97) {
+                throw new AssertionError("Async caller should share the synchronous callers' 97x97 copy");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        long scaled = SCALED.stats().misses() - missesBefore;
+        if (scaled != 1) {
+            throw new AssertionError("Expected one scale job for " + (threads + 1) + " callers but ran " + scaled);
+        }
+    }
+
+    private static void placeholderUntilReady() throws Exception {
+        BufferedImage source = sprite(640, 480);
+        CountDownLatch ready = new CountDownLatch(1);
+        BufferedImage first = HiDpiScaler.scaleOrPlaceholder(source, 1280, 960, false, ready::countDown);
+        if (first != source && (first.getWidth() != 1280 || first.getHeight() != 960)) {
+            throw new AssertionError("Expected either the source as a placeholder or the finished copy");
+        }
+        if (first == source && !ready.await(10, TimeUnit.SECONDS)) {
+            throw new AssertionError("Background scale never reported completion");
+        }
+        BufferedImage later = HiDpiScaler.scaleOrPlaceholder(source, 1280, 960, false, null);
+        if (later == source || later.getWidth() != 1280 || later.getHeight() != 960) {
+            throw new AssertionError("Finished copy should replace the placeholder");
+        }
+        if (HiDpiScaler.scaleAsync(source, 640, 480, true).getNow(null) != source
+                || HiDpiScaler.scaleAsync(null, 10, 10, true).getNow(source) != null) {
+            throw new AssertionError("Trivial requests should complete immediately");
+        }
+    }
+
+    /**
+     * With every worker stuck on another image, a synchronous caller must not wait behind the queue for a job that
+     * {@code scaleAsync} queued for the same copy, but run it itself and share the result with the async caller.
+     */
+    private static void synchronousCallerRunsQueuedJob() throws Exception {
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        CountDownLatch blocked = new CountDownLatch(workers);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<BufferedImage>> blockers = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            blockers.add(HiDpiScaler.scaleAsync(new BlockingSprite(blocked, release), 300 + i, 300, true));
+        }
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            if (!blocked.await(10, TimeUnit.SECONDS)) {
+                throw new AssertionError("Workers never picked up the blocking jobs");
+            }
+            BufferedImage source = sprite(200, 200);
+            CompletableFuture<BufferedImage> queued = HiDpiScaler.scaleAsync(source, 123, 123, true);
+            BufferedImage scaled = caller.submit(() -> HiDpiScaler.scale(source, 123, 123))
+                    .get(10, TimeUnit.SECONDS);
+            if (scaled.getWidth() != 123 || queued.get(1, TimeUnit.SECONDS) != scaled) {
+                throw new AssertionError("The queued job should have run on the synchronous caller's thread");
+            }
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+        for (CompletableFuture<BufferedImage> blocker : blockers) {
+            blocker.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /** A sprite whose pixels cannot be read on a scaler worker until {@code release} opens. */
+    private static final class BlockingSprite extends BufferedImage {
+        private final CountDownLatch blocked;
+        private final CountDownLatch release;
+
+        BlockingSprite(CountDownLatch blocked, CountDownLatch release) {
+            super(200, 200, BufferedImage.TYPE_INT_ARGB);
+            this.blocked = blocked;
+            this.release = release;
+        }
+
+        @Override
+        public WritableRaster getRaster() {
+            if (Thread.currentThread().getName().startsWith("hidpi-scaler") && release.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.getRaster();
+        }
+    }
+
+    private static BufferedImage sprite(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,263 @@
+package unit.gfx;
+
+import gfx.ImageCache;
+
+import javax.management.ObjectName;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class ImageCacheTest {
+
+    /** A 16x16 ARGB image is charged 1 KiB. */
+    private static final long TILE_BYTES = 16 * 16 * 4;
+
+    public static void main(String[] args) throws Exception {
+        leastRecentlyUsedEviction();
+        coldNewcomerRejected();
+        newWorkingSetTakesOver();
+        windowKeepsNewcomers();
+        clearedWeakKeysAreDropped();
+        pinnedEntriesSurvive();
+        shrinkingBudgetEvicts();
+        concurrentHitsAreCounted();
+        sharedCacheIsPublished();
+        System.out.println("ImageCacheTest passed");
+    }
+
+    private static void leastRecentlyUsedEviction() {
+        ImageCache cache = new ImageCache(3 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        for (String key : new String[]{"a", "b", "c"}) {
+            ns.image(key, () -> tile(loads));
+        }
+        ns.image("a", () -> tile(loads));
+        // "d" has been asked for as often as "b", the coldest entry, so it must be asked for again to get in.
+        ns.image("d", () -> tile(loads));
+        ns.image("d", () -> tile(loads));
+        if (!ns.contains("a") || ns.contains("b") || !ns.contains("c") || !ns.contains("d")) {
+            throw new AssertionError("Expected the least recently used entry b to be evicted");
+        }
+        if (cache.getUsedBytes() != 3 * TILE_BYTES || cache.getEntries() != 3) {
+            throw new AssertionError("Cache should be exactly full but holds " + cache.getUsedBytes() + " bytes");
+        }
+        ImageCache.Stats stats = ns.stats();
+        if (stats.hits() != 1 || stats.misses() != 5 || stats.evictions() != 1 || stats.rejections() != 1
+                || stats.bytes() != 3 * TILE_BYTES || loads.get() != 5) {
+            throw new AssertionError("Unexpected statistics " + stats + " after " + loads.get() + " loads");
+        }
+    }
+
+    private static void coldNewcomerRejected() {
+        ImageCache cache = new ImageCache(2 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            ns.image("hot", () -> tile(loads));
+            ns.image("warm", () -> tile(loads));
+        }
+        BufferedImage once = ns.image("scan", () -> tile(loads));
+        if (once == null || ns.contains("scan") || !ns.contains("hot") || !ns.contains("warm")) {
+            throw new AssertionError("A one-off image must be returned but not displace frequently used ones");
+        }
+        for (int i = 0; i < 6; i++) {
+            ns.image("scan", () -> tile(loads));
+        }
+        if (!ns.contains("scan")) {
+            throw new AssertionError("An image requested more often than the coldest entry should be admitted");
+        }
+    }
+
+    /** Once the cache is full of a hot set, a different set requested every frame must take over within a few dozen frames. */
+    private static void newWorkingSetTakesOver() {
+        ImageCache cache = new ImageCache(10 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        for (int frame = 0; frame < 200; frame++) {
+            for (int i = 0; i < 10; i++) {
+                ns.image("old" + i, () -> tile(loads));
+            }
+        }
+        int frames = 0;
+        while (!allCached(ns, "new", 10)) {
+            if (++frames > 32) {
+                throw new AssertionError("New working set still not admitted after 32 frames: " + ns.stats());
+            }
+            for (int i = 0; i < 10; i++) {
+                ns.image("new" + i, () -> tile(loads));
+            }
+        }
+        if (cache.getUsedBytes() > cache.getBudgetBytes()) {
+            throw new AssertionError("Cache overran its budget while the working set changed");
+        }
+    }
+
+    /** With a budget large enough for an admission window, a newcomer is kept at least until the window moves on. */
+    private static void windowKeepsNewcomers() {
+        int tiles = 400;
+        ImageCache cache = new ImageCache(tiles * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < tiles; i++) {
+                ns.image("hot" + i, () -> tile(loads));
+            }
+        }
+        ns.image("once", () -> tile(loads));
+        if (!ns.contains("once") || cache.getUsedBytes() > cache.getBudgetBytes()) {
+            throw new AssertionError("A newcomer should be kept in the window without overrunning the budget");
+        }
+        for (int i = 0; i < 8; i++) {
+            ns.image("scan" + i, () -> tile(loads));
+        }
+        if (ns.contains("once") || ns.stats().rejections() == 0 || !allCached(ns, "hot", tiles - 4)) {
+            throw new AssertionError("One-off images leaving the window must not displace the hot set: "
+                    + ns.stats());
+        }
+    }
+
+    private static void clearedWeakKeysAreDropped() {
+        ImageCache cache = new ImageCache(2 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("scaled");
+        AtomicInteger loads = new AtomicInteger();
+        Handle first = new Handle();
+        Handle second = new Handle();
+        for (int i = 0; i < 20; i++) {
+            ns.image(first, () -> tile(loads));
+            ns.image(second, () -> tile(loads));
+        }
+        first.cleared = true;
+        ns.image("fresh", () -> tile(loads));
+        if (!ns.contains("fresh") || ns.contains(first) || !ns.contains(second)) {
+            throw new AssertionError("An entry whose key was cleared should make room before any live entry");
+        }
+        second.cleared = true;
+        for (int i = 0; i < 200 && ns.stats().entries() > 1; i++) {
+            ns.image("fresh", () -> tile(loads));
+        }
+        if (ns.contains(second) || ns.stats().entries() != 1) {
+            throw new AssertionError("Cleared keys should be purged as the sketch ages: " + ns.stats());
+        }
+    }
+
+    private static boolean allCached(ImageCache.Namespace ns, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!ns.contains(prefix + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Stands in for a key holding its subject weakly; {@link #cleared} is set by hand instead of by the collector. */
+    private static final class Handle implements ImageCache.WeakKey {
+        volatile boolean cleared;
+
+        @Override
+        public boolean cleared() {
+            return cleared;
+        }
+    }
+
+    private static void pinnedEntriesSurvive() {
+        ImageCache cache = new ImageCache(2 * TILE_BYTES);
+        ImageCache.Namespace pinned = cache.namespace("portraits");
+        ImageCache.Namespace other = cache.namespace("effects");
+        AtomicInteger loads = new AtomicInteger();
+        pinned.image("hero", () -> tile(loads));
+        if (!pinned.pin("hero") || pinned.pin("absent")) {
+            throw new AssertionError("Only cached entries can be pinned");
+        }
+        for (int i = 0; i < 3; i++) {
+            for (int request = 0; request < 2 * (i + 1); request++) {
+                other.image("fx" + i, () -> tile(loads));
+            }
+        }
+        if (!pinned.contains("hero") || pinned.stats().evictions() != 0 || cache.getPinnedBytes() != TILE_BYTES) {
+            throw new AssertionError("Pinned entry was evicted: " + pinned.stats());
+        }
+        if (other.stats().entries() != 1 || other.stats().evictions() == 0) {
+            throw new AssertionError("Other namespaces should share the remaining budget: " + other.stats());
+        }
+        pinned.unpin("hero");
+        pinned.invalidate("hero");
+        if (pinned.contains("hero") || cache.getPinnedBytes() != 0 || pinned.stats().bytes() != 0) {
+            throw new AssertionError("Invalidated entry still accounted for: " + pinned.stats());
+        }
+    }
+
+    private static void shrinkingBudgetEvicts() {
+        ImageCache cache = new ImageCache(4 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        for (String key : new String[]{"a", "b", "c", "d"}) {
+            ns.image(key, () -> tile(loads));
+        }
+        ns.pin("a");
+        cache.setBudgetBytes(2 * TILE_BYTES);
+        if (!ns.contains("a") || ns.contains("b") || ns.contains("c") || !ns.contains("d")
+                || cache.getUsedBytes() > cache.getBudgetBytes()) {
+            throw new AssertionError("Shrinking the budget should evict unpinned entries from the cold end");
+        }
+        BufferedImage[] frames = ns.frames("strip", () -> new BufferedImage[]{tile(loads), tile(loads)});
+        if (frames.length != 2 || ImageCache.bytesOf(frames) != 2 * TILE_BYTES) {
+            throw new AssertionError("Frame arrays should be charged for every frame");
+        }
+        long rgb = ImageCache.bytesOf(new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB));
+        long bgr = ImageCache.bytesOf(new BufferedImage(16, 16, BufferedImage.TYPE_3BYTE_BGR));
+        long indexed = ImageCache.bytesOf(new BufferedImage(16, 16, BufferedImage.TYPE_BYTE_INDEXED));
+        long binary = ImageCache.bytesOf(new BufferedImage(16, 16, BufferedImage.TYPE_BYTE_BINARY));
+        if (rgb != TILE_BYTES || bgr != 16 * 16 * 3 || indexed != 16 * 16 || binary != 16 * 16 / 8) {
+            throw new AssertionError("Images should be charged for their storage, not their colour depth: INT_RGB "
+                    + rgb + ", 3BYTE_BGR " + bgr + ", BYTE_INDEXED " + indexed + ", BYTE_BINARY " + binary);
+        }
+        cache.clear();
+        if (cache.getEntries() != 0 || cache.getUsedBytes() != 0 || ns.stats().entries() != 0) {
+            throw new AssertionError("Clearing should drop pinned entries too");
+        }
+    }
+
+    private static void concurrentHitsAreCounted() throws Exception {
+        ImageCache cache = new ImageCache(8 * TILE_BYTES);
+        ImageCache.Namespace ns = cache.namespace("tiles");
+        AtomicInteger loads = new AtomicInteger();
+        BufferedImage cached = ns.image("shared", () -> tile(loads));
+        Thread[] readers = new Thread[4];
+        AtomicInteger wrong = new AtomicInteger();
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    if (ns.image("shared", () -> tile(loads)) != cached) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (wrong.get() != 0 || loads.get() != 1 || ns.stats().hits() != 20_000 || ns.stats().misses() != 1) {
+            throw new AssertionError("Concurrent hits should all be served from the cache: " + ns.stats());
+        }
+        if (ns.imageIfPresent("shared") != cached || ns.imageIfPresent("absent") != null
+                || ns.stats().misses() != 1) {
+            throw new AssertionError("imageIfPresent should never load or count a miss");
+        }
+    }
+
+    private static void sharedCacheIsPublished() throws Exception {
+        ImageCache.shared().namespace("image-cache-test");
+        if (!ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName("esran:type=ImageCache"))
+                || !ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("esran:type=ImageCache,namespace=" + ObjectName.quote("image-cache-test")))) {
+            throw new AssertionError("Shared image cache statistics should be visible over JMX");
+        }
+    }
+
+    private static BufferedImage tile(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,93 @@
+package unit.gfx;
+
+import gfx.IndexedSprite;
+
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+
+public final class IndexedSpriteTest {
+
+    public static void main(String[] args) {
+        BufferedImage source = new BufferedImage(16, 8, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int argb = (x + y) % 5 == 0 ? 0x00123456 : 0xFF000000 | (x * 16) << 16 | (y * 30) << 8 | 0x40;
+                source.setRGB(x, y, argb);
+            }
+        }
+
+        IndexedSprite sprite = IndexedSprite.tryIndex(source)
+                .orElseThrow(() -> new AssertionError("A 128-pixel sprite must fit in 256 colours"));
+        BufferedImage image = sprite.image();
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int expected = source.getRGB(x, y);
+                if ((expected >>> 24) == 0) {
+                    if ((image.getRGB(x, y) >>> 24) != 0) {
+                        throw new AssertionError("Transparent pixels must stay transparent at " + x + "," + y);
+                    }
+                } else if (image.getRGB(x, y) != expected) {
+                    throw new AssertionError(String.format("Pixel %d,%d expected %08X got %08X",
+                            x, y, expected, image.getRGB(x, y)));
+                }
+            }
+        }
+
+        BufferedImage inverted = sprite.recolour(argb -> argb ^ 0x00FFFFFF);
+        if (inverted.getRaster().getDataBuffer() != image.getRaster().getDataBuffer()) {
+            throw new AssertionError("Recoloured views must share the indexed raster");
+        }
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int expected = source.getRGB(x, y);
+                if ((expected >>> 24) != 0 && inverted.getRGB(x, y) != (expected ^ 0x00FFFFFF)) {
+                    throw new AssertionError("Recolour must apply the mapping to every palette entry");
+                }
+            }
+        }
+
+        int[] target = sprite.palette();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = target[i] == 0 ? 0 : 0xFFFFFFFF;
+        }
+        int[] start = sprite.blendPalette(target, 0.0);
+        int[] end = sprite.blendPalette(target, 1.0);
+        for (int i = 0; i < target.length; i++) {
+            if (start[i] != sprite.palette()[i] || end[i] != target[i]) {
+                throw new AssertionError("Palette blends must hit both endpoints exactly");
+            }
+        }
+
+        IndexedSprite scaled = sprite.scaled(48, 24);
+        BufferedImage big = scaled.image();
+        if (big.getType() != BufferedImage.TYPE_BYTE_INDEXED || big.getWidth() != 48 || big.getHeight() != 24) {
+            throw new AssertionError("Scaling must keep an indexed image at the requested size");
+        }
+        for (int y = 0; y < big.getHeight(); y++) {
+            for (int x = 0; x < big.getWidth(); x++) {
+                if (big.getRGB(x, y) != image.getRGB(x / 3, y / 3)) {
+                    throw new AssertionError("Scaling must be nearest-neighbour at " + x + "," + y);
+                }
+            }
+        }
+        IndexedSprite wrapped = IndexedSprite.of(big)
+                .orElseThrow(() -> new AssertionError("An indexed sprite image must wrap back into a sprite"));
+        if (wrapped.image().getRaster().getDataBuffer() != big.getRaster().getDataBuffer()) {
+            throw new AssertionError("Wrapping must share the indexed raster");
+        }
+        if (IndexedSprite.of(source).isPresent() || sprite.isOpaque()) {
+            throw new AssertionError("ARGB images must not wrap, and a sprite with clear pixels is not opaque");
+        }
+
+        BufferedImage noisy = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < 32 * 32; i++) {
+            noisy.setRGB(i % 32, i / 32, 0xFF000000 | i * 7919);
+        }
+        Optional<IndexedSprite> rejected = IndexedSprite.tryIndex(noisy);
+        if (rejected.isPresent()) {
+            throw new AssertionError("Images with more than 256 colours must stay on the ARGB path");
+        }
+
+        System.out.println("IndexedSpriteTest passed");
+    }
+}
@@ -0,0 +1,193 @@
+package unit.gfx;
+
+import gfx.ParticleEmitter;
+import gfx.ParticleSystem;
+import gfx.SpriteBlitter;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+public final class ParticleSystemTest {
+
+    public static void main(String[] args) {
+        burstsSpawnAndExpire();
+        capacityIsEnforced();
+        rateEmittersStreamForTheirDuration();
+        gravityAndDragShapeMotion();
+        densityScalesBursts();
+        rendersIntoRasterAndJava2D();
+        java2DHonoursTheEmitterBlend();
+        System.out.println("ParticleSystemTest passed");
+    }
+
+    private static void burstsSpawnAndExpire() {
+        ParticleSystem system = new ParticleSystem(256, ParticleSystem.softDot(4));
+        ParticleEmitter burst = ParticleEmitter.builder().burst(40).life(0.5, 0.5).build();
+        int spawned = system.emit(burst, 10, 10);
+        if (spawned != 40 || system.size() != 40) {
+            throw new AssertionError("Burst should spawn 40 particles but spawned " + spawned + "/" + system.size());
+        }
+        system.update(0.25);
+        if (system.size() != 40) {
+            throw new AssertionError("Particles expired early: " + system.size());
+        }
+        system.update(0.3);
+        if (system.size() != 0) {
+            throw new AssertionError("Particles outlived their lifetime: " + system.size());
+        }
+    }
+
+    private static void capacityIsEnforced() {
+        ParticleSystem system = new ParticleSystem(50, ParticleSystem.softDot(4));
+        ParticleEmitter burst = ParticleEmitter.builder().burst(30).build();
+        system.emit(burst, 0, 0);
+        int second = system.emit(burst, 0, 0);
+        if (second != 20 || system.size() != 50 || system.dropped() != 10) {
+            throw new AssertionError("Expected 20 spawned and 10 dropped but got " + second + " and " + system.dropped());
+        }
+    }
+
+    private static void rateEmittersStreamForTheirDuration() {
+        ParticleSystem system = new ParticleSystem(1024, ParticleSystem.softDot(4));
+        ParticleEmitter stream = ParticleEmitter.builder().rate(100, 0.5).life(10, 10).build();
+        system.emit(stream, 0, 0);
+        for (int i = 0; i < 60; i++) {
+            system.update(1.0 / 60.0);
+        }
+        if (system.size() != 50) {
+            throw new AssertionError("100/s for 0.5s should spawn 50 particles but spawned " + system.size());
+        }
+        if (system.activeStreams() != 0) {
+            throw new AssertionError("Stream should have stopped after its duration");
+        }
+    }
+
+    private static void gravityAndDragShapeMotion() {
+        ParticleEmitter falling = ParticleEmitter.builder().burst(1).speed(0, 0).life(5, 5).gravity(100)
+                .colours(0xFFFFFFFF).build();
+        ParticleSystem free = new ParticleSystem(4, ParticleSystem.softDot(3));
+        free.emit(falling, 20, 0);
+        for (int i = 0; i < 30; i++) {
+            free.update(1.0 / 30.0);
+        }
+        // Semi-implicit Euler over one second of 100 px/s^2 lands a little past the analytic 50 px.
+        int fallenTo = brightestRow(free, 64);
+        if (fallenTo < 48 || fallenTo > 56) {
+            throw new AssertionError("Particle under gravity should fall ~50px in 1s but is at row " + fallenTo);
+        }
+
+        ParticleEmitter dragged = ParticleEmitter.builder().burst(1).speed(0, 0).life(5, 5).gravity(100).drag(50)
+                .colours(0xFFFFFFFF).build();
+        ParticleSystem damped = new ParticleSystem(4, ParticleSystem.softDot(3));
+        damped.emit(dragged, 20, 0);
+        for (int i = 0; i < 30; i++) {
+            damped.update(1.0 / 30.0);
+        }
+        if (brightestRow(damped, 64) >= fallenTo / 2) {
+            throw new AssertionError("Heavy drag should hold the particle well above the free-falling one");
+        }
+    }
+
+    private static void densityScalesBursts() {
+        ParticleSystem system = new ParticleSystem(256, ParticleSystem.softDot(4));
+        ParticleEmitter burst = ParticleEmitter.builder().burst(40).build();
+        int spawned = system.emit(burst, 0, 0, 0.25);
+        if (spawned != 10) {
+            throw new AssertionError("Density 0.25 should spawn 10 of 40 particles but spawned " + spawned);
+        }
+    }
+
+    private static void rendersIntoRasterAndJava2D() {
+        ParticleEmitter still = ParticleEmitter.builder().burst(1).speed(0, 0).life(1, 1)
+                .colours(0xFFFF0000, 0xFFFF0000).build();
+        ParticleSystem system = new ParticleSystem(4, ParticleSystem.softDot(5));
+        system.emit(still, 40, 30);
+
+        BufferedImage raster = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        system.render(raster, 10, 10);
+        int centre = raster.getRGB(30, 20) & 0xFFFFFF;
+        if (centre != 0xFF0000) {
+            throw new AssertionError("Raster centre should be red but was " + Integer.toHexString(centre));
+        }
+        if ((raster.getRGB(5, 5) & 0xFFFFFF) != 0) {
+            throw new AssertionError("Pixels away from the particle must stay untouched");
+        }
+
+        BufferedImage surface = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = surface.createGraphics();
+        try {
+            system.render(g, new Rectangle(0, 0, 64, 64));
+        } finally {
+            g.dispose();
+        }
+        int drawn = surface.getRGB(40, 30);
+        if ((drawn >>> 24) == 0 || ((drawn >>> 16) & 0xFF) < 200 || (drawn & 0xFFFF) != 0) {
+            throw new AssertionError("Java2D stamp should be red at the particle but was " + Integer.toHexString(drawn));
+        }
+
+        BufferedImage culled = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D cg = culled.createGraphics();
+        try {
+            system.render(cg, new Rectangle(0, 0, 10, 10));
+        } finally {
+            cg.dispose();
+        }
+        if (culled.getRGB(40, 30) != 0) {
+            throw new AssertionError("Particles outside the cull rectangle must not be drawn");
+        }
+    }
+
+    private static int brightestRow(ParticleSystem system, int height) {
+        BufferedImage raster = new BufferedImage(40, height, BufferedImage.TYPE_INT_RGB);
+        system.render(raster, 0, 0);
+        int bestRow = -1;
+        int best = -1;
+        for (int y = 0; y < height; y++) {
+            int v = raster.getRGB(20, y) & 0xFF;
+            if (v > best) {
+                best = v;
+                bestRow = y;
+            }
+        }
+        return bestRow;
+    }
+
+    private static void java2DHonoursTheEmitterBlend() {
+        ParticleEmitter additive = ParticleEmitter.builder().burst(1).speed(0, 0).life(1, 1)
+                .colours(0xFFFF0000, 0xFFFF0000).build();
+        ParticleEmitter over = ParticleEmitter.builder().burst(1).speed(0, 0).life(1, 1)
+                .colours(0xFFFF0000, 0xFFFF0000).blend(SpriteBlitter.Mode.BLEND).build();
+        int onBlue = drawnOverBlue(additive);
+        if ((onBlue & 0xFF) != 0xFF || ((onBlue >>> 16) & 0xFF) < 200) {
+            throw new AssertionError("An additive spark should add red to the blue under it but gave "
+                    + Integer.toHexString(onBlue));
+        }
+        int covered = drawnOverBlue(over);
+        if ((covered & 0xFF) > 0x40 || ((covered >>> 16) & 0xFF) < 200) {
+            throw new AssertionError("A blended spark should cover the blue under it but gave "
+                    + Integer.toHexString(covered));
+        }
+    }
+
+    /** The centre pixel after drawing one particle of {@code emitter} onto opaque blue through Java2D. */
+    private static int drawnOverBlue(ParticleEmitter emitter) {
+        ParticleSystem system = new ParticleSystem(4, ParticleSystem.softDot(5));
+        system.emit(emitter, 20, 20);
+        BufferedImage surface = new BufferedImage(40, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = surface.createGraphics();
+        try {
+            g.setColor(Color.BLUE);
+            g.fillRect(0, 0, 40, 40);
+            system.render(g, null);
+            if (g.getComposite() != AlphaComposite.SrcOver) {
+                throw new AssertionError("Rendering particles must restore the composite it found");
+            }
+        } finally {
+            g.dispose();
+        }
+        return surface.getRGB(20, 20);
+    }
+}
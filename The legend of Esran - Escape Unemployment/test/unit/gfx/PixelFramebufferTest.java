@@ -0,0 +1,132 @@
+package unit.gfx;
+
+import gfx.PixelFramebuffer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+public final class PixelFramebufferTest {
+    private static final int RED = 0xFF0000;
+    private static final int GREEN = 0x00FF00;
+    private static final int BLUE = 0x0000FF;
+    private static final int MAGENTA = 0xFFFF00FF;
+
+    public static void main(String[] args) {
+        presentLetterboxesAroundAnIntegerScale();
+        smallTargetsFitFractionally();
+        translucentPixelsBlend();
+        opaqueSourcesCopyAndClip();
+        System.out.println("PixelFramebufferTest passed");
+    }
+
+    private static void presentLetterboxesAroundAnIntegerScale() {
+        PixelFramebuffer fb = new PixelFramebuffer(320, 180);
+        fb.clear(Color.WHITE);
+        fb.pixels()[0] = RED;
+        fb.pixels()[1] = GREEN;
+        fb.pixels()[320 * 180 - 1] = BLUE;
+
+        // 1000x600 fits three times 320x180 with 20 px left and right and 30 px above and below.
+        BufferedImage target = new BufferedImage(1000, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        Rectangle viewport;
+        try {
+            g.setColor(new Color(MAGENTA, true));
+            g.fillRect(0, 0, 1000, 600);
+            viewport = fb.present(g, 1000, 600, Color.BLACK);
+        } finally {
+            g.dispose();
+        }
+        if (!viewport.equals(new Rectangle(20, 30, 960, 540))) {
+            throw new AssertionError("Expected a centred 3x viewport but got " + viewport);
+        }
+        for (int[] bar : new int[][]{{0, 0}, {999, 599}, {500, 29}, {500, 570}, {19, 300}, {980, 300}}) {
+            expect(target, bar[0], bar[1], 0xFF000000, "letterbox");
+        }
+        // Each logical pixel covers a whole 3x3 block, with no blending into its neighbours.
+        expect(target, 20, 30, 0xFF000000 | RED, "first pixel");
+        expect(target, 22, 32, 0xFF000000 | RED, "first pixel's block");
+        expect(target, 23, 30, 0xFF000000 | GREEN, "second pixel");
+        expect(target, 979, 569, 0xFF000000 | BLUE, "last pixel");
+        expect(target, 500, 300, 0xFFFFFFFF, "middle");
+
+        BufferedImage untouched = new BufferedImage(1000, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D ug = untouched.createGraphics();
+        try {
+            ug.setColor(new Color(MAGENTA, true));
+            ug.fillRect(0, 0, 1000, 600);
+            fb.present(ug, 1000, 600, null);
+        } finally {
+            ug.dispose();
+        }
+        expect(untouched, 0, 0, MAGENTA, "bar without a letterbox colour");
+    }
+
+    private static void smallTargetsFitFractionally() {
+        PixelFramebuffer fb = new PixelFramebuffer(320, 180);
+        Rectangle half = fb.viewport(160, 120);
+        if (!half.equals(new Rectangle(0, 15, 160, 90))) {
+            throw new AssertionError("A target smaller than the framebuffer should keep its aspect: " + half);
+        }
+        Rectangle none = fb.viewport(0, 0);
+        if (!none.equals(new Rectangle(0, 0, 320, 180))) {
+            throw new AssertionError("An empty target should fall back to the logical size: " + none);
+        }
+    }
+
+    private static void translucentPixelsBlend() {
+        PixelFramebuffer fb = new PixelFramebuffer(4, 1);
+        fb.clear(new Color(BLUE));
+        BufferedImage sprite = new BufferedImage(3, 1, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(0, 0, 0x00FF0000);
+        sprite.setRGB(1, 0, 0x80FF0000);
+        sprite.setRGB(2, 0, 0xFF00FF00);
+        fb.composite(sprite, 1, 0);
+        int half = 0x80 << 16 | (255 * 0x7F / 255);
+        expectPixels(fb, "packed ARGB", BLUE, BLUE, half, GREEN);
+
+        // The same pixels from a raster that is not packed ints take the getRGB path and must agree.
+        fb.clear(new Color(BLUE));
+        BufferedImage abgr = new BufferedImage(3, 1, BufferedImage.TYPE_4BYTE_ABGR);
+        for (int x = 0; x < 3; x++) {
+            abgr.setRGB(x, 0, sprite.getRGB(x, 0));
+        }
+        fb.composite(abgr, 1, 0);
+        expectPixels(fb, "4-byte ABGR", BLUE, BLUE, half, GREEN);
+    }
+
+    private static void opaqueSourcesCopyAndClip() {
+        PixelFramebuffer fb = new PixelFramebuffer(4, 2);
+        fb.clear(Color.BLACK);
+        BufferedImage tile = new BufferedImage(3, 3, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 3; x++) {
+                tile.setRGB(x, y, x == 0 ? RED : y == 1 ? GREEN : BLUE);
+            }
+        }
+        // Hanging off the top-left: only the tile's bottom-right 2x2 lands, in the framebuffer's corner.
+        fb.composite(tile, -1, -1);
+        expectPixels(fb, "clipped opaque tile", GREEN, GREEN, 0, 0, BLUE, BLUE, 0, 0);
+        fb.composite(tile, 4, 0);
+        fb.composite(null, 0, 0);
+        expectPixels(fb, "off-screen tile", GREEN, GREEN, 0, 0, BLUE, BLUE, 0, 0);
+    }
+
+    private static void expectPixels(PixelFramebuffer fb, String what, int... rgb) {
+        for (int i = 0; i < rgb.length; i++) {
+            if (fb.pixels()[i] != rgb[i]) {
+                throw new AssertionError(what + ": pixel " + i + " was " + Integer.toHexString(fb.pixels()[i])
+                        + " not " + Integer.toHexString(rgb[i]));
+            }
+        }
+    }
+
+    private static void expect(BufferedImage image, int x, int y, int argb, String what) {
+        if (image.getRGB(x, y) != argb) {
+            throw new AssertionError(what + " at " + x + "," + y + " was " + Integer.toHexString(image.getRGB(x, y))
+                    + " not " + Integer.toHexString(argb));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package unit.gfx;
+
+import gfx.QualityGovernor;
+import gfx.QualityGovernor.Level;
+
+public final class QualityGovernorTest {
+
+    private static final long MS = 1_000_000L;
+
+    public static void main(String[] args) {
+        QualityGovernor governor = new QualityGovernor("test", 60, true);
+
+        feed(governor, 30, 15 * MS);
+        if (governor.level() != Level.HIGH) {
+            throw new AssertionError("A single slow evaluation must not downgrade quality");
+        }
+        feed(governor, 30, 15 * MS);
+        if (governor.level() != Level.MEDIUM) {
+            throw new AssertionError("Sustained overruns should step down once but saw " + governor.level());
+        }
+
+        feed(governor, 30 * 5, 5 * MS);
+        if (governor.level() != Level.MEDIUM) {
+            throw new AssertionError("Headroom must persist longer before quality is raised");
+        }
+        feed(governor, 30, 5 * MS);
+        if (governor.level() != Level.HIGH) {
+            throw new AssertionError("Sustained headroom should step quality back up but saw " + governor.level());
+        }
+
+        feed(governor, 30 * 20, 12 * MS);
+        if (governor.level() != Level.HIGH) {
+            throw new AssertionError("Frames inside the hysteresis band must not change quality");
+        }
+
+        feed(governor, 30 * 40, 40 * MS);
+        if (governor.level() != Level.MINIMUM) {
+            throw new AssertionError("Quality should bottom out at MINIMUM but saw " + governor.level());
+        }
+        int allowed = 0;
+        for (int i = 0; i < 100; i++) {
+            if (governor.allowParticle()) {
+                allowed++;
+            }
+        }
+        if (allowed != Math.round(100 * Level.MINIMUM.particleDensity())) {
+            throw new AssertionError("Particle thinning should match density but allowed " + allowed);
+        }
+
+        governor.setEnabled(false);
+        if (governor.level() != Level.HIGH) {
+            throw new AssertionError("Disabling the governor must restore HIGH quality");
+        }
+        feed(governor, 30 * 10, 40 * MS);
+        if (governor.level() != Level.HIGH) {
+            throw new AssertionError("A disabled governor must not react to frame times");
+        }
+
+        System.out.println("QualityGovernorTest passed");
+    }
+
+    private static void feed(QualityGovernor governor, int frames, long workNanos) {
+        for (int i = 0; i < frames; i++) {
+            governor.recordUpdate(workNanos / 4);
+            governor.recordPaint(workNanos - workNanos / 4);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package unit.gfx;
+
+import gfx.HiDpiScaler;
+import gfx.ImageCache;
+import gfx.ScaledImageStore;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class ScaledImageStoreTest {
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("scaled-store-test");
+        System.setProperty(ScaledImageStore.DIRECTORY_PROPERTY, dir.resolve("shared").toString());
+        try {
+            roundTripAcrossLaunches(dir.resolve("round-trip"));
+            damagedEntriesAreRejected(dir.resolve("damaged"));
+            readEntriesCanBeReplacedAndDeleted(dir.resolve("replaced"));
+            budgetEvictsLeastRecentlyRead(dir.resolve("budget"));
+            secondLaunchSkipsScaling();
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        System.out.println("ScaledImageStoreTest passed");
+    }
+
+    private static void roundTripAcrossLaunches(Path dir) {
+        BufferedImage image = painting(120, 90, BufferedImage.TYPE_INT_ARGB_PRE, 7);
+        ScaledImageStore.Key key = new ScaledImageStore.Key(ScaledImageStore.contentHash(image), 120, 90, 3);
+        new ScaledImageStore(dir, 1 << 20).save(key, image);
+
+        ScaledImageStore relaunched = new ScaledImageStore(dir, 1 << 20);
+        BufferedImage read = relaunched.load(key);
+        if (read == null || read.getType() != BufferedImage.TYPE_INT_ARGB_PRE || !samePixels(image, read)) {
+            throw new AssertionError("A stored image should read back pixel for pixel in a later launch");
+        }
+        if (relaunched.load(new ScaledImageStore.Key(key.sourceHash(), 120, 90, 4)) != null
+                || relaunched.hits() != 1 || relaunched.misses() != 1) {
+            throw new AssertionError("Different flags must not share an entry");
+        }
+        if (ScaledImageStore.contentHash(painting(120, 90, BufferedImage.TYPE_INT_ARGB_PRE, 7)) != key.sourceHash()
+                || ScaledImageStore.contentHash(painting(120, 90, BufferedImage.TYPE_INT_ARGB_PRE, 8)) == key.sourceHash()) {
+            throw new AssertionError("Content hash should depend on pixels, not identity");
+        }
+    }
+
+    private static void damagedEntriesAreRejected(Path dir) throws Exception {
+        ScaledImageStore store = new ScaledImageStore(dir, 1 << 20);
+        BufferedImage image = painting(100, 100, BufferedImage.TYPE_INT_ARGB, 1);
+        ScaledImageStore.Key flipped = new ScaledImageStore.Key(11L, 100, 100, 0);
+        ScaledImageStore.Key truncated = new ScaledImageStore.Key(12L, 100, 100, 0);
+        ScaledImageStore.Key misplaced = new ScaledImageStore.Key(13L, 100, 100, 0);
+        store.save(flipped, image);
+        store.save(truncated, image);
+        store.save(new ScaledImageStore.Key(14L, 100, 100, 0), image);
+
+        Path flippedFile = dir.resolve(flipped.fileName());
+        byte[] bytes = Files.readAllBytes(flippedFile);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(flippedFile, bytes);
+        Path truncatedFile = dir.resolve(truncated.fileName());
+        byte[] whole = Files.readAllBytes(truncatedFile);
+        Files.write(truncatedFile, Arrays.copyOf(whole, whole.length - 4));
+        Files.move(dir.resolve(new ScaledImageStore.Key(14L, 100, 100, 0).fileName()), dir.resolve(misplaced.fileName()));
+
+        if (store.load(flipped) != null || store.load(truncated) != null || store.load(misplaced) != null) {
+            throw new AssertionError("Damaged or mislabelled entries must read as misses");
+        }
+        if (store.corruptEntries() != 3) {
+            throw new AssertionError("Expected 3 rejected entries but saw " + store.corruptEntries());
+        }
+        try (Stream<Path> left = Files.list(dir)) {
+            if (left.findAny().isPresent()) {
+                throw new AssertionError("Rejected entries should be deleted");
+            }
+        }
+    }
+
+    private static void readEntriesCanBeReplacedAndDeleted(Path dir) throws Exception {
+        // 300x300 is more than one band of rows, so the pixels and their CRC are read in pieces.
+        ScaledImageStore store = new ScaledImageStore(dir, 1 << 20);
+        ScaledImageStore.Key key = new ScaledImageStore.Key(21L, 300, 300, 0);
+        BufferedImage first = painting(300, 300, BufferedImage.TYPE_INT_ARGB, 5);
+        store.save(key, first);
+        if (!samePixels(first, store.load(key))) {
+            throw new AssertionError("An entry larger than one band should read back pixel for pixel");
+        }
+        // Nothing read may keep the file open: replacing and deleting it right after fail on Windows otherwise.
+        BufferedImage second = painting(300, 300, BufferedImage.TYPE_INT_ARGB, 6);
+        store.save(key, second);
+        if (!samePixels(second, store.load(key))) {
+            throw new AssertionError("A read entry should be replaced by the next save");
+        }
+        Files.delete(dir.resolve(key.fileName()));
+        if (store.load(key) != null) {
+            throw new AssertionError("A deleted entry should read as a miss");
+        }
+    }
+
+    private static void budgetEvictsLeastRecentlyRead(Path dir) throws Exception {
+        long entryBytes = 36 + 100 * 100 * 4;
+        ScaledImageStore store = new ScaledImageStore(dir, 3 * entryBytes + entryBytes / 2);
+        BufferedImage image = painting(100, 100, BufferedImage.TYPE_INT_ARGB, 2);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            ScaledImageStore.Key key = new ScaledImageStore.Key(i, 100, 100, 0);
+            store.save(key, image);
+            Files.setLastModifiedTime(dir.resolve(key.fileName()), FileTime.fromMillis(now - 60_000 + i * 1_000));
+        }
+        if (store.load(new ScaledImageStore.Key(0, 100, 100, 0)) == null) {
+            throw new AssertionError("Entry 0 should still be stored");
+        }
+        store.save(new ScaledImageStore.Key(3, 100, 100, 0), image);
+        if (store.usedBytes() > 3 * entryBytes || store.load(new ScaledImageStore.Key(1, 100, 100, 0)) != null
+                || store.load(new ScaledImageStore.Key(0, 100, 100, 0)) == null
+                || store.load(new ScaledImageStore.Key(3, 100, 100, 0)) == null) {
+            throw new AssertionError("Over budget, the least recently read entry should go first; "
+                    + store.usedBytes() + " bytes used");
+        }
+    }
+
+    private static void secondLaunchSkipsScaling() {
+        ScaledImageStore store = ScaledImageStore.shared();
+        ImageCache.Namespace memory = ImageCache.shared().namespace("hidpi-scaled");
+        List<BufferedImage> firstLaunch = List.of(painting(300, 200, BufferedImage.TYPE_INT_ARGB, 3),
+                painting(300, 200, BufferedImage.TYPE_INT_ARGB, 4));
+        long missesBefore = store.misses();
+        BufferedImage[] scaled = new BufferedImage[firstLaunch.size()];
+        for (int i = 0; i < scaled.length; i++) {
+            scaled[i] = HiDpiScaler.scale(firstLaunch.get(i), 150, 100);
+        }
+        if (store.misses() - missesBefore != scaled.length) {
+            throw new AssertionError("The first launch should scale and store every frame");
+        }
+
+        // A new launch decodes new image objects and starts with an empty memory cache.
+        memory.clear();
+        long hitsBefore = store.hits();
+        for (int i = 0; i < scaled.length; i++) {
+            BufferedImage again = HiDpiScaler.scale(painting(300, 200, BufferedImage.TYPE_INT_ARGB, 3 + i), 150, 100);
+            if (again == scaled[i] || !samePixels(scaled[i], again)) {
+                throw new AssertionError("Second launch should read back the stored copy");
+            }
+        }
+        if (store.hits() - hitsBefore != scaled.length) {
+            throw new AssertionError("Second launch should not scale any frame again");
+        }
+        if (!HiDpiScaler.scale(firstLaunch.get(0), 30, 20).equals(HiDpiScaler.scale(firstLaunch.get(0), 30, 20))
+                || store.hits() - hitsBefore != scaled.length) {
+            throw new AssertionError("Small copies should stay out of the store");
+        }
+    }
+
+    private static BufferedImage painting(int width, int height, int type, int seed) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int alpha = x < 4 ? 0x40 : 0xFF;
+                image.setRGB(x, y, alpha << 24 | ((x * seed) & 0xFF) << 16 | ((y * 3 + seed) & 0xFF) << 8 | (x ^ y) & 0xFF);
+            }
+        }
+        return image;
+    }
+
+    private static boolean samePixels(BufferedImage a, BufferedImage b) {
+        if (b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+            return false;
+        }
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
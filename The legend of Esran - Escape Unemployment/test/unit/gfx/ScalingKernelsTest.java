@@ -0,0 +1,190 @@
+package unit.gfx;
+
+import gfx.HiDpiScaler;
+import gfx.ScalingKernels;
+import gfx.ScalingKernels.Filter;
+import util.ResourceLoader;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+public final class ScalingKernelsTest {
+
+    private static final String BOSS_FRAME = "/resources/bosses/goldenKnight/GN6.png";
+
+    public static void main(String[] args) throws Exception {
+        nearestReplicatesPixels();
+        flatColourIsPreserved();
+        transparentEdgesDoNotDarken();
+        closeToPreviousOutput();
+        pixelArtUsesReplication();
+        workspaceIsReused();
+        System.out.println("ScalingKernelsTest passed");
+    }
+
+    private static void nearestReplicatesPixels() {
+        BufferedImage source = pattern(7, 5);
+        BufferedImage scaled = ScalingKernels.nearest(source, 3, 2);
+        if (scaled.getWidth() != 21 || scaled.getHeight() != 10) {
+            throw new AssertionError("Expected 21x10 but got " + scaled.getWidth() + "x" + scaled.getHeight());
+        }
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 21; x++) {
+                if (scaled.getRGB(x, y) != source.getRGB(x / 3, y / 2)) {
+                    throw new AssertionError("Pixel " + x + "," + y + " was not copied from its source pixel");
+                }
+            }
+        }
+    }
+
+    private static void flatColourIsPreserved() {
+        int colour = 0x80336699;
+        BufferedImage flat = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                flat.setRGB(x, y, colour);
+            }
+        }
+        BufferedImage premultiplied = new BufferedImage(40, 30, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = premultiplied.createGraphics();
+        g.drawImage(flat, 0, 0, null);
+        g.dispose();
+        for (Filter filter : Filter.values()) {
+            for (int[] size : new int[][]{{13, 9}, {40, 30}, {97, 71}}) {
+                BufferedImage scaled = ScalingKernels.resample(size[0] == 40 ? premultiplied : flat, size[0], size[1],
+                        filter);
+                for (int y = 0; y < size[1]; y++) {
+                    for (int x = 0; x < size[0]; x++) {
+                        if (maxChannelDifference(scaled.getRGB(x, y), colour) > 1) {
+                            throw new AssertionError(String.format("%s to %dx%d changed a flat colour to %08X",
+                                    filter, size[0], size[1], scaled.getRGB(x, y)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void transparentEdgesDoNotDarken() {
+        BufferedImage sprite = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 20; y < 44; y++) {
+            for (int x = 20; x < 44; x++) {
+                sprite.setRGB(x, y, 0xFFFFFFFF);
+            }
+        }
+        for (Filter filter : Filter.values()) {
+            BufferedImage scaled = ScalingKernels.resample(sprite, 23, 23, filter);
+            for (int y = 0; y < 23; y++) {
+                for (int x = 0; x < 23; x++) {
+                    int argb = scaled.getRGB(x, y);
+                    if (argb >>> 24 != 0 && (argb & 0xFFFFFF) != 0xFFFFFF) {
+                        throw new AssertionError(String.format("%s blended transparent black into an edge: %08X",
+                                filter, argb));
+                    }
+                }
+            }
+        }
+    }
+
+    /** The kernels should look like the Graphics2D path they replace, not merely be faster. */
+    private static void closeToPreviousOutput() throws Exception {
+        BufferedImage boss = ResourceLoader.image(BOSS_FRAME);
+        int w = boss.getWidth() * 2 / 5;
+        int h = boss.getHeight() * 2 / 5;
+        double lanczos = meanDifference(ScalingKernels.bicubicMultiStep(boss, w, h, true),
+                ScalingKernels.resample(boss, w, h, Filter.LANCZOS3));
+        double mitchell = meanDifference(ScalingKernels.bicubicMultiStep(boss, w, h, false),
+                ScalingKernels.resample(boss, w, h, Filter.MITCHELL));
+        int upW = boss.getWidth() * 7 / 4;
+        int upH = boss.getHeight() * 7 / 4;
+        double enlarged = meanDifference(ScalingKernels.bicubicMultiStep(boss, upW, upH, false),
+                ScalingKernels.resample(boss, upW, upH, Filter.MITCHELL));
+        if (lanczos > 4.0 || mitchell > 4.0 || enlarged > 4.0) {
+            throw new AssertionError(String.format(
+                    "Kernels drifted from the bicubic reference: lanczos %.2f, mitchell %.2f, enlarged %.2f",
+                    lanczos, mitchell, enlarged));
+        }
+    }
+
+    private static void pixelArtUsesReplication() {
+        BufferedImage sprite = pattern(16, 16);
+        BufferedImage tripled = HiDpiScaler.scale(sprite, 48, 48);
+        BufferedImage expected = ScalingKernels.nearest(sprite, 3, 3);
+        for (int y = 0; y < 48; y++) {
+            for (int x = 0; x < 48; x++) {
+                if (tripled.getRGB(x, y) != expected.getRGB(x, y)) {
+                    throw new AssertionError("Pixel art enlarged by a whole factor should keep hard pixel edges");
+                }
+            }
+        }
+        BufferedImage fractional = HiDpiScaler.scale(sprite, 51, 51);
+        if (fractional.getWidth() != 51 || fractional.getHeight() != 51) {
+            throw new AssertionError("Fractional pixel-art scale should still hit the exact size");
+        }
+        BufferedImage painted = HiDpiScaler.scale(sprite, 48, 48, true, HiDpiScaler.AssetClass.PAINTED);
+        if (painted == tripled) {
+            throw new AssertionError("Painted and pixel-art copies should be cached separately");
+        }
+    }
+
+    private static void workspaceIsReused() {
+        BufferedImage frame = pattern(300, 200);
+        ScalingKernels.Workspace workspace = new ScalingKernels.Workspace();
+        BufferedImage target = new BufferedImage(400, 260, BufferedImage.TYPE_INT_ARGB);
+        ScalingKernels.resample(frame, target, Filter.MITCHELL, workspace);
+        long allocations = workspace.allocations();
+        ScalingKernels.resample(frame, target, Filter.MITCHELL, workspace);
+        if (workspace.allocations() != allocations) {
+            throw new AssertionError("A second frame of the same size should reuse the taps and scratch buffers");
+        }
+        BufferedImage fresh = ScalingKernels.resample(frame, 400, 260, Filter.MITCHELL);
+        for (int y = 0; y < 260; y++) {
+            for (int x = 0; x < 400; x++) {
+                if (fresh.getRGB(x, y) != target.getRGB(x, y)) {
+                    throw new AssertionError("Reused buffers changed pixel " + x + "," + y);
+                }
+            }
+        }
+        ScalingKernels.resample(frame, new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB), Filter.MITCHELL,
+                workspace);
+        if (workspace.allocations() == allocations) {
+            throw new AssertionError("A new target size should build new taps");
+        }
+    }
+
+    private static BufferedImage pattern(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int alpha = (x + y) % 4 == 0 ? 0 : 0xFF;
+                image.setRGB(x, y, alpha << 24 | (x * 37 & 0xFF) << 16 | (y * 53 & 0xFF) << 8 | (x * y & 0xFF));
+            }
+        }
+        return image;
+    }
+
+    /** Mean per-channel difference, colour weighted by coverage so invisible pixels do not count. */
+    private static double meanDifference(BufferedImage a, BufferedImage b) {
+        double total = 0.0;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                double coverage = Math.max(p >>> 24, q >>> 24) / 255.0;
+                total += Math.abs((p >>> 24) - (q >>> 24));
+                for (int shift = 0; shift < 24; shift += 8) {
+                    total += coverage * Math.abs((p >> shift & 0xFF) - (q >> shift & 0xFF));
+                }
+            }
+        }
+        return total / (4.0 * a.getWidth() * a.getHeight());
+    }
+
+    private static int maxChannelDifference(int p, int q) {
+        int max = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            max = Math.max(max, Math.abs((p >>> shift & 0xFF) - (q >>> shift & 0xFF)));
+        }
+        return max;
+    }
+}
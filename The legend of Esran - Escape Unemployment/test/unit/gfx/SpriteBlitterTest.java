@@ -0,0 +1,195 @@
+package unit.gfx;
+
+import gfx.SpriteBlitter;
+import gfx.SpriteBlitter.Mode;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public final class SpriteBlitterTest {
+
+    private static final int TOLERANCE = 2;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        BufferedImage sprite = randomSprite(random, 13, 9);
+        BufferedImage preSprite = SpriteBlitter.toBlittable(toType(sprite, BufferedImage.TYPE_INT_ARGB_PRE));
+
+        int[][] offsets = {{4, 3}, {-5, -2}, {27, 20}, {-20, 0}};
+        for (int[] offset : offsets) {
+            int dx = offset[0];
+            int dy = offset[1];
+
+            BufferedImage expected = background(random.nextLong());
+            BufferedImage actual = copy(expected);
+            drawJava2D(expected, sprite, dx, dy, false, AlphaComposite.Src);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.OPAQUE);
+            assertClose("opaque " + dx + "," + dy, expected, actual);
+
+            expected = background(random.nextLong());
+            actual = copy(expected);
+            drawJava2D(expected, sprite, dx, dy, false, AlphaComposite.SrcOver);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.BLEND);
+            assertClose("blend " + dx + "," + dy, expected, actual);
+
+            actual = copy(background(0));
+            expected = copy(actual);
+            drawJava2D(expected, sprite, dx, dy, false, AlphaComposite.SrcOver);
+            SpriteBlitter.blit(actual, preSprite, dx, dy, Mode.BLEND);
+            assertClose("premultiplied blend " + dx + "," + dy, expected, actual);
+
+            expected = background(random.nextLong());
+            actual = copy(expected);
+            drawJava2D(expected, sprite, dx, dy, true, AlphaComposite.SrcOver);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.BLEND, SpriteBlitter.NO_TINT, true);
+            assertClose("flipped blend " + dx + "," + dy, expected, actual);
+
+            expected = background(random.nextLong());
+            actual = copy(expected);
+            drawJava2D(expected, thresholded(sprite), dx, dy, false, AlphaComposite.SrcOver);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.ALPHA_TEST);
+            assertClose("alpha test " + dx + "," + dy, expected, actual);
+
+            int tint = 0xC0FF8040;
+            expected = background(random.nextLong());
+            actual = copy(expected);
+            drawJava2D(expected, tinted(sprite, tint), dx, dy, false, AlphaComposite.SrcOver);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.BLEND, tint, false);
+            assertClose("tinted blend " + dx + "," + dy, expected, actual);
+
+            expected = background(random.nextLong());
+            actual = copy(expected);
+            addManually(expected, sprite, dx, dy);
+            SpriteBlitter.blit(actual, sprite, dx, dy, Mode.ADDITIVE);
+            assertClose("additive " + dx + "," + dy, expected, actual);
+        }
+
+        BufferedImage untouched = background(7);
+        BufferedImage target = copy(untouched);
+        SpriteBlitter.blit(target, sprite, 500, 500, Mode.BLEND);
+        SpriteBlitter.blit(target, sprite, -500, -500, Mode.BLEND);
+        assertClose("fully clipped", untouched, target);
+
+        System.out.println("SpriteBlitterTest passed");
+    }
+
+    private static BufferedImage randomSprite(Random random, int w, int h) {
+        BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        int[] alphas = {0, 0, 40, 127, 128, 200, 255, 255};
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int a = alphas[random.nextInt(alphas.length)];
+                image.setRGB(x, y, (a << 24) | (random.nextInt() & 0xFFFFFF));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage background(long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(24, 18, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt() & 0xFFFFFF);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source) {
+        return toType(source, source.getType());
+    }
+
+    private static BufferedImage toType(BufferedImage source, int type) {
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    private static void drawJava2D(BufferedImage target, BufferedImage sprite, int dx, int dy, boolean flip,
+                                   AlphaComposite composite) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setComposite(composite);
+            int w = sprite.getWidth();
+            int h = sprite.getHeight();
+            if (flip) {
+                g.drawImage(sprite, dx + w, dy, dx, dy + h, 0, 0, w, h, null);
+            } else {
+                g.drawImage(sprite, dx, dy, null);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static BufferedImage thresholded(BufferedImage sprite) {
+        BufferedImage out = copy(sprite);
+        for (int y = 0; y < out.getHeight(); y++) {
+            for (int x = 0; x < out.getWidth(); x++) {
+                int argb = out.getRGB(x, y);
+                int a = argb >>> 24;
+                out.setRGB(x, y, a >= SpriteBlitter.ALPHA_TEST_THRESHOLD ? argb | 0xFF000000 : 0);
+            }
+        }
+        return out;
+    }
+
+    private static BufferedImage tinted(BufferedImage sprite, int tint) {
+        BufferedImage out = copy(sprite);
+        for (int y = 0; y < out.getHeight(); y++) {
+            for (int x = 0; x < out.getWidth(); x++) {
+                int argb = out.getRGB(x, y);
+                int a = Math.round((argb >>> 24) * (tint >>> 24) / 255f);
+                int r = Math.round(((argb >>> 16) & 0xFF) * ((tint >>> 16) & 0xFF) / 255f);
+                int g = Math.round(((argb >>> 8) & 0xFF) * ((tint >>> 8) & 0xFF) / 255f);
+                int b = Math.round((argb & 0xFF) * (tint & 0xFF) / 255f);
+                out.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+            }
+        }
+        return out;
+    }
+
+    private static void addManually(BufferedImage target, BufferedImage sprite, int dx, int dy) {
+        for (int y = 0; y < sprite.getHeight(); y++) {
+            for (int x = 0; x < sprite.getWidth(); x++) {
+                int tx = dx + x;
+                int ty = dy + y;
+                if (tx < 0 || ty < 0 || tx >= target.getWidth() || ty >= target.getHeight()) {
+                    continue;
+                }
+                int s = sprite.getRGB(x, y);
+                int d = target.getRGB(tx, ty);
+                float a = (s >>> 24) / 255f;
+                int r = Math.min(255, ((d >>> 16) & 0xFF) + Math.round(((s >>> 16) & 0xFF) * a));
+                int g = Math.min(255, ((d >>> 8) & 0xFF) + Math.round(((s >>> 8) & 0xFF) * a));
+                int b = Math.min(255, (d & 0xFF) + Math.round((s & 0xFF) * a));
+                target.setRGB(tx, ty, (r << 16) | (g << 8) | b);
+            }
+        }
+    }
+
+    private static void assertClose(String label, BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                int e = expected.getRGB(x, y);
+                int a = actual.getRGB(x, y);
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    int diff = Math.abs(((e >>> shift) & 0xFF) - ((a >>> shift) & 0xFF));
+                    if (diff > TOLERANCE) {
+                        throw new AssertionError(label + ": pixel (" + x + "," + y + ") expected "
+                                + Integer.toHexString(e) + " but was " + Integer.toHexString(a));
+                    }
+                }
+            }
+        }
+    }
+}
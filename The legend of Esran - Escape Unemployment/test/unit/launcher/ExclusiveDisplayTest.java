@@ -0,0 +1,77 @@
+package unit.launcher;
+
+import gfx.FrameIntervalMeter;
+import launcher.ExclusiveDisplay;
+import launcher.GameSettings;
+
+import java.awt.Dimension;
+import java.awt.DisplayMode;
+import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
+
+public final class ExclusiveDisplayTest {
+
+    public static void main(String[] args) {
+        DisplayMode[] modes = {
+                new DisplayMode(1280, 720, 32, 60),
+                new DisplayMode(1920, 1080, 32, 60),
+                new DisplayMode(1920, 1080, 32, 144),
+                new DisplayMode(1920, 1080, 16, 144),
+                new DisplayMode(2560, 1440, 32, 165)
+        };
+
+        expect(modes[2], ExclusiveDisplay.selectDisplayMode(modes, new Dimension(1920, 1080), 144).orElse(null),
+                "exact size and refresh");
+        expect(modes[2], ExclusiveDisplay.selectDisplayMode(modes, new Dimension(1920, 1080), 120).orElse(null),
+                "closest refresh at or above the target");
+        expect(modes[1], ExclusiveDisplay.selectDisplayMode(modes, new Dimension(1920, 1080), 60).orElse(null),
+                "exact refresh beats faster modes");
+        expect(modes[1], ExclusiveDisplay.selectDisplayMode(modes, new Dimension(1800, 1000), 60).orElse(null),
+                "smallest larger size when no exact match exists");
+        if (ExclusiveDisplay.selectDisplayMode(new DisplayMode[0], new Dimension(756, 468), 60).isPresent()) {
+            throw new AssertionError("No modes should yield no selection");
+        }
+
+        if (GraphicsEnvironment.isHeadless()) {
+            if (ExclusiveDisplay.enter(null, new GameSettings()).isPresent()) {
+                throw new AssertionError("Headless environments must fall back to windowed rendering");
+            }
+        } else {
+            Frame probe = new Frame();
+            try {
+                ExclusiveDisplay.enter(probe, new GameSettings()).ifPresent(ExclusiveDisplay::release);
+            } finally {
+                probe.dispose();
+            }
+        }
+
+        FrameIntervalMeter meter = new FrameIntervalMeter(4);
+        long t = 0;
+        for (long interval : new long[]{10, 16, 16, 17, 20}) {
+            t += interval * 1_000_000L;
+            meter.mark(t);
+        }
+        if (meter.sampleCount() != 4) {
+            throw new AssertionError("Meter should keep the four most recent intervals but kept " + meter.sampleCount());
+        }
+        if (Math.abs(meter.averageMillis() - 17.25) > 1e-9) {
+            throw new AssertionError("Unexpected mean interval " + meter.averageMillis());
+        }
+        if (meter.percentileMillis(100) != 20.0) {
+            throw new AssertionError("Unexpected worst interval " + meter.percentileMillis(100));
+        }
+
+        System.out.println("ExclusiveDisplayTest passed");
+    }
+
+    private static void expect(DisplayMode expected, DisplayMode actual, String scenario) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError(scenario + ": expected " + describe(expected) + " but got " + describe(actual));
+        }
+    }
+
+    private static String describe(DisplayMode mode) {
+        return mode == null ? "none"
+                : mode.getWidth() + "x" + mode.getHeight() + "@" + mode.getRefreshRate() + "/" + mode.getBitDepth();
+    }
+}
@@ -0,0 +1,121 @@
+package unit.util;
+
+import util.AssetBundle;
+import util.ResourceIndex;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public final class AssetBundleTest {
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("asset-bundle-test");
+        try {
+            roundTrip(dir);
+            unusableFiles(dir);
+            repackWhileOpen(dir);
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        System.out.println("AssetBundleTest passed");
+    }
+
+    private static void roundTrip(Path dir) throws Exception {
+        BufferedImage opaque = new BufferedImage(37, 5, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < opaque.getHeight(); y++) {
+            for (int x = 0; x < opaque.getWidth(); x++) {
+                opaque.setRGB(x, y, (x * 7) << 16 | (y * 40) << 8 | (x + y));
+            }
+        }
+        BufferedImage translucent = new BufferedImage(3, 2, BufferedImage.TYPE_INT_ARGB);
+        translucent.setRGB(0, 0, 0x80FF0000);
+        translucent.setRGB(1, 0, 0x00123456);
+        translucent.setRGB(2, 1, 0xFF00FF00);
+
+        Path file = dir.resolve("assets.bundle");
+        AssetBundle.write(file, List.of(
+                new AssetBundle.Source("/resources/a/opaque.png", opaque, 100L, 1_000L),
+                new AssetBundle.Source("resources/a/translucent.png", translucent, 20L, 2_000L)));
+        AssetBundle bundle = AssetBundle.open(file);
+        if (bundle.size() != 2) {
+            throw new AssertionError("Bundle should hold 2 images but holds " + bundle.size());
+        }
+
+        BufferedImage read = bundle.image("resources/a/opaque.png", new ResourceIndex.Stat(100L, 1_000L));
+        if (read == null || read.getType() != BufferedImage.TYPE_INT_ARGB_PRE
+                || read.getWidth() != 37 || read.getHeight() != 5) {
+            throw new AssertionError("Opaque image did not come back as a 37x5 premultiplied image: " + read);
+        }
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 37; x++) {
+                if (read.getRGB(x, y) != opaque.getRGB(x, y)) {
+                    throw new AssertionError(String.format("Pixel %d,%d: expected %08X got %08X", x, y,
+                            opaque.getRGB(x, y), read.getRGB(x, y)));
+                }
+            }
+        }
+
+        BufferedImage alpha = bundle.image("resources/a/translucent.png", null);
+        if (alpha == null || alpha.getRGB(1, 0) >>> 24 != 0 || alpha.getRGB(2, 1) != 0xFF00FF00
+                || alpha.getRGB(0, 0) >>> 24 != 0x80 || Math.abs(((alpha.getRGB(0, 0) >> 16) & 0xFF) - 0xFF) > 1) {
+            throw new AssertionError("Translucent pixels did not survive premultiplication");
+        }
+
+        if (bundle.image("resources/a/opaque.png", new ResourceIndex.Stat(101L, 1_000L)) != null
+                || bundle.image("resources/a/opaque.png", new ResourceIndex.Stat(100L, 1_001L)) != null) {
+            throw new AssertionError("A PNG that changed since packing must not be served from the bundle");
+        }
+        if (bundle.image("resources/a/missing.png", null) != null) {
+            throw new AssertionError("Unknown paths must miss");
+        }
+    }
+
+    /** A running game holds its bundle open; repacking must still replace it, and the old one must then miss. */
+    private static void repackWhileOpen(Path dir) throws Exception {
+        Path file = dir.resolve("repacked.bundle");
+        BufferedImage red = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+        red.setRGB(1, 1, 0xFFFF0000);
+        AssetBundle.write(file, List.of(new AssetBundle.Source("resources/tile.png", red, 1L, 1L)));
+        AssetBundle running = AssetBundle.open(file);
+        if (running.image("resources/tile.png", null) == null) {
+            throw new AssertionError("A freshly opened bundle should serve its images");
+        }
+
+        BufferedImage blue = new BufferedImage(6, 6, BufferedImage.TYPE_INT_ARGB);
+        blue.setRGB(1, 1, 0xFF0000FF);
+        AssetBundle.write(file, List.of(
+                new AssetBundle.Source("resources/other.png", blue, 2L, 2L),
+                new AssetBundle.Source("resources/tile.png", blue, 1L, 1L)));
+        if (running.image("resources/tile.png", null) != null) {
+            throw new AssertionError("A bundle replaced since it was opened must miss rather than read stale offsets");
+        }
+        BufferedImage repacked = AssetBundle.open(file).image("resources/tile.png", null);
+        if (repacked == null || repacked.getWidth() != 6 || repacked.getRGB(1, 1) != 0xFF0000FF) {
+            throw new AssertionError("Reopening should serve the repacked images");
+        }
+    }
+
+    private static void unusableFiles(Path dir) throws Exception {
+        if (!AssetBundle.open(dir.resolve("nope.bundle")).isEmpty()) {
+            throw new AssertionError("A missing bundle should open empty");
+        }
+        Path garbage = dir.resolve("garbage.bundle");
+        Files.write(garbage, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        if (!AssetBundle.open(garbage).isEmpty()) {
+            throw new AssertionError("A file that is not a bundle should open empty");
+        }
+        Path truncated = dir.resolve("truncated.bundle");
+        byte[] whole = Files.readAllBytes(dir.resolve("assets.bundle"));
+        Files.write(truncated, Arrays.copyOf(whole, whole.length - 8));
+        if (!AssetBundle.open(truncated).isEmpty()) {
+            throw new AssertionError("A truncated bundle should open empty");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package unit.util;
+
+import gfx.ImageCache;
+import util.AssetPreloader;
+import util.ResourceLoader;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class AssetPreloaderTest {
+
+    public static void main(String[] args) throws Exception {
+        List<AssetPreloader.Entry> manifest = AssetPreloader.readManifest(AssetPreloader.DEFAULT_MANIFEST);
+        if (manifest.size() < 50) {
+            throw new AssertionError("Manifest should expand to the startup art but listed " + manifest.size());
+        }
+
+        List<AssetPreloader.Entry> entries = new ArrayList<>();
+        for (AssetPreloader.Entry entry : manifest) {
+            if (entry.group().equals("dungeon") || entry.group().equals("sprites")) {
+                entries.add(entry);
+            }
+        }
+        entries.add(new AssetPreloader.Entry("missing", "/resources/tiles/floor/does_not_exist.png"));
+
+        AtomicInteger maxDone = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        AssetPreloader.Report report = new AssetPreloader(entries, 3)
+                .start((done, total) -> {
+                    calls.incrementAndGet();
+                    maxDone.accumulateAndGet(done, Math::max);
+                })
+                .get(30, TimeUnit.SECONDS);
+
+        if (report.images() != entries.size() || report.failed() != 1) {
+            throw new AssertionError("Expected " + entries.size() + " images with 1 failure but got " + report);
+        }
+        if (calls.get() != entries.size() || maxDone.get() != entries.size()) {
+            throw new AssertionError("Progress should be reported once per image up to the total");
+        }
+        if (report.groups().size() != 3 || !report.groups().get(0).group().equals("dungeon")) {
+            throw new AssertionError("Groups should be reported in manifest order: " + report.groups());
+        }
+        for (AssetPreloader.GroupReport group : report.groups()) {
+            if (group.wallMillis() > report.wallMillis()) {
+                throw new AssertionError("Group finished after the whole run: " + group);
+            }
+        }
+
+        String sample = entries.get(0).resourcePath();
+        BufferedImage published = ResourceLoader.preloaded(sample);
+        if (published == null || ResourceLoader.image(sample) != published
+                || ResourceLoader.image(sample.substring(1)) != published) {
+            throw new AssertionError("Preloaded images must be served from the shared table: " + sample);
+        }
+        if (ResourceLoader.preloaded("/resources/tiles/floor/does_not_exist.png") != null) {
+            throw new AssertionError("Failed entries must not be published");
+        }
+        ImageCache.Namespace preloaded = ImageCache.shared().namespace("preloaded");
+        if (preloaded.stats().bytes() < ImageCache.bytesOf(published)) {
+            throw new AssertionError("Preloaded images should be charged to the shared cache: " + preloaded.stats());
+        }
+        preloaded.clear();
+        if (ResourceLoader.preloaded(sample) != null || ResourceLoader.image(sample) == null) {
+            throw new AssertionError("An evicted preloaded image should be decoded again on demand");
+        }
+        System.out.println("AssetPreloaderTest passed");
+    }
+}
@@ -0,0 +1,101 @@
+package unit.util;
+
+import util.CompatibleImages;
+import util.CompatibleImages.Layout;
+
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+public final class CompatibleImagesTest {
+
+    public static void main(String[] args) {
+        transparencyComesFromThePixels();
+        conversionKeepsPixels();
+        matchingImagesAreNotCopied();
+        headlessLeavesImagesAlone();
+        System.out.println("CompatibleImagesTest passed");
+    }
+
+    private static void transparencyComesFromThePixels() {
+        BufferedImage solid = painting(BufferedImage.TYPE_4BYTE_ABGR, 0xFF);
+        BufferedImage holes = painting(BufferedImage.TYPE_4BYTE_ABGR, 0xFF);
+        holes.setRGB(3, 5, 0);
+        BufferedImage soft = painting(BufferedImage.TYPE_INT_ARGB_PRE, 0xFF);
+        soft.setRGB(7, 2, 0x80402010);
+        if (CompatibleImages.transparencyOf(solid) != Transparency.OPAQUE
+                || CompatibleImages.transparencyOf(holes) != Transparency.BITMASK
+                || CompatibleImages.transparencyOf(soft) != Transparency.TRANSLUCENT
+                || CompatibleImages.transparencyOf(painting(BufferedImage.TYPE_INT_RGB, 0xFF)) != Transparency.OPAQUE) {
+            throw new AssertionError("Transparency should be judged from the alpha actually used");
+        }
+    }
+
+    private static void conversionKeepsPixels() {
+        BufferedImage solid = painting(BufferedImage.TYPE_4BYTE_ABGR, 0xFF);
+        BufferedImage opaque = CompatibleImages.convert(solid, Layout.STANDARD);
+        if (opaque.getType() != BufferedImage.TYPE_INT_RGB || !samePixels(solid, opaque, 0)) {
+            throw new AssertionError("An opaque decode should become an opaque INT_RGB copy with the same pixels");
+        }
+
+        BufferedImage translucent = painting(BufferedImage.TYPE_4BYTE_ABGR, 0x90);
+        translucent.setRGB(0, 0, 0);
+        BufferedImage converted = CompatibleImages.convert(translucent, Layout.STANDARD);
+        // Premultiplying rounds each channel, so allow one step of difference.
+        if (converted.getType() != BufferedImage.TYPE_INT_ARGB_PRE || !samePixels(translucent, converted, 1)) {
+            throw new AssertionError("A translucent decode should become a premultiplied copy with the same pixels");
+        }
+    }
+
+    private static void matchingImagesAreNotCopied() {
+        BufferedImage soft = painting(BufferedImage.TYPE_INT_ARGB_PRE, 0x80);
+        long before = CompatibleImages.convertedImages();
+        if (CompatibleImages.convert(soft, Layout.STANDARD) != soft || CompatibleImages.convertedImages() != before) {
+            throw new AssertionError("An image already in the target layout should be returned as is");
+        }
+        BufferedImage tile = soft.getSubimage(4, 4, 8, 8);
+        BufferedImage copy = CompatibleImages.convert(tile, Layout.STANDARD);
+        if (copy == tile || copy.getRaster().getParent() != null || !samePixels(tile, copy, 0)) {
+            throw new AssertionError("A sub-image should become an image of its own");
+        }
+    }
+
+    private static void headlessLeavesImagesAlone() {
+        if (!GraphicsEnvironment.isHeadless()) {
+            return;
+        }
+        BufferedImage decoded = painting(BufferedImage.TYPE_4BYTE_ABGR, 0xFF);
+        if (CompatibleImages.displayLayout() != null || CompatibleImages.forDisplay(decoded) != decoded
+                || CompatibleImages.createTranslucent(4, 4).getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new AssertionError("Without a screen, images should keep the layout they were decoded in");
+        }
+    }
+
+    private static BufferedImage painting(int type, int alpha) {
+        BufferedImage image = new BufferedImage(24, 16, type);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, alpha << 24 | (x * 10) << 16 | (y * 15) << 8 | (x ^ y) * 7);
+            }
+        }
+        return image;
+    }
+
+    private static boolean samePixels(BufferedImage a, BufferedImage b, int tolerance) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+            return false;
+        }
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                int p = a.getRGB(x, y);
+                int q = b.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    if (Math.abs((p >>> shift & 0xFF) - (q >>> shift & 0xFF)) > tolerance) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package unit.util;
+
+import util.ImageDecoder;
+import util.ResourceLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+public final class ImageDecoderTest {
+
+    private static final String FRAME = "/resources/Cutscene/Dungeon/DungeonAnim2.png";
+
+    public static void main(String[] args) throws Exception {
+        byte[] png = bytes(FRAME);
+        BufferedImage reference = ImageIO.read(new ByteArrayInputStream(png));
+
+        decodesLikeImageIo(png, reference);
+        readersArePooledPerThread(png);
+        decodesIntoTheImagePassedIn(png, reference);
+        subsamplesForPreviews(png, reference);
+        otherFormatsStillDecode(reference);
+        System.out.println("ImageDecoderTest passed");
+    }
+
+    private static void decodesLikeImageIo(byte[] png, BufferedImage reference) throws IOException {
+        BufferedImage decoded = ImageDecoder.read(new ByteArrayInputStream(png), null, 1);
+        if (decoded.getType() != reference.getType() || !samePixels(reference, decoded, 1)) {
+            throw new AssertionError("The pooled reader should decode exactly what ImageIO.read does");
+        }
+        Dimension size = ImageDecoder.size(new ByteArrayInputStream(png));
+        if (size.width != reference.getWidth() || size.height != reference.getHeight()) {
+            throw new AssertionError("Header size should match the decoded image");
+        }
+        if (ImageDecoder.read(new ByteArrayInputStream(new byte[] {1, 2, 3}), null, 1) != null) {
+            throw new AssertionError("Data no reader understands should decode to null, as with ImageIO.read");
+        }
+    }
+
+    private static void readersArePooledPerThread(byte[] png) throws Exception {
+        ImageDecoder.read(new ByteArrayInputStream(png), null, 1);
+        long before = ImageDecoder.readersCreated();
+        for (int i = 0; i < 5; i++) {
+            ImageDecoder.read(new ByteArrayInputStream(png), null, 1);
+        }
+        if (ImageDecoder.readersCreated() != before) {
+            throw new AssertionError("One thread should keep reusing its PNG reader");
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                ImageDecoder.read(new ByteArrayInputStream(png), null, 1);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        worker.start();
+        worker.join();
+        if (ImageDecoder.readersCreated() != before + 1) {
+            throw new AssertionError("Another thread should get a reader of its own");
+        }
+        // Readers are not thread-safe: concurrent decodes on several threads must not interfere.
+        CompletableFuture<?>[] jobs = new CompletableFuture<?>[4];
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    for (int k = 0; k < 3; k++) {
+                        ImageDecoder.read(new ByteArrayInputStream(png), null, 1);
+                    }
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        }
+        CompletableFuture.allOf(jobs).join();
+    }
+
+    private static void decodesIntoTheImagePassedIn(byte[] png, BufferedImage reference) throws IOException {
+        BufferedImage reuse = new BufferedImage(reference.getWidth(), reference.getHeight(), reference.getType());
+        BufferedImage decoded = ImageDecoder.read(new ByteArrayInputStream(png), reuse, 1);
+        if (decoded != reuse || !samePixels(reference, decoded, 1)) {
+            throw new AssertionError("A same-sized image of the decoder's type should be decoded into");
+        }
+        BufferedImage wrongSize = new BufferedImage(8, 8, reference.getType());
+        if (ImageDecoder.read(new ByteArrayInputStream(png), wrongSize, 1) == wrongSize) {
+            throw new AssertionError("An image of the wrong size must not be decoded into");
+        }
+    }
+
+    private static void subsamplesForPreviews(byte[] png, BufferedImage reference) throws IOException {
+        BufferedImage preview = ImageDecoder.read(new ByteArrayInputStream(png), null, 4);
+        if (preview.getWidth() != (reference.getWidth() + 3) / 4 || preview.getHeight() != (reference.getHeight() + 3) / 4) {
+            throw new AssertionError("Subsampling by 4 should keep a quarter of the pixels each way");
+        }
+        for (int y = 0; y < preview.getHeight(); y += 7) {
+            for (int x = 0; x < preview.getWidth(); x += 5) {
+                if (preview.getRGB(x, y) != reference.getRGB(x * 4, y * 4)) {
+                    throw new AssertionError("Preview pixel " + x + "," + y + " should be source pixel "
+                            + x * 4 + "," + y * 4);
+                }
+            }
+        }
+        if (ImageDecoder.subsamplingFor(reference.getWidth(), reference.getHeight(), 160, 90)
+                != Math.max((reference.getWidth() + 159) / 160, (reference.getHeight() + 89) / 90)) {
+            throw new AssertionError("Subsampling should be the smallest factor that fits both ways");
+        }
+        BufferedImage thumbnail = ResourceLoader.thumbnail(FRAME, 160, 90);
+        if (thumbnail.getWidth() > 160 || thumbnail.getHeight() > 90) {
+            throw new AssertionError("Thumbnail should fit the requested box but was "
+                    + thumbnail.getWidth() + "x" + thumbnail.getHeight());
+        }
+    }
+
+    private static void otherFormatsStillDecode(BufferedImage reference) throws IOException {
+        BufferedImage small = reference.getSubimage(0, 0, 32, 32);
+        ByteArrayOutputStream bmp = new ByteArrayOutputStream();
+        BufferedImage rgb = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        rgb.getGraphics().drawImage(small, 0, 0, null);
+        ImageIO.write(rgb, "bmp", bmp);
+        BufferedImage decoded = ImageDecoder.read(new ByteArrayInputStream(bmp.toByteArray()), null, 1);
+        if (decoded == null || !samePixels(rgb, decoded, 1)) {
+            throw new AssertionError("Non-PNG images should still decode through the registry");
+        }
+    }
+
+    private static byte[] bytes(String path) throws IOException {
+        try (InputStream in = ResourceLoader.open(path)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static boolean samePixels(BufferedImage a, BufferedImage b, int step) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+            return false;
+        }
+        for (int y = 0; y < a.getHeight(); y += step) {
+            for (int x = 0; x < a.getWidth(); x += step) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
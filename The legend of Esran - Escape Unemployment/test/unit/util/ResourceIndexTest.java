@@ -0,0 +1,107 @@
+package unit.util;
+
+import util.ResourceIndex;
+import util.ResourceLoader;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+public final class ResourceIndexTest {
+
+    public static void main(String[] args) throws Exception {
+        ResourceIndex index = ResourceLoader.index();
+        if (index.size() < 300) {
+            throw new AssertionError("Index should cover the bundled art but holds " + index.size() + " files");
+        }
+        long walks = ResourceIndex.directoryWalks();
+        long jars = ResourceIndex.jarScans();
+        long unindexed = ResourceLoader.unindexedLookups();
+
+        for (int i = 0; i < 200; i++) {
+            lookUpEverything();
+        }
+
+        if (ResourceIndex.directoryWalks() != walks || ResourceIndex.jarScans() != jars) {
+            throw new AssertionError("Lookups after warm-up walked the disk again: "
+                    + (ResourceIndex.directoryWalks() - walks) + " walks, " + (ResourceIndex.jarScans() - jars) + " jar scans");
+        }
+        if (ResourceLoader.unindexedLookups() != unindexed) {
+            throw new AssertionError("Art lookups fell back to probing: " + (ResourceLoader.unindexedLookups() - unindexed));
+        }
+        jarEntriesWithSpacesOpen();
+        System.out.println("ResourceIndexTest passed");
+    }
+
+    private static void lookUpEverything() throws Exception {
+        List<String> floors = ResourceLoader.listPng("/resources/tiles/floor");
+        Path floorDir = locate("resources/tiles/floor");
+        long onDisk;
+        try (Stream<Path> files = Files.list(floorDir)) {
+            onDisk = files.filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".png")).count();
+        }
+        if (floors.size() != onDisk || !floors.get(0).startsWith("/resources/tiles/floor/")) {
+            throw new AssertionError("Listing should match the directory (" + onDisk + " PNGs): " + floors);
+        }
+        if (!ResourceLoader.listDirectories("resources/bosses").contains("/resources/bosses/Gollum")) {
+            throw new AssertionError("Boss directories missing from listing: " + ResourceLoader.listDirectories("resources/bosses"));
+        }
+        if (!ResourceLoader.exists(floors.get(0)) || ResourceLoader.exists("/resources/tiles/floor/nope.png")) {
+            throw new AssertionError("Existence checks disagree with the listing");
+        }
+        try (InputStream in = ResourceLoader.open("resources/Font/ThaleahFat.ttf")) {
+            if (in == null || in.read() < 0) {
+                throw new AssertionError("Indexed file could not be opened");
+            }
+        }
+        if (ResourceLoader.open("resources/does/not/exist.png") != null) {
+            throw new AssertionError("Missing files must open as null");
+        }
+    }
+
+    private static void jarEntriesWithSpacesOpen() throws Exception {
+        Path jar = Files.createTempFile("resource index", ".jar");
+        try {
+            try (OutputStream file = Files.newOutputStream(jar); JarOutputStream out = new JarOutputStream(file)) {
+                out.putNextEntry(new JarEntry("resources/"));
+                out.putNextEntry(new JarEntry("resources/Thunder Strike/"));
+                out.putNextEntry(new JarEntry("resources/Thunder Strike/bolt #1.png"));
+                out.write("bolt".getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                ResourceIndex index = ResourceIndex.build(List.of(loader), List.of());
+                String path = "resources/Thunder Strike/bolt #1.png";
+                if (!index.exists(path)) {
+                    throw new AssertionError("Jar entry with a space was not indexed: " + index.paths());
+                }
+                try (InputStream in = index.open(path)) {
+                    if (!"bolt".equals(new String(in.readAllBytes(), StandardCharsets.UTF_8))) {
+                        throw new AssertionError("Jar entry opened with the wrong contents");
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(jar);
+        }
+    }
+
+    private static Path locate(String relative) {
+        for (Path root : List.of(Path.of("src"), Path.of(""))) {
+            Path candidate = root.resolve(relative);
+            if (Files.isDirectory(candidate)) {
+                return candidate;
+            }
+        }
+        throw new AssertionError("Cannot find " + relative + " from " + Path.of("").toAbsolutePath());
+    }
+}
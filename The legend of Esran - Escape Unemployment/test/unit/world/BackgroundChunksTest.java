@@ -0,0 +1,67 @@
+package unit.world;
+
+import World.BackgroundChunks;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BackgroundChunksTest {
+
+    public static void main(String[] args) {
+        leastRecentlyDrawnChunkIsDropped();
+        newEpochRebakesEverything();
+        System.out.println("BackgroundChunksTest passed");
+    }
+
+    private static void leastRecentlyDrawnChunkIsDropped() {
+        BackgroundChunks chunks = new BackgroundChunks();
+        List<String> baked = new ArrayList<>();
+        BackgroundChunks.Baker baker = (x, y) -> {
+            baked.add(x + "," + y);
+            return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        };
+        // A row of chunks as wide as the cap, then draw the first again so the second is the oldest.
+        int cap = BackgroundChunks.MAX_CHUNKS;
+        for (int x = 0; x < cap; x++) {
+            chunks.chunk(x, 0, 0, baker);
+        }
+        BufferedImage first = chunks.chunk(0, 0, 0, baker);
+        if (chunks.size() != cap || baked.size() != cap) {
+            throw new AssertionError("Each chunk should bake once up to the cap: " + chunks.size() + " held, "
+                    + baked.size() + " baked");
+        }
+        chunks.chunk(0, 1, 0, baker);
+        if (chunks.size() != cap) {
+            throw new AssertionError("A chunk past the cap should evict one but " + chunks.size() + " are held");
+        }
+        if (chunks.chunk(0, 0, 0, baker) != first || baked.size() != cap + 1) {
+            throw new AssertionError("The recently drawn chunk should still be baked");
+        }
+        chunks.chunk(1, 0, 0, baker);
+        if (baked.size() != cap + 2 || !baked.get(baked.size() - 1).equals("1,0")) {
+            throw new AssertionError("The least recently drawn chunk should have been dropped and baked again");
+        }
+    }
+
+    private static void newEpochRebakesEverything() {
+        BackgroundChunks chunks = new BackgroundChunks();
+        int[] bakes = {0};
+        BackgroundChunks.Baker baker = (x, y) -> {
+            bakes[0]++;
+            return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        };
+        chunks.chunk(2, 3, 0, baker);
+        chunks.chunk(2, 3, 0, baker);
+        chunks.chunk(2, 3, 1, baker);
+        if (bakes[0] != 2 || chunks.size() != 1) {
+            throw new AssertionError("A texture epoch change should drop the old chunks: " + bakes[0] + " bakes");
+        }
+        // Negative coordinates must not collide with positive ones in the packed key.
+        chunks.chunk(-2, 3, 1, baker);
+        chunks.chunk(2, -3, 1, baker);
+        if (bakes[0] != 4 || chunks.size() != 3) {
+            throw new AssertionError("Distinct chunk coordinates should get distinct entries");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package unit.world;
+
+import World.Camera;
+
+public final class CameraTest {
+    private static final int TILE = 36;
+    private static final int VIEW_W = 21 * TILE;
+    private static final int VIEW_H = 13 * TILE;
+
+    public static void main(String[] args) {
+        clampsToRoomEdges();
+        smallRoomsStayAtTheOrigin();
+        easesTowardTheTarget();
+        System.out.println("CameraTest passed");
+    }
+
+    private static void clampsToRoomEdges() {
+        int roomW = 200 * TILE;
+        int roomH = 200 * TILE;
+        Camera camera = new Camera(0.15);
+        camera.follow(TILE, TILE, roomW, roomH, VIEW_W, VIEW_H, true);
+        expect(camera, 0, 0, "near the top-left corner");
+        camera.follow(roomW - TILE, roomH - TILE, roomW, roomH, VIEW_W, VIEW_H, true);
+        expect(camera, roomW - VIEW_W, roomH - VIEW_H, "near the bottom-right corner");
+        camera.follow(roomW / 2.0, roomH / 2.0, roomW, roomH, VIEW_W, VIEW_H, true);
+        expect(camera, (int) Math.round(roomW / 2.0 - VIEW_W / 2.0), (int) Math.round(roomH / 2.0 - VIEW_H / 2.0),
+                "in the middle");
+        // A point outside the room, as a player leaving through a door, still keeps the view inside.
+        camera.follow(-5 * TILE, roomH + 5 * TILE, roomW, roomH, VIEW_W, VIEW_H, true);
+        expect(camera, 0, roomH - VIEW_H, "past the edge");
+    }
+
+    private static void smallRoomsStayAtTheOrigin() {
+        Camera camera = new Camera(0.15);
+        camera.follow(20 * TILE, 12 * TILE, VIEW_W, VIEW_H, VIEW_W, VIEW_H, true);
+        expect(camera, 0, 0, "in a room the size of the view");
+        // Wider than the view but shorter: only the long axis scrolls.
+        camera.follow(40 * TILE, 12 * TILE, 60 * TILE, VIEW_H, VIEW_W, VIEW_H, true);
+        expect(camera, (int) Math.round(40 * TILE - VIEW_W / 2.0), 0, "in a wide, short room");
+    }
+
+    private static void easesTowardTheTarget() {
+        int room = 100 * TILE;
+        Camera camera = new Camera(0.15);
+        camera.follow(0, 0, room, room, VIEW_W, VIEW_H, true);
+        double targetX = 50 * TILE - VIEW_W / 2.0;
+        int previous = camera.x();
+        camera.follow(50 * TILE, 0, room, room, VIEW_W, VIEW_H, false);
+        if (camera.x() <= previous || camera.x() >= targetX) {
+            throw new AssertionError("One step should move part of the way but reached " + camera.x());
+        }
+        for (int i = 0; i < 200; i++) {
+            camera.follow(50 * TILE, 0, room, room, VIEW_W, VIEW_H, false);
+        }
+        expect(camera, (int) Math.round(targetX), 0, "after settling");
+    }
+
+    private static void expect(Camera camera, int x, int y, String where) {
+        if (camera.x() != x || camera.y() != y) {
+            throw new AssertionError("Camera " + where + " should be at " + x + "," + y + " but is at "
+                    + camera.x() + "," + camera.y());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package unit.world;
+
+import World.gfx.DungeonTextures;
+import util.ResourceIndex;
+import util.ResourceLoader;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+public final class DungeonTexturesTest {
+
+    /** The dungeon's tile size, as {@code DungeonRooms} asks for it on every new or loaded run. */
+    private static final int TILE = 36;
+
+    public static void main(String[] args) {
+        secondRunPerformsNoImageIo();
+        tileSizesAreKeptApart();
+        tilesAreIndexedAndTintedThroughTheirPalette();
+        System.out.println("DungeonTexturesTest passed");
+    }
+
+    private static void secondRunPerformsNoImageIo() {
+        DungeonTextures firstRun = DungeonTextures.shared(TILE);
+        if (!firstRun.isReady() || firstRun.floorVariant(0).getWidth() != TILE) {
+            throw new AssertionError("The first run should build textures at the requested tile size");
+        }
+        long builds = DungeonTextures.builds();
+        long decoded = ResourceLoader.decodedImages();
+        long walks = ResourceIndex.directoryWalks();
+        long version = DungeonTextures.contentVersion();
+
+        DungeonTextures secondRun = DungeonTextures.shared(TILE);
+        if (secondRun != firstRun) {
+            throw new AssertionError("A second run should reuse the textures of the first");
+        }
+        if (DungeonTextures.builds() != builds || ResourceLoader.decodedImages() != decoded
+                || ResourceIndex.directoryWalks() != walks) {
+            throw new AssertionError("A second run should not probe, decode or build any textures");
+        }
+        if (DungeonTextures.contentVersion() != version) {
+            throw new AssertionError("Unchanged assets should keep the same content version");
+        }
+    }
+
+    private static void tileSizesAreKeptApart() {
+        DungeonTextures normal = DungeonTextures.shared(TILE);
+        DungeonTextures large = DungeonTextures.shared(TILE * 2);
+        if (large == normal || large.floorVariant(0).getWidth() != TILE * 2) {
+            throw new AssertionError("Another tile size should get textures of its own");
+        }
+        if (DungeonTextures.shared(TILE) != normal || normal.floorVariant(0).getWidth() != TILE) {
+            throw new AssertionError("Building another size should leave the shared textures untouched");
+        }
+    }
+
+    private static void tilesAreIndexedAndTintedThroughTheirPalette() {
+        DungeonTextures textures = DungeonTextures.shared(TILE);
+        for (int i = 0; i < textures.floorVariants(); i++) {
+            if (textures.floorVariant(i).getType() != BufferedImage.TYPE_BYTE_INDEXED) {
+                throw new AssertionError("Floor variant " + i + " should be palette-indexed");
+            }
+        }
+        for (int i = 0; i < textures.wallVariants(); i++) {
+            if (textures.wallVariant(i).getType() != BufferedImage.TYPE_BYTE_INDEXED) {
+                throw new AssertionError("Wall variant " + i + " should be palette-indexed");
+            }
+        }
+
+        Color tint = new Color(90, 140, 200);
+        float alpha = 0.22f;
+        BufferedImage plain = textures.floorVariant(0);
+        BufferedImage tinted = textures.tintedFloorVariant(0, tint, alpha);
+        if (tinted == null || tinted.getRaster().getDataBuffer() != plain.getRaster().getDataBuffer()) {
+            throw new AssertionError("A tinted floor should be a palette view over the plain tile");
+        }
+        if (textures.tintedFloorVariant(0, tint, alpha) != tinted) {
+            throw new AssertionError("A tint should be built once per tile");
+        }
+        BufferedImage filled = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = filled.createGraphics();
+        g.drawImage(plain, 0, 0, null);
+        g.setComposite(AlphaComposite.SrcOver.derive(alpha));
+        g.setColor(tint);
+        g.fillRect(0, 0, TILE, TILE);
+        g.dispose();
+        for (int y = 0; y < TILE; y++) {
+            for (int x = 0; x < TILE; x++) {
+                int expected = filled.getRGB(x, y);
+                int actual = tinted.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    if (Math.abs(((expected >> shift) & 0xFF) - ((actual >> shift) & 0xFF)) > 1) {
+                        throw new AssertionError(String.format("Tinted pixel %d,%d expected %08X got %08X",
+                                x, y, expected, actual));
+                    }
+                }
+            }
+        }
+    }
+}